@@ -0,0 +1,124 @@
+package com.ontop.wallet.adapters;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.ontop.wallet.adapters.jpa.entities.IdempotentRequestRecord;
+import com.ontop.wallet.adapters.jpa.repository.IdempotentRequestRecordRepository;
+import com.ontop.wallet.domain.model.IdempotentRequest;
+import com.ontop.wallet.domain.service.IdempotentRequestRepository;
+import com.ontop.wallet.domain.valueobject.Money;
+import com.ontop.wallet.domain.valueobject.UserId;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.Assert;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Completed requests are cached per node until they expire, so replays are answered without a database
+ * round trip; the cache is bounded by {@code max-size}. Requests still in progress are never cached as
+ * they are about to change.
+ */
+@Slf4j
+@Component
+class IdempotentRequestRepositoryImpl implements IdempotentRequestRepository {
+    private static final int MAX_RESERVE_ATTEMPTS = 3;
+
+    private final IdempotentRequestRecordRepository idempotentRequestRecordRepository;
+    private final Cache<String, IdempotentRequest> completed;
+
+    IdempotentRequestRepositoryImpl(
+            IdempotentRequestRecordRepository idempotentRequestRecordRepository,
+            @Value("${ontop.idempotency.cache.max-size:10000}") long maxSize,
+            MeterRegistry meterRegistry
+    ) {
+        Assert.isTrue(maxSize > 0, "idempotency cache max size should be > 0");
+        this.idempotentRequestRecordRepository = idempotentRequestRecordRepository;
+        this.completed = Caffeine.newBuilder()
+                .expireAfter(new Expiry<String, IdempotentRequest>() {
+                    @Override
+                    public long expireAfterCreate(String key, IdempotentRequest request, long currentTime) {
+                        return Math.max(0, Duration.between(Instant.now(), request.expiresAt()).toNanos());
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, IdempotentRequest request, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, request, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, IdempotentRequest request, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, completed, "idempotentRequest");
+    }
+
+    @Override
+    public Optional<IdempotentRequest> reserve(String key, String holder, UserId userId, Money amount, Instant expiresAt) {
+        final IdempotentRequest cached = completed.getIfPresent(key);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        // the holder may release the key between a failed insert and the read, so the insert is retried
+        for (int attempt = 0; attempt < MAX_RESERVE_ATTEMPTS; attempt++) {
+            final Instant now = Instant.now();
+            if (tryInsert(key, holder, userId, amount, expiresAt, now)) {
+                return Optional.empty();
+            }
+            final Optional<IdempotentRequest> existing = idempotentRequestRecordRepository.findById(key)
+                    .map(IdempotentRequestRecord::toDomain)
+                    .filter(request -> request.expiresAt().isAfter(now));
+            if (existing.isPresent()) {
+                existing.filter(IdempotentRequest::isCompleted).ifPresent(request -> completed.put(key, request));
+                return existing;
+            }
+        }
+        throw new IllegalStateException("unable to reserve idempotency key after " + MAX_RESERVE_ATTEMPTS + " attempts");
+    }
+
+    @Override
+    @Transactional
+    public void complete(String key, String holder, int responseStatus, String responseLocation, String responseBody, Instant expiresAt) {
+        if (idempotentRequestRecordRepository.complete(key, holder, responseStatus, responseLocation, responseBody, expiresAt) == 0) {
+            log.warn("Idempotent response not stored, key no longer held by this request: key={}", key);
+        }
+    }
+
+    @Override
+    @Transactional
+    public void release(String key, String holder) {
+        if (idempotentRequestRecordRepository.deleteHeld(key, holder) == 0) {
+            log.warn("Idempotency key not released, no longer held by this request: key={}", key);
+        }
+    }
+
+    @Override
+    @Transactional
+    public int purgeExpired(Instant now) {
+        return idempotentRequestRecordRepository.deleteExpired(now);
+    }
+
+    private boolean tryInsert(String key, String holder, UserId userId, Money amount, Instant expiresAt, Instant now) {
+        // an expired key may not have been purged yet; it no longer holds the key
+        idempotentRequestRecordRepository.deleteIfExpired(key, now);
+        try {
+            idempotentRequestRecordRepository.insert(key, holder, userId.value(), amount.value(), expiresAt);
+            return true;
+        } catch (DataIntegrityViolationException ex) {
+            log.debug("Idempotency key already held: key={}", key);
+            return false;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.ontop.wallet.adapters;
+
+import com.ontop.wallet.adapters.jpa.entities.PaymentRetryRecord;
+import com.ontop.wallet.adapters.jpa.repository.PaymentRetryRecordRepository;
+import com.ontop.wallet.domain.model.PaymentRetry;
+import com.ontop.wallet.domain.model.Transfer;
+import com.ontop.wallet.domain.service.PaymentRetryRepository;
+import com.ontop.wallet.domain.valueobject.Id;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+@Slf4j
+@Component
+@AllArgsConstructor
+class PaymentRetryRepositoryImpl implements PaymentRetryRepository {
+    private final PaymentRetryRecordRepository paymentRetryRecordRepository;
+
+    @Override
+    public void enqueue(Id<Transfer> transferId, int retryCount, Instant dueAt) {
+        paymentRetryRecordRepository.save(PaymentRetryRecord.of(transferId.value(), retryCount, dueAt));
+        log.info("Payment retry enqueued: transferId={}, retryCount={}, dueAt={}", transferId.value(), retryCount, dueAt);
+    }
+
+    @Override
+    @Transactional
+    public List<PaymentRetry> claimDue(int limit, Duration lease) {
+        final Instant now = Instant.now();
+        final List<Long> ids = paymentRetryRecordRepository.findClaimableIds(now, PageRequest.of(0, limit));
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        final String claimToken = UUID.randomUUID().toString();
+        final int claimed = paymentRetryRecordRepository.claim(ids, claimToken, now.plus(lease), now);
+        log.debug("Claimed payment retries: candidates={}, claimed={}", ids.size(), claimed);
+        return paymentRetryRecordRepository.findByClaimedBy(claimToken).stream()
+                .map(PaymentRetryRecord::toDomain)
+                .toList();
+    }
+
+    @Override
+    @Transactional
+    public boolean renew(PaymentRetry retry, Duration lease) {
+        final Instant now = Instant.now();
+        return paymentRetryRecordRepository.renew(retry.id().value(), retry.claimedBy(), now.plus(lease), now) > 0;
+    }
+
+    @Override
+    @Transactional
+    public void complete(PaymentRetry retry) {
+        if (paymentRetryRecordRepository.deleteClaimed(retry.id().value(), retry.claimedBy()) == 0) {
+            log.warn("Payment retry not completed, claimed by another poller: retryId={}", retry.id().value());
+        }
+    }
+
+    @Override
+    @Transactional
+    public void release(PaymentRetry retry) {
+        paymentRetryRecordRepository.release(retry.id().value(), retry.claimedBy(), Instant.now());
+    }
+}
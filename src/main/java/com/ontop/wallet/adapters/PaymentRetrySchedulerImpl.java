@@ -0,0 +1,111 @@
+package com.ontop.wallet.adapters;
+
+import com.ontop.wallet.domain.service.PaymentRetryScheduler;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.util.Assert;
+
+import java.time.Duration;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Single shared scheduler for payment retries. The number of threads is fixed regardless of how
+ * many retries are pending, and retries beyond {@code max-pending} are rejected. The threads are
+ * virtual when {@code spring.threads.virtual.enabled} is set on Java 21 or later.
+ */
+@Slf4j
+@Component
+class PaymentRetrySchedulerImpl implements PaymentRetryScheduler {
+    private final ScheduledThreadPoolExecutor executor;
+    private final int schedulerThreads;
+    private final int maxPending;
+    private final AtomicInteger pending = new AtomicInteger();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Counter scheduledCounter;
+    private final Counter rejectedCounter;
+
+    PaymentRetrySchedulerImpl(
+            @Value("${ontop.payment.retry.scheduler-threads:2}") int schedulerThreads,
+            @Value("${ontop.payment.retry.max-pending:10000}") int maxPending,
+            MeterRegistry meterRegistry,
+            Environment environment
+    ) {
+        Assert.isTrue(schedulerThreads > 0, "retry scheduler threads should be > 0");
+        Assert.isTrue(maxPending > 0, "retry max pending should be > 0");
+        this.schedulerThreads = schedulerThreads;
+        this.maxPending = maxPending;
+        this.executor = new ScheduledThreadPoolExecutor(schedulerThreads, threadFactory(environment));
+        this.executor.setRemoveOnCancelPolicy(true);
+        Gauge.builder("payment.retry.pending", pending, AtomicInteger::get)
+                .description("payment retries waiting for their scheduled time")
+                .register(meterRegistry);
+        this.scheduledCounter = Counter.builder("payment.retry.scheduled").register(meterRegistry);
+        this.rejectedCounter = Counter.builder("payment.retry.rejected").register(meterRegistry);
+    }
+
+    @Override
+    public boolean schedule(Runnable retry, Duration delay) {
+        if (pending.incrementAndGet() > maxPending) {
+            pending.decrementAndGet();
+            rejectedCounter.increment();
+            log.warn("Payment retry rejected: pending={}, maxPending={}", pending.get(), maxPending);
+            return false;
+        }
+        inFlight.incrementAndGet();
+        try {
+            executor.schedule(() -> {
+                pending.decrementAndGet();
+                try {
+                    retry.run();
+                } finally {
+                    inFlight.decrementAndGet();
+                }
+            }, delay.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException ex) {
+            pending.decrementAndGet();
+            inFlight.decrementAndGet();
+            rejectedCounter.increment();
+            log.warn("Payment retry rejected, scheduler is shut down", ex);
+            return false;
+        }
+        scheduledCounter.increment();
+        return true;
+    }
+
+    /**
+     * Threads not taken by a retry that is scheduled, waiting or running.
+     */
+    @Override
+    public int available() {
+        return Math.max(0, schedulerThreads - inFlight.get());
+    }
+
+    private static ThreadFactory threadFactory(Environment environment) {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            return new VirtualThreadTaskExecutor("payment-retry-").getVirtualThreadFactory();
+        }
+        return new CustomizableThreadFactory("payment-retry-");
+    }
+
+    int pending() {
+        return pending.get();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,176 @@
+package com.ontop.wallet.adapters;
+
+import com.ontop.wallet.domain.service.LockService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.integration.jdbc.lock.LockRepository;
+import org.springframework.integration.util.UUIDConverter;
+import org.springframework.stereotype.Component;
+import org.springframework.util.Assert;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Two-tier {@link LockService}: a striped in-process lock table is consulted first, and the
+ * INT_LOCK row is only written once the local tier is won and cross-node exclusion is enabled.
+ * Requests contending on the same node are rejected without a database round trip.
+ */
+@Slf4j
+@Component
+class TieredLockServiceImpl implements LockService {
+    private static final long LOCK_POLL_INTERVAL_MS = 100;
+
+    private final LockRepository lockRepository;
+    private final boolean crossNodeEnabled;
+    private final List<Set<String>> stripes;
+
+    TieredLockServiceImpl(
+            LockRepository lockRepository,
+            @Value("${jdbc.lock.cross-node-enabled:true}") boolean crossNodeEnabled,
+            @Value("${jdbc.lock.local-stripes:64}") int localStripes
+    ) {
+        Assert.isTrue(localStripes > 0, "local lock stripes should be > 0");
+        this.lockRepository = lockRepository;
+        this.crossNodeEnabled = crossNodeEnabled;
+        this.stripes = new ArrayList<>(localStripes);
+        for (int i = 0; i < localStripes; i++) {
+            this.stripes.add(new HashSet<>());
+        }
+    }
+
+    @Override
+    public Lock getLock(String lockKey) {
+        return new TieredLock(lockKey);
+    }
+
+    private Set<String> stripeFor(String lockKey) {
+        final int hash = lockKey.hashCode();
+        return stripes.get(Math.floorMod(hash ^ (hash >>> 16), stripes.size()));
+    }
+
+    private boolean acquireLocal(String lockKey) {
+        final Set<String> stripe = stripeFor(lockKey);
+        synchronized (stripe) {
+            return stripe.add(lockKey);
+        }
+    }
+
+    private void releaseLocal(String lockKey) {
+        final Set<String> stripe = stripeFor(lockKey);
+        synchronized (stripe) {
+            stripe.remove(lockKey);
+        }
+    }
+
+    /**
+     * Ownership is tracked per lock instance rather than per thread, so a lock may be released
+     * from a different thread than the one that acquired it. The instance guard is a
+     * {@link ReentrantLock} rather than a monitor so that the JDBC round trip made while holding it
+     * does not pin a virtual thread to its carrier.
+     */
+    private final class TieredLock implements Lock {
+        private final String lockKey;
+        private final String path;
+        private final ReentrantLock guard = new ReentrantLock();
+        private boolean held;
+
+        private TieredLock(String lockKey) {
+            this.lockKey = lockKey;
+            this.path = UUIDConverter.getUUID(lockKey).toString();
+        }
+
+        @Override
+        public boolean tryLock() {
+            guard.lock();
+            try {
+                Assert.state(!held, "lock is already held: " + lockKey);
+                if (!acquireLocal(lockKey)) {
+                    log.debug("Lock is held by another process on this node: {}", lockKey);
+                    return false;
+                }
+                if (crossNodeEnabled) {
+                    try {
+                        if (!lockRepository.acquire(path)) {
+                            releaseLocal(lockKey);
+                            log.debug("Lock is held by another node: {}", lockKey);
+                            return false;
+                        }
+                    } catch (RuntimeException ex) {
+                        releaseLocal(lockKey);
+                        throw ex;
+                    }
+                }
+                held = true;
+                return true;
+            } finally {
+                guard.unlock();
+            }
+        }
+
+        @Override
+        public boolean tryLock(long time, TimeUnit unit) throws InterruptedException {
+            final long deadline = System.nanoTime() + unit.toNanos(time);
+            while (!tryLock()) {
+                if (System.nanoTime() >= deadline) {
+                    return false;
+                }
+                TimeUnit.MILLISECONDS.sleep(LOCK_POLL_INTERVAL_MS);
+            }
+            return true;
+        }
+
+        @Override
+        public void lockInterruptibly() throws InterruptedException {
+            while (!tryLock()) {
+                TimeUnit.MILLISECONDS.sleep(LOCK_POLL_INTERVAL_MS);
+            }
+        }
+
+        @Override
+        public void lock() {
+            boolean interrupted = false;
+            while (!tryLock()) {
+                try {
+                    TimeUnit.MILLISECONDS.sleep(LOCK_POLL_INTERVAL_MS);
+                } catch (InterruptedException ex) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        public void unlock() {
+            guard.lock();
+            try {
+                if (!held) {
+                    throw new IllegalMonitorStateException("lock is not held: " + lockKey);
+                }
+                try {
+                    if (crossNodeEnabled) {
+                        lockRepository.delete(path);
+                    }
+                } finally {
+                    held = false;
+                    releaseLocal(lockKey);
+                }
+            } finally {
+                guard.unlock();
+            }
+        }
+
+        @Override
+        public Condition newCondition() {
+            throw new UnsupportedOperationException("conditions are not supported by tiered locks");
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.ontop.wallet.adapters;
+
+import com.ontop.wallet.adapters.jpa.repository.TransactionHistoryRow;
+import com.ontop.wallet.adapters.jpa.repository.WalletTransactionArchiveRecordRepository;
+import com.ontop.wallet.adapters.jpa.repository.WalletTransactionRecordRepository;
+import com.ontop.wallet.domain.model.TransactionHistoryEntry;
+import com.ontop.wallet.domain.service.TransactionHistoryRepository;
+import com.ontop.wallet.domain.valueobject.HistoryCursor;
+import com.ontop.wallet.domain.valueobject.HistoryFilter;
+import com.ontop.wallet.domain.valueobject.UserId;
+import lombok.AllArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * History spans the hot wallet_transaction table and its archive; each is read with the same keyset
+ * seek and the two pages are merged.
+ */
+@Component
+@AllArgsConstructor
+class TransactionHistoryRepositoryImpl implements TransactionHistoryRepository {
+    private static final Instant OPEN_END = Instant.parse("9999-12-31T23:59:59Z");
+    private static final Comparator<TransactionHistoryRow> NEWEST_FIRST = Comparator
+            .comparing(TransactionHistoryRow::created)
+            .thenComparing(TransactionHistoryRow::id)
+            .reversed();
+
+    private final WalletTransactionRecordRepository walletTransactionRecordRepository;
+    private final WalletTransactionArchiveRecordRepository walletTransactionArchiveRecordRepository;
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<TransactionHistoryEntry> findHistory(UserId userId, HistoryFilter filter, HistoryCursor after, int limit) {
+        // the upper bound is always a concrete keyset position so the query never needs an "is null" branch on it
+        final HistoryCursor before;
+        if (after != null) {
+            before = after;
+        } else if (filter.endDate() != null) {
+            before = new HistoryCursor(filter.endDate(), Long.MIN_VALUE);
+        } else {
+            before = new HistoryCursor(OPEN_END, Long.MAX_VALUE);
+        }
+        final Instant startDate = filter.startDate() != null ? filter.startDate() : Instant.EPOCH;
+        final BigDecimal amount = filter.amount() != null ? filter.amount().value().abs() : null;
+        // hot rows are read before archived ones: a transfer archived in between then shows up in both
+        // reads and is dropped once, whereas the opposite order could miss it in both
+        final List<TransactionHistoryRow> hot = walletTransactionRecordRepository.findHistory(
+                userId.value(), before.created(), before.id(), startDate, amount, Limit.of(limit));
+        final List<TransactionHistoryRow> archived = walletTransactionArchiveRecordRepository.findHistory(
+                userId.value(), before.created(), before.id(), startDate, amount, Limit.of(limit));
+        if (archived.isEmpty()) {
+            return hot.stream().map(TransactionHistoryRow::toDomain).toList();
+        }
+        final Set<Long> seen = new HashSet<>();
+        return Stream.concat(hot.stream(), archived.stream())
+                .filter(row -> seen.add(row.id()))
+                .sorted(NEWEST_FIRST)
+                .limit(limit)
+                .map(TransactionHistoryRow::toDomain)
+                .toList();
+    }
+}
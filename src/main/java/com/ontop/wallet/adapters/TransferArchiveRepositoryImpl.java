@@ -0,0 +1,64 @@
+package com.ontop.wallet.adapters;
+
+import com.ontop.wallet.adapters.jpa.repository.PaymentArchiveRecordRepository;
+import com.ontop.wallet.adapters.jpa.repository.PaymentRecordRepository;
+import com.ontop.wallet.adapters.jpa.repository.TransferArchiveRecordRepository;
+import com.ontop.wallet.adapters.jpa.repository.TransferEventArchiveRecordRepository;
+import com.ontop.wallet.adapters.jpa.repository.TransferEventRecordRepository;
+import com.ontop.wallet.adapters.jpa.repository.TransferRecordRepository;
+import com.ontop.wallet.adapters.jpa.repository.WalletTransactionArchiveRecordRepository;
+import com.ontop.wallet.adapters.jpa.repository.WalletTransactionRecordRepository;
+import com.ontop.wallet.domain.enums.TransferStatus;
+import com.ontop.wallet.domain.service.TransferArchiveRepository;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Copies a batch into the archive tables with insert-select statements and deletes it from the hot
+ * tables in the same transaction, so every row is in exactly one of them once committed.
+ */
+@Slf4j
+@Component
+@AllArgsConstructor
+class TransferArchiveRepositoryImpl implements TransferArchiveRepository {
+    private final TransferRecordRepository transferRecordRepository;
+    private final PaymentRecordRepository paymentRecordRepository;
+    private final WalletTransactionRecordRepository walletTransactionRecordRepository;
+    private final TransferEventRecordRepository transferEventRecordRepository;
+    private final TransferArchiveRecordRepository transferArchiveRecordRepository;
+    private final PaymentArchiveRecordRepository paymentArchiveRecordRepository;
+    private final WalletTransactionArchiveRecordRepository walletTransactionArchiveRecordRepository;
+    private final TransferEventArchiveRecordRepository transferEventArchiveRecordRepository;
+
+    @Override
+    @Transactional
+    public int archiveTerminalTransfers(Instant updatedBefore, int limit) {
+        final List<Long> transferIds = transferRecordRepository.findIdsByStatusUpdatedBefore(
+                TransferStatus.TERMINAL, updatedBefore, Limit.of(limit));
+        if (transferIds.isEmpty()) {
+            return 0;
+        }
+        final int transfers = transferArchiveRecordRepository.copyFromTransfers(transferIds, Instant.now());
+        final int payments = paymentArchiveRecordRepository.copyFromPayments(transferIds);
+        final int walletTransactions = walletTransactionArchiveRecordRepository.copyFromWalletTransactions(transferIds);
+        final int events = transferEventArchiveRecordRepository.copyFromTransferEvents(transferIds);
+        paymentRecordRepository.deleteByTransferIds(transferIds);
+        walletTransactionRecordRepository.deleteByTransferIds(transferIds);
+        transferEventRecordRepository.deleteByTransferIds(transferIds);
+        final int deleted = transferRecordRepository.deleteByIdInAndStatusIn(transferIds, TransferStatus.TERMINAL);
+        if (deleted != transfers) {
+            // a terminal transfer is never written again, so this means the batch raced another writer
+            throw new IllegalStateException(String.format(
+                    "Archived %d transfers but deleted %d; rolling back the batch", transfers, deleted));
+        }
+        log.debug("Archived transfer batch: transfers={}, payments={}, walletTransactions={}, events={}",
+                transfers, payments, walletTransactions, events);
+        return transfers;
+    }
+}
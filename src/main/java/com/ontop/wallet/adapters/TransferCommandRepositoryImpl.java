@@ -0,0 +1,103 @@
+package com.ontop.wallet.adapters;
+
+import com.ontop.wallet.adapters.jpa.entities.TransferCommandRecord;
+import com.ontop.wallet.adapters.jpa.repository.TransferCommandRecordRepository;
+import com.ontop.wallet.domain.enums.TransferCommandStatus;
+import com.ontop.wallet.domain.model.Transfer;
+import com.ontop.wallet.domain.model.TransferCommand;
+import com.ontop.wallet.domain.service.TransferCommandRepository;
+import com.ontop.wallet.domain.valueobject.Id;
+import com.ontop.wallet.domain.valueobject.Money;
+import com.ontop.wallet.domain.valueobject.UserId;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Slf4j
+@Component
+@AllArgsConstructor
+class TransferCommandRepositoryImpl implements TransferCommandRepository {
+    private static final String UNKNOWN_OUTCOME = "UNKNOWN_OUTCOME";
+    private static final String UNKNOWN_OUTCOME_MESSAGE = "transfer was interrupted; the withdrawal may have been made";
+
+    private final TransferCommandRecordRepository transferCommandRecordRepository;
+
+    @Override
+    public TransferCommand enqueue(UserId userId, Money amount) {
+        return transferCommandRecordRepository.save(TransferCommandRecord.pending(userId.value(), amount.value())).toDomain();
+    }
+
+    @Override
+    @Transactional
+    public Optional<TransferCommand> findById(Id<TransferCommand> commandId) {
+        return transferCommandRecordRepository.findById(commandId.value()).map(TransferCommandRecord::toDomain);
+    }
+
+    @Override
+    @Transactional
+    public List<TransferCommand> claimNext(int limit, Duration lease) {
+        final Instant now = Instant.now();
+        final int expired = transferCommandRecordRepository.expireStarted(UNKNOWN_OUTCOME, UNKNOWN_OUTCOME_MESSAGE, now);
+        if (expired > 0) {
+            log.warn("Started transfer commands lost their worker, outcome unknown: count={}", expired);
+        }
+        final List<Long> ids = transferCommandRecordRepository.findClaimableIds(now, PageRequest.of(0, limit));
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        final String claimToken = UUID.randomUUID().toString();
+        final int claimed = transferCommandRecordRepository.claim(ids, claimToken, now.plus(lease), now);
+        log.debug("Claimed transfer commands: candidates={}, claimed={}", ids.size(), claimed);
+        return transferCommandRecordRepository.findByClaimedByOrderByCreatedAscIdAsc(claimToken).stream()
+                .map(TransferCommandRecord::toDomain)
+                .toList();
+    }
+
+    @Override
+    @Transactional
+    public boolean start(TransferCommand command, Duration lease) {
+        final Instant now = Instant.now();
+        return transferCommandRecordRepository.start(command.id().value(), command.claimedBy(), now.plus(lease), now) > 0;
+    }
+
+    @Override
+    @Transactional
+    public void complete(TransferCommand command, Id<Transfer> transferId) {
+        finish(command, TransferCommandStatus.COMPLETED, transferId.value(), null, null);
+    }
+
+    @Override
+    @Transactional
+    public void fail(TransferCommand command, String errorCode, String errorMessage) {
+        finish(command, TransferCommandStatus.FAILED, null, errorCode, errorMessage);
+    }
+
+    @Override
+    @Transactional
+    public void release(TransferCommand command) {
+        transferCommandRecordRepository.release(command.id().value(), command.claimedBy(), Instant.now());
+    }
+
+    @Override
+    @Transactional
+    public int purgeFinished(Instant updatedBefore) {
+        return transferCommandRecordRepository.deleteFinishedBefore(updatedBefore);
+    }
+
+    private void finish(TransferCommand command, TransferCommandStatus status, Long transferId, String errorCode, String errorMessage) {
+        final int finished = transferCommandRecordRepository.finish(
+                command.id().value(), command.claimedBy(), status, transferId, errorCode, errorMessage, Instant.now());
+        if (finished == 0) {
+            log.warn("Transfer command not finished, claimed by another worker: commandId={}, status={}", command.id().value(), status);
+        }
+    }
+}
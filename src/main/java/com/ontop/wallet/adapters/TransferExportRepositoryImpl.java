@@ -0,0 +1,92 @@
+package com.ontop.wallet.adapters;
+
+import com.ontop.wallet.adapters.jpa.entities.PaymentRecord;
+import com.ontop.wallet.adapters.jpa.entities.TransferRecord;
+import com.ontop.wallet.adapters.jpa.entities.WalletTransactionRecord;
+import com.ontop.wallet.adapters.jpa.repository.PaymentRecordRepository;
+import com.ontop.wallet.adapters.jpa.repository.TransferRecordRepository;
+import com.ontop.wallet.adapters.jpa.repository.WalletTransactionRecordRepository;
+import com.ontop.wallet.domain.model.Transfer;
+import com.ontop.wallet.domain.service.TransferExportRepository;
+import com.ontop.wallet.domain.valueobject.TransferExportFilter;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.Assert;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Transfers are read through a forward-only cursor and handed over in chunks of {@code chunk-size}: the
+ * wallet transactions and payments of a chunk are loaded with one query each, then the persistence
+ * context is cleared so memory stays bounded by the chunk regardless of how many rows match.
+ */
+@Component
+class TransferExportRepositoryImpl implements TransferExportRepository {
+    private final TransferRecordRepository transferRecordRepository;
+    private final WalletTransactionRecordRepository walletTransactionRecordRepository;
+    private final PaymentRecordRepository paymentRecordRepository;
+    private final EntityManager entityManager;
+    private final int chunkSize;
+
+    TransferExportRepositoryImpl(
+            TransferRecordRepository transferRecordRepository,
+            WalletTransactionRecordRepository walletTransactionRecordRepository,
+            PaymentRecordRepository paymentRecordRepository,
+            EntityManager entityManager,
+            @Value("${ontop.export.chunk-size:500}") int chunkSize
+    ) {
+        Assert.isTrue(chunkSize > 0, "export chunk size should be > 0");
+        this.transferRecordRepository = transferRecordRepository;
+        this.walletTransactionRecordRepository = walletTransactionRecordRepository;
+        this.paymentRecordRepository = paymentRecordRepository;
+        this.entityManager = entityManager;
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long exportTransfers(TransferExportFilter filter, Consumer<Transfer> consumer) {
+        long count = 0;
+        final List<TransferRecord> chunk = new ArrayList<>(chunkSize);
+        try (Stream<TransferRecord> transfers = transferRecordRepository.streamForExport(
+                filter.startDate(), filter.endDate(), filter.statuses())) {
+            final Iterator<TransferRecord> iterator = transfers.iterator();
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() == chunkSize) {
+                    count += exportChunk(chunk, consumer);
+                }
+            }
+        }
+        return chunk.isEmpty() ? count : count + exportChunk(chunk, consumer);
+    }
+
+    private int exportChunk(List<TransferRecord> chunk, Consumer<Transfer> consumer) {
+        final List<Long> transferIds = chunk.stream().map(TransferRecord::id).toList();
+        final Map<Long, List<WalletTransactionRecord>> walletTransactions = walletTransactionRecordRepository
+                .findByTransferIds(transferIds).stream()
+                .collect(Collectors.groupingBy(wt -> wt.transfer().id()));
+        final Map<Long, List<PaymentRecord>> payments = paymentRecordRepository
+                .findByTransferIds(transferIds).stream()
+                .collect(Collectors.groupingBy(p -> p.transfer().id()));
+        for (final TransferRecord record : chunk) {
+            consumer.accept(record.toDomain(
+                    walletTransactions.getOrDefault(record.id(), List.of()),
+                    payments.getOrDefault(record.id(), List.of())
+            ));
+        }
+        final int exported = chunk.size();
+        chunk.clear();
+        // the cursor stays open; only the entities already handed over are detached
+        entityManager.clear();
+        return exported;
+    }
+}
@@ -1,36 +1,170 @@
 package com.ontop.wallet.adapters;
 
+import com.ontop.wallet.adapters.jpa.entities.PaymentRecord;
+import com.ontop.wallet.adapters.jpa.entities.PaymentRetryRecord;
+import com.ontop.wallet.adapters.jpa.entities.TransferEventRecord;
 import com.ontop.wallet.adapters.jpa.entities.TransferRecord;
+import com.ontop.wallet.adapters.jpa.entities.WalletTransactionRecord;
+import com.ontop.wallet.adapters.jpa.repository.PaymentRecordRepository;
+import com.ontop.wallet.adapters.jpa.repository.PaymentRetryRecordRepository;
+import com.ontop.wallet.adapters.jpa.repository.TransferEventRecordRepository;
 import com.ontop.wallet.adapters.jpa.repository.TransferRecordRepository;
+import com.ontop.wallet.adapters.jpa.repository.WalletTransactionRecordRepository;
+import com.ontop.wallet.domain.enums.TransferEventType;
+import com.ontop.wallet.domain.enums.TransferStatus;
+import com.ontop.wallet.domain.exceptions.TransferConflictException;
 import com.ontop.wallet.domain.exceptions.TransferNotFoundException;
+import com.ontop.wallet.domain.model.Payment;
 import com.ontop.wallet.domain.model.Transfer;
+import com.ontop.wallet.domain.model.TransferEvent;
+import com.ontop.wallet.domain.model.TransferSummary;
+import com.ontop.wallet.domain.model.WalletTransaction;
 import com.ontop.wallet.domain.service.TransferRepository;
 import com.ontop.wallet.domain.valueobject.Id;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.Assert;
+
+import java.time.Instant;
+import java.util.List;
 
 @Slf4j
 @Component
 @AllArgsConstructor
 class TransferRepositoryImpl implements TransferRepository {
     private final static String TRANSFER_NOT_FOUND = "Transfer with id=%d not found";
+    private final static String TRANSFER_CONFLICT = "Transfer with id=%d was changed after version=%d was read";
 
     private final TransferRecordRepository transferRecordRepository;
+    private final PaymentRecordRepository paymentRecordRepository;
+    private final PaymentRetryRecordRepository paymentRetryRecordRepository;
+    private final WalletTransactionRecordRepository walletTransactionRecordRepository;
+    private final TransferEventRecordRepository transferEventRecordRepository;
+    private final UserTransferSummaryRepositoryImpl userTransferSummaryRepository;
 
     @Override
+    @Transactional
     public Transfer save(Transfer transfer) {
         TransferRecord transferRecord = transferRecordRepository.saveAndFlush(TransferRecord.of(transfer));
-        return transferRecord.toDomain();
+        final Transfer saved = transferRecord.toDomain();
+        if (transfer.id() == null) {
+            appendEvent(transferRecord.id(), transferRecord.version(), TransferEventType.INITIALIZED, transferRecord.status(), null);
+            userTransferSummaryRepository.transferCreated(saved);
+        }
+        return saved;
+    }
+
+    @Override
+    @Transactional
+    public List<Transfer> saveAll(List<Transfer> transfers) {
+        Assert.isTrue(transfers.stream().allMatch(transfer -> transfer.id() == null), "only new transfers may be saved in a batch");
+        final List<TransferRecord> transferRecords = transferRecordRepository.saveAll(transfers.stream().map(TransferRecord::of).toList());
+        transferRecordRepository.flush();
+        transferEventRecordRepository.saveAll(transferRecords.stream()
+                .map(record -> TransferEventRecord.of(record.id(), record.version(), TransferEventType.INITIALIZED, record.status(), null))
+                .toList());
+        final List<Transfer> saved = transferRecords.stream().map(TransferRecord::toDomain).toList();
+        userTransferSummaryRepository.transfersCreated(saved);
+        return saved;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Transfer findById(Id<Transfer> transferId) throws TransferNotFoundException {
-        TransferRecord transferRecord = transferRecordRepository.findById(transferId.value()).orElseThrow( () -> {
-            final String message = String.format(TRANSFER_NOT_FOUND, transferId.value());
-            log.error(message);
-            return new TransferNotFoundException(message);
-        });
+        TransferRecord transferRecord = transferRecordRepository.findWithProcessingGraphById(transferId.value())
+                .orElseThrow(() -> transferNotFound(transferId));
         return transferRecord.toDomain();
     }
+
+    @Override
+    @Transactional
+    public Transfer findForProcessing(Id<Transfer> transferId) throws TransferNotFoundException {
+        TransferRecord transferRecord = transferRecordRepository.findWithProcessingGraphById(transferId.value())
+                .orElseThrow(() -> transferNotFound(transferId));
+        return transferRecord.toDomain(paymentRecordRepository.findByTransferIdAndIsCurrentTrue(transferId.value()));
+    }
+
+    @Override
+    @Transactional
+    public TransferSummary findSummaryById(Id<Transfer> transferId) throws TransferNotFoundException {
+        return transferRecordRepository.findSummaryById(transferId.value())
+                .orElseThrow(() -> transferNotFound(transferId))
+                .toDomain();
+    }
+
+    @Override
+    @Transactional
+    public void recordTransition(Transfer transfer, TransferEventType event) throws TransferConflictException {
+        transition(transfer, transfer.status(), event, null);
+    }
+
+    @Override
+    @Transactional
+    public void recordRetryScheduled(Transfer transfer, int retryCount, Instant dueAt) throws TransferConflictException {
+        transition(transfer, transfer.status(), TransferEventType.PAYMENT_RETRY_SCHEDULED, null);
+        paymentRetryRecordRepository.saveAndFlush(PaymentRetryRecord.of(transfer.id().value(), retryCount, dueAt));
+        log.info("Payment retry enqueued: transferId={}, retryCount={}, dueAt={}", transfer.id().value(), retryCount, dueAt);
+    }
+
+    @Override
+    @Transactional
+    public void appendPayment(Transfer transfer, Payment payment) throws TransferConflictException {
+        final Instant now = Instant.now();
+        checkNotConflicting(transfer, transferRecordRepository.advanceVersion(transfer.id().value(), transfer.version(), now));
+        paymentRecordRepository.clearCurrent(transfer.id().value(), now);
+        paymentRecordRepository.save(PaymentRecord.of(payment, transferRecordRepository.getReferenceById(transfer.id().value())));
+        transfer.advanceVersion();
+        appendEvent(transfer.id().value(), transfer.version(), TransferEventType.paymentAttempt(payment), transfer.status(),
+                payment.transactionId().value().toString());
+    }
+
+    @Override
+    @Transactional
+    public void recordReversal(Transfer transfer, WalletTransaction refund) throws TransferConflictException {
+        // the transfer was already moved to REVERSED in memory; only a transfer whose reversal was claimed may be reversed
+        transition(transfer, TransferStatus.REVERSING, TransferEventType.REVERSED, refund.walletTransactionId().value().toString());
+        walletTransactionRecordRepository.save(WalletTransactionRecord.of(refund, transferRecordRepository.getReferenceById(transfer.id().value())));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<TransferEvent> findEvents(Id<Transfer> transferId) {
+        return transferEventRecordRepository.findByTransferIdOrderBySequence(transferId.value()).stream()
+                .map(TransferEventRecord::toDomain)
+                .toList();
+    }
+
+    private void transition(Transfer transfer, TransferStatus from, TransferEventType event, String detail)
+            throws TransferConflictException {
+        Assert.isTrue(event.changesStatus(), () -> "event=" + event + " does not change the transfer status");
+        final int updated = transferRecordRepository.updateStatus(transfer.id().value(), transfer.version(), event.status(), Instant.now());
+        checkNotConflicting(transfer, updated);
+        transfer.advanceVersion();
+        appendEvent(transfer.id().value(), transfer.version(), event, event.status(), detail);
+        userTransferSummaryRepository.transferTransitioned(transfer, from, event.status());
+    }
+
+    /**
+     * The event takes the version the write produced as its sequence, so the journal has exactly one
+     * event per transfer version.
+     */
+    private void appendEvent(Long transferId, Long sequence, TransferEventType type, TransferStatus status, String detail) {
+        transferEventRecordRepository.save(TransferEventRecord.of(transferId, sequence, type, status, detail));
+    }
+
+    private TransferNotFoundException transferNotFound(Id<Transfer> transferId) {
+        final String message = String.format(TRANSFER_NOT_FOUND, transferId.value());
+        log.error(message);
+        return new TransferNotFoundException(message);
+    }
+
+    private void checkNotConflicting(Transfer transfer, int updated) throws TransferConflictException {
+        if (updated == 0) {
+            final String message = String.format(TRANSFER_CONFLICT, transfer.id().value(), transfer.version());
+            log.warn(message);
+            throw new TransferConflictException(message);
+        }
+    }
 }
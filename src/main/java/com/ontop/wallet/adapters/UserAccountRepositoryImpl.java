@@ -1,25 +1,169 @@
 package com.ontop.wallet.adapters;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.ontop.wallet.adapters.jpa.entities.AccountChangeRecord;
 import com.ontop.wallet.adapters.jpa.entities.AccountRecord;
+import com.ontop.wallet.adapters.jpa.repository.AccountChangeRecordRepository;
 import com.ontop.wallet.adapters.jpa.repository.AccountRecordRepository;
 import com.ontop.wallet.domain.exceptions.AccountNotFoundException;
 import com.ontop.wallet.domain.model.UserAccount;
 import com.ontop.wallet.domain.service.UserAccountRepository;
 import com.ontop.wallet.domain.valueobject.UserId;
-import lombok.AllArgsConstructor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.Assert;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * User accounts are cached per node. A change is recorded in the account_change table, which every
+ * node polls to drop the accounts changed since. Each poll looks back over {@code change-window-ms} to
+ * tolerate clock skew and late commits; changes already applied are skipped. The TTL bounds staleness
+ * if polling falls behind the window.
+ */
 @Slf4j
 @Component
-@AllArgsConstructor
 class UserAccountRepositoryImpl implements UserAccountRepository {
     private final static String USER_ACCOUNT_NOT_FOUND = "account for user=%d not found";
 
     private final AccountRecordRepository accountRecordRepository;
+    private final AccountChangeRecordRepository accountChangeRecordRepository;
+    private final SingleFlight<UserId, UserAccount> userAccountLookups;
+    private final Cache<UserId, UserAccount> cache;
+    private final Duration changeWindow;
+    private final Duration changeRetention;
+    private final Map<Long, Instant> appliedChanges = new ConcurrentHashMap<>();
+    private final AtomicLong invalidations = new AtomicLong();
+    private final Counter localInvalidations;
+    private final Counter remoteInvalidations;
+
+    UserAccountRepositoryImpl(
+            AccountRecordRepository accountRecordRepository,
+            AccountChangeRecordRepository accountChangeRecordRepository,
+            @Value("${ontop.user-account.cache.ttl-seconds:300}") long ttlSeconds,
+            @Value("${ontop.user-account.cache.max-size:10000}") long maxSize,
+            @Value("${ontop.user-account.cache.change-window-ms:60000}") long changeWindowMs,
+            @Value("${ontop.user-account.cache.change-retention-hours:24}") long changeRetentionHours,
+            MeterRegistry meterRegistry
+    ) {
+        Assert.isTrue(ttlSeconds > 0, "user account cache ttl should be > 0");
+        Assert.isTrue(maxSize > 0, "user account cache max size should be > 0");
+        Assert.isTrue(Duration.ofHours(changeRetentionHours).toMillis() > changeWindowMs,
+                "account change retention should be longer than the change window");
+        this.accountRecordRepository = accountRecordRepository;
+        this.accountChangeRecordRepository = accountChangeRecordRepository;
+        this.userAccountLookups = new SingleFlight<>("userAccount", meterRegistry);
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "userAccount");
+        this.changeWindow = Duration.ofMillis(changeWindowMs);
+        this.changeRetention = Duration.ofHours(changeRetentionHours);
+        this.localInvalidations = invalidationCounter("local", meterRegistry);
+        this.remoteInvalidations = invalidationCounter("remote", meterRegistry);
+    }
 
     @Override
     public UserAccount getUserAccount(UserId userId) throws AccountNotFoundException {
+        final UserAccount cached = cache.getIfPresent(userId);
+        if (cached != null) {
+            return cached;
+        }
+        return userAccountLookups.execute(userId, () -> {
+            // an invalidation racing the lookup may have been for the row just read, so it is not cached
+            final long generation = invalidations.get();
+            final UserAccount userAccount = findUserAccount(userId);
+            if (invalidations.get() == generation) {
+                cache.put(userId, userAccount);
+            }
+            return userAccount;
+        });
+    }
+
+    /**
+     * Cached accounts are served from the cache; the others are read with one query.
+     */
+    @Override
+    public Map<UserId, UserAccount> getUserAccounts(Collection<UserId> userIds) {
+        final Map<UserId, UserAccount> userAccounts = new HashMap<>(cache.getAllPresent(userIds));
+        final List<Long> missing = userIds.stream()
+                .filter(userId -> !userAccounts.containsKey(userId))
+                .map(UserId::value)
+                .toList();
+        if (missing.isEmpty()) {
+            return userAccounts;
+        }
+        final long generation = invalidations.get();
+        final List<UserAccount> found = accountRecordRepository.findByUserIdIn(missing).stream()
+                .map(AccountRecord::toDomain)
+                .toList();
+        for (final UserAccount userAccount : found) {
+            userAccounts.put(userAccount.userId(), userAccount);
+        }
+        if (invalidations.get() == generation) {
+            found.forEach(userAccount -> cache.put(userAccount.userId(), userAccount));
+        }
+        return userAccounts;
+    }
+
+    @Override
+    public void accountChanged(UserId userId) {
+        final AccountChangeRecord change = accountChangeRecordRepository.save(AccountChangeRecord.of(userId.value()));
+        appliedChanges.put(change.id(), change.created());
+        invalidate(userId);
+        localInvalidations.increment();
+        log.info("User account change recorded: userId={}, changeId={}", userId.value(), change.id());
+    }
+
+    @Scheduled(fixedDelayString = "${ontop.user-account.cache.change-poll-interval-ms:5000}")
+    public void pollAccountChanges() {
+        final Instant since = Instant.now().minus(changeWindow);
+        final List<AccountChangeRecord> changes;
+        try {
+            changes = accountChangeRecordRepository.findByCreatedGreaterThanEqual(since);
+        } catch (Exception ex) {
+            log.error("Polling user account changes failed", ex);
+            return;
+        }
+        for (final AccountChangeRecord change : changes) {
+            if (appliedChanges.putIfAbsent(change.id(), change.created()) == null) {
+                invalidate(new UserId(change.userId()));
+                remoteInvalidations.increment();
+                log.debug("User account invalidated by change: userId={}, changeId={}", change.userId(), change.id());
+            }
+        }
+        appliedChanges.values().removeIf(created -> created.isBefore(since));
+    }
+
+    @Transactional
+    @Scheduled(fixedDelayString = "${ontop.user-account.cache.change-cleanup-interval-ms:3600000}")
+    public void purgeAccountChanges() {
+        final int purged = accountChangeRecordRepository.deleteCreatedBefore(Instant.now().minus(changeRetention));
+        log.debug("Purged user account changes: count={}", purged);
+    }
+
+    private void invalidate(UserId userId) {
+        invalidations.incrementAndGet();
+        cache.invalidate(userId);
+    }
+
+    private UserAccount findUserAccount(UserId userId) throws AccountNotFoundException {
         AccountRecord accountRecord = accountRecordRepository.findByUserId(userId.value()).orElseThrow(() -> {
             final String message = String.format(USER_ACCOUNT_NOT_FOUND, userId.value());
             log.error(message);
@@ -27,4 +171,11 @@ class UserAccountRepositoryImpl implements UserAccountRepository {
         });
         return accountRecord.toDomain();
     }
+
+    private static Counter invalidationCounter(String source, MeterRegistry meterRegistry) {
+        return Counter.builder("user.account.cache.invalidations")
+                .description("user account cache entries dropped because the account changed")
+                .tag("source", source)
+                .register(meterRegistry);
+    }
 }
@@ -0,0 +1,73 @@
+package com.ontop.wallet.adapters;
+
+import com.ontop.wallet.adapters.jpa.entities.UserTransferSummaryRecord;
+import com.ontop.wallet.adapters.jpa.repository.UserTransferSummaryRecordRepository;
+import com.ontop.wallet.domain.enums.TransferStatus;
+import com.ontop.wallet.domain.model.Transfer;
+import com.ontop.wallet.domain.model.UserTransferSummary;
+import com.ontop.wallet.domain.service.UserTransferSummaryRepository;
+import com.ontop.wallet.domain.valueobject.UserId;
+import lombok.AllArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * The projection is written by {@link TransferRepositoryImpl} inside the transaction of the transfer
+ * write it reflects, so it commits or rolls back with it. The user's row is locked for the update;
+ * it is created with the user's first transfer, which is saved under the user's lock.
+ */
+@Component
+@AllArgsConstructor
+class UserTransferSummaryRepositoryImpl implements UserTransferSummaryRepository {
+    private final UserTransferSummaryRecordRepository userTransferSummaryRecordRepository;
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<UserTransferSummary> findByUserId(UserId userId) {
+        return userTransferSummaryRecordRepository.findById(userId.value()).map(UserTransferSummaryRecord::toDomain);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    void transferCreated(Transfer transfer) {
+        final UserId userId = transfer.targetAccount().userId();
+        final UserTransferSummaryRecord record = userTransferSummaryRecordRepository.findForUpdate(userId.value())
+                .orElseGet(() -> new UserTransferSummaryRecord().apply(UserTransferSummary.empty(userId)));
+        final UserTransferSummary summary = record.toDomain();
+        summary.recordCreated(transfer);
+        userTransferSummaryRecordRepository.save(record.apply(summary));
+    }
+
+    /**
+     * Applies each user's transfers to their row at once. Rows are locked in user id order, so that
+     * concurrent batches cannot deadlock.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    void transfersCreated(List<Transfer> transfers) {
+        final Map<Long, List<Transfer>> transfersByUser = transfers.stream()
+                .collect(Collectors.groupingBy(transfer -> transfer.targetAccount().userId().value(), TreeMap::new, Collectors.toList()));
+        transfersByUser.forEach((userId, created) -> {
+            final UserTransferSummaryRecord record = userTransferSummaryRecordRepository.findForUpdate(userId)
+                    .orElseGet(() -> new UserTransferSummaryRecord().apply(UserTransferSummary.empty(new UserId(userId))));
+            final UserTransferSummary summary = record.toDomain();
+            created.forEach(summary::recordCreated);
+            userTransferSummaryRecordRepository.save(record.apply(summary));
+        });
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    void transferTransitioned(Transfer transfer, TransferStatus from, TransferStatus to) {
+        final UserId userId = transfer.targetAccount().userId();
+        final UserTransferSummaryRecord record = userTransferSummaryRecordRepository.findForUpdate(userId.value())
+                .orElseThrow(() -> new IllegalStateException("no transfer summary for user=" + userId.value()));
+        final UserTransferSummary summary = record.toDomain();
+        summary.recordTransition(transfer, from, to);
+        userTransferSummaryRecordRepository.save(record.apply(summary));
+    }
+}
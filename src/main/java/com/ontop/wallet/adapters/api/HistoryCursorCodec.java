@@ -0,0 +1,41 @@
+package com.ontop.wallet.adapters.api;
+
+import com.ontop.wallet.domain.exceptions.TransactionException;
+import com.ontop.wallet.domain.valueobject.HistoryCursor;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Encodes history cursors as opaque url-safe tokens, so clients do not depend on their contents.
+ */
+final class HistoryCursorCodec {
+    private static final String SEPARATOR = ":";
+
+    private HistoryCursorCodec() {
+    }
+
+    static String encode(HistoryCursor cursor) {
+        if (cursor == null) {
+            return null;
+        }
+        final String value = cursor.created().getEpochSecond() + SEPARATOR + cursor.created().getNano() + SEPARATOR + cursor.id();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static HistoryCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            final String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split(SEPARATOR);
+            return new HistoryCursor(
+                    Instant.ofEpochSecond(Long.parseLong(parts[0]), Long.parseLong(parts[1])),
+                    Long.parseLong(parts[2])
+            );
+        } catch (RuntimeException ex) {
+            throw new TransactionException("INVALID_CURSOR", "cursor is not valid");
+        }
+    }
+}
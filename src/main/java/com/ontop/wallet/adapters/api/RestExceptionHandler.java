@@ -3,16 +3,22 @@ package com.ontop.wallet.adapters.api;
 import com.fasterxml.jackson.databind.exc.UnrecognizedPropertyException;
 import com.ontop.wallet.adapters.clients.WalletClientException;
 import com.ontop.wallet.domain.exceptions.AccountNotFoundException;
+import com.ontop.wallet.domain.exceptions.IdempotencyKeyInUseException;
+import com.ontop.wallet.domain.exceptions.IdempotencyKeyReusedException;
 import com.ontop.wallet.domain.exceptions.ResourceLockedException;
 import com.ontop.wallet.domain.exceptions.TransactionException;
+import com.ontop.wallet.domain.exceptions.TransferCommandNotFoundException;
+import com.ontop.wallet.domain.exceptions.TransferNotFoundException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.bind.MissingServletRequestParameterException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
 import java.util.stream.Collectors;
 
@@ -25,12 +31,36 @@ public class RestExceptionHandler {
         return new ResponseEntity<>(apiError, HttpStatus.NOT_FOUND);
     }
 
+    @ExceptionHandler(TransferCommandNotFoundException.class)
+    public ResponseEntity<ApiError> handleTransferCommandNotFoundException(final TransferCommandNotFoundException exception) {
+        final ApiError apiError = new ApiError("COMMAND_NOT_FOUND", "no transfer command found");
+        return new ResponseEntity<>(apiError, HttpStatus.NOT_FOUND);
+    }
+
+    @ExceptionHandler(TransferNotFoundException.class)
+    public ResponseEntity<ApiError> handleTransferNotFoundException(final TransferNotFoundException exception) {
+        final ApiError apiError = new ApiError("TRANSFER_NOT_FOUND", "no transfer found");
+        return new ResponseEntity<>(apiError, HttpStatus.NOT_FOUND);
+    }
+
     @ExceptionHandler(ResourceLockedException.class)
     public ResponseEntity<ApiError> handleResourceLockedException(final ResourceLockedException exception) {
         final ApiError apiError = new ApiError("RESOURCE_LOCKED", "user resource is locked by another process");
         return new ResponseEntity<>(apiError, HttpStatus.LOCKED);
     }
 
+    @ExceptionHandler(IdempotencyKeyInUseException.class)
+    public ResponseEntity<ApiError> handleIdempotencyKeyInUseException(final IdempotencyKeyInUseException exception) {
+        final ApiError apiError = new ApiError("IDEMPOTENCY_KEY_IN_USE", exception.message());
+        return new ResponseEntity<>(apiError, HttpStatus.CONFLICT);
+    }
+
+    @ExceptionHandler(IdempotencyKeyReusedException.class)
+    public ResponseEntity<ApiError> handleIdempotencyKeyReusedException(final IdempotencyKeyReusedException exception) {
+        final ApiError apiError = new ApiError("IDEMPOTENCY_KEY_REUSED", exception.message());
+        return new ResponseEntity<>(apiError, HttpStatus.UNPROCESSABLE_ENTITY);
+    }
+
     @ExceptionHandler(TransactionException.class)
     public ResponseEntity<ApiError> handleTransactionException(final TransactionException exception) {
         final ApiError apiError = new ApiError(exception.code(), exception.message());
@@ -52,6 +82,12 @@ public class RestExceptionHandler {
         return new ResponseEntity<>(apiError, HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler({ MissingServletRequestParameterException.class, MethodArgumentTypeMismatchException.class })
+    public ResponseEntity<ApiError> handleInvalidRequestParameter(final Exception exception) {
+        final ApiError apiError = new ApiError("INVALID_REQUEST", exception.getMessage());
+        return new ResponseEntity<>(apiError, HttpStatus.BAD_REQUEST);
+    }
+
     @ExceptionHandler(UnrecognizedPropertyException.class)
     public ResponseEntity<ApiError> handleJsonUnrecognizedPropertyException(final UnrecognizedPropertyException exception) {
         final ApiError apiError = new ApiError("INVALID_REQUEST", exception.getMessage());
@@ -0,0 +1,11 @@
+package com.ontop.wallet.adapters.api;
+
+import java.util.List;
+
+/**
+ * @param nextCursor pass as {@code cursor} to fetch the next page; null on the last page
+ */
+public record TransactionHistoryResponse(
+        List<TransactionResponse> transactions,
+        String nextCursor
+) { }
@@ -1,6 +1,8 @@
 package com.ontop.wallet.adapters.api;
 
+import com.ontop.wallet.domain.enums.TransferStatus;
 import com.ontop.wallet.domain.enums.WalletTransactionOperation;
+import com.ontop.wallet.domain.model.TransactionHistoryEntry;
 import com.ontop.wallet.domain.model.WalletTransaction;
 
 import java.math.BigDecimal;
@@ -18,6 +20,31 @@ public record TransactionResponse(
         PROCESSING, FAILED, COMPLETED
     }
 
+    static TransactionResponse of(TransactionHistoryEntry entry) {
+        return new TransactionResponse(
+                entry.id().value(),
+                entry.userId().value(),
+                entry.amount().value(),
+                entry.created(),
+                entry.operation(),
+                statusOf(entry.operation(), entry.transferStatus())
+        );
+    }
+
+    /**
+     * A refund only exists once it succeeded; a withdrawal follows the status of its transfer.
+     */
+    static TransactionStatus statusOf(WalletTransactionOperation operation, TransferStatus transferStatus) {
+        if (WalletTransactionOperation.REFUND == operation) {
+            return TransactionStatus.COMPLETED;
+        }
+        return switch (transferStatus) {
+            case INITIALIZED, PAYMENT_IN_FLIGHT, PROCESSING, UNKNOWN -> TransactionStatus.PROCESSING;
+            case FAILED, REVERSING, REVERSED -> TransactionStatus.FAILED;
+            case SUCCESSFUL -> TransactionStatus.COMPLETED;
+        };
+    }
+
     static TransactionResponse of(TransactionStatus status, WalletTransaction transaction) {
         return new TransactionResponse(
                 transaction.id().value(),
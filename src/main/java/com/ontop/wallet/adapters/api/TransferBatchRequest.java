@@ -0,0 +1,14 @@
+package com.ontop.wallet.adapters.api;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.List;
+
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record TransferBatchRequest(
+        @NotEmpty(message = "transfers should not be empty")
+        List<@Valid @NotNull(message = "transfer should not be null") TransferRequest> transfers
+) { }
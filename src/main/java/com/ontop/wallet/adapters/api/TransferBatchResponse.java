@@ -0,0 +1,37 @@
+package com.ontop.wallet.adapters.api;
+
+import com.ontop.wallet.domain.model.TransferBatchResult;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static com.ontop.wallet.adapters.api.TransactionResponse.TransactionStatus.PROCESSING;
+
+/**
+ * @param results one per requested transfer, in request order
+ */
+public record TransferBatchResponse(int initialised, int failed, List<Item> results) {
+    enum ItemStatus {
+        INITIALISED, FAILED
+    }
+
+    /**
+     * @param transaction the withdrawal, set once INITIALISED
+     * @param error set once FAILED; the error the transfer would have failed with on its own
+     */
+    public record Item(Long userId, BigDecimal amount, ItemStatus status, TransactionResponse transaction, ApiError error) {
+        static Item of(TransferBatchResult result) {
+            if (result.isInitialised()) {
+                return new Item(result.item().userId().value(), result.item().amount().value(), ItemStatus.INITIALISED,
+                        TransactionResponse.of(PROCESSING, result.transfer().getWithdrawal()), null);
+            }
+            return new Item(result.item().userId().value(), result.item().amount().value(), ItemStatus.FAILED,
+                    null, new ApiError(result.errorCode(), result.errorMessage()));
+        }
+    }
+
+    static TransferBatchResponse of(List<TransferBatchResult> results) {
+        final int initialised = (int) results.stream().filter(TransferBatchResult::isInitialised).count();
+        return new TransferBatchResponse(initialised, results.size() - initialised, results.stream().map(Item::of).toList());
+    }
+}
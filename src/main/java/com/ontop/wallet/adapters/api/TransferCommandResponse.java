@@ -0,0 +1,35 @@
+package com.ontop.wallet.adapters.api;
+
+import com.ontop.wallet.domain.enums.TransferCommandStatus;
+import com.ontop.wallet.domain.model.TransferCommand;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * @param transferId set once the command is COMPLETED
+ * @param error set once the command is FAILED or UNKNOWN; the error the synchronous request would have answered with
+ */
+public record TransferCommandResponse(
+        Long commandId,
+        Long userId,
+        BigDecimal amount,
+        TransferCommandStatus status,
+        Long transferId,
+        ApiError error,
+        Instant created,
+        Instant updated
+) {
+    static TransferCommandResponse of(TransferCommand command) {
+        return new TransferCommandResponse(
+                command.id().value(),
+                command.userId().value(),
+                command.amount().value(),
+                command.status(),
+                command.transferId() == null ? null : command.transferId().value(),
+                command.errorCode() == null ? null : new ApiError(command.errorCode(), command.errorMessage()),
+                command.created(),
+                command.updated()
+        );
+    }
+}
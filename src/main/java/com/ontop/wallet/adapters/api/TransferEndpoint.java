@@ -1,24 +1,143 @@
 package com.ontop.wallet.adapters.api;
 
+import com.ontop.wallet.domain.enums.TransferStatus;
 import com.ontop.wallet.domain.exceptions.AccountNotFoundException;
+import com.ontop.wallet.domain.exceptions.IdempotencyKeyInUseException;
+import com.ontop.wallet.domain.exceptions.IdempotencyKeyReusedException;
 import com.ontop.wallet.domain.exceptions.ResourceLockedException;
+import com.ontop.wallet.domain.exceptions.TransferCommandNotFoundException;
+import com.ontop.wallet.domain.exceptions.TransferNotFoundException;
+import com.ontop.wallet.domain.model.IdempotentRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
-import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.time.Instant;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequiredArgsConstructor
 public class TransferEndpoint {
     private final TransferEndpointService transferEndpointService;
 
+    /**
+     * Answers 201 with the withdrawal once it is made, or, with the transfer inbox enabled, 202 with the
+     * queued command and its status URL as {@code Location}. Under an {@code Idempotency-Key}, a request
+     * repeating a completed one gets the stored response back and is not run again.
+     */
     @PostMapping(value = "/transfers", produces = "application/json", consumes = "application/json")
-    @ResponseStatus(HttpStatus.CREATED)
-    public TransactionResponse createTransfer(@RequestBody @Valid TransferRequest transferRequest)
+    public CompletableFuture<ResponseEntity<?>> createTransfer(
+            @RequestHeader(name = TransferEndpointService.IDEMPOTENCY_KEY, required = false) String idempotencyKey,
+            @RequestBody @Valid TransferRequest transferRequest
+    ) throws ResourceLockedException, AccountNotFoundException, IdempotencyKeyInUseException, IdempotencyKeyReusedException {
+        if (idempotencyKey == null) {
+            return submitTransfer(transferRequest);
+        }
+        final IdempotentRequest request = transferEndpointService.hold(
+                idempotencyKey, transferRequest.userId(), transferRequest.amount());
+        if (request.isCompleted()) {
+            return CompletableFuture.completedFuture(TransferEndpointService.replay(request));
+        }
+        final CompletableFuture<ResponseEntity<?>> response;
+        try {
+            response = submitTransfer(transferRequest);
+        } catch (ResourceLockedException | AccountNotFoundException | RuntimeException ex) {
+            transferEndpointService.recordFailure(request, ex);
+            throw ex;
+        }
+        return transferEndpointService.recordResponse(request, response);
+    }
+
+    /**
+     * Initialises up to {@code ontop.transfer.batch.max-items} transfers; each one succeeds or fails on its own.
+     */
+    @PostMapping(value = "/transfers/batch", produces = "application/json", consumes = "application/json")
+    public TransferBatchResponse createTransferBatch(@RequestBody @Valid TransferBatchRequest batchRequest) {
+        return transferEndpointService.transferBatch(batchRequest);
+    }
+
+    /**
+     * Returns the transfer's state with a strong {@code ETag} of its version. A request whose
+     * {@code If-None-Match} names the current version is answered 304, or, with {@code wait}, held for up
+     * to that many seconds until the transfer changes, so a client waiting on a payment keeps one request
+     * open instead of polling.
+     */
+    @GetMapping(value = "/transfers/{transferId:\\d+}", produces = "application/json")
+    public CompletableFuture<ResponseEntity<TransferStatusResponse>> getTransfer(
+            @PathVariable Long transferId,
+            @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestParam(defaultValue = "0") int wait
+    ) throws TransferNotFoundException {
+        return transferEndpointService.transferStatus(transferId, ifNoneMatch, wait);
+    }
+
+    @GetMapping(value = "/transfers/commands/{commandId}", produces = "application/json")
+    public TransferCommandResponse getTransferCommand(@PathVariable Long commandId) throws TransferCommandNotFoundException {
+        return transferEndpointService.transferCommand(commandId);
+    }
+
+    private CompletableFuture<ResponseEntity<?>> submitTransfer(TransferRequest transferRequest)
             throws ResourceLockedException, AccountNotFoundException {
-        return transferEndpointService.transfer(transferRequest.userId(), transferRequest.amount());
+        if (transferEndpointService.queuesTransfers()) {
+            final TransferCommandResponse command = transferEndpointService.queueTransfer(transferRequest.userId(), transferRequest.amount());
+            final URI statusUri = ServletUriComponentsBuilder.fromCurrentContextPath()
+                    .path("/transfers/commands/{commandId}")
+                    .buildAndExpand(command.commandId())
+                    .toUri();
+            return CompletableFuture.completedFuture(ResponseEntity.accepted().location(statusUri).body(command));
+        }
+        return transferEndpointService.transfer(transferRequest.userId(), transferRequest.amount())
+                .thenApply(transaction -> ResponseEntity.status(HttpStatus.CREATED).body(transaction));
+    }
+
+    @GetMapping(value = "/transfers", produces = "application/json")
+    public TransactionHistoryResponse getTransactionHistory(
+            @RequestParam Long userId,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) BigDecimal amount,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant endDate
+    ) {
+        return transferEndpointService.history(userId, size, cursor, amount, startDate, endDate);
+    }
+
+    @GetMapping(value = "/transfers/summary", produces = "application/json")
+    public UserTransferSummaryResponse getTransferSummary(@RequestParam Long userId) {
+        return transferEndpointService.summary(userId);
+    }
+
+    @GetMapping(value = "/transfers/export")
+    public ResponseEntity<StreamingResponseBody> exportTransfers(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant endDate,
+            @RequestParam(required = false) Set<TransferStatus> status
+    ) {
+        final TransferExportFormat exportFormat = TransferExportFormat.of(format);
+        final StreamingResponseBody body = transferEndpointService.export(exportFormat, startDate, endDate, status);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.mediaType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("transfers." + exportFormat.fileExtension())
+                        .build().toString())
+                .body(body);
     }
 }
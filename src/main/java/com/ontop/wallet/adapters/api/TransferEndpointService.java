@@ -1,25 +1,287 @@
 package com.ontop.wallet.adapters.api;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ontop.wallet.adapters.clients.WalletClientException;
+import com.ontop.wallet.domain.enums.TransferStatus;
 import com.ontop.wallet.domain.exceptions.AccountNotFoundException;
+import com.ontop.wallet.domain.exceptions.IdempotencyKeyInUseException;
+import com.ontop.wallet.domain.exceptions.IdempotencyKeyReusedException;
 import com.ontop.wallet.domain.exceptions.ResourceLockedException;
-import com.ontop.wallet.domain.model.Transfer;
+import com.ontop.wallet.domain.exceptions.TransferCommandNotFoundException;
+import com.ontop.wallet.domain.exceptions.TransactionException;
+import com.ontop.wallet.domain.exceptions.TransferNotFoundException;
+import com.ontop.wallet.domain.model.IdempotentRequest;
+import com.ontop.wallet.domain.model.TransactionHistoryPage;
+import com.ontop.wallet.domain.model.TransferSummary;
+import com.ontop.wallet.domain.service.IdempotentRequestService;
+import com.ontop.wallet.domain.service.TransactionHistoryService;
+import com.ontop.wallet.domain.service.TransferBatchService;
+import com.ontop.wallet.domain.service.TransferCommandService;
+import com.ontop.wallet.domain.service.TransferExportService;
 import com.ontop.wallet.domain.service.TransferInitialisationService;
+import com.ontop.wallet.domain.service.TransferStatusService;
+import com.ontop.wallet.domain.service.UserTransferSummaryService;
+import com.ontop.wallet.domain.valueobject.HistoryFilter;
+import com.ontop.wallet.domain.valueobject.Id;
 import com.ontop.wallet.domain.valueobject.Money;
+import com.ontop.wallet.domain.valueobject.TransferBatchItem;
+import com.ontop.wallet.domain.valueobject.TransferExportFilter;
 import com.ontop.wallet.domain.valueobject.UserId;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 import static com.ontop.wallet.adapters.api.TransactionResponse.TransactionStatus.PROCESSING;
 
+@Slf4j
 @Component
 @RequiredArgsConstructor
 public class TransferEndpointService {
+    static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    static final String IDEMPOTENT_REPLAYED = "Idempotent-Replayed";
+    private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 255;
+
     private final TransferInitialisationService transferInitialisationService;
+    private final TransactionHistoryService transactionHistoryService;
+    private final TransferExportService transferExportService;
+    private final UserTransferSummaryService userTransferSummaryService;
+    private final TransferCommandService transferCommandService;
+    private final TransferBatchService transferBatchService;
+    private final IdempotentRequestService idempotentRequestService;
+    private final TransferStatusService transferStatusService;
+    private final ObjectMapper objectMapper;
+    @Value("${ontop.transfer.inbox.enabled:false}")
+    private final boolean inboxEnabled;
+    @Value("${ontop.transfer.status.max-wait-seconds:30}")
+    private final int maxWaitSeconds;
+
+    /**
+     * @return whether transfers are accepted into the inbox rather than run on the request
+     */
+    boolean queuesTransfers() {
+        return inboxEnabled;
+    }
+
+    CompletableFuture<TransactionResponse> transfer(Long userId, BigDecimal amount) throws ResourceLockedException, AccountNotFoundException {
+        return transferInitialisationService.initialiseTransferAsync(new UserId(userId), Money.of(amount))
+                .thenApply(transfer -> TransactionResponse.of(PROCESSING, transfer.getWithdrawal()));
+    }
+
+    TransferBatchResponse transferBatch(TransferBatchRequest batchRequest) {
+        return TransferBatchResponse.of(transferBatchService.initialiseTransfers(batchRequest.transfers().stream()
+                .map(transfer -> new TransferBatchItem(new UserId(transfer.userId()), Money.of(transfer.amount())))
+                .toList()));
+    }
+
+    TransferCommandResponse queueTransfer(Long userId, BigDecimal amount) {
+        return TransferCommandResponse.of(transferCommandService.accept(new UserId(userId), Money.of(amount)));
+    }
+
+    TransferCommandResponse transferCommand(Long commandId) throws TransferCommandNotFoundException {
+        return TransferCommandResponse.of(transferCommandService.getCommand(new Id<>(commandId)));
+    }
+
+    /**
+     * Answers 304 if {@code ifNoneMatch} names the transfer's current version, unless {@code waitSeconds}
+     * is given, in which case the answer is held until the transfer changes or the wait, capped at
+     * {@code ontop.transfer.status.max-wait-seconds}, runs out.
+     */
+    CompletableFuture<ResponseEntity<TransferStatusResponse>> transferStatus(Long transferId, String ifNoneMatch, int waitSeconds)
+            throws TransferNotFoundException {
+        final TransferSummary summary = transferStatusService.getTransfer(new Id<>(transferId));
+        final String etag = etagOf(summary);
+        if (!matches(ifNoneMatch, etag)) {
+            return CompletableFuture.completedFuture(transferStatus(summary));
+        }
+        if (waitSeconds <= 0) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build());
+        }
+        return transferStatusService.awaitChange(summary, Duration.ofSeconds(Math.min(waitSeconds, maxWaitSeconds)))
+                .thenApply(change -> change
+                        .map(TransferEndpointService::transferStatus)
+                        .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build()));
+    }
+
+    private static ResponseEntity<TransferStatusResponse> transferStatus(TransferSummary summary) {
+        return ResponseEntity.ok()
+                .eTag(etagOf(summary))
+                .cacheControl(CacheControl.noCache())
+                .body(TransferStatusResponse.of(summary));
+    }
+
+    /**
+     * Strong, as the version changes with every write of the transfer row.
+     */
+    private static String etagOf(TransferSummary summary) {
+        return "\"" + summary.id().value() + "-" + (summary.version() == null ? 0 : summary.version()) + "\"";
+    }
+
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (final String candidate : ifNoneMatch.split(",")) {
+            final String tag = candidate.trim();
+            if (tag.equals("*") || tag.equals(etag) || tag.equals("W/" + etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Holds {@code idempotencyKey} for this request, unless a request under it already completed.
+     *
+     * @return the completed request, whose stored response is sent as it is through {@link #replay}, or
+     * the request now holding the key
+     */
+    IdempotentRequest hold(String idempotencyKey, Long userId, BigDecimal amount)
+            throws IdempotencyKeyInUseException, IdempotencyKeyReusedException {
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH) {
+            throw new TransactionException("INVALID_REQUEST",
+                    "idempotency key should be between 1 and " + MAX_IDEMPOTENCY_KEY_LENGTH + " characters");
+        }
+        return idempotentRequestService.begin(idempotencyKey, new UserId(userId), Money.of(amount));
+    }
+
+    /**
+     * Stores the response under the held key once it is ready, or, if the request fails, what
+     * {@link #recordFailure} decides.
+     */
+    CompletableFuture<ResponseEntity<?>> recordResponse(IdempotentRequest held, CompletableFuture<ResponseEntity<?>> response) {
+        return response.whenComplete((entity, ex) -> {
+            if (ex != null) {
+                recordFailure(held, ex);
+                return;
+            }
+            complete(held, entity);
+        });
+    }
+
+    /**
+     * Releases the held key if the request failed before anything was withdrawn, so the client may retry
+     * it under the same key. Any other failure may have come after the withdrawal, so its error response
+     * is stored under the key instead and a retry gets that response rather than a second withdrawal.
+     */
+    void recordFailure(IdempotentRequest held, Throwable failure) {
+        final Throwable cause = failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+        if (!failsBeforeWithdrawal(cause)) {
+            complete(held, errorResponse(cause));
+            return;
+        }
+        try {
+            idempotentRequestService.release(held);
+        } catch (RuntimeException ex) {
+            // nothing was transferred; a retry under the key is answered 409 until the hold expires
+            log.error("Failed to release idempotency key: key={}", held.key(), ex);
+        }
+    }
+
+    private void complete(IdempotentRequest held, ResponseEntity<?> entity) {
+        try {
+            final URI location = entity.getHeaders().getLocation();
+            idempotentRequestService.complete(
+                    held,
+                    entity.getStatusCode().value(),
+                    location == null ? null : location.toString(),
+                    objectMapper.writeValueAsString(entity.getBody())
+            );
+        } catch (JsonProcessingException | RuntimeException recordFailure) {
+            // a retry under the key is answered 409 until the hold expires
+            log.error("Failed to record idempotent response: key={}", held.key(), recordFailure);
+        }
+    }
+
+    /**
+     * The failures of a transfer raised before the wallet withdrawal is made, or when the wallet rejected
+     * it: a locked user, a missing account, an incompatible currency, insufficient funds and wallet 4xx.
+     */
+    private static boolean failsBeforeWithdrawal(Throwable failure) {
+        return failure instanceof ResourceLockedException
+                || failure instanceof AccountNotFoundException
+                || failure instanceof TransactionException
+                || failure instanceof WalletClientException walletClientException && walletClientException.status().is4xxClientError();
+    }
+
+    /**
+     * The response {@link RestExceptionHandler} answers the failure with.
+     */
+    private static ResponseEntity<ApiError> errorResponse(Throwable failure) {
+        if (failure instanceof WalletClientException walletClientException) {
+            return new ResponseEntity<>(new ApiError(walletClientException.code(), walletClientException.message()), walletClientException.status());
+        }
+        if (failure instanceof ResourceAccessException) {
+            return new ResponseEntity<>(new ApiError("GATEWAY_TIMEOUT", "gateway timeout"), HttpStatus.GATEWAY_TIMEOUT);
+        }
+        return new ResponseEntity<>(new ApiError("SERVER_ERROR", "process was interrupted"), HttpStatus.INTERNAL_SERVER_ERROR);
+    }
+
+    static ResponseEntity<?> replay(IdempotentRequest request) {
+        final ResponseEntity.BodyBuilder response = ResponseEntity.status(request.responseStatus())
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(IDEMPOTENT_REPLAYED, "true");
+        if (request.responseLocation() != null) {
+            response.header(HttpHeaders.LOCATION, request.responseLocation());
+        }
+        return response.body(request.responseBody());
+    }
+
+    TransactionHistoryResponse history(
+            Long userId, int size, String cursor, BigDecimal amount, Instant startDate, Instant endDate
+    ) {
+        final TransactionHistoryPage page = transactionHistoryService.getHistory(
+                new UserId(userId),
+                new HistoryFilter(amount == null ? null : Money.of(amount), startDate, endDate),
+                HistoryCursorCodec.decode(cursor),
+                size
+        );
+        return new TransactionHistoryResponse(
+                page.entries().stream().map(TransactionResponse::of).toList(),
+                HistoryCursorCodec.encode(page.next())
+        );
+    }
+
+    UserTransferSummaryResponse summary(Long userId) {
+        return UserTransferSummaryResponse.of(userTransferSummaryService.getSummary(new UserId(userId)));
+    }
 
-    TransactionResponse transfer(Long userId, BigDecimal amount) throws ResourceLockedException, AccountNotFoundException {
-        final Transfer transfer = transferInitialisationService.initialiseTransfer(new UserId(userId), Money.of(amount));
-        return TransactionResponse.of(PROCESSING, transfer.getWithdrawal());
+    /**
+     * The filter is validated here so a bad request fails before the response is committed; the returned
+     * body runs the export on the async request thread.
+     */
+    StreamingResponseBody export(
+            TransferExportFormat format, Instant startDate, Instant endDate, Set<TransferStatus> statuses
+    ) {
+        final TransferExportFilter filter = new TransferExportFilter(startDate, endDate, statuses);
+        return out -> {
+            try (TransferExportWriter writer = format.open(out, objectMapper)) {
+                transferExportService.export(filter, transfer -> {
+                    try {
+                        writer.write(TransferExportLine.of(transfer));
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                });
+            }
+        };
     }
 }
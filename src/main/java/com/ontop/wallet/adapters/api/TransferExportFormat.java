@@ -0,0 +1,47 @@
+package com.ontop.wallet.adapters.api;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ontop.wallet.domain.exceptions.TransactionException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Locale;
+
+enum TransferExportFormat {
+    NDJSON("application/x-ndjson") {
+        @Override
+        TransferExportWriter open(OutputStream out, ObjectMapper mapper) throws IOException {
+            return new TransferExportWriter.Ndjson(out, mapper);
+        }
+    },
+    CSV("text/csv") {
+        @Override
+        TransferExportWriter open(OutputStream out, ObjectMapper mapper) {
+            return new TransferExportWriter.Csv(out);
+        }
+    };
+
+    private final String mediaType;
+
+    TransferExportFormat(String mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    String mediaType() {
+        return mediaType;
+    }
+
+    String fileExtension() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    abstract TransferExportWriter open(OutputStream out, ObjectMapper mapper) throws IOException;
+
+    static TransferExportFormat of(String value) {
+        return Arrays.stream(values())
+                .filter(format -> format.name().equalsIgnoreCase(value))
+                .findFirst()
+                .orElseThrow(() -> new TransactionException("INVALID_EXPORT_FORMAT", "format should be ndjson or csv"));
+    }
+}
@@ -0,0 +1,86 @@
+package com.ontop.wallet.adapters.api;
+
+import com.ontop.wallet.domain.enums.PaymentStatus;
+import com.ontop.wallet.domain.enums.TransferStatus;
+import com.ontop.wallet.domain.enums.WalletTransactionOperation;
+import com.ontop.wallet.domain.model.Payment;
+import com.ontop.wallet.domain.model.Transfer;
+import com.ontop.wallet.domain.model.WalletTransaction;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * One exported transfer with its wallet transactions and payments.
+ */
+record TransferExportLine(
+        Long transferId,
+        Instant created,
+        Instant updated,
+        TransferStatus status,
+        Long userId,
+        String targetAccountNumber,
+        BigDecimal transferAmount,
+        BigDecimal transferCharge,
+        String currency,
+        List<WalletTransactionLine> walletTransactions,
+        List<PaymentLine> payments
+) {
+    record WalletTransactionLine(
+            Long id,
+            Instant created,
+            Long walletTransactionId,
+            WalletTransactionOperation operation,
+            BigDecimal amount
+    ) {
+        static WalletTransactionLine of(WalletTransaction walletTransaction) {
+            return new WalletTransactionLine(
+                    walletTransaction.id().value(),
+                    walletTransaction.created(),
+                    walletTransaction.walletTransactionId().value(),
+                    walletTransaction.operation(),
+                    walletTransaction.amount().value()
+            );
+        }
+    }
+
+    record PaymentLine(
+            Long id,
+            Instant created,
+            UUID transactionId,
+            PaymentStatus status,
+            BigDecimal amount,
+            boolean current,
+            String error
+    ) {
+        static PaymentLine of(Payment payment) {
+            return new PaymentLine(
+                    payment.id().value(),
+                    payment.created(),
+                    payment.transactionId().value(),
+                    payment.status(),
+                    payment.amount().value(),
+                    Boolean.TRUE.equals(payment.isCurrent()),
+                    payment.error() == null ? null : payment.error().value()
+            );
+        }
+    }
+
+    static TransferExportLine of(Transfer transfer) {
+        return new TransferExportLine(
+                transfer.id().value(),
+                transfer.created(),
+                transfer.updated(),
+                transfer.status(),
+                transfer.targetAccount().userId().value(),
+                transfer.targetAccount().accountNumber().value(),
+                transfer.transferAmount().value(),
+                transfer.transferCharge().value(),
+                transfer.currency().getCurrencyCode(),
+                transfer.walletTransactions().stream().map(WalletTransactionLine::of).toList(),
+                transfer.payments().stream().map(PaymentLine::of).toList()
+        );
+    }
+}
@@ -0,0 +1,138 @@
+package com.ontop.wallet.adapters.api;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.ontop.wallet.adapters.api.TransferExportLine.PaymentLine;
+import com.ontop.wallet.adapters.api.TransferExportLine.WalletTransactionLine;
+import com.ontop.wallet.domain.enums.WalletTransactionOperation;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+/**
+ * Writes export lines straight to the output stream as they arrive. Output is buffered and only flushed
+ * on close; closing does not close the underlying stream.
+ */
+interface TransferExportWriter extends Closeable {
+    void write(TransferExportLine line) throws IOException;
+
+    /**
+     * One JSON document per line, dates as ISO-8601.
+     */
+    final class Ndjson implements TransferExportWriter {
+        private final JsonGenerator generator;
+        private final ObjectWriter writer;
+
+        Ndjson(OutputStream out, ObjectMapper mapper) throws IOException {
+            this.generator = mapper.getFactory().createGenerator(out)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            this.writer = mapper.writerFor(TransferExportLine.class)
+                    .without(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                    .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        }
+
+        @Override
+        public void write(TransferExportLine line) throws IOException {
+            writer.writeValue(generator, line);
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void close() throws IOException {
+            generator.close();
+        }
+    }
+
+    /**
+     * One row per transfer; the withdrawal, the refund if any and the current payment are flattened into
+     * columns, earlier payment attempts are only counted.
+     */
+    final class Csv implements TransferExportWriter {
+        private static final String HEADER = String.join(",",
+                "transfer_id", "created", "updated", "status", "user_id", "target_account_number",
+                "transfer_amount", "transfer_charge", "currency", "withdrawal_id", "withdrawal_amount",
+                "refund_id", "refund_amount", "payment_attempts", "payment_transaction_id", "payment_status",
+                "payment_error");
+
+        private final Writer writer;
+        private boolean headerWritten;
+
+        Csv(OutputStream out) {
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public void write(TransferExportLine line) throws IOException {
+            if (!headerWritten) {
+                writer.write(HEADER);
+                writer.write('\n');
+                headerWritten = true;
+            }
+            final Optional<WalletTransactionLine> withdrawal = walletTransaction(line, WalletTransactionOperation.WITHDRAWAL);
+            final Optional<WalletTransactionLine> refund = walletTransaction(line, WalletTransactionOperation.REFUND);
+            final Optional<PaymentLine> payment = line.payments().stream().filter(PaymentLine::current).findFirst();
+            writeRow(
+                    line.transferId(),
+                    line.created(),
+                    line.updated(),
+                    line.status(),
+                    line.userId(),
+                    line.targetAccountNumber(),
+                    line.transferAmount(),
+                    line.transferCharge(),
+                    line.currency(),
+                    withdrawal.map(WalletTransactionLine::id).orElse(null),
+                    withdrawal.map(WalletTransactionLine::amount).orElse(null),
+                    refund.map(WalletTransactionLine::id).orElse(null),
+                    refund.map(WalletTransactionLine::amount).orElse(null),
+                    line.payments().size(),
+                    payment.map(PaymentLine::transactionId).orElse(null),
+                    payment.map(PaymentLine::status).orElse(null),
+                    payment.map(PaymentLine::error).orElse(null)
+            );
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!headerWritten) {
+                writer.write(HEADER);
+                writer.write('\n');
+            }
+            writer.flush();
+        }
+
+        private void writeRow(Object... values) throws IOException {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                if (values[i] instanceof BigDecimal decimal) {
+                    writer.write(decimal.toPlainString());
+                } else if (values[i] != null) {
+                    writer.write(escape(values[i].toString()));
+                }
+            }
+            writer.write('\n');
+        }
+
+        private static Optional<WalletTransactionLine> walletTransaction(TransferExportLine line, WalletTransactionOperation operation) {
+            return line.walletTransactions().stream().filter(wt -> wt.operation() == operation).findFirst();
+        }
+
+        static String escape(String value) {
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                return value;
+            }
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.ontop.wallet.adapters.api;
+
+import com.ontop.wallet.domain.enums.TransferStatus;
+import com.ontop.wallet.domain.model.TransferSummary;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Currency;
+
+public record TransferStatusResponse(
+        Long transferId,
+        TransferStatus status,
+        BigDecimal transferAmount,
+        BigDecimal transferCharge,
+        Currency currency,
+        Instant created,
+        Instant updated
+) {
+    static TransferStatusResponse of(TransferSummary summary) {
+        return new TransferStatusResponse(
+                summary.id().value(),
+                summary.status(),
+                summary.transferAmount().value(),
+                summary.transferCharge().value(),
+                summary.currency(),
+                summary.created(),
+                summary.updated()
+        );
+    }
+}
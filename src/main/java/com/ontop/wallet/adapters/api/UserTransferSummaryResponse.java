@@ -0,0 +1,34 @@
+package com.ontop.wallet.adapters.api;
+
+import com.ontop.wallet.domain.enums.TransferStatus;
+import com.ontop.wallet.domain.model.UserTransferSummary;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * @param day the current UTC day; {@code withdrawnOnDay} and {@code transfersOnDay} cover transfers created on it
+ */
+public record UserTransferSummaryResponse(
+        Long userId,
+        BigDecimal pendingAmount,
+        Map<TransferStatus, Long> countByStatus,
+        Instant lastTransferAt,
+        LocalDate day,
+        BigDecimal withdrawnOnDay,
+        long transfersOnDay
+) {
+    static UserTransferSummaryResponse of(UserTransferSummary summary) {
+        return new UserTransferSummaryResponse(
+                summary.userId().value(),
+                summary.pendingAmount().value(),
+                summary.countByStatus(),
+                summary.lastTransferAt(),
+                summary.day(),
+                summary.dayWithdrawnAmount().value(),
+                summary.dayTransferCount()
+        );
+    }
+}
@@ -2,57 +2,205 @@ package com.ontop.wallet.adapters.clients;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.http.HttpEntity;
+import org.apache.hc.client5.http.async.methods.SimpleHttpRequest;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.client5.http.async.methods.SimpleRequestBuilder;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.http.ContentType;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
 import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.util.Assert;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
+/**
+ * Request bodies are written straight to the request stream and responses are read straight from the
+ * response stream, so no intermediate String is built for either. Readers and writers are created once
+ * per type by subclasses and reused.
+ * <p>
+ * The async variants fail the same way as the blocking ones: with {@link HttpClientErrorException} or
+ * {@link HttpServerErrorException} on an error status and {@link ResourceAccessException} on an I/O
+ * failure, so subclasses translate both paths alike. Their futures complete on the client's I/O
+ * threads; callers must not block in dependent stages.
+ */
 @Slf4j
 public abstract class ApiClient {
+    private static final int LOGGED_BODY_PREFIX_BYTES = 200;
+
     private final RestTemplate restTemplate;
+    private final CloseableHttpAsyncClient asyncClient;
+    private final String host;
     private final ObjectMapper mapper;
 
     public ApiClient(final RestTemplate restTemplate, final ObjectMapper mapper) {
+        this(restTemplate, null, null, mapper);
+    }
+
+    /**
+     * @param host root uri of the async requests; the blocking ones take theirs from the rest template
+     */
+    public ApiClient(final RestTemplate restTemplate, final CloseableHttpAsyncClient asyncClient, final String host, final ObjectMapper mapper) {
         this.restTemplate = restTemplate;
+        this.asyncClient = asyncClient;
+        this.host = host;
         this.mapper = mapper;
     }
 
-    protected ResponseEntity<String> get(String url) {
-        HttpHeaders headers = new HttpHeaders();
-        headers.setAccept(List.of(MediaType.APPLICATION_JSON));
-        HttpEntity<String> request = new HttpEntity<>(null, headers);
-        return restTemplate.exchange(url, HttpMethod.GET, request, String.class);
+    protected ObjectReader readerFor(Class<?> type) {
+        return mapper.readerFor(type);
+    }
+
+    protected ObjectWriter writerFor(Class<?> type) {
+        return mapper.writerFor(type);
+    }
+
+    protected <T> Optional<T> get(String url, ObjectReader reader) {
+        return restTemplate.execute(
+                url,
+                HttpMethod.GET,
+                request -> request.getHeaders().setAccept(List.of(MediaType.APPLICATION_JSON)),
+                response -> read(response, reader)
+        );
     }
 
-    protected ResponseEntity<String> post(String url, String requestBody) {
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON);
-        headers.setAccept(List.of(MediaType.APPLICATION_JSON));
-        HttpEntity<String> request = new HttpEntity<>(requestBody, headers);
-        return restTemplate.exchange(url, HttpMethod.POST, request, String.class);
+    /**
+     * @throws UncheckedIOException if the request body cannot be serialised
+     */
+    protected <T> Optional<T> post(String url, Object requestBody, ObjectWriter writer, ObjectReader reader) {
+        return restTemplate.execute(
+                url,
+                HttpMethod.POST,
+                request -> {
+                    request.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+                    request.getHeaders().setAccept(List.of(MediaType.APPLICATION_JSON));
+                    try {
+                        writer.writeValue(request.getBody(), requestBody);
+                    } catch (JsonProcessingException ex) {
+                        log.error("Failed to write request body: type={}", requestBody.getClass().getSimpleName(), ex);
+                        throw new UncheckedIOException(ex);
+                    }
+                },
+                response -> read(response, reader)
+        );
     }
 
-    protected  <T> Optional<T> parse(String value, Class<T> target) {
+    protected <T> CompletableFuture<Optional<T>> getAsync(String url, ObjectReader reader) {
+        final SimpleHttpRequest request = SimpleRequestBuilder.get(host + url)
+                .setHeader(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
+                .build();
+        return execute(request, reader);
+    }
+
+    /**
+     * The returned future fails with {@link UncheckedIOException} if the request body cannot be serialised.
+     */
+    protected <T> CompletableFuture<Optional<T>> postAsync(String url, Object requestBody, ObjectWriter writer, ObjectReader reader) {
+        final byte[] body;
         try {
-            T result = mapper.readValue(value, target);
-            return Optional.of(result);
+            body = writer.writeValueAsBytes(requestBody);
         } catch (JsonProcessingException ex) {
-            log.error("Failed to parse={} to target={}; error={}", value, target, ex.getMessage(), ex);
+            log.error("Failed to write request body: type={}", requestBody.getClass().getSimpleName(), ex);
+            return CompletableFuture.failedFuture(new UncheckedIOException(ex));
+        }
+        final SimpleHttpRequest request = SimpleRequestBuilder.post(host + url)
+                .setHeader(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
+                .setBody(body, ContentType.APPLICATION_JSON)
+                .build();
+        return execute(request, reader);
+    }
+
+    protected <T> Optional<T> parse(byte[] value, ObjectReader reader) {
+        try {
+            return Optional.of(reader.readValue(value));
+        } catch (IOException ex) {
+            // the body may be large or carry account details, so only its length and start are logged
+            log.error("Failed to parse body of length={} to target={}; prefix={}, error={}",
+                    value.length, reader.getValueType(), prefixOf(value), ex.getMessage(), ex);
         }
         return Optional.empty();
     }
 
-    protected Optional<String> writeValueAsString(Object value) {
+    private static String prefixOf(byte[] value) {
+        return new String(value, 0, Math.min(value.length, LOGGED_BODY_PREFIX_BYTES), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Unwraps the {@link CompletionException} a dependent stage sees in place of the original failure.
+     */
+    protected static Throwable causeOf(Throwable ex) {
+        return ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+    }
+
+    private <T> Optional<T> read(ClientHttpResponse response, ObjectReader reader) throws IOException {
         try {
-            return Optional.of(mapper.writeValueAsString(value));
+            return Optional.of(reader.readValue(response.getBody()));
         } catch (JsonProcessingException ex) {
-            log.error("Failed to write value", ex);
+            log.error("Failed to parse response to target={}; status={}, error={}",
+                    reader.getValueType(), response.getStatusCode().value(), ex.getMessage(), ex);
+        }
+        return Optional.empty();
+    }
+
+    private <T> CompletableFuture<Optional<T>> execute(SimpleHttpRequest request, ObjectReader reader) {
+        Assert.state(asyncClient != null, "async http client not configured");
+        final CompletableFuture<Optional<T>> future = new CompletableFuture<>();
+        asyncClient.execute(request, new FutureCallback<>() {
+            @Override
+            public void completed(SimpleHttpResponse response) {
+                try {
+                    future.complete(read(request, response, reader));
+                } catch (RuntimeException ex) {
+                    future.completeExceptionally(ex);
+                }
+            }
+
+            @Override
+            public void failed(Exception ex) {
+                future.completeExceptionally(new ResourceAccessException(
+                        "I/O error on " + request.getMethod() + " request for \"" + request.getRequestUri() + "\": " + ex.getMessage(),
+                        ex instanceof IOException ioException ? ioException : new IOException(ex)));
+            }
+
+            @Override
+            public void cancelled() {
+                future.completeExceptionally(new CancellationException("request cancelled: " + request.getRequestUri()));
+            }
+        });
+        return future;
+    }
+
+    private <T> Optional<T> read(SimpleHttpRequest request, SimpleHttpResponse response, ObjectReader reader) {
+        final HttpStatusCode status = HttpStatusCode.valueOf(response.getCode());
+        final byte[] body = response.getBodyBytes() == null ? new byte[0] : response.getBodyBytes();
+        if (status.is4xxClientError()) {
+            throw HttpClientErrorException.create(status, response.getReasonPhrase(), HttpHeaders.EMPTY, body, StandardCharsets.UTF_8);
+        }
+        if (status.is5xxServerError()) {
+            throw HttpServerErrorException.create(status, response.getReasonPhrase(), HttpHeaders.EMPTY, body, StandardCharsets.UTF_8);
+        }
+        try {
+            return Optional.of(reader.readValue(body));
+        } catch (IOException ex) {
+            log.error("Failed to parse response to target={}; status={}, uri={}, error={}",
+                    reader.getValueType(), status.value(), request.getRequestUri(), ex.getMessage(), ex);
         }
         return Optional.empty();
     }
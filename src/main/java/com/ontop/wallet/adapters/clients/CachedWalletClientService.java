@@ -0,0 +1,111 @@
+package com.ontop.wallet.adapters.clients;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.ontop.wallet.domain.enums.WalletTransactionOperation;
+import com.ontop.wallet.domain.model.WalletTransaction;
+import com.ontop.wallet.domain.service.UserWalletService;
+import com.ontop.wallet.domain.valueobject.Money;
+import com.ontop.wallet.domain.valueobject.UserId;
+import com.ontop.wallet.domain.valueobject.WalletBalance;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+import org.springframework.util.Assert;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Short-lived cache of wallet balances in front of {@link WalletClientService}. Transactions created
+ * through this service are applied to the cached balance, so a user's consecutive transfers see
+ * their own withdrawals and refunds; if the outcome of a transaction is unknown the entry is dropped.
+ */
+@Slf4j
+@Primary
+@Component
+@ConditionalOnProperty(name = "ontop.wallet.balance-cache.enabled", havingValue = "true")
+class CachedWalletClientService implements UserWalletService {
+    private final WalletClientService delegate;
+    private final Cache<UserId, CachedBalance> cache;
+    private final Timer staleness;
+
+    CachedWalletClientService(
+            WalletClientService delegate,
+            @Value("${ontop.wallet.balance-cache.ttl-ms:2000}") long ttlMs,
+            @Value("${ontop.wallet.balance-cache.max-size:10000}") long maxSize,
+            MeterRegistry meterRegistry
+    ) {
+        Assert.isTrue(ttlMs > 0, "wallet balance cache ttl should be > 0");
+        Assert.isTrue(maxSize > 0, "wallet balance cache max size should be > 0");
+        this.delegate = delegate;
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(ttlMs))
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "walletBalance");
+        this.staleness = Timer.builder("wallet.balance.cache.staleness")
+                .description("age of a cached wallet balance when it is served")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public WalletBalance getUserWalletBalance(UserId userId) {
+        final long now = System.nanoTime();
+        final CachedBalance cached = cache.get(userId, key -> new CachedBalance(delegate.getUserWalletBalance(key), now));
+        staleness.record(System.nanoTime() - cached.fetchedAt(), TimeUnit.NANOSECONDS);
+        return cached.balance();
+    }
+
+    @Override
+    public WalletTransaction createTransaction(UserId userId, Money amount, WalletTransactionOperation operation) {
+        final WalletTransaction transaction;
+        try {
+            transaction = delegate.createTransaction(userId, amount, operation);
+        } catch (RuntimeException ex) {
+            cache.invalidate(userId);
+            throw ex;
+        }
+        cache.asMap().computeIfPresent(userId, (key, cached) ->
+                new CachedBalance(cached.balance().adjustedBy(transaction.amount()), cached.fetchedAt()));
+        log.debug("Cached wallet balance adjusted: userId={}, amount={}", userId.value(), transaction.amount().value());
+        return transaction;
+    }
+
+    @Override
+    public CompletableFuture<WalletBalance> getUserWalletBalanceAsync(UserId userId) {
+        final CachedBalance cached = cache.getIfPresent(userId);
+        if (cached != null) {
+            staleness.record(System.nanoTime() - cached.fetchedAt(), TimeUnit.NANOSECONDS);
+            return CompletableFuture.completedFuture(cached.balance());
+        }
+        final long now = System.nanoTime();
+        return delegate.getUserWalletBalanceAsync(userId).thenApply(balance -> {
+            cache.asMap().putIfAbsent(userId, new CachedBalance(balance, now));
+            staleness.record(0, TimeUnit.NANOSECONDS);
+            return balance;
+        });
+    }
+
+    @Override
+    public CompletableFuture<WalletTransaction> createTransactionAsync(UserId userId, Money amount, WalletTransactionOperation operation) {
+        return delegate.createTransactionAsync(userId, amount, operation).whenComplete((transaction, ex) -> {
+            if (ex != null) {
+                cache.invalidate(userId);
+                return;
+            }
+            cache.asMap().computeIfPresent(userId, (key, cached) ->
+                    new CachedBalance(cached.balance().adjustedBy(transaction.amount()), cached.fetchedAt()));
+            log.debug("Cached wallet balance adjusted: userId={}, amount={}", userId.value(), transaction.amount().value());
+        });
+    }
+
+    private record CachedBalance(WalletBalance balance, long fetchedAt) { }
+}
@@ -1,6 +1,8 @@
 package com.ontop.wallet.adapters.clients;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.ontop.wallet.domain.model.OntopAccount;
 import com.ontop.wallet.domain.model.Payment;
 import com.ontop.wallet.domain.model.Transfer;
@@ -9,21 +11,38 @@ import com.ontop.wallet.domain.service.PaymentProvider;
 import com.ontop.wallet.domain.valueobject.Id;
 import com.ontop.wallet.domain.valueobject.Money;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.json.JsonParseException;
-import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.HttpServerErrorException;
 import org.springframework.web.client.HttpStatusCodeException;
 import org.springframework.web.client.RestTemplate;
 
+import java.io.UncheckedIOException;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
 @Slf4j
 @Component
 public class PaymentClientService extends ApiClient implements PaymentProvider {
     static final String PAYMENT_URL_PATH = "/api/v1/payments";
 
-    public PaymentClientService(final RestTemplate clientRestTemplate, final ObjectMapper mapper) {
-        super(clientRestTemplate, mapper);
+    private final ObjectReader paymentResponseReader;
+    private final ObjectWriter paymentRequestWriter;
+
+    public PaymentClientService(
+            @Qualifier("paymentRestTemplate") final RestTemplate restTemplate,
+            @Qualifier("paymentAsyncHttpClient") final CloseableHttpAsyncClient asyncClient,
+            @Value("${client.host}") final String host,
+            final ObjectMapper mapper
+    ) {
+        super(restTemplate, asyncClient, host, mapper);
+        this.paymentResponseReader = readerFor(PaymentApiResponse.class);
+        this.paymentRequestWriter = writerFor(PaymentRequestFactory.PaymentRequest.class);
     }
 
     @Override
@@ -32,6 +51,53 @@ public class PaymentClientService extends ApiClient implements PaymentProvider {
             final Money transferAmount,
             final UserAccount targetAccount,
             final OntopAccount ontopAccount
+    ) {
+        final PaymentRequestFactory.PaymentRequest request = paymentRequest(transferId, transferAmount, targetAccount, ontopAccount);
+        final Optional<PaymentApiResponse> response;
+        try {
+            response = post(PAYMENT_URL_PATH, request, paymentRequestWriter, paymentResponseReader);
+        } catch (UncheckedIOException ex) {
+            log.error("Serialisation of payment request body failed: transferId={}", transferId.value());
+            throw new PaymentProviderException("Serialisation of payment request body failed");
+        } catch (HttpClientErrorException | HttpServerErrorException ex) {
+            log.error("Payment processing failed: transferId={}", transferId.value(), ex);
+            final PaymentApiResponse responseBody = transformException(ex);
+            return responseBody.toPayment();
+        }
+        return toPayment(transferId, response);
+    }
+
+    @Override
+    public CompletableFuture<Payment> makePaymentAsync(
+            final Id<Transfer> transferId,
+            final Money transferAmount,
+            final UserAccount targetAccount,
+            final OntopAccount ontopAccount
+    ) {
+        final PaymentRequestFactory.PaymentRequest request = paymentRequest(transferId, transferAmount, targetAccount, ontopAccount);
+        return this.<PaymentApiResponse>postAsync(PAYMENT_URL_PATH, request, paymentRequestWriter, paymentResponseReader)
+                .handle((response, ex) -> {
+                    if (ex == null) {
+                        return toPayment(transferId, response);
+                    }
+                    final Throwable cause = causeOf(ex);
+                    if (cause instanceof UncheckedIOException) {
+                        log.error("Serialisation of payment request body failed: transferId={}", transferId.value());
+                        throw new PaymentProviderException("Serialisation of payment request body failed");
+                    }
+                    if (cause instanceof HttpStatusCodeException statusCodeException) {
+                        log.error("Payment processing failed: transferId={}", transferId.value(), cause);
+                        return transformException(statusCodeException).toPayment();
+                    }
+                    throw cause instanceof RuntimeException runtimeException ? runtimeException : new CompletionException(cause);
+                });
+    }
+
+    private PaymentRequestFactory.PaymentRequest paymentRequest(
+            final Id<Transfer> transferId,
+            final Money transferAmount,
+            final UserAccount targetAccount,
+            final OntopAccount ontopAccount
     ) {
         log.info("Processing payment: transferId={}", transferId.value());
         final PaymentRequestFactory.PaymentRequest request = PaymentRequestFactory.request()
@@ -39,23 +105,16 @@ public class PaymentClientService extends ApiClient implements PaymentProvider {
                 .ontopAccount(ontopAccount)
                 .amount(transferAmount)
                 .build();
+        log.info("Payment request: {}", request);
+        return request;
+    }
 
-        final String requestBody = writeValueAsString(request).orElseThrow(() -> {
-            log.error("Serialisation of payment request body failed: transferId={}", transferId.value());
-            return new PaymentProviderException("Serialisation of payment request body failed");
+    private Payment toPayment(final Id<Transfer> transferId, final Optional<PaymentApiResponse> response) {
+        final PaymentApiResponse responseBody = response.orElseThrow(() -> {
+            log.error("Deserialization of payment response body failed: transferId={}", transferId.value());
+            return new JsonParseException();
         });
-
-        log.info("Payment request: {}", requestBody);
-        final ResponseEntity<String> response;
-        try {
-            response = post(PAYMENT_URL_PATH, requestBody);
-        } catch (HttpClientErrorException | HttpServerErrorException ex) {
-            log.error("Payment processing failed: transferId={}", transferId.value(), ex);
-            final PaymentApiResponse responseBody = transformException(ex);
-            return responseBody.toPayment();
-        }
-        final PaymentApiResponse responseBody = parseResponse(response);
-        log.info("Payment processing successful: transferId={}; response={}", transferId.value(), response.getBody());
+        log.info("Payment processing successful: transferId={}; response={}", transferId.value(), responseBody);
         return responseBody.toPayment();
     }
 
@@ -64,19 +123,11 @@ public class PaymentClientService extends ApiClient implements PaymentProvider {
             throw new PaymentProviderException("Invalid request to provider api");
         }
 
-        return parse(ex.getResponseBodyAsString(), PaymentApiResponse.class).orElseThrow(() -> {
+        return this.<PaymentApiResponse>parse(ex.getResponseBodyAsByteArray(), paymentResponseReader).orElseThrow(() -> {
             log.error("Deserialization of payment api exception failed: response={}, statusCode={}",
                     ex.getResponseBodyAsString(), ex.getStatusCode());
             return new PaymentProviderException("Deserialization of payment api exception failed");
         });
     }
 
-    private PaymentApiResponse parseResponse(final ResponseEntity<String> response) {
-        return parse(response.getBody(), PaymentApiResponse.class).orElseThrow(() -> {
-            log.error("Deserialization of payment response body failed: response={}, statusCode={}",
-                    response.getBody(), response.getStatusCode().value());
-            return new JsonParseException();
-        });
-    }
-
 }
@@ -1,6 +1,8 @@
 package com.ontop.wallet.adapters.clients;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.ontop.wallet.adapters.clients.WalletClientRequests.WalletTransactionRequest;
 import com.ontop.wallet.adapters.clients.WalletClientResponses.WalletBalanceResponse;
 import com.ontop.wallet.adapters.clients.WalletClientResponses.WalletTransactionResponse;
@@ -11,16 +13,22 @@ import com.ontop.wallet.domain.service.UserWalletService;
 import com.ontop.wallet.domain.valueobject.Money;
 import com.ontop.wallet.domain.valueobject.UserId;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.HttpServerErrorException;
 import org.springframework.web.client.HttpStatusCodeException;
 import org.springframework.web.client.RestTemplate;
 
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @Slf4j
 @Component
@@ -28,24 +36,52 @@ public class WalletClientService extends ApiClient implements UserWalletService
     private final static String BALANCE_URL_PATH_TEMPLATE = "/wallets/balance?user_id=%d";
     private final static String TRANSACTION_URL_PATH = "/wallets/transactions";
 
-    public WalletClientService(RestTemplate clientRestTemplate, ObjectMapper mapper) {
-        super(clientRestTemplate, mapper);
+    private final ObjectReader balanceReader;
+    private final ObjectReader transactionReader;
+    private final ObjectWriter transactionRequestWriter;
+
+    public WalletClientService(
+            @Qualifier("walletRestTemplate") RestTemplate restTemplate,
+            @Qualifier("walletAsyncHttpClient") CloseableHttpAsyncClient asyncClient,
+            @Value("${client.host}") String host,
+            ObjectMapper mapper
+    ) {
+        super(restTemplate, asyncClient, host, mapper);
+        this.balanceReader = readerFor(WalletBalanceResponse.class);
+        this.transactionReader = readerFor(WalletTransactionResponse.class);
+        this.transactionRequestWriter = writerFor(WalletTransactionRequest.class);
     }
 
     @Override
     public WalletBalance getUserWalletBalance(UserId userId) {
-        final ResponseEntity<String> response;
+        final Optional<WalletBalanceResponse> response;
         final String requestPath = String.format(BALANCE_URL_PATH_TEMPLATE, userId.value());
         try {
             log.info("Fetching wallet balance for user={}, path={}", userId.value(), requestPath);
-            response = get(requestPath);
+            response = get(requestPath, balanceReader);
 
         } catch (HttpClientErrorException | HttpServerErrorException ex) {
             log.error(ex.getResponseBodyAsString(), ex);
             throw transformException(ex);
         }
 
-        final WalletBalanceResponse responseBody = parse(response.getBody(), WalletBalanceResponse.class).orElseThrow(() -> {
+        return toWalletBalance(userId, response);
+    }
+
+    @Override
+    public CompletableFuture<WalletBalance> getUserWalletBalanceAsync(UserId userId) {
+        final String requestPath = String.format(BALANCE_URL_PATH_TEMPLATE, userId.value());
+        log.info("Fetching wallet balance for user={}, path={}", userId.value(), requestPath);
+        return this.<WalletBalanceResponse>getAsync(requestPath, balanceReader).handle((response, ex) -> {
+            if (ex != null) {
+                throw translate(causeOf(ex), "Fetch wallet balance request failed: userId=" + userId.value());
+            }
+            return toWalletBalance(userId, response);
+        });
+    }
+
+    private WalletBalance toWalletBalance(UserId userId, Optional<WalletBalanceResponse> response) {
+        final WalletBalanceResponse responseBody = response.orElseThrow(() -> {
             log.error("Failed to get wallet balance response body for user={}", userId.value());
             return new WalletClientException("unable to parse client response body", "SERVER_ERROR", HttpStatus.INTERNAL_SERVER_ERROR);
         });
@@ -57,28 +93,61 @@ public class WalletClientService extends ApiClient implements UserWalletService
         log.info("Creating transaction: userId={}, amount={}, operation={}", userId.value(), amount.value(), operation);
 
         final WalletTransactionRequest request = new WalletTransactionRequest(userId.value(), Objects.requireNonNull(getRequestAmount(amount.value(), operation)));
-        String requestBody = writeValueAsString(request).orElseThrow(() -> {
-            log.error("Failed to write create transaction request body: ={}", request);
-            return new WalletClientException("error writing client request body", "SERVER_ERROR", HttpStatus.INTERNAL_SERVER_ERROR);
-        });
 
-        final ResponseEntity<String> response;
+        final Optional<WalletTransactionResponse> response;
         try {
             log.info("Create transaction request={}", request);
-            response = post(TRANSACTION_URL_PATH, requestBody);
+            response = post(TRANSACTION_URL_PATH, request, transactionRequestWriter, transactionReader);
 
+        } catch (UncheckedIOException ex) {
+            log.error("Failed to write create transaction request body: ={}", request);
+            throw new WalletClientException("error writing client request body", "SERVER_ERROR", HttpStatus.INTERNAL_SERVER_ERROR);
         } catch (HttpClientErrorException | HttpServerErrorException ex) {
             log.error("Create transaction request failed: response={}", ex.getResponseBodyAsString(), ex);
             throw transformException(ex);
         }
 
-        final WalletTransactionResponse transactionResponse = parse(response.getBody(), WalletTransactionResponse.class).orElseThrow(() -> {
-            log.error("Failed to parse create transaction response body: ={}", response.getBody());
+        return toTransaction(userId, operation, response);
+    }
+
+    @Override
+    public CompletableFuture<WalletTransaction> createTransactionAsync(UserId userId, Money amount, WalletTransactionOperation operation) {
+        log.info("Creating transaction: userId={}, amount={}, operation={}", userId.value(), amount.value(), operation);
+
+        final WalletTransactionRequest request = new WalletTransactionRequest(userId.value(), Objects.requireNonNull(getRequestAmount(amount.value(), operation)));
+        log.info("Create transaction request={}", request);
+        return this.<WalletTransactionResponse>postAsync(TRANSACTION_URL_PATH, request, transactionRequestWriter, transactionReader)
+                .handle((response, ex) -> {
+                    if (ex != null) {
+                        throw translate(causeOf(ex), "Create transaction request failed: request=" + request);
+                    }
+                    return toTransaction(userId, operation, response);
+                });
+    }
+
+    private WalletTransaction toTransaction(UserId userId, WalletTransactionOperation operation, Optional<WalletTransactionResponse> response) {
+        final WalletTransactionResponse transactionResponse = response.orElseThrow(() -> {
+            log.error("Failed to parse create transaction response body: userId={}", userId.value());
             return new WalletClientException("failed to parse client response body", "SERVER_ERROR", HttpStatus.INTERNAL_SERVER_ERROR);
         });
         return transactionResponse.toTransaction(operation);
     }
 
+    /**
+     * Maps a failure of an async request to what the blocking call would have thrown.
+     */
+    private RuntimeException translate(Throwable ex, String message) {
+        if (ex instanceof UncheckedIOException) {
+            log.error("Failed to write request body: {}", message);
+            return new WalletClientException("error writing client request body", "SERVER_ERROR", HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+        if (ex instanceof HttpStatusCodeException statusCodeException) {
+            log.error("{}: response={}", message, statusCodeException.getResponseBodyAsString(), ex);
+            return transformException(statusCodeException);
+        }
+        return ex instanceof RuntimeException runtimeException ? runtimeException : new CompletionException(ex);
+    }
+
     private BigDecimal getRequestAmount(BigDecimal amount, WalletTransactionOperation operation) {
         switch (operation) {
             case WITHDRAWAL -> {
@@ -0,0 +1,46 @@
+package com.ontop.wallet.adapters.jpa.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.Hibernate;
+
+import java.util.Objects;
+
+/**
+ * One row per change to a user's account, polled by every node to invalidate its cached copy.
+ */
+@Entity
+@Table(name = "account_change", indexes = {
+        @Index(name = "idx_account_change_created", columnList = "created")
+})
+@Getter
+@Setter
+@ToString
+public class AccountChangeRecord extends BaseEntity {
+    @Column(nullable = false)
+    private Long userId;
+
+    public static AccountChangeRecord of(Long userId) {
+        final AccountChangeRecord record = new AccountChangeRecord();
+        record.userId(userId);
+        return record;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || Hibernate.getClass(this) != Hibernate.getClass(o)) return false;
+        final AccountChangeRecord that = (AccountChangeRecord) o;
+        return id != null && Objects.equals(id, that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return getClass().hashCode();
+    }
+}
@@ -17,7 +17,7 @@ import java.time.Instant;
 @MappedSuperclass
 public class BaseEntity {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE)
     protected Long id;
     @CreationTimestamp
     @Column(nullable = false)
@@ -0,0 +1,64 @@
+package com.ontop.wallet.adapters.jpa.entities;
+
+import com.ontop.wallet.domain.model.IdempotentRequest;
+import com.ontop.wallet.domain.valueobject.Money;
+import com.ontop.wallet.domain.valueobject.UserId;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Keyed by the idempotency key itself, so a second request under the same key fails its insert.
+ */
+@Entity
+@Table(name = "idempotency_key", indexes = {
+        @Index(name = "idx_idempotency_key_expires_at", columnList = "expiresAt")
+})
+@Getter
+@Setter
+@ToString
+public class IdempotentRequestRecord {
+    @Id
+    @Column(name = "idempotency_key")
+    private String key;
+
+    private String holder;
+
+    @Column(nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private BigDecimal amount;
+
+    private Integer responseStatus;
+
+    private String responseLocation;
+
+    @Column(length = 4000)
+    @ToString.Exclude
+    private String responseBody;
+
+    @Column(nullable = false)
+    private Instant expiresAt;
+
+    public IdempotentRequest toDomain() {
+        return IdempotentRequest.idempotentRequest()
+                .key(this.key)
+                .holder(this.holder)
+                .userId(new UserId(this.userId))
+                .amount(Money.of(this.amount))
+                .responseStatus(this.responseStatus)
+                .responseLocation(this.responseLocation)
+                .responseBody(this.responseBody)
+                .expiresAt(this.expiresAt)
+                .build();
+    }
+}
@@ -0,0 +1,55 @@
+package com.ontop.wallet.adapters.jpa.entities;
+
+import com.ontop.wallet.domain.enums.PaymentStatus;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A payment of an archived transfer, see {@link TransferArchiveRecord}.
+ */
+@Entity
+@Table(name = "payment_archive", indexes = {
+        @Index(name = "idx_payment_archive_transfer", columnList = "transferId")
+})
+@Getter
+@Setter
+@ToString
+public class PaymentArchiveRecord {
+    @Id
+    private Long id;
+
+    @Column(nullable = false)
+    private Instant created;
+
+    private Instant updated;
+
+    @Column(nullable = false, unique = true)
+    private UUID transactionId;
+
+    @Column(nullable = false)
+    private BigDecimal amount;
+
+    @Column(nullable = false)
+    @Enumerated(EnumType.STRING)
+    private PaymentStatus status;
+
+    @Column(nullable = false)
+    private boolean isCurrent;
+
+    private String error;
+
+    @Column(nullable = false)
+    private Long transferId;
+}
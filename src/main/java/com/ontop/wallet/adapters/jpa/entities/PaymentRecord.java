@@ -75,4 +75,10 @@ public class PaymentRecord extends BaseEntity {
         paymentRecord.isCurrent(payment.isCurrent());
         return paymentRecord;
     }
+
+    public static PaymentRecord of(@NonNull final Payment payment, @NonNull final TransferRecord transfer) {
+        final PaymentRecord paymentRecord = of(payment);
+        paymentRecord.transfer(transfer);
+        return paymentRecord;
+    }
 }
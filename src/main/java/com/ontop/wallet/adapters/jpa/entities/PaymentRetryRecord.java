@@ -0,0 +1,71 @@
+package com.ontop.wallet.adapters.jpa.entities;
+
+import com.ontop.wallet.domain.model.PaymentRetry;
+import com.ontop.wallet.domain.valueobject.Id;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.Hibernate;
+
+import java.time.Instant;
+import java.util.Objects;
+
+@Entity
+@Table(name = "payment_retry", indexes = {
+        @Index(name = "idx_payment_retry_due_at", columnList = "dueAt"),
+        @Index(name = "idx_payment_retry_claimed_by", columnList = "claimedBy")
+})
+@Getter
+@Setter
+@ToString
+public class PaymentRetryRecord extends BaseEntity {
+    @Column(nullable = false)
+    private Long transferId;
+
+    @Column(nullable = false)
+    private int retryCount;
+
+    @Column(nullable = false)
+    private Instant dueAt;
+
+    private String claimedBy;
+
+    private Instant claimedUntil;
+
+    public static PaymentRetryRecord of(Long transferId, int retryCount, Instant dueAt) {
+        final PaymentRetryRecord record = new PaymentRetryRecord();
+        record.transferId(transferId);
+        record.retryCount(retryCount);
+        record.dueAt(dueAt);
+        return record;
+    }
+
+    public PaymentRetry toDomain() {
+        return PaymentRetry.paymentRetry()
+                .id(new Id<>(this.id))
+                .created(this.created)
+                .updated(this.updated)
+                .transferId(new Id<>(this.transferId))
+                .retryCount(this.retryCount)
+                .dueAt(this.dueAt)
+                .claimedBy(this.claimedBy)
+                .build();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || Hibernate.getClass(this) != Hibernate.getClass(o)) return false;
+        final PaymentRetryRecord that = (PaymentRetryRecord) o;
+        return id != null && Objects.equals(id, that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return getClass().hashCode();
+    }
+}
@@ -0,0 +1,59 @@
+package com.ontop.wallet.adapters.jpa.entities;
+
+import com.ontop.wallet.domain.enums.TransferStatus;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Currency;
+
+/**
+ * A transfer moved out of the transfer table once it reached a terminal status; rows are only ever
+ * inserted by the archiver and keep the id they had in the hot table.
+ */
+@Entity
+@Table(name = "transfer_archive")
+@Getter
+@Setter
+@ToString
+public class TransferArchiveRecord {
+    @Id
+    private Long id;
+
+    @Column(nullable = false)
+    private Instant created;
+
+    private Instant updated;
+
+    @Column(nullable = false)
+    private String ontopAccountNumber;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private TransferStatus status;
+
+    @Column(nullable = false)
+    private BigDecimal transferCharge;
+
+    @Column(nullable = false)
+    private BigDecimal transferAmount;
+
+    @Column(nullable = false)
+    private Currency currency;
+
+    @Column(nullable = false)
+    private Long targetAccountId;
+
+    private Long version;
+
+    @Column(nullable = false)
+    private Instant archived;
+}
@@ -0,0 +1,87 @@
+package com.ontop.wallet.adapters.jpa.entities;
+
+import com.ontop.wallet.domain.enums.TransferCommandStatus;
+import com.ontop.wallet.domain.model.TransferCommand;
+import com.ontop.wallet.domain.valueobject.Id;
+import com.ontop.wallet.domain.valueobject.Money;
+import com.ontop.wallet.domain.valueobject.UserId;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.Hibernate;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Objects;
+
+@Entity
+@Table(name = "transfer_command", indexes = {
+        @Index(name = "idx_transfer_command_status_user", columnList = "status, userId"),
+        @Index(name = "idx_transfer_command_claimed_by", columnList = "claimedBy")
+})
+@Getter
+@Setter
+@ToString
+public class TransferCommandRecord extends BaseEntity {
+    @Column(nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private BigDecimal amount;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private TransferCommandStatus status;
+
+    private Long transferId;
+
+    private String errorCode;
+
+    private String errorMessage;
+
+    private String claimedBy;
+
+    private Instant claimedUntil;
+
+    public TransferCommand toDomain() {
+        return TransferCommand.transferCommand()
+                .id(new Id<>(this.id))
+                .created(this.created)
+                .updated(this.updated)
+                .userId(new UserId(this.userId))
+                .amount(Money.of(this.amount))
+                .status(this.status)
+                .transferId(this.transferId == null ? null : new Id<>(this.transferId))
+                .errorCode(this.errorCode)
+                .errorMessage(this.errorMessage)
+                .claimedBy(this.claimedBy)
+                .build();
+    }
+
+    public static TransferCommandRecord pending(Long userId, BigDecimal amount) {
+        final TransferCommandRecord record = new TransferCommandRecord();
+        record.userId(userId);
+        record.amount(amount);
+        record.status(TransferCommandStatus.PENDING);
+        return record;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || Hibernate.getClass(this) != Hibernate.getClass(o)) return false;
+        final TransferCommandRecord that = (TransferCommandRecord) o;
+        return id != null && Objects.equals(id, that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return getClass().hashCode();
+    }
+}
@@ -0,0 +1,52 @@
+package com.ontop.wallet.adapters.jpa.entities;
+
+import com.ontop.wallet.domain.enums.TransferEventType;
+import com.ontop.wallet.domain.enums.TransferStatus;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.time.Instant;
+
+/**
+ * A journal event of an archived transfer, see {@link TransferArchiveRecord}.
+ */
+@Entity
+@Table(name = "transfer_event_archive", indexes = {
+        @Index(name = "idx_transfer_event_archive_transfer", columnList = "transferId")
+})
+@Getter
+@Setter
+@ToString
+public class TransferEventArchiveRecord {
+    @Id
+    private Long id;
+
+    @Column(nullable = false)
+    private Instant created;
+
+    private Instant updated;
+
+    @Column(nullable = false)
+    private Long transferId;
+
+    @Column(nullable = false)
+    private Long sequence;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private TransferEventType type;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private TransferStatus status;
+
+    private String detail;
+}
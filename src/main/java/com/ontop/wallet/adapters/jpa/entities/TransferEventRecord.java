@@ -0,0 +1,82 @@
+package com.ontop.wallet.adapters.jpa.entities;
+
+import com.ontop.wallet.domain.enums.TransferEventType;
+import com.ontop.wallet.domain.enums.TransferStatus;
+import com.ontop.wallet.domain.model.TransferEvent;
+import com.ontop.wallet.domain.valueobject.Id;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.Hibernate;
+
+import java.util.Objects;
+
+/**
+ * Append-only; rows are inserted once and never updated. The unique (transferId, sequence) key
+ * rejects a second event for the same transfer version.
+ */
+@Entity
+@Table(name = "transfer_event", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_transfer_event_transfer_sequence", columnNames = { "transferId", "sequence" })
+})
+@Getter
+@Setter
+@ToString
+public class TransferEventRecord extends BaseEntity {
+    @Column(nullable = false)
+    private Long transferId;
+
+    @Column(nullable = false)
+    private Long sequence;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private TransferEventType type;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private TransferStatus status;
+
+    private String detail;
+
+    public TransferEvent toDomain() {
+        return TransferEvent.transferEvent()
+                .id(new Id<>(this.id))
+                .created(this.created)
+                .transferId(new Id<>(this.transferId))
+                .sequence(this.sequence)
+                .type(this.type)
+                .status(this.status)
+                .detail(this.detail)
+                .build();
+    }
+
+    public static TransferEventRecord of(Long transferId, Long sequence, TransferEventType type, TransferStatus status, String detail) {
+        final TransferEventRecord record = new TransferEventRecord();
+        record.transferId(transferId);
+        record.sequence(sequence);
+        record.type(type);
+        record.status(status);
+        record.detail(detail);
+        return record;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || Hibernate.getClass(this) != Hibernate.getClass(o)) return false;
+        final TransferEventRecord that = (TransferEventRecord) o;
+        return id != null && Objects.equals(id, that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return getClass().hashCode();
+    }
+}
@@ -11,10 +11,14 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.FetchType;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.Getter;
 import lombok.NonNull;
 import lombok.Setter;
@@ -29,11 +33,20 @@ import java.util.Objects;
 import java.util.stream.Collectors;
 
 @Entity
-@Table(name = "transfer")
+@Table(name = "transfer", indexes = {
+        @Index(name = "idx_transfer_status_updated", columnList = "status, updated"),
+        @Index(name = "idx_transfer_created", columnList = "created")
+})
+@NamedEntityGraph(name = TransferRecord.PROCESSING_GRAPH, attributeNodes = {
+        @NamedAttributeNode("targetAccount"),
+        @NamedAttributeNode("walletTransactions")
+})
 @Getter
 @Setter
 @ToString
 public class TransferRecord extends BaseEntity {
+    public static final String PROCESSING_GRAPH = "TransferRecord.processing";
+
     @Column(nullable = false)
     private String ontopAccountNumber;
 
@@ -50,19 +63,22 @@ public class TransferRecord extends BaseEntity {
     @Column(nullable = false)
     private Currency currency;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "target_account_id", referencedColumnName = "id", nullable = false)
     @ToString.Exclude
     private AccountRecord targetAccount;
 
-    @OneToMany(mappedBy = "transfer", fetch = FetchType.EAGER, cascade = { CascadeType.PERSIST, CascadeType.MERGE })
+    @OneToMany(mappedBy = "transfer", fetch = FetchType.LAZY, cascade = { CascadeType.PERSIST, CascadeType.MERGE })
     @ToString.Exclude
     private List<WalletTransactionRecord> walletTransactions = Collections.emptyList();
 
-    @OneToMany(mappedBy = "transfer", fetch = FetchType.EAGER, cascade = { CascadeType.PERSIST, CascadeType.MERGE })
+    @OneToMany(mappedBy = "transfer", fetch = FetchType.LAZY, cascade = { CascadeType.PERSIST, CascadeType.MERGE })
     @ToString.Exclude
     private List<PaymentRecord> payments = Collections.emptyList();
 
+    @Version
+    private Long version;
+
     public void walletTransactions(List<WalletTransactionRecord> walletTransactions) {
         walletTransactions.forEach(wt -> wt.transfer(this));
         this.walletTransactions = walletTransactions;
@@ -74,6 +90,21 @@ public class TransferRecord extends BaseEntity {
     }
 
     public Transfer toDomain() {
+        return toDomain(this.payments);
+    }
+
+    /**
+     * Maps the transfer with only the given payments, so callers that need just the current payment
+     * do not initialise the whole payments collection.
+     */
+    public Transfer toDomain(List<PaymentRecord> payments) {
+        return toDomain(this.walletTransactions, payments);
+    }
+
+    /**
+     * Maps the transfer with the given children, for callers that loaded them for several transfers at once.
+     */
+    public Transfer toDomain(List<WalletTransactionRecord> walletTransactions, List<PaymentRecord> payments) {
         return Transfer.transfer()
                 .id(new Id<>(this.id))
                 .created(this.created)
@@ -84,8 +115,9 @@ public class TransferRecord extends BaseEntity {
                 .transferAmount(Money.of(this.transferAmount))
                 .ontopAccountNumber(new AccountNumber(this.ontopAccountNumber))
                 .targetAccount(this.targetAccount.toDomain())
-                .walletTransactions(this.walletTransactions.stream().map(WalletTransactionRecord::toDomain).collect(Collectors.toList()))
-                .payments(this.payments.stream().map(PaymentRecord::toDomain).collect(Collectors.toList()))
+                .walletTransactions(walletTransactions.stream().map(WalletTransactionRecord::toDomain).collect(Collectors.toList()))
+                .payments(payments.stream().map(PaymentRecord::toDomain).collect(Collectors.toList()))
+                .version(this.version)
                 .build();
     }
 
@@ -106,6 +138,7 @@ public class TransferRecord extends BaseEntity {
                 .map(WalletTransactionRecord::of).toList();
         record.walletTransactions(transactions);
         record.payments(transfer.payments().stream().map(PaymentRecord::of).collect(Collectors.toList()));
+        record.version(transfer.version());
         return record;
     }
 
@@ -0,0 +1,113 @@
+package com.ontop.wallet.adapters.jpa.entities;
+
+import com.ontop.wallet.domain.enums.TransferStatus;
+import com.ontop.wallet.domain.model.UserTransferSummary;
+import com.ontop.wallet.domain.valueobject.Money;
+import com.ontop.wallet.domain.valueobject.UserId;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * One row per user, rewritten in the transaction of every transfer transition of that user.
+ */
+@Entity
+@Table(name = "user_transfer_summary")
+@Getter
+@Setter
+@ToString
+public class UserTransferSummaryRecord {
+    @Id
+    private Long userId;
+
+    @Column(nullable = false)
+    private BigDecimal pendingAmount;
+
+    @Column(nullable = false)
+    private long initializedCount;
+
+    @Column(nullable = false)
+    private long paymentInFlightCount;
+
+    @Column(nullable = false)
+    private long processingCount;
+
+    @Column(nullable = false)
+    private long unknownCount;
+
+    @Column(nullable = false)
+    private long failedCount;
+
+    @Column(nullable = false)
+    private long reversingCount;
+
+    @Column(nullable = false)
+    private long reversedCount;
+
+    @Column(nullable = false)
+    private long successfulCount;
+
+    private Instant lastTransferAt;
+
+    @Column(name = "totals_day")
+    private LocalDate day;
+
+    @Column(nullable = false)
+    private BigDecimal dayWithdrawnAmount;
+
+    @Column(nullable = false)
+    private long dayTransferCount;
+
+    public UserTransferSummary toDomain() {
+        final Map<TransferStatus, Long> countByStatus = new EnumMap<>(TransferStatus.class);
+        countByStatus.put(TransferStatus.INITIALIZED, this.initializedCount);
+        countByStatus.put(TransferStatus.PAYMENT_IN_FLIGHT, this.paymentInFlightCount);
+        countByStatus.put(TransferStatus.PROCESSING, this.processingCount);
+        countByStatus.put(TransferStatus.UNKNOWN, this.unknownCount);
+        countByStatus.put(TransferStatus.FAILED, this.failedCount);
+        countByStatus.put(TransferStatus.REVERSING, this.reversingCount);
+        countByStatus.put(TransferStatus.REVERSED, this.reversedCount);
+        countByStatus.put(TransferStatus.SUCCESSFUL, this.successfulCount);
+        return UserTransferSummary.userTransferSummary()
+                .userId(new UserId(this.userId))
+                .countByStatus(countByStatus)
+                .pendingAmount(Money.of(this.pendingAmount))
+                .lastTransferAt(this.lastTransferAt)
+                .day(this.day)
+                .dayWithdrawnAmount(Money.of(this.dayWithdrawnAmount))
+                .dayTransferCount(this.dayTransferCount)
+                .build();
+    }
+
+    /**
+     * Copies {@code summary} onto this row, which must be the row of the same user.
+     */
+    public UserTransferSummaryRecord apply(UserTransferSummary summary) {
+        final Map<TransferStatus, Long> countByStatus = summary.countByStatus();
+        this.userId = summary.userId().value();
+        this.pendingAmount = summary.pendingAmount().value();
+        this.initializedCount = countByStatus.get(TransferStatus.INITIALIZED);
+        this.paymentInFlightCount = countByStatus.get(TransferStatus.PAYMENT_IN_FLIGHT);
+        this.processingCount = countByStatus.get(TransferStatus.PROCESSING);
+        this.unknownCount = countByStatus.get(TransferStatus.UNKNOWN);
+        this.failedCount = countByStatus.get(TransferStatus.FAILED);
+        this.reversingCount = countByStatus.get(TransferStatus.REVERSING);
+        this.reversedCount = countByStatus.get(TransferStatus.REVERSED);
+        this.successfulCount = countByStatus.get(TransferStatus.SUCCESSFUL);
+        this.lastTransferAt = summary.lastTransferAt();
+        this.day = summary.day();
+        this.dayWithdrawnAmount = summary.dayWithdrawnAmount().value();
+        this.dayTransferCount = summary.dayTransferCount();
+        return this;
+    }
+}
@@ -0,0 +1,52 @@
+package com.ontop.wallet.adapters.jpa.entities;
+
+import com.ontop.wallet.domain.enums.WalletTransactionOperation;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * A wallet transaction of an archived transfer, see {@link TransferArchiveRecord}.
+ */
+@Entity
+@Table(name = "wallet_transaction_archive", indexes = {
+        @Index(name = "idx_wallet_transaction_archive_user_created", columnList = "userId, created, id")
+})
+@Getter
+@Setter
+@ToString
+public class WalletTransactionArchiveRecord {
+    @Id
+    private Long id;
+
+    @Column(nullable = false)
+    private Instant created;
+
+    private Instant updated;
+
+    @Column(nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private Long walletTransactionId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private WalletTransactionOperation operation;
+
+    @Column(nullable = false)
+    private BigDecimal amount;
+
+    @Column(nullable = false)
+    private Long transferId;
+}
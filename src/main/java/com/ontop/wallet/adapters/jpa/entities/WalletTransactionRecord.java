@@ -11,9 +11,11 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.FetchType;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
+import lombok.Getter;
 import lombok.NonNull;
 import lombok.Setter;
 import lombok.ToString;
@@ -21,7 +23,10 @@ import lombok.ToString;
 import java.math.BigDecimal;
 
 @Entity
-@Table(name = "wallet_transaction")
+@Table(name = "wallet_transaction", indexes = {
+        @Index(name = "idx_wallet_transaction_user_created", columnList = "userId, created, id")
+})
+@Getter
 @Setter
 @ToString
 public class WalletTransactionRecord extends BaseEntity {
@@ -67,4 +72,10 @@ public class WalletTransactionRecord extends BaseEntity {
         record.amount(walletTransaction.amount().value());
         return record;
     }
+
+    public static WalletTransactionRecord of(@NonNull final WalletTransaction walletTransaction, @NonNull final TransferRecord transfer) {
+        final WalletTransactionRecord record = of(walletTransaction);
+        record.transfer(transfer);
+        return record;
+    }
 }
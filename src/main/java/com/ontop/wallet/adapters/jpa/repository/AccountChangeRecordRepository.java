@@ -0,0 +1,20 @@
+package com.ontop.wallet.adapters.jpa.repository;
+
+import com.ontop.wallet.adapters.jpa.entities.AccountChangeRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface AccountChangeRecordRepository extends JpaRepository<AccountChangeRecord, Long> {
+    List<AccountChangeRecord> findByCreatedGreaterThanEqual(Instant since);
+
+    @Modifying
+    @Query("delete from AccountChangeRecord c where c.created < :before")
+    int deleteCreatedBefore(@Param("before") Instant before);
+}
@@ -4,9 +4,13 @@ import com.ontop.wallet.adapters.jpa.entities.AccountRecord;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface AccountRecordRepository extends JpaRepository<AccountRecord, Long> {
     Optional<AccountRecord> findByUserId(Long userId);
+
+    List<AccountRecord> findByUserIdIn(Collection<Long> userIds);
 }
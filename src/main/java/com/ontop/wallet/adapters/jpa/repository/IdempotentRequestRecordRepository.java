@@ -0,0 +1,67 @@
+package com.ontop.wallet.adapters.jpa.repository;
+
+import com.ontop.wallet.adapters.jpa.entities.IdempotentRequestRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Optional;
+
+@Repository
+public interface IdempotentRequestRecordRepository extends JpaRepository<IdempotentRequestRecord, String> {
+    /**
+     * Read-write, unlike the inherited lookup, so that it is served by the primary: the key may have been
+     * inserted by another request a moment before and not be on the replica yet.
+     */
+    @Override
+    @Transactional
+    Optional<IdempotentRequestRecord> findById(String key);
+
+    /**
+     * A plain insert, unlike {@code save}, which would merge into a row already holding the key. It runs in
+     * its own transaction so that a duplicate key only rolls back the insert.
+     */
+    @Modifying
+    @Transactional
+    @Query("insert into IdempotentRequestRecord (key, holder, userId, amount, expiresAt) " +
+            "values (:key, :holder, :userId, :amount, :expiresAt)")
+    int insert(
+            @Param("key") String key,
+            @Param("holder") String holder,
+            @Param("userId") Long userId,
+            @Param("amount") BigDecimal amount,
+            @Param("expiresAt") Instant expiresAt
+    );
+
+    @Modifying
+    @Query("update IdempotentRequestRecord r set r.responseStatus = :responseStatus, r.responseLocation = :responseLocation, " +
+            "r.responseBody = :responseBody, r.expiresAt = :expiresAt " +
+            "where r.key = :key and r.holder = :holder and r.responseStatus is null")
+    int complete(
+            @Param("key") String key,
+            @Param("holder") String holder,
+            @Param("responseStatus") int responseStatus,
+            @Param("responseLocation") String responseLocation,
+            @Param("responseBody") String responseBody,
+            @Param("expiresAt") Instant expiresAt
+    );
+
+    @Modifying
+    @Query("delete from IdempotentRequestRecord r " +
+            "where r.key = :key and r.holder = :holder and r.responseStatus is null")
+    int deleteHeld(@Param("key") String key, @Param("holder") String holder);
+
+    @Modifying
+    @Transactional
+    @Query("delete from IdempotentRequestRecord r where r.key = :key and r.expiresAt <= :now")
+    int deleteIfExpired(@Param("key") String key, @Param("now") Instant now);
+
+    @Modifying
+    @Query("delete from IdempotentRequestRecord r where r.expiresAt <= :now")
+    int deleteExpired(@Param("now") Instant now);
+}
@@ -0,0 +1,19 @@
+package com.ontop.wallet.adapters.jpa.repository;
+
+import com.ontop.wallet.adapters.jpa.entities.PaymentArchiveRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+
+@Repository
+public interface PaymentArchiveRecordRepository extends JpaRepository<PaymentArchiveRecord, Long> {
+    @Modifying(flushAutomatically = true)
+    @Query("insert into PaymentArchiveRecord (id, created, updated, transactionId, amount, status, isCurrent, error, transferId) " +
+            "select p.id, p.created, p.updated, p.transactionId, p.amount, p.status, p.isCurrent, p.error, p.transfer.id " +
+            "from PaymentRecord p where p.transfer.id in :transferIds")
+    int copyFromPayments(@Param("transferIds") Collection<Long> transferIds);
+}
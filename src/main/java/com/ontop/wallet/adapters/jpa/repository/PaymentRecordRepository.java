@@ -0,0 +1,32 @@
+package com.ontop.wallet.adapters.jpa.repository;
+
+import com.ontop.wallet.adapters.jpa.entities.PaymentRecord;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface PaymentRecordRepository extends JpaRepository<PaymentRecord, Long> {
+    List<PaymentRecord> findByTransferIdAndIsCurrentTrue(Long transferId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update PaymentRecord p set p.isCurrent = false, p.updated = :now where p.transfer.id = :transferId and p.isCurrent = true")
+    int clearCurrent(@Param("transferId") Long transferId, @Param("now") Instant now);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("select p from PaymentRecord p where p.transfer.id in :transferIds order by p.id")
+    List<PaymentRecord> findByTransferIds(@Param("transferIds") Collection<Long> transferIds);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from PaymentRecord p where p.transfer.id in :transferIds")
+    int deleteByTransferIds(@Param("transferIds") Collection<Long> transferIds);
+}
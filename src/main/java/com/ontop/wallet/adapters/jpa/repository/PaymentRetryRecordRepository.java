@@ -0,0 +1,52 @@
+package com.ontop.wallet.adapters.jpa.repository;
+
+import com.ontop.wallet.adapters.jpa.entities.PaymentRetryRecord;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface PaymentRetryRecordRepository extends JpaRepository<PaymentRetryRecord, Long> {
+    @Query("select r.id from PaymentRetryRecord r " +
+            "where r.dueAt <= :now and (r.claimedUntil is null or r.claimedUntil < :now) " +
+            "order by r.dueAt")
+    List<Long> findClaimableIds(@Param("now") Instant now, Pageable pageable);
+
+    @Modifying(clearAutomatically = true)
+    @Query("update PaymentRetryRecord r set r.claimedBy = :claimedBy, r.claimedUntil = :claimedUntil, r.updated = :now " +
+            "where r.id in :ids and (r.claimedUntil is null or r.claimedUntil < :now)")
+    int claim(
+            @Param("ids") Collection<Long> ids,
+            @Param("claimedBy") String claimedBy,
+            @Param("claimedUntil") Instant claimedUntil,
+            @Param("now") Instant now
+    );
+
+    List<PaymentRetryRecord> findByClaimedBy(String claimedBy);
+
+    @Modifying(clearAutomatically = true)
+    @Query("update PaymentRetryRecord r set r.claimedUntil = :claimedUntil, r.updated = :now " +
+            "where r.id = :id and r.claimedBy = :claimedBy")
+    int renew(
+            @Param("id") Long id,
+            @Param("claimedBy") String claimedBy,
+            @Param("claimedUntil") Instant claimedUntil,
+            @Param("now") Instant now
+    );
+
+    @Modifying(clearAutomatically = true)
+    @Query("update PaymentRetryRecord r set r.claimedBy = null, r.claimedUntil = null, r.updated = :now " +
+            "where r.id = :id and r.claimedBy = :claimedBy")
+    int release(@Param("id") Long id, @Param("claimedBy") String claimedBy, @Param("now") Instant now);
+
+    @Modifying(clearAutomatically = true)
+    @Query("delete from PaymentRetryRecord r where r.id = :id and r.claimedBy = :claimedBy")
+    int deleteClaimed(@Param("id") Long id, @Param("claimedBy") String claimedBy);
+}
@@ -0,0 +1,31 @@
+package com.ontop.wallet.adapters.jpa.repository;
+
+import com.ontop.wallet.domain.enums.TransferStatus;
+import com.ontop.wallet.domain.enums.WalletTransactionOperation;
+import com.ontop.wallet.domain.model.TransactionHistoryEntry;
+import com.ontop.wallet.domain.valueobject.Id;
+import com.ontop.wallet.domain.valueobject.Money;
+import com.ontop.wallet.domain.valueobject.UserId;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+public record TransactionHistoryRow(
+        Long id,
+        Long userId,
+        BigDecimal amount,
+        Instant created,
+        WalletTransactionOperation operation,
+        TransferStatus transferStatus
+) {
+    public TransactionHistoryEntry toDomain() {
+        return TransactionHistoryEntry.transactionHistoryEntry()
+                .id(new Id<>(this.id))
+                .created(this.created)
+                .userId(new UserId(this.userId))
+                .amount(Money.of(this.amount))
+                .operation(this.operation)
+                .transferStatus(this.transferStatus)
+                .build();
+    }
+}
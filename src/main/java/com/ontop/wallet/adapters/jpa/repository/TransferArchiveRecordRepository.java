@@ -0,0 +1,22 @@
+package com.ontop.wallet.adapters.jpa.repository;
+
+import com.ontop.wallet.adapters.jpa.entities.TransferArchiveRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+
+@Repository
+public interface TransferArchiveRecordRepository extends JpaRepository<TransferArchiveRecord, Long> {
+    @Modifying(flushAutomatically = true)
+    @Query("insert into TransferArchiveRecord (id, created, updated, ontopAccountNumber, status, transferCharge, " +
+            "transferAmount, currency, targetAccountId, version, archived) " +
+            "select t.id, t.created, t.updated, t.ontopAccountNumber, t.status, t.transferCharge, " +
+            "t.transferAmount, t.currency, t.targetAccount.id, t.version, :now " +
+            "from TransferRecord t where t.id in :transferIds")
+    int copyFromTransfers(@Param("transferIds") Collection<Long> transferIds, @Param("now") Instant now);
+}
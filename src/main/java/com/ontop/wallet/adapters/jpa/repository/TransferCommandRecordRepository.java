@@ -0,0 +1,99 @@
+package com.ontop.wallet.adapters.jpa.repository;
+
+import com.ontop.wallet.adapters.jpa.entities.TransferCommandRecord;
+import com.ontop.wallet.domain.enums.TransferCommandStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface TransferCommandRecordRepository extends JpaRepository<TransferCommandRecord, Long> {
+    /**
+     * The oldest pending command of each user, unless it is under a live claim.
+     */
+    @Query("select c.id from TransferCommandRecord c " +
+            "where c.status = com.ontop.wallet.domain.enums.TransferCommandStatus.PENDING " +
+            "and (c.claimedUntil is null or c.claimedUntil < :now) " +
+            "and not exists (select o.id from TransferCommandRecord o " +
+            "where o.userId = c.userId and o.status in (com.ontop.wallet.domain.enums.TransferCommandStatus.PENDING, " +
+            "com.ontop.wallet.domain.enums.TransferCommandStatus.STARTED) " +
+            "and (o.created < c.created or (o.created = c.created and o.id < c.id))) " +
+            "order by c.created, c.id")
+    List<Long> findClaimableIds(@Param("now") Instant now, Pageable pageable);
+
+    @Modifying(clearAutomatically = true)
+    @Query("update TransferCommandRecord c set c.claimedBy = :claimedBy, c.claimedUntil = :claimedUntil, c.updated = :now " +
+            "where c.id in :ids and c.status = com.ontop.wallet.domain.enums.TransferCommandStatus.PENDING " +
+            "and (c.claimedUntil is null or c.claimedUntil < :now)")
+    int claim(
+            @Param("ids") Collection<Long> ids,
+            @Param("claimedBy") String claimedBy,
+            @Param("claimedUntil") Instant claimedUntil,
+            @Param("now") Instant now
+    );
+
+    List<TransferCommandRecord> findByClaimedByOrderByCreatedAscIdAsc(String claimedBy);
+
+    @Modifying(clearAutomatically = true)
+    @Query("update TransferCommandRecord c set c.status = com.ontop.wallet.domain.enums.TransferCommandStatus.STARTED, " +
+            "c.claimedUntil = :claimedUntil, c.updated = :now " +
+            "where c.id = :id and c.claimedBy = :claimedBy " +
+            "and c.status = com.ontop.wallet.domain.enums.TransferCommandStatus.PENDING")
+    int start(
+            @Param("id") Long id,
+            @Param("claimedBy") String claimedBy,
+            @Param("claimedUntil") Instant claimedUntil,
+            @Param("now") Instant now
+    );
+
+    @Modifying(clearAutomatically = true)
+    @Query("update TransferCommandRecord c set c.status = :status, c.transferId = :transferId, " +
+            "c.errorCode = :errorCode, c.errorMessage = :errorMessage, " +
+            "c.claimedBy = null, c.claimedUntil = null, c.updated = :now " +
+            "where c.id = :id and c.claimedBy = :claimedBy")
+    int finish(
+            @Param("id") Long id,
+            @Param("claimedBy") String claimedBy,
+            @Param("status") TransferCommandStatus status,
+            @Param("transferId") Long transferId,
+            @Param("errorCode") String errorCode,
+            @Param("errorMessage") String errorMessage,
+            @Param("now") Instant now
+    );
+
+    /**
+     * Only called for a command whose withdrawal was not attempted, so a STARTED one goes back to PENDING.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("update TransferCommandRecord c set c.status = com.ontop.wallet.domain.enums.TransferCommandStatus.PENDING, " +
+            "c.claimedBy = null, c.claimedUntil = null, c.updated = :now " +
+            "where c.id = :id and c.claimedBy = :claimedBy")
+    int release(@Param("id") Long id, @Param("claimedBy") String claimedBy, @Param("now") Instant now);
+
+    /**
+     * Ends STARTED commands whose worker stopped holding the claim as UNKNOWN, as their withdrawal may
+     * have been made.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("update TransferCommandRecord c set c.status = com.ontop.wallet.domain.enums.TransferCommandStatus.UNKNOWN, " +
+            "c.errorCode = :errorCode, c.errorMessage = :errorMessage, " +
+            "c.claimedBy = null, c.claimedUntil = null, c.updated = :now " +
+            "where c.status = com.ontop.wallet.domain.enums.TransferCommandStatus.STARTED and c.claimedUntil < :now")
+    int expireStarted(@Param("errorCode") String errorCode, @Param("errorMessage") String errorMessage, @Param("now") Instant now);
+
+    /**
+     * UNKNOWN commands are kept until they are reconciled.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("delete from TransferCommandRecord c " +
+            "where c.status in (com.ontop.wallet.domain.enums.TransferCommandStatus.COMPLETED, " +
+            "com.ontop.wallet.domain.enums.TransferCommandStatus.FAILED) and c.updated < :updatedBefore")
+    int deleteFinishedBefore(@Param("updatedBefore") Instant updatedBefore);
+}
@@ -0,0 +1,22 @@
+package com.ontop.wallet.adapters.jpa.repository;
+
+import com.ontop.wallet.adapters.jpa.entities.TransferEventArchiveRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface TransferEventArchiveRecordRepository extends JpaRepository<TransferEventArchiveRecord, Long> {
+    @Modifying(flushAutomatically = true)
+    @Query("insert into TransferEventArchiveRecord (id, created, updated, transferId, sequence, type, status, detail) " +
+            "select e.id, e.created, e.updated, e.transferId, e.sequence, e.type, e.status, e.detail " +
+            "from TransferEventRecord e where e.transferId in :transferIds")
+    int copyFromTransferEvents(@Param("transferIds") Collection<Long> transferIds);
+
+    List<TransferEventArchiveRecord> findByTransferIdOrderBySequence(Long transferId);
+}
@@ -0,0 +1,20 @@
+package com.ontop.wallet.adapters.jpa.repository;
+
+import com.ontop.wallet.adapters.jpa.entities.TransferEventRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface TransferEventRecordRepository extends JpaRepository<TransferEventRecord, Long> {
+    List<TransferEventRecord> findByTransferIdOrderBySequence(Long transferId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from TransferEventRecord e where e.transferId in :transferIds")
+    int deleteByTransferIds(@Param("transferIds") Collection<Long> transferIds);
+}
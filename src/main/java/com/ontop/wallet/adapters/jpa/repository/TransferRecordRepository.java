@@ -1,9 +1,76 @@
 package com.ontop.wallet.adapters.jpa.repository;
 
 import com.ontop.wallet.adapters.jpa.entities.TransferRecord;
+import com.ontop.wallet.domain.enums.TransferStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
 @Repository
 public interface TransferRecordRepository extends JpaRepository<TransferRecord, Long> {
+    @EntityGraph(TransferRecord.PROCESSING_GRAPH)
+    @Query("select t from TransferRecord t where t.id = :id")
+    Optional<TransferRecord> findWithProcessingGraphById(@Param("id") Long id);
+
+    @Query("select new com.ontop.wallet.adapters.jpa.repository.TransferSummaryRow(" +
+            "t.id, t.created, t.updated, t.status, t.transferAmount, t.transferCharge, t.currency, t.version) " +
+            "from TransferRecord t where t.id = :id")
+    Optional<TransferSummaryRow> findSummaryById(@Param("id") Long id);
+
+    /**
+     * Forward-only cursor over the transfers to export; the stream must be consumed and closed inside
+     * a transaction. Target accounts are fetched in the same row, children are loaded per chunk.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select t from TransferRecord t join fetch t.targetAccount " +
+            "where t.created >= :startDate and t.created < :endDate and t.status in :statuses " +
+            "order by t.id")
+    Stream<TransferRecord> streamForExport(
+            @Param("startDate") Instant startDate,
+            @Param("endDate") Instant endDate,
+            @Param("statuses") Collection<TransferStatus> statuses
+    );
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update versioned TransferRecord t set t.status = :status, t.updated = :now where t.id = :id and t.version = :version")
+    int updateStatus(
+            @Param("id") Long id,
+            @Param("version") Long version,
+            @Param("status") TransferStatus status,
+            @Param("now") Instant now
+    );
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update versioned TransferRecord t set t.updated = :now where t.id = :id and t.version = :version")
+    int advanceVersion(@Param("id") Long id, @Param("version") Long version, @Param("now") Instant now);
+
+    /**
+     * Seeks on idx_transfer_status_updated for transfers in one of {@code statuses} last changed before {@code updatedBefore}.
+     */
+    @Query("select t.id from TransferRecord t where t.status in :statuses and t.updated < :updatedBefore order by t.id")
+    List<Long> findIdsByStatusUpdatedBefore(
+            @Param("statuses") Collection<TransferStatus> statuses,
+            @Param("updatedBefore") Instant updatedBefore,
+            Limit limit
+    );
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from TransferRecord t where t.id in :ids and t.status in :statuses")
+    int deleteByIdInAndStatusIn(@Param("ids") Collection<Long> ids, @Param("statuses") Collection<TransferStatus> statuses);
 }
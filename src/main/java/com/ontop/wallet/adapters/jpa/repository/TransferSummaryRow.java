@@ -0,0 +1,34 @@
+package com.ontop.wallet.adapters.jpa.repository;
+
+import com.ontop.wallet.domain.enums.TransferStatus;
+import com.ontop.wallet.domain.model.TransferSummary;
+import com.ontop.wallet.domain.valueobject.Id;
+import com.ontop.wallet.domain.valueobject.Money;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Currency;
+
+public record TransferSummaryRow(
+        Long id,
+        Instant created,
+        Instant updated,
+        TransferStatus status,
+        BigDecimal transferAmount,
+        BigDecimal transferCharge,
+        Currency currency,
+        Long version
+) {
+    public TransferSummary toDomain() {
+        return TransferSummary.transferSummary()
+                .id(new Id<>(this.id))
+                .created(this.created)
+                .updated(this.updated)
+                .status(this.status)
+                .transferAmount(Money.of(this.transferAmount))
+                .transferCharge(Money.of(this.transferCharge))
+                .currency(this.currency)
+                .version(this.version)
+                .build();
+    }
+}
@@ -0,0 +1,22 @@
+package com.ontop.wallet.adapters.jpa.repository;
+
+import com.ontop.wallet.adapters.jpa.entities.UserTransferSummaryRecord;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface UserTransferSummaryRecordRepository extends JpaRepository<UserTransferSummaryRecord, Long> {
+    /**
+     * Locks the user's row until the calling transaction ends, so concurrent transitions of the
+     * user's transfers apply one after the other.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from UserTransferSummaryRecord s where s.userId = :userId")
+    Optional<UserTransferSummaryRecord> findForUpdate(@Param("userId") Long userId);
+}
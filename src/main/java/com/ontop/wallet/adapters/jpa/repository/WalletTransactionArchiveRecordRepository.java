@@ -0,0 +1,43 @@
+package com.ontop.wallet.adapters.jpa.repository;
+
+import com.ontop.wallet.adapters.jpa.entities.WalletTransactionArchiveRecord;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface WalletTransactionArchiveRecordRepository extends JpaRepository<WalletTransactionArchiveRecord, Long> {
+    @Modifying(flushAutomatically = true)
+    @Query("insert into WalletTransactionArchiveRecord (id, created, updated, userId, walletTransactionId, operation, amount, transferId) " +
+            "select w.id, w.created, w.updated, w.userId, w.walletTransactionId, w.operation, w.amount, w.transfer.id " +
+            "from WalletTransactionRecord w where w.transfer.id in :transferIds")
+    int copyFromWalletTransactions(@Param("transferIds") Collection<Long> transferIds);
+
+    /**
+     * Same seek as {@link WalletTransactionRecordRepository#findHistory}, on idx_wallet_transaction_archive_user_created.
+     */
+    @Query("select new com.ontop.wallet.adapters.jpa.repository.TransactionHistoryRow(" +
+            "w.id, w.userId, w.amount, w.created, w.operation, t.status) " +
+            "from WalletTransactionArchiveRecord w join TransferArchiveRecord t on t.id = w.transferId " +
+            "where w.userId = :userId " +
+            "and (w.created < :beforeCreated or (w.created = :beforeCreated and w.id < :beforeId)) " +
+            "and w.created >= :startDate " +
+            "and (:amount is null or abs(w.amount) = :amount) " +
+            "order by w.created desc, w.id desc")
+    List<TransactionHistoryRow> findHistory(
+            @Param("userId") Long userId,
+            @Param("beforeCreated") Instant beforeCreated,
+            @Param("beforeId") Long beforeId,
+            @Param("startDate") Instant startDate,
+            @Param("amount") BigDecimal amount,
+            Limit limit
+    );
+}
@@ -0,0 +1,49 @@
+package com.ontop.wallet.adapters.jpa.repository;
+
+import com.ontop.wallet.adapters.jpa.entities.WalletTransactionRecord;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface WalletTransactionRecordRepository extends JpaRepository<WalletTransactionRecord, Long> {
+    /**
+     * Seeks on idx_wallet_transaction_user_created: rows strictly before (beforeCreated, beforeId) and
+     * at or after {@code startDate}, newest first.
+     */
+    @Query("select new com.ontop.wallet.adapters.jpa.repository.TransactionHistoryRow(" +
+            "w.id, w.userId, w.amount, w.created, w.operation, t.status) " +
+            "from WalletTransactionRecord w join w.transfer t " +
+            "where w.userId = :userId " +
+            "and (w.created < :beforeCreated or (w.created = :beforeCreated and w.id < :beforeId)) " +
+            "and w.created >= :startDate " +
+            "and (:amount is null or abs(w.amount) = :amount) " +
+            "order by w.created desc, w.id desc")
+    List<TransactionHistoryRow> findHistory(
+            @Param("userId") Long userId,
+            @Param("beforeCreated") Instant beforeCreated,
+            @Param("beforeId") Long beforeId,
+            @Param("startDate") Instant startDate,
+            @Param("amount") BigDecimal amount,
+            Limit limit
+    );
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("select w from WalletTransactionRecord w where w.transfer.id in :transferIds order by w.id")
+    List<WalletTransactionRecord> findByTransferIds(@Param("transferIds") Collection<Long> transferIds);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from WalletTransactionRecord w where w.transfer.id in :transferIds")
+    int deleteByTransferIds(@Param("transferIds") Collection<Long> transferIds);
+}
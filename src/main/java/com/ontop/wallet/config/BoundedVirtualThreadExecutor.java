@@ -0,0 +1,57 @@
+package com.ontop.wallet.config;
+
+import com.ontop.wallet.config.PaymentExecutorProperties.RejectionPolicy;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+
+import java.util.concurrent.Semaphore;
+
+/**
+ * Starts a virtual thread per task, with at most {@code maxConcurrency} tasks in flight. There is no
+ * queue: beyond the limit a task is rejected or run by the caller, depending on the rejection policy.
+ */
+class BoundedVirtualThreadExecutor implements TaskExecutor {
+    private final VirtualThreadTaskExecutor delegate;
+    private final Semaphore permits;
+    private final int maxConcurrency;
+    private final RejectionPolicy rejectionPolicy;
+    private final TaskDecorator taskDecorator;
+
+    BoundedVirtualThreadExecutor(String threadNamePrefix, int maxConcurrency, RejectionPolicy rejectionPolicy, TaskDecorator taskDecorator) {
+        this.delegate = new VirtualThreadTaskExecutor(threadNamePrefix);
+        this.permits = new Semaphore(maxConcurrency);
+        this.maxConcurrency = maxConcurrency;
+        this.rejectionPolicy = rejectionPolicy;
+        this.taskDecorator = taskDecorator;
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        final Runnable decorated = taskDecorator.decorate(task);
+        if (!permits.tryAcquire()) {
+            if (rejectionPolicy == RejectionPolicy.CALLER_RUNS) {
+                decorated.run();
+                return;
+            }
+            throw new TaskRejectedException("virtual thread executor at capacity: maxConcurrency=" + maxConcurrency);
+        }
+        try {
+            delegate.execute(() -> {
+                try {
+                    decorated.run();
+                } finally {
+                    permits.release();
+                }
+            });
+        } catch (RuntimeException ex) {
+            permits.release();
+            throw ex;
+        }
+    }
+
+    int active() {
+        return maxConcurrency - permits.availablePermits();
+    }
+}
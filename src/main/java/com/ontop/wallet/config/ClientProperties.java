@@ -1,6 +1,21 @@
 package com.ontop.wallet.config;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
 
 @ConfigurationProperties("client")
-record ClientProperties(String host, int connectionTimeoutMs, int readTimeoutMs) { }
+record ClientProperties(
+        String host,
+        int connectionTimeoutMs,
+        int readTimeoutMs,
+        @DefaultValue Pool walletPool,
+        @DefaultValue Pool paymentPool
+) {
+    record Pool(
+            @DefaultValue("50") int maxConnections,
+            @DefaultValue("2000") int leaseTimeoutMs,
+            @DefaultValue("30") int keepAliveSeconds,
+            @DefaultValue("60") int idleEvictionSeconds,
+            @DefaultValue("300") int timeToLiveSeconds
+    ) { }
+}
@@ -1,12 +1,12 @@
 package com.ontop.wallet.config;
 
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.integration.jdbc.lock.DefaultLockRepository;
-import org.springframework.integration.jdbc.lock.JdbcLockRegistry;
 import org.springframework.integration.jdbc.lock.LockRepository;
-import org.springframework.integration.support.locks.LockRegistry;
 
 import javax.sql.DataSource;
 
@@ -15,15 +15,16 @@ public class JdbcLockConfiguration {
     @Value("${jdbc.lock.release-time-seconds}")
     private int releaseTimeSeconds;
 
+    /**
+     * Locks always go to the primary, bypassing read-replica routing when it is enabled.
+     */
     @Bean
-    public LockRepository lockRepository(DataSource datasource) {
-        final DefaultLockRepository defaultLockRepository = new DefaultLockRepository(datasource);
+    public LockRepository lockRepository(
+            @Qualifier(ReadReplicaDataSourceConfiguration.PRIMARY_DATA_SOURCE) ObjectProvider<DataSource> primaryDataSource,
+            DataSource dataSource
+    ) {
+        final DefaultLockRepository defaultLockRepository = new DefaultLockRepository(primaryDataSource.getIfAvailable(() -> dataSource));
         defaultLockRepository.setTimeToLive(releaseTimeSeconds);
         return defaultLockRepository;
     }
-
-    @Bean
-    public LockRegistry jdbcLockRegistry(LockRepository repository) {
-        return new JdbcLockRegistry(repository);
-    }
 }
@@ -0,0 +1,105 @@
+package com.ontop.wallet.config;
+
+import com.ontop.wallet.config.PaymentExecutorProperties.RejectionPolicy;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.util.Assert;
+
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Executor for {@code @Async("paymentProcessingExecutor")} work. The queue is bounded; once it is full,
+ * submissions are either rejected so the caller can park them durably, or run on the caller's thread.
+ * When virtual threads are enabled, each payment gets its own virtual thread and the bound applies to
+ * the number of payments in flight instead.
+ */
+@Configuration
+@EnableConfigurationProperties({ PaymentExecutorProperties.class })
+public class PaymentExecutorConfiguration {
+    @Bean
+    public TaskExecutor paymentProcessingExecutor(PaymentExecutorProperties properties, MeterRegistry meterRegistry, Environment environment) {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            return virtualThreadExecutor(properties, meterRegistry);
+        }
+        return platformThreadExecutor(properties, meterRegistry);
+    }
+
+    private static TaskExecutor virtualThreadExecutor(PaymentExecutorProperties properties, MeterRegistry meterRegistry) {
+        Assert.isTrue(properties.virtualMaxConcurrency() > 0, "payment executor virtual max concurrency should be > 0");
+        final BoundedVirtualThreadExecutor executor = new BoundedVirtualThreadExecutor(
+                "payment-processing-",
+                properties.virtualMaxConcurrency(),
+                properties.rejectionPolicy(),
+                latencyRecordingDecorator(meterRegistry)
+        );
+        Gauge.builder("payment.processing.active", executor, BoundedVirtualThreadExecutor::active)
+                .description("payment processing threads currently running a task")
+                .register(meterRegistry);
+        return executor;
+    }
+
+    private static TaskExecutor platformThreadExecutor(PaymentExecutorProperties properties, MeterRegistry meterRegistry) {
+        Assert.isTrue(properties.coreThreads() > 0, "payment executor core threads should be > 0");
+        Assert.isTrue(properties.maxThreads() >= properties.coreThreads(), "payment executor max threads should be >= core threads");
+        Assert.isTrue(properties.queueCapacity() > 0, "payment executor queue capacity should be > 0");
+
+        final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(properties.coreThreads());
+        executor.setMaxPoolSize(properties.maxThreads());
+        executor.setQueueCapacity(properties.queueCapacity());
+        executor.setThreadNamePrefix("payment-processing-");
+        executor.setRejectedExecutionHandler(rejectedExecutionHandler(properties.rejectionPolicy()));
+        executor.setTaskDecorator(latencyRecordingDecorator(meterRegistry));
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+
+        Gauge.builder("payment.processing.active", executor, ThreadPoolTaskExecutor::getActiveCount)
+                .description("payment processing threads currently running a task")
+                .register(meterRegistry);
+        Gauge.builder("payment.processing.queue.size", executor, ThreadPoolTaskExecutor::getQueueSize)
+                .description("payments waiting for a processing thread")
+                .register(meterRegistry);
+        Gauge.builder("payment.processing.queue.remaining", executor, e -> e.getQueueCapacity() - e.getQueueSize())
+                .register(meterRegistry);
+        return executor;
+    }
+
+    private static RejectedExecutionHandler rejectedExecutionHandler(RejectionPolicy policy) {
+        return switch (policy) {
+            case PARK -> new ThreadPoolExecutor.AbortPolicy();
+            case CALLER_RUNS -> new ThreadPoolExecutor.CallerRunsPolicy();
+        };
+    }
+
+    static TaskDecorator latencyRecordingDecorator(MeterRegistry meterRegistry) {
+        final Timer queueWait = Timer.builder("payment.processing.queue.wait")
+                .description("time a payment spent queued before a thread picked it up")
+                .register(meterRegistry);
+        final Timer execution = Timer.builder("payment.processing.execution")
+                .description("time spent processing a payment")
+                .register(meterRegistry);
+        return task -> {
+            final long submittedAt = System.nanoTime();
+            return () -> {
+                final long startedAt = System.nanoTime();
+                queueWait.record(startedAt - submittedAt, TimeUnit.NANOSECONDS);
+                try {
+                    task.run();
+                } finally {
+                    execution.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                }
+            };
+        };
+    }
+}
@@ -0,0 +1,20 @@
+package com.ontop.wallet.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties("ontop.payment.executor")
+record PaymentExecutorProperties(
+        @DefaultValue("4") int coreThreads,
+        @DefaultValue("8") int maxThreads,
+        @DefaultValue("500") int queueCapacity,
+        @DefaultValue("1000") int virtualMaxConcurrency,
+        @DefaultValue("PARK") RejectionPolicy rejectionPolicy
+) {
+    enum RejectionPolicy {
+        /** reject with TaskRejectedException so the caller parks the payment in the retry outbox */
+        PARK,
+        /** run the payment on the submitting thread, slowing down intake */
+        CALLER_RUNS
+    }
+}
@@ -0,0 +1,70 @@
+package com.ontop.wallet.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.Assert;
+
+import javax.sql.DataSource;
+
+/**
+ * Replaces the single auto-configured DataSource with a primary pool built from {@code spring.datasource}
+ * and a read-only replica pool built from {@code ontop.datasource.replica}. The application DataSource
+ * routes read-only transactions to the replica; schema updates, data.sql, writes and the JDBC lock
+ * repository stay on the primary.
+ */
+@Configuration
+@ConditionalOnProperty(value = "ontop.datasource.replica.enabled", havingValue = "true")
+@EnableConfigurationProperties({ ReadReplicaProperties.class })
+public class ReadReplicaDataSourceConfiguration {
+    public static final String PRIMARY_DATA_SOURCE = "primaryDataSource";
+
+    @Bean(name = PRIMARY_DATA_SOURCE)
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        final HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public HikariDataSource replicaDataSource(ReadReplicaProperties properties) {
+        Assert.hasText(properties.url(), "replica datasource url should be set");
+        Assert.isTrue(properties.maxPoolSize() > 0, "replica max pool size should be > 0");
+        final HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("replica");
+        dataSource.setJdbcUrl(properties.url());
+        dataSource.setUsername(properties.username());
+        dataSource.setPassword(properties.password());
+        dataSource.setMaximumPoolSize(properties.maxPoolSize());
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(
+            @Qualifier("replicaDataSource") DataSource replicaDataSource, ReadReplicaProperties properties, MeterRegistry meterRegistry
+    ) {
+        Assert.hasText(properties.lagQuery(), "replica lag query should be set");
+        Assert.isTrue(properties.maxLagMs() >= 0, "replica max lag should be >= 0");
+        return new ReplicaLagMonitor(replicaDataSource, properties.lagQuery(), properties.maxLagMs(), meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(
+            @Qualifier(PRIMARY_DATA_SOURCE) DataSource primaryDataSource,
+            @Qualifier("replicaDataSource") DataSource replicaDataSource,
+            ReplicaLagMonitor replicaLagMonitor,
+            MeterRegistry meterRegistry
+    ) {
+        return new LazyConnectionDataSourceProxy(
+                new ReadReplicaRoutingDataSource(primaryDataSource, replicaDataSource, replicaLagMonitor, meterRegistry));
+    }
+}
@@ -0,0 +1,19 @@
+package com.ontop.wallet.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * {@code lag-query} should return the replica's lag in milliseconds and has no default: a query that
+ * always answers 0 would keep routing reads to a replica however far behind it is.
+ */
+@ConfigurationProperties("ontop.datasource.replica")
+record ReadReplicaProperties(
+        boolean enabled,
+        String url,
+        String username,
+        String password,
+        @DefaultValue("10") int maxPoolSize,
+        @DefaultValue("5000") long maxLagMs,
+        String lagQuery
+) { }
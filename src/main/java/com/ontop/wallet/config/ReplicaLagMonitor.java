@@ -0,0 +1,65 @@
+package com.ontop.wallet.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+
+/**
+ * Periodically runs the configured lag query against the replica. The replica only serves reads while
+ * the last check succeeded and reported a lag within {@code max-lag-ms}; until the first check it is
+ * treated as unavailable.
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+    private final JdbcTemplate jdbcTemplate;
+    private final String lagQuery;
+    private final long maxLagMs;
+    private volatile long lagMs = -1;
+    private volatile boolean available;
+
+    ReplicaLagMonitor(DataSource replica, String lagQuery, long maxLagMs, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = new JdbcTemplate(replica);
+        this.lagQuery = lagQuery;
+        this.maxLagMs = maxLagMs;
+        Gauge.builder("datasource.replica.lag", this, monitor -> monitor.lagMs)
+                .description("replica lag in milliseconds reported by the last check, -1 if it failed")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        Gauge.builder("datasource.replica.available", this, monitor -> monitor.available ? 1 : 0)
+                .description("whether read-only transactions are routed to the replica")
+                .register(meterRegistry);
+    }
+
+    boolean isAvailable() {
+        return available;
+    }
+
+    @Scheduled(fixedDelayString = "${ontop.datasource.replica.lag-check-interval-ms:5000}")
+    public void check() {
+        try {
+            final Long lag = jdbcTemplate.queryForObject(lagQuery, Long.class);
+            // a replica that has not replayed anything yet reports no lag at all
+            this.lagMs = lag == null ? 0 : lag;
+            setAvailable(this.lagMs <= maxLagMs, "lagMs=" + this.lagMs);
+        } catch (DataAccessException ex) {
+            this.lagMs = -1;
+            setAvailable(false, ex.getMessage());
+        }
+    }
+
+    private void setAvailable(boolean available, String reason) {
+        if (this.available != available) {
+            if (available) {
+                log.info("Routing read-only transactions to replica: {}", reason);
+            } else {
+                log.warn("Routing read-only transactions to primary: {}", reason);
+            }
+        }
+        this.available = available;
+    }
+}
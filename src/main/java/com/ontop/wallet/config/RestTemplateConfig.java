@@ -1,12 +1,36 @@
 package com.ontop.wallet.config;
 
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.DefaultConnectionKeepAliveStrategy;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManager;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManagerBuilder;
+import org.apache.hc.core5.pool.ConnPoolControl;
+import org.apache.hc.core5.pool.PoolStats;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.util.Assert;
 import org.springframework.web.client.RestTemplate;
 
-import java.time.Duration;
+import java.util.function.ToDoubleFunction;
 
+/**
+ * The wallet and payment clients each get their own connection pool, so a slow payment provider
+ * cannot take every connection the wallet calls need. Each also gets a non-blocking client with a
+ * pool of the same size for the calls made without holding a thread.
+ */
 @Configuration
 public class RestTemplateConfig {
     private final ClientProperties clientProperties;
@@ -15,11 +39,111 @@ public class RestTemplateConfig {
     }
 
     @Bean
-    public RestTemplate clientRestTemplate() {
+    public CloseableHttpClient walletHttpClient(MeterRegistry meterRegistry) {
+        return pooledHttpClient("wallet", clientProperties.walletPool(), meterRegistry);
+    }
+
+    @Bean
+    public CloseableHttpClient paymentHttpClient(MeterRegistry meterRegistry) {
+        return pooledHttpClient("payment", clientProperties.paymentPool(), meterRegistry);
+    }
+
+    @Bean(initMethod = "start")
+    public CloseableHttpAsyncClient walletAsyncHttpClient(MeterRegistry meterRegistry) {
+        return pooledHttpAsyncClient("wallet-async", clientProperties.walletPool(), meterRegistry);
+    }
+
+    @Bean(initMethod = "start")
+    public CloseableHttpAsyncClient paymentAsyncHttpClient(MeterRegistry meterRegistry) {
+        return pooledHttpAsyncClient("payment-async", clientProperties.paymentPool(), meterRegistry);
+    }
+
+    @Bean
+    public RestTemplate walletRestTemplate(CloseableHttpClient walletHttpClient) {
+        return restTemplate(walletHttpClient);
+    }
+
+    @Bean
+    public RestTemplate paymentRestTemplate(CloseableHttpClient paymentHttpClient) {
+        return restTemplate(paymentHttpClient);
+    }
+
+    private RestTemplate restTemplate(CloseableHttpClient httpClient) {
         return new RestTemplateBuilder()
                 .rootUri(clientProperties.host())
-                .setConnectTimeout(Duration.ofMillis(clientProperties.connectionTimeoutMs()))
-                .setReadTimeout(Duration.ofMillis(clientProperties.readTimeoutMs()))
+                .requestFactory(() -> new HttpComponentsClientHttpRequestFactory(httpClient))
                 .build();
     }
+
+    private CloseableHttpClient pooledHttpClient(String name, ClientProperties.Pool pool, MeterRegistry meterRegistry) {
+        Assert.isTrue(pool.maxConnections() > 0, name + " pool max connections should be > 0");
+        final PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(pool.maxConnections())
+                .setMaxConnPerRoute(pool.maxConnections())
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(clientProperties.connectionTimeoutMs()))
+                        .setSocketTimeout(Timeout.ofMilliseconds(clientProperties.readTimeoutMs()))
+                        .setTimeToLive(TimeValue.ofSeconds(pool.timeToLiveSeconds()))
+                        .build())
+                .build();
+        registerPoolGauges(name, connectionManager, meterRegistry);
+
+        final TimeValue maxKeepAlive = TimeValue.ofSeconds(pool.keepAliveSeconds());
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(pool.leaseTimeoutMs()))
+                        .build())
+                .setKeepAliveStrategy((response, context) ->
+                        DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context).min(maxKeepAlive))
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofSeconds(pool.idleEvictionSeconds()))
+                .build();
+    }
+
+    private CloseableHttpAsyncClient pooledHttpAsyncClient(String name, ClientProperties.Pool pool, MeterRegistry meterRegistry) {
+        Assert.isTrue(pool.maxConnections() > 0, name + " pool max connections should be > 0");
+        final PoolingAsyncClientConnectionManager connectionManager = PoolingAsyncClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(pool.maxConnections())
+                .setMaxConnPerRoute(pool.maxConnections())
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(clientProperties.connectionTimeoutMs()))
+                        .setSocketTimeout(Timeout.ofMilliseconds(clientProperties.readTimeoutMs()))
+                        .setTimeToLive(TimeValue.ofSeconds(pool.timeToLiveSeconds()))
+                        .build())
+                .build();
+        registerPoolGauges(name, connectionManager, meterRegistry);
+
+        final TimeValue maxKeepAlive = TimeValue.ofSeconds(pool.keepAliveSeconds());
+        return HttpAsyncClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(pool.leaseTimeoutMs()))
+                        .setResponseTimeout(Timeout.ofMilliseconds(clientProperties.readTimeoutMs()))
+                        .build())
+                .setKeepAliveStrategy((response, context) ->
+                        DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context).min(maxKeepAlive))
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofSeconds(pool.idleEvictionSeconds()))
+                .build();
+    }
+
+    private static void registerPoolGauges(String pool, ConnPoolControl<?> connectionManager, MeterRegistry meterRegistry) {
+        registerPoolGauge("http.client.pool.leased", pool, connectionManager, PoolStats::getLeased, meterRegistry);
+        registerPoolGauge("http.client.pool.available", pool, connectionManager, PoolStats::getAvailable, meterRegistry);
+        registerPoolGauge("http.client.pool.pending", pool, connectionManager, PoolStats::getPending, meterRegistry);
+        registerPoolGauge("http.client.pool.max", pool, connectionManager, PoolStats::getMax, meterRegistry);
+    }
+
+    private static void registerPoolGauge(
+            String metric,
+            String pool,
+            ConnPoolControl<?> connectionManager,
+            ToDoubleFunction<PoolStats> value,
+            MeterRegistry meterRegistry
+    ) {
+        Gauge.builder(metric, connectionManager, manager -> value.applyAsDouble(manager.getTotalStats()))
+                .tag("pool", pool)
+                .register(meterRegistry);
+    }
 }
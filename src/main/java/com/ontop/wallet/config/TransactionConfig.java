@@ -2,9 +2,17 @@ package com.ontop.wallet.config;
 
 import com.ontop.wallet.domain.service.OntopAccountRepository;
 import com.ontop.wallet.domain.service.TransferInitialisationFactory;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.util.Assert;
+
+import java.util.concurrent.ThreadPoolExecutor;
 
 @Configuration
 @RequiredArgsConstructor
@@ -17,4 +25,77 @@ public class TransactionConfig {
     public TransferInitialisationFactory transferTransactionFactory()  {
         return new TransferInitialisationFactory(ontopAccountRepository.getAccount(), TRANSFER_CHARGE_PERCENT);
     }
+
+    /**
+     * Runs the blocking tail of an async transfer (saving it, releasing the user lock) off the HTTP
+     * client's I/O threads. Once the queue is full the tail runs on the completing thread rather than
+     * being dropped, as a dropped task would leave the user locked.
+     */
+    @Bean
+    public TaskExecutor transferCompletionExecutor(
+            @Value("${ontop.transfer.completion.threads:8}") int threads,
+            @Value("${ontop.transfer.completion.queue-capacity:1000}") int queueCapacity,
+            MeterRegistry meterRegistry
+    ) {
+        Assert.isTrue(threads > 0, "transfer completion threads should be > 0");
+        Assert.isTrue(queueCapacity > 0, "transfer completion queue capacity should be > 0");
+        final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("transfer-completion-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        Gauge.builder("transfer.completion.queue.size", executor, ThreadPoolTaskExecutor::getQueueSize)
+                .description("async transfers waiting to be saved")
+                .register(meterRegistry);
+        return executor;
+    }
+
+    /**
+     * Runs transfer commands claimed from the inbox. A full queue rejects the command, which is released
+     * back to the inbox for a later poll rather than run on the polling thread.
+     */
+    @Bean
+    public TaskExecutor transferCommandExecutor(
+            @Value("${ontop.transfer.inbox.workers:8}") int workers,
+            @Value("${ontop.transfer.inbox.queue-capacity:50}") int queueCapacity,
+            MeterRegistry meterRegistry
+    ) {
+        Assert.isTrue(workers > 0, "transfer inbox workers should be > 0");
+        Assert.isTrue(queueCapacity >= 0, "transfer inbox queue capacity should be >= 0");
+        final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("transfer-command-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        Gauge.builder("transfer.inbox.queue.size", executor, ThreadPoolTaskExecutor::getQueueSize)
+                .description("claimed transfer commands waiting for a worker")
+                .register(meterRegistry);
+        return executor;
+    }
+
+    /**
+     * Runs the users of transfer batches in parallel, bounding the wallet calls in flight across all
+     * batches. Once the queue is full a user runs on the request thread, which slows the batch down
+     * rather than failing its items.
+     */
+    @Bean
+    public TaskExecutor transferBatchExecutor(
+            @Value("${ontop.transfer.batch.concurrency:8}") int concurrency,
+            @Value("${ontop.transfer.batch.queue-capacity:1000}") int queueCapacity
+    ) {
+        Assert.isTrue(concurrency > 0, "transfer batch concurrency should be > 0");
+        Assert.isTrue(queueCapacity >= 0, "transfer batch queue capacity should be >= 0");
+        final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(concurrency);
+        executor.setMaxPoolSize(concurrency);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("transfer-batch-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        return executor;
+    }
 }
@@ -0,0 +1,10 @@
+package com.ontop.wallet.domain.enums;
+
+/**
+ * A command is STARTED, under its claim, before its withdrawal is attempted. A STARTED command whose
+ * claim expires is never run again, as its withdrawal may have been made: it ends UNKNOWN, to be
+ * reconciled against the user's wallet.
+ */
+public enum TransferCommandStatus {
+    PENDING, STARTED, COMPLETED, FAILED, UNKNOWN
+}
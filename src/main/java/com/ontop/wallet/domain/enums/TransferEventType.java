@@ -0,0 +1,45 @@
+package com.ontop.wallet.domain.enums;
+
+import com.ontop.wallet.domain.model.Payment;
+
+/**
+ * What happened to a transfer, in the order it happened. Events that move the transfer to another
+ * status carry that status; payment attempts leave the status unchanged.
+ */
+public enum TransferEventType {
+    INITIALIZED(TransferStatus.INITIALIZED),
+    PAYMENT_STARTED(TransferStatus.PAYMENT_IN_FLIGHT),
+    PAYMENT_ATTEMPTED(null),
+    PAYMENT_TIMEOUT(null),
+    PAYMENT_REJECTED(null),
+    PAYMENT_RETRY_SCHEDULED(TransferStatus.INITIALIZED),
+    PAYMENT_ACCEPTED(TransferStatus.PROCESSING),
+    PAYMENT_ERRORED(TransferStatus.UNKNOWN),
+    FAILED(TransferStatus.FAILED),
+    REVERSAL_STARTED(TransferStatus.REVERSING),
+    REVERSED(TransferStatus.REVERSED);
+
+    private final TransferStatus status;
+
+    TransferEventType(TransferStatus status) {
+        this.status = status;
+    }
+
+    /**
+     * @return the status the transfer is in after this event, or null if the event does not change it
+     */
+    public TransferStatus status() {
+        return status;
+    }
+
+    public boolean changesStatus() {
+        return status != null;
+    }
+
+    public static TransferEventType paymentAttempt(Payment payment) {
+        if (payment.isRetryable()) {
+            return PAYMENT_TIMEOUT;
+        }
+        return payment.isFailed() ? PAYMENT_REJECTED : PAYMENT_ATTEMPTED;
+    }
+}
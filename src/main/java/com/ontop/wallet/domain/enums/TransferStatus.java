@@ -1,5 +1,19 @@
 package com.ontop.wallet.domain.enums;
 
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * PAYMENT_IN_FLIGHT and REVERSING are claims: a worker moves the transfer into them with a versioned write
+ * before calling the payment provider or the wallet, so no other worker makes the same call. A transfer left
+ * in either by a worker that stopped mid-call needs reconciling, as one in UNKNOWN does.
+ */
 public enum TransferStatus {
-    INITIALIZED, PROCESSING, UNKNOWN, FAILED, REVERSED, SUCCESSFUL
+    INITIALIZED, PAYMENT_IN_FLIGHT, PROCESSING, UNKNOWN, FAILED, REVERSING, REVERSED, SUCCESSFUL;
+
+    /**
+     * Statuses a transfer never leaves; FAILED is not among them as the transfer is still to be reversed.
+     */
+    public static final Set<TransferStatus> TERMINAL = Collections.unmodifiableSet(EnumSet.of(REVERSED, SUCCESSFUL));
 }
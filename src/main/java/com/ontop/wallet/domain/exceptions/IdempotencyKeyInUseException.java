@@ -0,0 +1,13 @@
+package com.ontop.wallet.domain.exceptions;
+
+import lombok.Getter;
+import lombok.NonNull;
+
+@Getter
+public class IdempotencyKeyInUseException extends Exception {
+    private final String message;
+
+    public IdempotencyKeyInUseException(@NonNull String message) {
+        this.message = message;
+    }
+}
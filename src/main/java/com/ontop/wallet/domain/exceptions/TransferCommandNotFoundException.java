@@ -0,0 +1,13 @@
+package com.ontop.wallet.domain.exceptions;
+
+import lombok.Getter;
+import lombok.NonNull;
+
+@Getter
+public class TransferCommandNotFoundException extends Exception {
+    private final String message;
+
+    public TransferCommandNotFoundException(@NonNull String message) {
+        this.message = message;
+    }
+}
@@ -0,0 +1,13 @@
+package com.ontop.wallet.domain.exceptions;
+
+import lombok.Getter;
+import lombok.NonNull;
+
+@Getter
+public class TransferConflictException extends Exception {
+    private final String message;
+
+    public TransferConflictException(@NonNull String message) {
+        this.message = message;
+    }
+}
@@ -0,0 +1,59 @@
+package com.ontop.wallet.domain.model;
+
+import com.ontop.wallet.domain.valueobject.Money;
+import com.ontop.wallet.domain.valueobject.UserId;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NonNull;
+
+import java.time.Instant;
+
+/**
+ * A transfer request made under an idempotency key. Until the request completes it holds no response;
+ * afterwards it holds the response as it was sent, which is replayed verbatim for the same key. A held
+ * request carries the {@code holder} it was reserved by, so that only that request may complete or
+ * release it.
+ */
+@Getter
+public class IdempotentRequest {
+    private final String key;
+    private final String holder;
+    private final UserId userId;
+    private final Money amount;
+    private final Integer responseStatus;
+    private final String responseLocation;
+    private final String responseBody;
+    private final Instant expiresAt;
+
+    @Builder(builderMethodName = "idempotentRequest")
+    private IdempotentRequest(
+            @NonNull String key,
+            String holder,
+            @NonNull UserId userId,
+            @NonNull Money amount,
+            Integer responseStatus,
+            String responseLocation,
+            String responseBody,
+            @NonNull Instant expiresAt
+    ) {
+        this.key = key;
+        this.holder = holder;
+        this.userId = userId;
+        this.amount = amount;
+        this.responseStatus = responseStatus;
+        this.responseLocation = responseLocation;
+        this.responseBody = responseBody;
+        this.expiresAt = expiresAt;
+    }
+
+    public boolean isCompleted() {
+        return responseStatus != null;
+    }
+
+    /**
+     * @return whether the request is the same transfer, so that its key may be replayed for it
+     */
+    public boolean isSameRequest(@NonNull UserId userId, @NonNull Money amount) {
+        return this.userId.equals(userId) && this.amount.value().compareTo(amount.value()) == 0;
+    }
+}
@@ -0,0 +1,33 @@
+package com.ontop.wallet.domain.model;
+
+import com.ontop.wallet.domain.valueobject.Id;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NonNull;
+
+import java.time.Instant;
+
+@Getter
+public class PaymentRetry extends BaseModel<PaymentRetry> {
+    private final Id<Transfer> transferId;
+    private final int retryCount;
+    private final Instant dueAt;
+    private final String claimedBy;
+
+    @Builder(builderMethodName = "paymentRetry")
+    private PaymentRetry(
+            Id<PaymentRetry> id,
+            Instant created,
+            Instant updated,
+            @NonNull Id<Transfer> transferId,
+            int retryCount,
+            @NonNull Instant dueAt,
+            String claimedBy
+    ) {
+        super(id, created, updated);
+        this.transferId = transferId;
+        this.retryCount = retryCount;
+        this.dueAt = dueAt;
+        this.claimedBy = claimedBy;
+    }
+}
@@ -0,0 +1,44 @@
+package com.ontop.wallet.domain.model;
+
+import com.ontop.wallet.domain.enums.TransferStatus;
+import com.ontop.wallet.domain.enums.WalletTransactionOperation;
+import com.ontop.wallet.domain.valueobject.HistoryCursor;
+import com.ontop.wallet.domain.valueobject.Id;
+import com.ontop.wallet.domain.valueobject.Money;
+import com.ontop.wallet.domain.valueobject.UserId;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NonNull;
+
+import java.time.Instant;
+
+/**
+ * A wallet transaction as shown in a user's history, together with the status of its transfer.
+ */
+@Getter
+public class TransactionHistoryEntry extends BaseModel<WalletTransaction> {
+    private final UserId userId;
+    private final Money amount;
+    private final WalletTransactionOperation operation;
+    private final TransferStatus transferStatus;
+
+    @Builder(builderMethodName = "transactionHistoryEntry")
+    private TransactionHistoryEntry(
+            @NonNull Id<WalletTransaction> id,
+            @NonNull Instant created,
+            @NonNull UserId userId,
+            @NonNull Money amount,
+            @NonNull WalletTransactionOperation operation,
+            @NonNull TransferStatus transferStatus
+    ) {
+        super(id, created, created);
+        this.userId = userId;
+        this.amount = amount;
+        this.operation = operation;
+        this.transferStatus = transferStatus;
+    }
+
+    public HistoryCursor cursor() {
+        return new HistoryCursor(created(), id().value());
+    }
+}
@@ -0,0 +1,12 @@
+package com.ontop.wallet.domain.model;
+
+import com.ontop.wallet.domain.valueobject.HistoryCursor;
+import lombok.NonNull;
+
+import java.util.List;
+
+/**
+ * @param next cursor of the following page, null on the last page
+ */
+public record TransactionHistoryPage(@NonNull List<TransactionHistoryEntry> entries, HistoryCursor next) {
+}
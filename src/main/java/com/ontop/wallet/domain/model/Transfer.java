@@ -25,6 +25,7 @@ public class Transfer extends BaseModel<Transfer> {
     private TransferStatus status;
     private final List<Payment> payments;
     private final List<WalletTransaction> walletTransactions;
+    private Long version;
 
     @Builder(builderMethodName = "transfer")
     private Transfer(
@@ -38,7 +39,8 @@ public class Transfer extends BaseModel<Transfer> {
             @NonNull Currency currency,
             @NonNull TransferStatus status,
             @NonNull List<WalletTransaction> walletTransactions,
-            @NonNull List<Payment> payments
+            @NonNull List<Payment> payments,
+            Long version
     ) {
         super(id, created, updated);
         this.ontopAccountNumber = ontopAccountNumber;
@@ -49,6 +51,7 @@ public class Transfer extends BaseModel<Transfer> {
         this.status = status;
         this.walletTransactions = walletTransactions;
         this.payments = payments;
+        this.version = version;
     }
 
     public void recordPayment(@NonNull Payment payment) {
@@ -60,7 +63,7 @@ public class Transfer extends BaseModel<Transfer> {
 
     public void reverseWith(@NonNull WalletTransaction transaction) {
         Assert.isTrue(transaction.isRefund(), "expected transaction to be a refund");
-        Assert.isTrue(isValidStateForReversal(), "expected valid state for reversal");
+        Assert.isTrue(TransferStatus.REVERSING.equals(this.status), "expected reversal to be claimed");
         this.status = TransferStatus.REVERSED;
         this.walletTransactions.add(transaction);
     }
@@ -108,6 +111,18 @@ public class Transfer extends BaseModel<Transfer> {
         return TransferStatus.FAILED.equals(this.status);
     }
 
+    public void toInitializedState() {
+        this.status = TransferStatus.INITIALIZED;
+    }
+
+    public void toPaymentInFlightState() {
+        this.status = TransferStatus.PAYMENT_IN_FLIGHT;
+    }
+
+    public void toReversingState() {
+        this.status = TransferStatus.REVERSING;
+    }
+
     public void toProcessingState() {
         this.status = TransferStatus.PROCESSING;
     }
@@ -120,6 +135,15 @@ public class Transfer extends BaseModel<Transfer> {
         this.status = TransferStatus.UNKNOWN;
     }
 
+    /**
+     * Called by the repository once a versioned write of this transfer has been committed, so a
+     * further write from the same worker is checked against the version it just produced.
+     */
+    public void advanceVersion() {
+        Assert.notNull(this.version, "expected transfer to be persisted");
+        this.version++;
+    }
+
     public static Transfer initialize(
             @NonNull Instant created,
             @NonNull AccountNumber ontopAccountNumber,
@@ -135,7 +159,7 @@ public class Transfer extends BaseModel<Transfer> {
                 null, created, created,
                 ontopAccountNumber, targetAccount, transferCharge,
                 transferAmount, currency, status, List.of(walletTransactions),
-                Collections.emptyList()
+                Collections.emptyList(), null
         );
     }
 }
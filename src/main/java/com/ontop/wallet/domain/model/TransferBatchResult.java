@@ -0,0 +1,22 @@
+package com.ontop.wallet.domain.model;
+
+import com.ontop.wallet.domain.valueobject.TransferBatchItem;
+import lombok.NonNull;
+
+/**
+ * The outcome of one item of a transfer batch: the transfer it initialised, or the error code and
+ * message the item would have failed with on its own.
+ */
+public record TransferBatchResult(@NonNull TransferBatchItem item, Transfer transfer, String errorCode, String errorMessage) {
+    public static TransferBatchResult initialised(TransferBatchItem item, Transfer transfer) {
+        return new TransferBatchResult(item, transfer, null, null);
+    }
+
+    public static TransferBatchResult failed(TransferBatchItem item, String errorCode, String errorMessage) {
+        return new TransferBatchResult(item, null, errorCode, errorMessage);
+    }
+
+    public boolean isInitialised() {
+        return transfer != null;
+    }
+}
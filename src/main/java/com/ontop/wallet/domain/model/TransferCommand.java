@@ -0,0 +1,50 @@
+package com.ontop.wallet.domain.model;
+
+import com.ontop.wallet.domain.enums.TransferCommandStatus;
+import com.ontop.wallet.domain.valueobject.Id;
+import com.ontop.wallet.domain.valueobject.Money;
+import com.ontop.wallet.domain.valueobject.UserId;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NonNull;
+
+import java.time.Instant;
+
+/**
+ * A transfer request accepted into the inbox. It stays PENDING until a worker starts it, then holds
+ * either the transfer it created or the error code and message the synchronous request would have got.
+ * A command whose worker stopped while it was STARTED ends UNKNOWN and is left for reconciliation.
+ */
+@Getter
+public class TransferCommand extends BaseModel<TransferCommand> {
+    private final UserId userId;
+    private final Money amount;
+    private final TransferCommandStatus status;
+    private final Id<Transfer> transferId;
+    private final String errorCode;
+    private final String errorMessage;
+    private final String claimedBy;
+
+    @Builder(builderMethodName = "transferCommand")
+    private TransferCommand(
+            Id<TransferCommand> id,
+            Instant created,
+            Instant updated,
+            @NonNull UserId userId,
+            @NonNull Money amount,
+            @NonNull TransferCommandStatus status,
+            Id<Transfer> transferId,
+            String errorCode,
+            String errorMessage,
+            String claimedBy
+    ) {
+        super(id, created, updated);
+        this.userId = userId;
+        this.amount = amount;
+        this.status = status;
+        this.transferId = transferId;
+        this.errorCode = errorCode;
+        this.errorMessage = errorMessage;
+        this.claimedBy = claimedBy;
+    }
+}
@@ -0,0 +1,55 @@
+package com.ontop.wallet.domain.model;
+
+import com.ontop.wallet.domain.enums.TransferEventType;
+import com.ontop.wallet.domain.enums.TransferStatus;
+import com.ontop.wallet.domain.valueobject.Id;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NonNull;
+
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * An entry of a transfer's append-only journal. {@code sequence} is the transfer version the event
+ * produced and {@code status} the transfer's status after it, so the latest event is the current state.
+ */
+@Getter
+public class TransferEvent extends BaseModel<TransferEvent> {
+    private final Id<Transfer> transferId;
+    private final long sequence;
+    private final TransferEventType type;
+    private final TransferStatus status;
+    private final String detail;
+
+    @Builder(builderMethodName = "transferEvent")
+    private TransferEvent(
+            Id<TransferEvent> id,
+            @NonNull Instant created,
+            @NonNull Id<Transfer> transferId,
+            long sequence,
+            @NonNull TransferEventType type,
+            @NonNull TransferStatus status,
+            String detail
+    ) {
+        super(id, created, created);
+        this.transferId = transferId;
+        this.sequence = sequence;
+        this.type = type;
+        this.status = status;
+        this.detail = detail;
+    }
+
+    /**
+     * Folds a journal into the transfer's current status.
+     *
+     * @throws IllegalArgumentException if the journal is empty
+     */
+    public static TransferStatus currentStatus(List<TransferEvent> events) {
+        return events.stream()
+                .max(Comparator.comparingLong(TransferEvent::sequence))
+                .map(TransferEvent::status)
+                .orElseThrow(() -> new IllegalArgumentException("transfer journal is empty"));
+    }
+}
@@ -0,0 +1,42 @@
+package com.ontop.wallet.domain.model;
+
+import com.ontop.wallet.domain.enums.TransferStatus;
+import com.ontop.wallet.domain.valueobject.Id;
+import com.ontop.wallet.domain.valueobject.Money;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NonNull;
+
+import java.time.Instant;
+import java.util.Currency;
+
+/**
+ * Read-only view of a transfer row, without its payments, wallet transactions or target account.
+ */
+@Getter
+public class TransferSummary extends BaseModel<Transfer> {
+    private final TransferStatus status;
+    private final Money transferAmount;
+    private final Money transferCharge;
+    private final Currency currency;
+    private final Long version;
+
+    @Builder(builderMethodName = "transferSummary")
+    private TransferSummary(
+            @NonNull Id<Transfer> id,
+            Instant created,
+            Instant updated,
+            @NonNull TransferStatus status,
+            @NonNull Money transferAmount,
+            @NonNull Money transferCharge,
+            @NonNull Currency currency,
+            Long version
+    ) {
+        super(id, created, updated);
+        this.status = status;
+        this.transferAmount = transferAmount;
+        this.transferCharge = transferCharge;
+        this.currency = currency;
+        this.version = version;
+    }
+}
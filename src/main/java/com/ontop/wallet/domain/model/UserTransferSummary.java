@@ -0,0 +1,114 @@
+package com.ontop.wallet.domain.model;
+
+import com.ontop.wallet.domain.enums.TransferStatus;
+import com.ontop.wallet.domain.valueobject.Money;
+import com.ontop.wallet.domain.valueobject.UserId;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NonNull;
+import org.springframework.util.Assert;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Running totals of a user's transfers, maintained transition by transition rather than aggregated
+ * from history. Amounts are withdrawal amounts, charge included. A transfer is pending until it reaches
+ * a terminal status. The daily totals cover transfers created on {@code day} (UTC) net of their reversals
+ * and restart with the first transfer of a new day.
+ */
+@Getter
+public class UserTransferSummary {
+    private final UserId userId;
+    private final Map<TransferStatus, Long> countByStatus;
+    private Money pendingAmount;
+    private Instant lastTransferAt;
+    private LocalDate day;
+    private Money dayWithdrawnAmount;
+    private long dayTransferCount;
+
+    @Builder(builderMethodName = "userTransferSummary")
+    private UserTransferSummary(
+            @NonNull UserId userId,
+            @NonNull Map<TransferStatus, Long> countByStatus,
+            @NonNull Money pendingAmount,
+            Instant lastTransferAt,
+            LocalDate day,
+            @NonNull Money dayWithdrawnAmount,
+            long dayTransferCount
+    ) {
+        this.userId = userId;
+        this.countByStatus = new EnumMap<>(TransferStatus.class);
+        for (final TransferStatus status : TransferStatus.values()) {
+            this.countByStatus.put(status, countByStatus.getOrDefault(status, 0L));
+        }
+        this.pendingAmount = pendingAmount;
+        this.lastTransferAt = lastTransferAt;
+        this.day = day;
+        this.dayWithdrawnAmount = dayWithdrawnAmount;
+        this.dayTransferCount = dayTransferCount;
+    }
+
+    public Map<TransferStatus, Long> countByStatus() {
+        return Collections.unmodifiableMap(countByStatus);
+    }
+
+    public void recordCreated(@NonNull Transfer transfer) {
+        final BigDecimal amount = withdrawalAmount(transfer);
+        countByStatus.merge(transfer.status(), 1L, Long::sum);
+        if (!TransferStatus.TERMINAL.contains(transfer.status())) {
+            pendingAmount = Money.of(pendingAmount.value().add(amount));
+        }
+        if (lastTransferAt == null || transfer.created().isAfter(lastTransferAt)) {
+            lastTransferAt = transfer.created();
+        }
+        final LocalDate created = dayOf(transfer.created());
+        if (!created.equals(day)) {
+            day = created;
+            dayWithdrawnAmount = Money.of(BigDecimal.ZERO);
+            dayTransferCount = 0;
+        }
+        dayWithdrawnAmount = Money.of(dayWithdrawnAmount.value().add(amount));
+        dayTransferCount++;
+    }
+
+    public void recordTransition(@NonNull Transfer transfer, @NonNull TransferStatus from, @NonNull TransferStatus to) {
+        Assert.isTrue(countByStatus.get(from) > 0, () -> "expected a transfer counted as " + from);
+        countByStatus.merge(from, -1L, Long::sum);
+        countByStatus.merge(to, 1L, Long::sum);
+        final BigDecimal amount = withdrawalAmount(transfer);
+        if (!TransferStatus.TERMINAL.contains(from) && TransferStatus.TERMINAL.contains(to)) {
+            pendingAmount = Money.of(pendingAmount.value().subtract(amount));
+        }
+        if (TransferStatus.REVERSED == to && dayOf(transfer.created()).equals(day)) {
+            dayWithdrawnAmount = Money.of(dayWithdrawnAmount.value().subtract(amount));
+        }
+    }
+
+    /**
+     * The summary as seen on {@code today}: daily totals recorded on an earlier day read as zero.
+     */
+    public UserTransferSummary asOf(@NonNull LocalDate today) {
+        if (today.equals(day)) {
+            return this;
+        }
+        return new UserTransferSummary(userId, countByStatus, pendingAmount, lastTransferAt, today, Money.of(BigDecimal.ZERO), 0);
+    }
+
+    public static UserTransferSummary empty(@NonNull UserId userId) {
+        return new UserTransferSummary(userId, Map.of(), Money.of(BigDecimal.ZERO), null, null, Money.of(BigDecimal.ZERO), 0);
+    }
+
+    public static LocalDate dayOf(@NonNull Instant instant) {
+        return LocalDate.ofInstant(instant, ZoneOffset.UTC);
+    }
+
+    private static BigDecimal withdrawalAmount(Transfer transfer) {
+        return transfer.getWithdrawal().amount().value().abs();
+    }
+}
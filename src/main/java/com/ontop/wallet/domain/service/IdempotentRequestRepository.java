@@ -0,0 +1,31 @@
+package com.ontop.wallet.domain.service;
+
+import com.ontop.wallet.domain.model.IdempotentRequest;
+import com.ontop.wallet.domain.valueobject.Money;
+import com.ontop.wallet.domain.valueobject.UserId;
+
+import java.time.Instant;
+import java.util.Optional;
+
+public interface IdempotentRequestRepository {
+    /**
+     * Records a request under {@code key} for {@code holder} until {@code expiresAt}, unless an unexpired
+     * request already holds the key.
+     *
+     * @return the request already holding the key, or empty if the key was reserved by this call
+     */
+    Optional<IdempotentRequest> reserve(String key, String holder, UserId userId, Money amount, Instant expiresAt);
+
+    /**
+     * Stores the response under the key if {@code holder} still holds it; a hold that expired and was
+     * taken by another request is left to that request.
+     */
+    void complete(String key, String holder, int responseStatus, String responseLocation, String responseBody, Instant expiresAt);
+
+    /**
+     * Frees the key if {@code holder} still holds it and has not completed it.
+     */
+    void release(String key, String holder);
+
+    int purgeExpired(Instant now);
+}
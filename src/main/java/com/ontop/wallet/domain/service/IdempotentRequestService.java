@@ -0,0 +1,91 @@
+package com.ontop.wallet.domain.service;
+
+import com.ontop.wallet.domain.exceptions.IdempotencyKeyInUseException;
+import com.ontop.wallet.domain.exceptions.IdempotencyKeyReusedException;
+import com.ontop.wallet.domain.model.IdempotentRequest;
+import com.ontop.wallet.domain.valueobject.Money;
+import com.ontop.wallet.domain.valueobject.UserId;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Idempotency keys of transfer requests. A key is held for {@code in-progress-seconds} while its request
+ * runs, so a request that never completes (e.g. its node stopped) does not block the key for the full
+ * TTL; once completed, its response is kept for {@code ttl-hours}. A request that fails before anything
+ * was withdrawn releases its key so that it may be retried under it; any other failure is completed with
+ * its error response, as the withdrawal may have been made. Only the request holding a key may complete
+ * or release it.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+public class IdempotentRequestService {
+    @Value("${ontop.idempotency.ttl-hours:24}")
+    private final long ttlHours;
+
+    @Value("${ontop.idempotency.in-progress-seconds:120}")
+    private final long inProgressSeconds;
+
+    private final IdempotentRequestRepository idempotentRequestRepository;
+
+    /**
+     * @return the completed request to replay, or the request now holding the key, to be completed or
+     * released through this service
+     * @throws IdempotencyKeyInUseException if a request under the key is still running
+     * @throws IdempotencyKeyReusedException if the key was used for a different transfer
+     */
+    public IdempotentRequest begin(String key, UserId userId, Money amount)
+            throws IdempotencyKeyInUseException, IdempotencyKeyReusedException {
+        final String holder = UUID.randomUUID().toString();
+        final Instant expiresAt = Instant.now().plusSeconds(inProgressSeconds);
+        final Optional<IdempotentRequest> existing = idempotentRequestRepository.reserve(key, holder, userId, amount, expiresAt);
+        if (existing.isEmpty()) {
+            return IdempotentRequest.idempotentRequest()
+                    .key(key)
+                    .holder(holder)
+                    .userId(userId)
+                    .amount(amount)
+                    .expiresAt(expiresAt)
+                    .build();
+        }
+        final IdempotentRequest request = existing.get();
+        if (!request.isSameRequest(userId, amount)) {
+            throw new IdempotencyKeyReusedException("idempotency key was used for a different transfer");
+        }
+        if (!request.isCompleted()) {
+            throw new IdempotencyKeyInUseException("a request with this idempotency key is in progress");
+        }
+        log.info("Replaying idempotent request: user={}", userId.value());
+        return request;
+    }
+
+    public void complete(IdempotentRequest held, int responseStatus, String responseLocation, String responseBody) {
+        idempotentRequestRepository.complete(held.key(), held.holder(), responseStatus, responseLocation, responseBody,
+                Instant.now().plus(Duration.ofHours(ttlHours)));
+    }
+
+    public void release(IdempotentRequest held) {
+        idempotentRequestRepository.release(held.key(), held.holder());
+    }
+
+    @Scheduled(fixedDelayString = "${ontop.idempotency.purge-interval-ms:600000}")
+    public void purgeExpiredKeys() {
+        try {
+            final int purged = idempotentRequestRepository.purgeExpired(Instant.now());
+            if (purged > 0) {
+                log.info("Purged expired idempotency keys: count={}", purged);
+            }
+        } catch (Exception ex) {
+            log.error("Purging expired idempotency keys failed", ex);
+        }
+    }
+}
@@ -7,9 +7,19 @@ import com.ontop.wallet.domain.model.UserAccount;
 import com.ontop.wallet.domain.valueobject.Id;
 import com.ontop.wallet.domain.valueobject.Money;
 
+import java.util.concurrent.CompletableFuture;
+
 public interface PaymentProvider {
     Payment makePayment(final Id<Transfer> transferId,
                         final Money transferAmount,
                         final UserAccount targetAccount,
                         final OntopAccount ontopAccount);
+
+    /**
+     * Non-blocking {@link #makePayment}; the future fails with the exception the blocking call would throw.
+     */
+    CompletableFuture<Payment> makePaymentAsync(final Id<Transfer> transferId,
+                                                final Money transferAmount,
+                                                final UserAccount targetAccount,
+                                                final OntopAccount ontopAccount);
 }
@@ -0,0 +1,69 @@
+package com.ontop.wallet.domain.service;
+
+import com.ontop.wallet.domain.model.PaymentRetry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Claims no more due retries than the scheduler has threads free, so a claimed retry starts well within
+ * its lease. A retry re-checks its claim by renewing the lease before it runs, and skips if the lease
+ * expired and the retry was claimed again by another poller.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+public class PaymentRetryPoller {
+    @Value("${ontop.payment.retry.batch-size:100}")
+    private final int batchSize;
+
+    @Value("${ontop.payment.retry.lease-seconds:60}")
+    private final int leaseSeconds;
+
+    private final PaymentRetryRepository paymentRetryRepository;
+    private final PaymentRetryScheduler paymentRetryScheduler;
+    private final TransferPaymentProcessingService processingService;
+
+    @Scheduled(fixedDelayString = "${ontop.payment.retry.poll-interval-ms:1000}")
+    public void pollDueRetries() {
+        final int capacity = Math.min(batchSize, paymentRetryScheduler.available());
+        if (capacity <= 0) {
+            return;
+        }
+        final List<PaymentRetry> retries;
+        try {
+            retries = paymentRetryRepository.claimDue(capacity, Duration.ofSeconds(leaseSeconds));
+        } catch (Exception ex) {
+            log.error("Claiming due payment retries failed", ex);
+            return;
+        }
+        if (!retries.isEmpty()) {
+            log.info("Claimed due payment retries: count={}", retries.size());
+        }
+        retries.forEach(this::dispatch);
+    }
+
+    private void dispatch(final PaymentRetry retry) {
+        final boolean scheduled = paymentRetryScheduler.schedule(() -> {
+            if (!paymentRetryRepository.renew(retry, Duration.ofSeconds(leaseSeconds))) {
+                log.warn("Payment retry claimed by another poller, skipping: transferId={}", retry.transferId().value());
+                return;
+            }
+            try {
+                processingService.processPaymentRetry(retry.transferId(), retry.retryCount());
+            } finally {
+                paymentRetryRepository.complete(retry);
+            }
+        }, Duration.ZERO);
+        if (!scheduled) {
+            log.warn("Payment retry deferred to next poll: transferId={}", retry.transferId().value());
+            paymentRetryRepository.release(retry);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.ontop.wallet.domain.service;
+
+import com.ontop.wallet.domain.model.PaymentRetry;
+import com.ontop.wallet.domain.model.Transfer;
+import com.ontop.wallet.domain.valueobject.Id;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+public interface PaymentRetryRepository {
+    void enqueue(Id<Transfer> transferId, int retryCount, Instant dueAt);
+
+    /**
+     * Claims up to {@code limit} due retries for {@code lease}. Retries that are neither completed nor
+     * released before the lease expires become claimable again.
+     */
+    List<PaymentRetry> claimDue(int limit, Duration lease);
+
+    /**
+     * Extends the claim of {@code retry} by {@code lease} from now.
+     *
+     * @return false if the claim expired and the retry was claimed by another poller since
+     */
+    boolean renew(PaymentRetry retry, Duration lease);
+
+    /**
+     * Removes the retry if it is still held by the claim it was returned under.
+     */
+    void complete(PaymentRetry retry);
+
+    /**
+     * Makes the retry claimable again if it is still held by the claim it was returned under.
+     */
+    void release(PaymentRetry retry);
+}
@@ -0,0 +1,15 @@
+package com.ontop.wallet.domain.service;
+
+import java.time.Duration;
+
+public interface PaymentRetryScheduler {
+    /**
+     * @return false if the retry was rejected because the scheduler is at capacity
+     */
+    boolean schedule(Runnable retry, Duration delay);
+
+    /**
+     * @return how many more retries can run now without queueing behind running ones
+     */
+    int available();
+}
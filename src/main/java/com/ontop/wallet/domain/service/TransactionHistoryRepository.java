@@ -0,0 +1,16 @@
+package com.ontop.wallet.domain.service;
+
+import com.ontop.wallet.domain.model.TransactionHistoryEntry;
+import com.ontop.wallet.domain.valueobject.HistoryCursor;
+import com.ontop.wallet.domain.valueobject.HistoryFilter;
+import com.ontop.wallet.domain.valueobject.UserId;
+
+import java.util.List;
+
+public interface TransactionHistoryRepository {
+    /**
+     * @param after cursor of the last entry already returned, null for the first page
+     * @return at most {@code limit} entries, newest first
+     */
+    List<TransactionHistoryEntry> findHistory(UserId userId, HistoryFilter filter, HistoryCursor after, int limit);
+}
@@ -0,0 +1,40 @@
+package com.ontop.wallet.domain.service;
+
+import com.ontop.wallet.domain.exceptions.TransactionException;
+import com.ontop.wallet.domain.model.TransactionHistoryEntry;
+import com.ontop.wallet.domain.model.TransactionHistoryPage;
+import com.ontop.wallet.domain.valueobject.HistoryCursor;
+import com.ontop.wallet.domain.valueobject.HistoryFilter;
+import com.ontop.wallet.domain.valueobject.UserId;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+public class TransactionHistoryService {
+    private static final String INVALID_PAGE_SIZE = "page size should be between 1 and %d";
+
+    @Value("${ontop.history.max-page-size:100}")
+    private final int maxPageSize;
+
+    private final TransactionHistoryRepository transactionHistoryRepository;
+
+    public TransactionHistoryPage getHistory(UserId userId, HistoryFilter filter, HistoryCursor after, int size) {
+        if (size < 1 || size > maxPageSize) {
+            throw new TransactionException("INVALID_PAGE_SIZE", String.format(INVALID_PAGE_SIZE, maxPageSize));
+        }
+        // one extra row tells whether another page follows without a count query
+        final List<TransactionHistoryEntry> entries = transactionHistoryRepository.findHistory(userId, filter, after, size + 1);
+        if (entries.size() <= size) {
+            return new TransactionHistoryPage(entries, null);
+        }
+        final List<TransactionHistoryEntry> page = entries.subList(0, size);
+        return new TransactionHistoryPage(page, page.get(size - 1).cursor());
+    }
+}
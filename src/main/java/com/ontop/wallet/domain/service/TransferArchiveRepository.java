@@ -0,0 +1,13 @@
+package com.ontop.wallet.domain.service;
+
+import java.time.Instant;
+
+public interface TransferArchiveRepository {
+    /**
+     * Moves up to {@code limit} transfers in a terminal status, last changed before {@code updatedBefore},
+     * together with their payments and wallet transactions, from the hot tables to the archive tables.
+     *
+     * @return the number of transfers moved
+     */
+    int archiveTerminalTransfers(Instant updatedBefore, int limit);
+}
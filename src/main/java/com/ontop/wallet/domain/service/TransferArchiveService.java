@@ -0,0 +1,70 @@
+package com.ontop.wallet.domain.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * Keeps the hot transfer tables small by moving transfers that reached a terminal status more than
+ * {@code retention-days} ago to the archive tables. Each batch is its own transaction under a cluster
+ * lock, so nodes do not move the same transfers and a run never holds the lock for long.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+public class TransferArchiveService {
+    private static final String ARCHIVE_LOCK_KEY = "transfer-archive";
+
+    @Value("${ontop.archive.retention-days:30}")
+    private final int retentionDays;
+
+    @Value("${ontop.archive.batch-size:500}")
+    private final int batchSize;
+
+    @Value("${ontop.archive.max-batches-per-run:20}")
+    private final int maxBatchesPerRun;
+
+    private final TransferArchiveRepository transferArchiveRepository;
+    private final LockService lockService;
+
+    @Scheduled(fixedDelayString = "${ontop.archive.interval-ms:600000}")
+    public void archiveTerminalTransfers() {
+        final Instant updatedBefore = Instant.now().minus(Duration.ofDays(retentionDays));
+        int archived = 0;
+        try {
+            for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+                final int moved = archiveBatch(updatedBefore);
+                archived += moved;
+                if (moved < batchSize) {
+                    break;
+                }
+            }
+        } catch (Exception ex) {
+            log.error("Archiving terminal transfers failed: archived={}", archived, ex);
+            return;
+        }
+        if (archived > 0) {
+            log.info("Archived terminal transfers: updatedBefore={}, count={}", updatedBefore, archived);
+        }
+    }
+
+    private int archiveBatch(Instant updatedBefore) {
+        final Lock lock = lockService.getLock(ARCHIVE_LOCK_KEY);
+        if (!lock.tryLock()) {
+            log.debug("Transfer archiving is running on another node");
+            return 0;
+        }
+        try {
+            return transferArchiveRepository.archiveTerminalTransfers(updatedBefore, batchSize);
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.ontop.wallet.domain.service;
+
+import com.ontop.wallet.domain.exceptions.ResourceLockedException;
+import com.ontop.wallet.domain.exceptions.TransactionException;
+import com.ontop.wallet.domain.model.Transfer;
+import com.ontop.wallet.domain.model.TransferBatchResult;
+import com.ontop.wallet.domain.model.UserAccount;
+import com.ontop.wallet.domain.model.WalletTransaction;
+import com.ontop.wallet.domain.valueobject.TransferBatchItem;
+import com.ontop.wallet.domain.valueobject.UserId;
+import com.ontop.wallet.domain.valueobject.WalletBalance;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.locks.Lock;
+
+import static com.ontop.wallet.domain.enums.WalletTransactionOperation.WITHDRAWAL;
+
+/**
+ * Initialises the transfers of a batch grouped by user. The accounts of all users are looked up at once;
+ * each user is then locked once, their wallet balance read once and their withdrawals made in item order
+ * against it, with users processed in parallel on the batch executor. Each user's transfers are saved
+ * with one batched insert right after that user's withdrawals, before the user's lock is released, and
+ * their payments are then submitted to the payment executor as for a single transfer. An item that
+ * fails does not affect the others; a failed save fails the items of that user only.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+public class TransferBatchService {
+    private final static String NO_ACCOUNT_FOUND = "no account found for user";
+    private final static String USER_LOCKED = "user resource is locked by another process";
+
+    @Value("${ontop.transfer.batch.max-items:1000}")
+    private final int maxItems;
+
+    private final UserAccountRepository userAccountRepository;
+    private final UserWalletService userWalletService;
+    private final TransferRepository transferRepository;
+    private final TransferInitialisationService transferInitialisationService;
+    @Qualifier("transferBatchExecutor")
+    private final Executor batchExecutor;
+
+    /**
+     * @return one result per item, in the order of {@code items}
+     */
+    public List<TransferBatchResult> initialiseTransfers(List<TransferBatchItem> items) {
+        if (items.isEmpty() || items.size() > maxItems) {
+            throw new TransactionException("INVALID_REQUEST", "batch should have between 1 and " + maxItems + " transfers");
+        }
+        final Map<UserId, List<Integer>> itemsByUser = new LinkedHashMap<>();
+        for (int index = 0; index < items.size(); index++) {
+            itemsByUser.computeIfAbsent(items.get(index).userId(), userId -> new ArrayList<>()).add(index);
+        }
+        log.info("Initialising transfer batch: items={}, users={}", items.size(), itemsByUser.size());
+        final Map<UserId, UserAccount> userAccounts = userAccountRepository.getUserAccounts(itemsByUser.keySet());
+
+        // each index is written by the task of its user only
+        final TransferBatchResult[] results = new TransferBatchResult[items.size()];
+        final List<CompletableFuture<List<Transfer>>> users = itemsByUser.entrySet().stream()
+                .map(user -> CompletableFuture.supplyAsync(() -> initialiseUserTransfers(
+                        user.getKey(), userAccounts.get(user.getKey()), user.getValue(), items, results
+                ), batchExecutor))
+                .toList();
+        CompletableFuture.allOf(users.toArray(CompletableFuture[]::new)).join();
+        final int transfers = users.stream().mapToInt(user -> user.join().size()).sum();
+        log.info("Transfer batch initialised: items={}, transfers={}", items.size(), transfers);
+        return Arrays.asList(results);
+    }
+
+    /**
+     * @return the saved transfers of the user, whose payments have been submitted
+     */
+    private List<Transfer> initialiseUserTransfers(
+            UserId userId,
+            UserAccount userAccount,
+            List<Integer> indexes,
+            List<TransferBatchItem> items,
+            TransferBatchResult[] results
+    ) {
+        if (userAccount == null) {
+            indexes.forEach(index -> results[index] = TransferBatchResult.failed(items.get(index), "INVALID_USER", NO_ACCOUNT_FOUND));
+            return List.of();
+        }
+        final Lock lock;
+        try {
+            lock = transferInitialisationService.lockUserResource(userId);
+        } catch (ResourceLockedException ex) {
+            indexes.forEach(index -> results[index] = TransferBatchResult.failed(items.get(index), "RESOURCE_LOCKED", USER_LOCKED));
+            return List.of();
+        }
+        final List<Transfer> saved;
+        try {
+            withdraw(userId, userAccount, indexes, items, results);
+            saved = saveTransfers(userId, indexes, results);
+        } finally {
+            transferInitialisationService.unlock(lock, userId);
+        }
+        saved.forEach(transferInitialisationService::submitPayment);
+        return saved;
+    }
+
+    private void withdraw(
+            UserId userId,
+            UserAccount userAccount,
+            List<Integer> indexes,
+            List<TransferBatchItem> items,
+            TransferBatchResult[] results
+    ) {
+        WalletBalance walletBalance;
+        try {
+            walletBalance = userWalletService.getUserWalletBalance(userId);
+        } catch (RuntimeException ex) {
+            indexes.forEach(index -> results[index] = failed(items.get(index), ex));
+            return;
+        }
+        for (final int index : indexes) {
+            final TransferBatchItem item = items.get(index);
+            try {
+                transferInitialisationService.checkCompatibleCurrency(userAccount, item.amount());
+                transferInitialisationService.checkMayWithdraw(walletBalance, item.amount());
+                final WalletTransaction withdrawal = userWalletService.createTransaction(userId, item.amount(), WITHDRAWAL);
+                walletBalance = walletBalance.adjustedBy(withdrawal.amount());
+                results[index] = TransferBatchResult.initialised(
+                        item, transferInitialisationService.newTransfer(userAccount, item.amount(), withdrawal));
+            } catch (RuntimeException ex) {
+                results[index] = failed(item, ex);
+            }
+        }
+    }
+
+    /**
+     * Replaces the unsaved transfers of the user's {@code indexes} with the saved ones, or, if saving
+     * fails, with failures; the withdrawals of those are left for reconciliation as for a single transfer
+     * whose save failed.
+     */
+    private List<Transfer> saveTransfers(UserId userId, List<Integer> indexes, TransferBatchResult[] results) {
+        final List<Integer> initialised = new ArrayList<>();
+        final List<Transfer> unsaved = new ArrayList<>();
+        for (final int index : indexes) {
+            if (results[index].isInitialised()) {
+                initialised.add(index);
+                unsaved.add(results[index].transfer());
+            }
+        }
+        if (unsaved.isEmpty()) {
+            return List.of();
+        }
+        final List<Transfer> saved;
+        try {
+            saved = transferRepository.saveAll(unsaved);
+        } catch (RuntimeException ex) {
+            log.error("Saving batch transfers failed: user={}, withdrawals={}", userId.value(),
+                    unsaved.stream().map(transfer -> transfer.getWithdrawal().walletTransactionId().value()).toList(), ex);
+            initialised.forEach(index -> results[index] = TransferBatchResult.failed(
+                    results[index].item(), "SERVER_ERROR", "process was interrupted"));
+            return List.of();
+        }
+        for (int i = 0; i < initialised.size(); i++) {
+            results[initialised.get(i)] = TransferBatchResult.initialised(results[initialised.get(i)].item(), saved.get(i));
+        }
+        return saved;
+    }
+
+    private static TransferBatchResult failed(TransferBatchItem item, RuntimeException ex) {
+        if (ex instanceof TransactionException transactionException) {
+            return TransferBatchResult.failed(item, transactionException.code(), transactionException.message());
+        }
+        log.error("Transfer batch item failed: user={}", item.userId().value(), ex);
+        return TransferBatchResult.failed(item, "SERVER_ERROR", "process was interrupted");
+    }
+}
@@ -0,0 +1,53 @@
+package com.ontop.wallet.domain.service;
+
+import com.ontop.wallet.domain.model.Transfer;
+import com.ontop.wallet.domain.model.TransferCommand;
+import com.ontop.wallet.domain.valueobject.Id;
+import com.ontop.wallet.domain.valueobject.Money;
+import com.ontop.wallet.domain.valueobject.UserId;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+public interface TransferCommandRepository {
+    TransferCommand enqueue(UserId userId, Money amount);
+
+    Optional<TransferCommand> findById(Id<TransferCommand> commandId);
+
+    /**
+     * Claims, for up to {@code limit} users, the oldest pending command for {@code lease}. A user's next
+     * command only becomes claimable once the one before it has ended, so each user's commands run one at
+     * a time in the order they were accepted. A pending command whose lease expires becomes claimable
+     * again; a started one whose lease expires ends UNKNOWN instead.
+     */
+    List<TransferCommand> claimNext(int limit, Duration lease);
+
+    /**
+     * Marks the command STARTED, and commits it, before its withdrawal is attempted; its claim is extended
+     * by {@code lease} from now.
+     *
+     * @return false if the command is no longer pending, or its claim expired and it was claimed by
+     * another worker since
+     */
+    boolean start(TransferCommand command, Duration lease);
+
+    /**
+     * Records the transfer on the command if it is still held by the claim it was returned under.
+     */
+    void complete(TransferCommand command, Id<Transfer> transferId);
+
+    /**
+     * Records the error on the command if it is still held by the claim it was returned under.
+     */
+    void fail(TransferCommand command, String errorCode, String errorMessage);
+
+    /**
+     * Makes the command pending and claimable again if it is still held by the claim it was returned
+     * under; only for a command whose withdrawal was not attempted.
+     */
+    void release(TransferCommand command);
+
+    int purgeFinished(Instant updatedBefore);
+}
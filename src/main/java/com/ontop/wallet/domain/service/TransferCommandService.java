@@ -0,0 +1,154 @@
+package com.ontop.wallet.domain.service;
+
+import com.ontop.wallet.domain.exceptions.AccountNotFoundException;
+import com.ontop.wallet.domain.exceptions.ResourceLockedException;
+import com.ontop.wallet.domain.exceptions.TransactionException;
+import com.ontop.wallet.domain.exceptions.TransferCommandNotFoundException;
+import com.ontop.wallet.domain.model.Transfer;
+import com.ontop.wallet.domain.model.TransferCommand;
+import com.ontop.wallet.domain.valueobject.Id;
+import com.ontop.wallet.domain.valueobject.Money;
+import com.ontop.wallet.domain.valueobject.UserId;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Accepts transfers into the inbox with a single insert and runs them later on the command workers
+ * through {@link TransferInitialisationService#initialiseTransfer}. A command that finds its user
+ * locked is released and retried on a later poll; any other outcome is recorded on the command.
+ * <p>
+ * A poll claims no more commands than there are workers free, so a claimed command starts well within
+ * its lease. A worker marks the command STARTED, renewing the claim, before it runs the command and
+ * skips it if the command is no longer pending or was claimed again by another instance; completing,
+ * failing and releasing only apply while the claim is still held. A started command whose worker stops
+ * before finishing it is not run again but ends UNKNOWN, as its withdrawal may have been made.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+public class TransferCommandService {
+    @Value("${ontop.transfer.inbox.enabled:false}")
+    private final boolean enabled;
+
+    @Value("${ontop.transfer.inbox.workers:8}")
+    private final int workers;
+
+    @Value("${ontop.transfer.inbox.batch-size:50}")
+    private final int batchSize;
+
+    @Value("${ontop.transfer.inbox.lease-seconds:60}")
+    private final int leaseSeconds;
+
+    @Value("${ontop.transfer.inbox.retention-hours:24}")
+    private final int retentionHours;
+
+    private final TransferCommandRepository transferCommandRepository;
+    private final TransferInitialisationService transferInitialisationService;
+    @Qualifier("transferCommandExecutor")
+    private final Executor commandExecutor;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    public TransferCommand accept(UserId userId, Money amount) {
+        final TransferCommand command = transferCommandRepository.enqueue(userId, amount);
+        log.info("Transfer command accepted: commandId={}, user={}, amount={}", command.id().value(), userId.value(), amount);
+        return command;
+    }
+
+    public TransferCommand getCommand(Id<TransferCommand> commandId) throws TransferCommandNotFoundException {
+        return transferCommandRepository.findById(commandId)
+                .orElseThrow(() -> new TransferCommandNotFoundException("transfer command not found: commandId=" + commandId.value()));
+    }
+
+    @Scheduled(fixedDelayString = "${ontop.transfer.inbox.poll-interval-ms:200}")
+    public void drainInbox() {
+        if (!enabled) {
+            return;
+        }
+        final int capacity = Math.min(batchSize, workers - inFlight.get());
+        if (capacity <= 0) {
+            return;
+        }
+        final List<TransferCommand> commands;
+        try {
+            commands = transferCommandRepository.claimNext(capacity, Duration.ofSeconds(leaseSeconds));
+        } catch (Exception ex) {
+            log.error("Claiming transfer commands failed", ex);
+            return;
+        }
+        if (!commands.isEmpty()) {
+            log.debug("Claimed transfer commands: count={}", commands.size());
+        }
+        commands.forEach(this::dispatch);
+    }
+
+    @Scheduled(fixedDelayString = "${ontop.transfer.inbox.purge-interval-ms:3600000}")
+    public void purgeFinishedCommands() {
+        final Instant updatedBefore = Instant.now().minus(Duration.ofHours(retentionHours));
+        try {
+            final int purged = transferCommandRepository.purgeFinished(updatedBefore);
+            if (purged > 0) {
+                log.info("Purged finished transfer commands: updatedBefore={}, count={}", updatedBefore, purged);
+            }
+        } catch (Exception ex) {
+            log.error("Purging finished transfer commands failed", ex);
+        }
+    }
+
+    private void dispatch(final TransferCommand command) {
+        inFlight.incrementAndGet();
+        try {
+            commandExecutor.execute(() -> {
+                try {
+                    run(command);
+                } finally {
+                    inFlight.decrementAndGet();
+                }
+            });
+        } catch (TaskRejectedException ex) {
+            inFlight.decrementAndGet();
+            log.warn("Transfer command deferred to next poll: commandId={}", command.id().value());
+            transferCommandRepository.release(command);
+        }
+    }
+
+    void run(final TransferCommand command) {
+        if (!transferCommandRepository.start(command, Duration.ofSeconds(leaseSeconds))) {
+            log.warn("Transfer command ended or claimed by another worker, skipping: commandId={}", command.id().value());
+            return;
+        }
+        try {
+            final Transfer transfer = transferInitialisationService.initialiseTransfer(command.userId(), command.amount());
+            transferCommandRepository.complete(command, transfer.id());
+            log.info("Transfer command completed: commandId={}, transferId={}", command.id().value(), transfer.id().value());
+        } catch (ResourceLockedException ex) {
+            log.info("User locked, transfer command deferred to next poll: commandId={}", command.id().value());
+            transferCommandRepository.release(command);
+        } catch (AccountNotFoundException ex) {
+            fail(command, "INVALID_USER", "no account found for user");
+        } catch (TransactionException ex) {
+            fail(command, ex.code(), ex.message());
+        } catch (RuntimeException ex) {
+            // the withdrawal may or may not have been made; same outcome as a failed synchronous request
+            log.error("Transfer command failed: commandId={}", command.id().value(), ex);
+            fail(command, "SERVER_ERROR", "process was interrupted");
+        }
+    }
+
+    private void fail(TransferCommand command, String errorCode, String errorMessage) {
+        log.info("Transfer command failed: commandId={}, code={}", command.id().value(), errorCode);
+        transferCommandRepository.fail(command, errorCode, errorMessage);
+    }
+}
@@ -0,0 +1,16 @@
+package com.ontop.wallet.domain.service;
+
+import com.ontop.wallet.domain.model.Transfer;
+import com.ontop.wallet.domain.valueobject.TransferExportFilter;
+
+import java.util.function.Consumer;
+
+public interface TransferExportRepository {
+    /**
+     * Hands every matching transfer, with its wallet transactions and payments, to {@code consumer} in
+     * id order. Transfers are read as the consumer keeps up and are not retained once handed over.
+     *
+     * @return the number of transfers exported
+     */
+    long exportTransfers(TransferExportFilter filter, Consumer<Transfer> consumer);
+}
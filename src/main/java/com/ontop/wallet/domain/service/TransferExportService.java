@@ -0,0 +1,24 @@
+package com.ontop.wallet.domain.service;
+
+import com.ontop.wallet.domain.model.Transfer;
+import com.ontop.wallet.domain.valueobject.TransferExportFilter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.function.Consumer;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+public class TransferExportService {
+    private final TransferExportRepository transferExportRepository;
+
+    public void export(TransferExportFilter filter, Consumer<Transfer> consumer) {
+        final long start = System.nanoTime();
+        final long count = transferExportRepository.exportTransfers(filter, consumer);
+        log.info("Exported transfers: startDate={}, endDate={}, statuses={}, count={}, elapsedMs={}",
+                filter.startDate(), filter.endDate(), filter.statuses(), count, (System.nanoTime() - start) / 1_000_000);
+    }
+}
@@ -11,8 +11,13 @@ import com.ontop.wallet.domain.valueobject.UserId;
 import com.ontop.wallet.domain.valueobject.WalletBalance;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.concurrent.locks.Lock;
 
 import static com.ontop.wallet.domain.enums.WalletTransactionOperation.WITHDRAWAL;
@@ -31,52 +36,114 @@ public class TransferInitialisationService {
     private final TransferInitialisationFactory transferInitialisationFactory;
     private final LockService lockService;
     private final TransferPaymentProcessingService processingService;
+    private final PaymentRetryRepository paymentRetryRepository;
+    @Qualifier("transferCompletionExecutor")
+    private final Executor completionExecutor;
 
     public Transfer initialiseTransfer(UserId userId, Money amount) throws AccountNotFoundException, ResourceLockedException {
         log.info("Initialising transfer: user={}, amount={}", userId.value(), amount);
+        final UserAccount userAccount = getCompatibleUserAccount(userId, amount);
+
+        Lock lock = null;
+        try {
+            lock = lockUserResource(userId);
+            checkMayWithdraw(userWalletService.getUserWalletBalance(userId), amount);
+            final WalletTransaction walletTransaction = userWalletService.createTransaction(userId, amount, WITHDRAWAL);
+            return saveTransfer(userAccount, amount, walletTransaction);
+        } finally {
+            if (lock != null) {
+                unlock(lock, userId);
+            }
+        }
+    }
+
+    /**
+     * Non-blocking {@link #initialiseTransfer}: the account lookup and the user lock are taken on the
+     * calling thread, the wallet calls are made without holding a thread, and the transfer is saved on
+     * the completion executor. The user lock is held until the returned future completes; its failures
+     * are the exceptions {@link #initialiseTransfer} would throw.
+     */
+    public CompletableFuture<Transfer> initialiseTransferAsync(UserId userId, Money amount)
+            throws AccountNotFoundException, ResourceLockedException {
+        log.info("Initialising transfer: user={}, amount={}", userId.value(), amount);
+        final UserAccount userAccount = getCompatibleUserAccount(userId, amount);
+
+        final Lock lock = lockUserResource(userId);
+        final CompletableFuture<Transfer> transfer;
+        try {
+            transfer = userWalletService.getUserWalletBalanceAsync(userId)
+                    .thenCompose(walletBalance -> {
+                        checkMayWithdraw(walletBalance, amount);
+                        return userWalletService.createTransactionAsync(userId, amount, WITHDRAWAL);
+                    })
+                    .thenApplyAsync(walletTransaction -> saveTransfer(userAccount, amount, walletTransaction), completionExecutor);
+        } catch (RuntimeException ex) {
+            unlock(lock, userId);
+            throw ex;
+        }
+        // released on the completion executor as the cross-node lock is a database row
+        return transfer.whenCompleteAsync((saved, ex) -> unlock(lock, userId), completionExecutor);
+    }
+
+    private UserAccount getCompatibleUserAccount(UserId userId, Money amount) throws AccountNotFoundException {
         final UserAccount userAccount = userAccountRepository.getUserAccount(userId);
         log.info("Fetched user account: user={}, account={}", userId.value(), userAccount.id().value());
+        checkCompatibleCurrency(userAccount, amount);
+        return userAccount;
+    }
 
+    void checkCompatibleCurrency(UserAccount userAccount, Money amount) {
         if (!userAccount.isCompatibleWithCurrency(amount.currency())) {
             final String message = UNABLE_TO_PROCESS_TRANSFER_WITH_ACCOUNT_CURRENCY + userAccount.currency();
             log.error(message);
             throw new TransactionException("INVALID_ACCOUNT", message);
         }
+    }
 
-        Lock lock = null;
-        try {
-            lock = lockUserResource(userId);
-            final WalletBalance walletBalance = userWalletService.getUserWalletBalance(userId);
-            log.info("Fetched user wallet balance: user={}, balance={}", walletBalance.userId().value(), walletBalance.balance().value());
-            if (!walletBalance.mayWithdraw(amount)) {
-                log.error(INSUFFICIENT_FUNDS);
-                throw new TransactionException("INSUFFICIENT_FUNDS", INSUFFICIENT_FUNDS);
-            }
+    void checkMayWithdraw(WalletBalance walletBalance, Money amount) {
+        log.info("Fetched user wallet balance: user={}, balance={}", walletBalance.userId().value(), walletBalance.balance().value());
+        if (!walletBalance.mayWithdraw(amount)) {
+            log.error(INSUFFICIENT_FUNDS);
+            throw new TransactionException("INSUFFICIENT_FUNDS", INSUFFICIENT_FUNDS);
+        }
+    }
 
-            final WalletTransaction walletTransaction = userWalletService.createTransaction(userId, amount, WITHDRAWAL);
-            log.info("Wallet transaction: transactionId={}, amount={}, operation={}",
-                    walletTransaction.walletTransactionId().value(), walletTransaction.amount().value(), walletTransaction.operation());
-
-            final Transfer transfer = transferRepository.save(
-                    transferInitialisationFactory.transfer()
-                            .withAmount(amount)
-                            .withTargetAccount(userAccount)
-                            .withWalletTransaction(walletTransaction)
-                            .initialize()
-            );
-            log.info("Transfer initialised: transferId={}", transfer.id().value());
+    private Transfer saveTransfer(UserAccount userAccount, Money amount, WalletTransaction walletTransaction) {
+        final Transfer transfer = transferRepository.save(newTransfer(userAccount, amount, walletTransaction));
+        log.info("Transfer initialised: transferId={}", transfer.id().value());
+        submitPayment(transfer);
+        // send notification to user
+        return transfer;
+    }
+
+    /**
+     * @return the unsaved transfer of a withdrawal just made
+     */
+    Transfer newTransfer(UserAccount userAccount, Money amount, WalletTransaction walletTransaction) {
+        log.info("Wallet transaction: transactionId={}, amount={}, operation={}",
+                walletTransaction.walletTransactionId().value(), walletTransaction.amount().value(), walletTransaction.operation());
+        return transferInitialisationFactory.transfer()
+                .withAmount(amount)
+                .withTargetAccount(userAccount)
+                .withWalletTransaction(walletTransaction)
+                .initialize();
+    }
+
+    void unlock(Lock lock, UserId userId) {
+        lock.unlock();
+        log.info("Lock on resource released: userId={}", userId.value());
+    }
+
+    void submitPayment(Transfer transfer) {
+        try {
             processingService.processPayment(transfer.id());
-            // send notification to user
-            return transfer;
-        } finally {
-            if (lock != null) {
-                lock.unlock();
-                log.info("Lock on resource released: userId={}", userId.value());
-            }
+        } catch (TaskRejectedException ex) {
+            log.warn("Payment processing at capacity, parking payment: transferId={}", transfer.id().value());
+            paymentRetryRepository.enqueue(transfer.id(), 0, Instant.now());
         }
     }
 
-    private Lock lockUserResource(UserId userId) throws ResourceLockedException {
+    Lock lockUserResource(UserId userId) throws ResourceLockedException {
         final Lock lock = lockService.getLock(getLockKey(userId));
         if (lock == null || !lock.tryLock()) {
             final String message = UNABLE_TO_OBTAIN_LOCK_FOR_USER + userId.value();
@@ -1,6 +1,8 @@
 package com.ontop.wallet.domain.service;
 
 import com.ontop.wallet.adapters.clients.PaymentProviderException;
+import com.ontop.wallet.domain.enums.TransferEventType;
+import com.ontop.wallet.domain.exceptions.TransferConflictException;
 import com.ontop.wallet.domain.exceptions.TransferNotFoundException;
 import com.ontop.wallet.domain.model.Payment;
 import com.ontop.wallet.domain.model.Transfer;
@@ -14,11 +16,15 @@ import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.ResourceAccessException;
 
-import java.net.SocketTimeoutException;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.time.Instant;
 
+/**
+ * A worker claims a transfer by moving it to PAYMENT_IN_FLIGHT with a versioned write before it calls the
+ * payment provider, and records the outcome against the version it claimed. A worker that loses the claim
+ * to another backs off before making any payment, so the provider is called once per attempt.
+ */
 @Slf4j
 @Service
 @RequiredArgsConstructor(onConstructor = @__(@Autowired))
@@ -35,18 +41,24 @@ public class TransferPaymentProcessingService {
     private final PaymentProvider paymentProvider;
     private final OntopAccountRepository ontopAccountRepository;
     private final TransferReversalService transferReversalService;
+    private final TransferStatusService transferStatusService;
 
-    @Async
+    @Async("paymentProcessingExecutor")
     public void processPayment(final Id<Transfer> transferId) {
         log.info("Transfer payment processing started: transferId={}", transferId.value());
         processRetryablePayment(transferId, FIRST_RETRY_COUNT);
     }
 
+    public void processPaymentRetry(final Id<Transfer> transferId, final int retryCount) {
+        processRetryablePayment(transferId, retryCount);
+    }
+
     private void processRetryablePayment(final Id<Transfer> transferId, final int retryCount) {
         log.info("Trying payment for transfer: transferId={}, retryCount={}", transferId.value(), retryCount);
         try {
-            final Transfer transfer = transferRepository.findById(transferId);
+            final Transfer transfer = transferRepository.findForProcessing(transferId);
             if (transfer.isValidStateForPayment()) {
+                claimPayment(transfer);
                 processRetryablePayment(transfer, retryCount);
             } else {
                 log.error("Transfer state is invalid, cannot process payment: transferId={}", transfer.id().value());
@@ -54,13 +66,15 @@ public class TransferPaymentProcessingService {
         } catch (TransferNotFoundException ex) {
             log.error("Unable to process payment, transferId={} not found", transferId);
             // alert code owners
+        } catch (TransferConflictException ex) {
+            log.warn("Transfer claimed or changed by another worker, backing off: transferId={}", transferId.value());
         } catch (Exception ex) {
             log.error("Payment processing interrupted", ex);
             // alert code owners
         }
     }
 
-    private void processRetryablePayment(final Transfer transfer, final int retryCount) {
+    private void processRetryablePayment(final Transfer transfer, final int retryCount) throws TransferConflictException {
         try {
             final Payment payment = makePayment(transfer);
             if (payment.isRetryable()) {
@@ -69,14 +83,17 @@ public class TransferPaymentProcessingService {
                 log.info("Payment failed: transferId={}", transfer.id().value());
                 initiateTransferReverse(transfer);
             } else {
+                transferRepository.recordTransition(transfer, TransferEventType.PAYMENT_ACCEPTED);
                 transfer.toProcessingState();
-                transferRepository.save(transfer);
+                transferStatusService.transferChanged(transfer.id());
             }
+        } catch (final TransferConflictException ex) {
+            throw ex;
         } catch (final PaymentProviderException ex) {
             log.error("Payment processing failed: transferId={}", transfer.id().value(), ex);
             initiateTransferReverse(transfer);
         } catch (final ResourceAccessException ex) {
-            if (ex.getCause() instanceof SocketTimeoutException) {
+            if (ex.getCause() instanceof InterruptedIOException) {
                 retryPayment(transfer, retryCount);
             } else {
                 log.error("Exception while processing payment", ex);
@@ -90,7 +107,13 @@ public class TransferPaymentProcessingService {
         }
     }
 
-    private Payment makePayment(final Transfer transfer) {
+    private void claimPayment(final Transfer transfer) throws TransferConflictException {
+        transferRepository.recordTransition(transfer, TransferEventType.PAYMENT_STARTED);
+        transfer.toPaymentInFlightState();
+        transferStatusService.transferChanged(transfer.id());
+    }
+
+    private Payment makePayment(final Transfer transfer) throws TransferConflictException {
         final Payment payment = paymentProvider.makePayment(
                 transfer.id(),
                 transfer.transferAmount(),
@@ -98,33 +121,34 @@ public class TransferPaymentProcessingService {
                 ontopAccountRepository.getAccount()
         );
         transfer.recordPayment(payment);
+        transferRepository.appendPayment(transfer, payment);
+        transferStatusService.transferChanged(transfer.id());
         return payment;
     }
 
-    private void retryPayment(final Transfer transfer, final int retryCount) {
+    private void retryPayment(final Transfer transfer, final int retryCount) throws TransferConflictException {
         if (retryCount + 1 <= maxRetries) {
-            transferRepository.save(transfer);
-            final ScheduledExecutorService executorService = Executors.newSingleThreadScheduledExecutor();
-            executorService.schedule(
-                    () -> processRetryablePayment(transfer.id(), retryCount + 1),
-                    (long) retryDelayFactorSeconds * retryCount,
-                    TimeUnit.SECONDS
-            );
-            executorService.shutdown();
+            final Duration delay = Duration.ofSeconds((long) retryDelayFactorSeconds * retryCount);
+            // releases the claim, so the retry can claim the transfer again
+            transferRepository.recordRetryScheduled(transfer, retryCount + 1, Instant.now().plus(delay));
+            transfer.toInitializedState();
+            transferStatusService.transferChanged(transfer.id());
         } else {
             initiateTransferReverse(transfer);
         }
     }
 
-    private void initiateTransferReverse(final Transfer transfer) {
+    private void initiateTransferReverse(final Transfer transfer) throws TransferConflictException {
+        transferRepository.recordTransition(transfer, TransferEventType.FAILED);
         transfer.toFailedState();
-        transferRepository.save(transfer);
+        transferStatusService.transferChanged(transfer.id());
         transferReversalService.reverseTransfer(transfer.id());
     }
 
-    private void handlePaymentProcessingErrored(final Transfer transfer) {
+    private void handlePaymentProcessingErrored(final Transfer transfer) throws TransferConflictException {
         // alert code owners
+        transferRepository.recordTransition(transfer, TransferEventType.PAYMENT_ERRORED);
         transfer.toUnknownState();
-        transferRepository.save(transfer);
+        transferStatusService.transferChanged(transfer.id());
     }
 }
@@ -1,11 +1,71 @@
 package com.ontop.wallet.domain.service;
 
+import com.ontop.wallet.domain.enums.TransferEventType;
+import com.ontop.wallet.domain.model.Payment;
 import com.ontop.wallet.domain.model.Transfer;
+import com.ontop.wallet.domain.model.TransferEvent;
+import com.ontop.wallet.domain.model.TransferSummary;
+import com.ontop.wallet.domain.model.WalletTransaction;
 import com.ontop.wallet.domain.valueobject.Id;
+import com.ontop.wallet.domain.exceptions.TransferConflictException;
 import com.ontop.wallet.domain.exceptions.TransferNotFoundException;
 
+import java.time.Instant;
+import java.util.List;
+
 public interface TransferRepository {
     Transfer save(Transfer transfer);
 
+    /**
+     * Saves new transfers in one transaction, with their inserts batched.
+     *
+     * @return the saved transfers, in the order given
+     */
+    List<Transfer> saveAll(List<Transfer> transfers);
+
     Transfer findById(Id<Transfer> transferId) throws TransferNotFoundException;
+
+    /**
+     * Loads the transfer with its target account, wallet transactions and only its current payment,
+     * which is all that payment processing and reversal need to validate and move its state.
+     */
+    Transfer findForProcessing(Id<Transfer> transferId) throws TransferNotFoundException;
+
+    TransferSummary findSummaryById(Id<Transfer> transferId) throws TransferNotFoundException;
+
+    /**
+     * Journals {@code event} and moves the transfer to the status it leads to. Writes are checked against
+     * {@link Transfer#version()}; on success the transfer's version is advanced.
+     *
+     * @throws TransferConflictException if the transfer was changed since it was read, in which case nothing is changed
+     */
+    void recordTransition(Transfer transfer, TransferEventType event) throws TransferConflictException;
+
+    /**
+     * Journals PAYMENT_RETRY_SCHEDULED, which moves the transfer back to INITIALIZED, and enqueues its
+     * {@code retryCount} payment retry due at {@code dueAt} in the same transaction, so a transfer is never
+     * left INITIALIZED without its retry.
+     *
+     * @throws TransferConflictException if the transfer was changed since it was read, in which case nothing is changed
+     */
+    void recordRetryScheduled(Transfer transfer, int retryCount, Instant dueAt) throws TransferConflictException;
+
+    /**
+     * Stores {@code payment} as the transfer's current payment and journals the attempt.
+     *
+     * @throws TransferConflictException if the transfer was changed since it was read, in which case nothing is changed
+     */
+    void appendPayment(Transfer transfer, Payment payment) throws TransferConflictException;
+
+    /**
+     * Marks the transfer REVERSED, journals it and stores the refund.
+     *
+     * @throws TransferConflictException if the transfer was changed since it was read, in which case nothing is changed
+     */
+    void recordReversal(Transfer transfer, WalletTransaction refund) throws TransferConflictException;
+
+    /**
+     * @return the transfer's journal, oldest first
+     */
+    List<TransferEvent> findEvents(Id<Transfer> transferId);
 }
@@ -1,6 +1,8 @@
 package com.ontop.wallet.domain.service;
 
+import com.ontop.wallet.domain.enums.TransferEventType;
 import com.ontop.wallet.domain.enums.WalletTransactionOperation;
+import com.ontop.wallet.domain.exceptions.TransferConflictException;
 import com.ontop.wallet.domain.model.Transfer;
 import com.ontop.wallet.domain.model.WalletTransaction;
 import com.ontop.wallet.domain.valueobject.Id;
@@ -8,19 +10,27 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+/**
+ * The reversal is claimed by moving the transfer to REVERSING with a versioned write before the refund is
+ * made, so a worker that loses the claim makes no refund.
+ */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class TransferReversalService {
     private final TransferRepository transferRepository;
     private final UserWalletService userWalletService;
+    private final TransferStatusService transferStatusService;
 
     public void reverseTransfer(Id<Transfer> transferId) {
         log.info("Transfer reversal process started: transferId={}", transferId.value());
         try {
-            Transfer transfer = transferRepository.findById(transferId);
+            Transfer transfer = transferRepository.findForProcessing(transferId);
             if (transfer.isValidStateForReversal()) {
                 log.info("Transfer state validated, proceeding with reversal: transferId={}", transferId.value());
+                transferRepository.recordTransition(transfer, TransferEventType.REVERSAL_STARTED);
+                transfer.toReversingState();
+                transferStatusService.transferChanged(transferId);
 
                 WalletTransaction transaction =  transfer.getWithdrawal();
                 WalletTransaction refund = userWalletService.createTransaction(
@@ -29,13 +39,16 @@ public class TransferReversalService {
                         WalletTransactionOperation.REFUND
                 );
                 transfer.reverseWith(refund);
-                transferRepository.save(transfer);
+                transferRepository.recordReversal(transfer, refund);
+                transferStatusService.transferChanged(transferId);
                 log.info("Transfer successfully reversed: transferId={}", transferId.value());
                 // send notification to user
             } else {
                 log.error("Transfer state is invalid, cannot reverse: transferId={}", transferId.value());
                 // alert code owner
             }
+        } catch (TransferConflictException ex) {
+            log.warn("Transfer reversal claimed or changed by another worker, backing off: transferId={}", transferId.value());
         } catch (Exception ex) {
             log.error("Transfer reversal failed: transferId={}", transferId.value(), ex);
             // alert code owner
@@ -0,0 +1,97 @@
+package com.ontop.wallet.domain.service;
+
+import com.ontop.wallet.domain.exceptions.TransferNotFoundException;
+import com.ontop.wallet.domain.model.Transfer;
+import com.ontop.wallet.domain.model.TransferSummary;
+import com.ontop.wallet.domain.valueobject.Id;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Serves the state of a transfer and holds requests waiting for it to change. Waiters are kept in
+ * process and woken by {@link #transferChanged} from the payment and reversal services, which read the
+ * transfer once per change however many requests wait on it. Changes made by another instance are not
+ * seen: their waiters time out as unchanged and find the new version when they ask again.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+public class TransferStatusService {
+    @Value("${ontop.transfer.status.max-waiters:10000}")
+    private final int maxWaiters;
+
+    private final TransferRepository transferRepository;
+
+    private final ConcurrentMap<Id<Transfer>, Set<CompletableFuture<Optional<TransferSummary>>>> waiters = new ConcurrentHashMap<>();
+    private final AtomicInteger waiting = new AtomicInteger();
+
+    public TransferSummary getTransfer(Id<Transfer> transferId) throws TransferNotFoundException {
+        return transferRepository.findSummaryById(transferId);
+    }
+
+    /**
+     * @param known the state the caller already has
+     * @return completes with the transfer once its version differs from {@code known}, or empty if it has
+     * not changed within {@code wait}; empty at once if too many requests are already waiting
+     */
+    public CompletableFuture<Optional<TransferSummary>> awaitChange(TransferSummary known, Duration wait) {
+        if (waiting.incrementAndGet() > maxWaiters) {
+            waiting.decrementAndGet();
+            log.warn("Too many requests waiting for transfer changes, not holding: transferId={}", known.id().value());
+            return CompletableFuture.completedFuture(Optional.empty());
+        }
+        final CompletableFuture<Optional<TransferSummary>> change = new CompletableFuture<>();
+        waiters.computeIfAbsent(known.id(), transferId -> ConcurrentHashMap.newKeySet()).add(change);
+        change.whenComplete((summary, ex) -> {
+            waiting.decrementAndGet();
+            waiters.computeIfPresent(known.id(), (transferId, futures) -> {
+                futures.remove(change);
+                return futures.isEmpty() ? null : futures;
+            });
+        });
+        change.completeOnTimeout(Optional.empty(), wait.toMillis(), TimeUnit.MILLISECONDS);
+
+        // read again once registered, so a change committed since the caller's read is not missed
+        try {
+            final TransferSummary current = transferRepository.findSummaryById(known.id());
+            if (!Objects.equals(current.version(), known.version())) {
+                change.complete(Optional.of(current));
+            }
+        } catch (TransferNotFoundException ex) {
+            change.complete(Optional.empty());
+        }
+        return change;
+    }
+
+    /**
+     * Wakes the requests waiting on the transfer with its committed state. Never throws, so a failed
+     * notification does not affect the change it reports.
+     */
+    public void transferChanged(Id<Transfer> transferId) {
+        if (!waiters.containsKey(transferId)) {
+            return;
+        }
+        try {
+            final TransferSummary current = transferRepository.findSummaryById(transferId);
+            final Set<CompletableFuture<Optional<TransferSummary>>> futures = waiters.get(transferId);
+            if (futures != null) {
+                futures.forEach(future -> future.complete(Optional.of(current)));
+            }
+        } catch (Exception ex) {
+            log.error("Notifying transfer change failed: transferId={}", transferId.value(), ex);
+        }
+    }
+}
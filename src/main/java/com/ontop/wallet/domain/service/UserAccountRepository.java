@@ -4,6 +4,19 @@ import com.ontop.wallet.domain.model.UserAccount;
 import com.ontop.wallet.domain.valueobject.UserId;
 import com.ontop.wallet.domain.exceptions.AccountNotFoundException;
 
+import java.util.Collection;
+import java.util.Map;
+
 public interface UserAccountRepository {
     UserAccount getUserAccount(UserId userId) throws AccountNotFoundException;
+
+    /**
+     * @return the accounts of those of {@code userIds} that have one
+     */
+    Map<UserId, UserAccount> getUserAccounts(Collection<UserId> userIds);
+
+    /**
+     * Drops cached copies of the user's account on every node. To be called once the account's details change.
+     */
+    void accountChanged(UserId userId);
 }
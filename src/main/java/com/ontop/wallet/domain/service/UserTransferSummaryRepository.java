@@ -0,0 +1,13 @@
+package com.ontop.wallet.domain.service;
+
+import com.ontop.wallet.domain.model.UserTransferSummary;
+import com.ontop.wallet.domain.valueobject.UserId;
+
+import java.util.Optional;
+
+public interface UserTransferSummaryRepository {
+    /**
+     * @return empty if the user never made a transfer
+     */
+    Optional<UserTransferSummary> findByUserId(UserId userId);
+}
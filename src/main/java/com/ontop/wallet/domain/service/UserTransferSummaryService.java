@@ -0,0 +1,20 @@
+package com.ontop.wallet.domain.service;
+
+import com.ontop.wallet.domain.model.UserTransferSummary;
+import com.ontop.wallet.domain.valueobject.UserId;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+
+@Service
+@RequiredArgsConstructor
+public class UserTransferSummaryService {
+    private final UserTransferSummaryRepository userTransferSummaryRepository;
+
+    public UserTransferSummary getSummary(UserId userId) {
+        return userTransferSummaryRepository.findByUserId(userId)
+                .orElseGet(() -> UserTransferSummary.empty(userId))
+                .asOf(UserTransferSummary.dayOf(Instant.now()));
+    }
+}
@@ -6,8 +6,20 @@ import com.ontop.wallet.domain.enums.WalletTransactionOperation;
 import com.ontop.wallet.domain.valueobject.WalletBalance;
 import com.ontop.wallet.domain.valueobject.UserId;
 
+import java.util.concurrent.CompletableFuture;
+
 public interface UserWalletService {
     WalletBalance getUserWalletBalance(UserId userId);
 
     WalletTransaction createTransaction(UserId userId, Money amount, WalletTransactionOperation operation);
+
+    /**
+     * Non-blocking {@link #getUserWalletBalance}; the future fails with the exception the blocking call would throw.
+     */
+    CompletableFuture<WalletBalance> getUserWalletBalanceAsync(UserId userId);
+
+    /**
+     * Non-blocking {@link #createTransaction}; the future fails with the exception the blocking call would throw.
+     */
+    CompletableFuture<WalletTransaction> createTransactionAsync(UserId userId, Money amount, WalletTransactionOperation operation);
 }
@@ -0,0 +1,11 @@
+package com.ontop.wallet.domain.valueobject;
+
+import lombok.NonNull;
+
+import java.time.Instant;
+
+/**
+ * Position after which the next page of a transaction history starts, in (created, id) descending order.
+ */
+public record HistoryCursor(@NonNull Instant created, @NonNull Long id) {
+}
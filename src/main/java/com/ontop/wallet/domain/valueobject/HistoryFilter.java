@@ -0,0 +1,12 @@
+package com.ontop.wallet.domain.valueobject;
+
+import java.time.Instant;
+
+/**
+ * Optional transaction history filters; {@code startDate} is inclusive and {@code endDate} exclusive.
+ */
+public record HistoryFilter(Money amount, Instant startDate, Instant endDate) {
+    public static HistoryFilter none() {
+        return new HistoryFilter(null, null, null);
+    }
+}
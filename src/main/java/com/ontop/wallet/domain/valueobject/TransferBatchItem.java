@@ -0,0 +1,6 @@
+package com.ontop.wallet.domain.valueobject;
+
+import lombok.NonNull;
+
+public record TransferBatchItem(@NonNull UserId userId, @NonNull Money amount) {
+}
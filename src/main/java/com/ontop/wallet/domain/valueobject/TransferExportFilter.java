@@ -0,0 +1,23 @@
+package com.ontop.wallet.domain.valueobject;
+
+import com.ontop.wallet.domain.enums.TransferStatus;
+import com.ontop.wallet.domain.exceptions.TransactionException;
+
+import java.time.Instant;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Transfers created from {@code startDate} inclusive to {@code endDate} exclusive, in any of
+ * {@code statuses}; an empty status set exports every status.
+ */
+public record TransferExportFilter(Instant startDate, Instant endDate, Set<TransferStatus> statuses) {
+    public TransferExportFilter {
+        if (startDate == null || endDate == null || !startDate.isBefore(endDate)) {
+            throw new TransactionException("INVALID_DATE_RANGE", "start date should be before end date");
+        }
+        statuses = statuses == null || statuses.isEmpty()
+                ? EnumSet.allOf(TransferStatus.class)
+                : EnumSet.copyOf(statuses);
+    }
+}
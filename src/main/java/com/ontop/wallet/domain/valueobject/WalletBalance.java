@@ -10,4 +10,8 @@ public record WalletBalance(@NonNull UserId userId, @NonNull Money balance) {
         }
         return balance.isSameCurrencyAndIsGreaterOrEqualTo(amount);
     }
+
+    public WalletBalance adjustedBy(@NonNull Money amount) {
+        return new WalletBalance(userId, new Money(balance.value().add(amount.value()), balance.currency()));
+    }
 }
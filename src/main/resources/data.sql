@@ -5,3 +5,6 @@ INSERT INTO ACCOUNT VALUES (4, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, '1885226714
 INSERT INTO ACCOUNT VALUES (5, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, '1885226715', 'Fifth Bank', 'USD', 'JAMES', 'TIMEOUT', '29501023201956', '211927211', 1002);
 INSERT INTO ACCOUNT VALUES (6, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, '1885226716', 'Sixth Bank', 'USD', 'ELIZABETH', 'TURNER', '29501023201957', '211927212', 1003); --200
 INSERT INTO ACCOUNT VALUES (7, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, '1885226717', 'Seventh Bank', 'EUR', 'ABEL', 'RILEY', '29501023201958', '211927213', 1004);
+
+-- seeded rows above use explicit ids, so start generated ids after them
+ALTER SEQUENCE account_seq RESTART WITH 8;
@@ -0,0 +1,103 @@
+package com.ontop.wallet.adapters;
+
+import com.ontop.wallet.adapters.jpa.repository.IdempotentRequestRecordRepository;
+import com.ontop.wallet.domain.model.IdempotentRequest;
+import com.ontop.wallet.domain.valueobject.Money;
+import com.ontop.wallet.domain.valueobject.UserId;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// not transactional, so that a duplicate insert fails as it would outside of a test
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ IdempotentRequestRepositoryImpl.class, SimpleMeterRegistry.class })
+class IdempotentRequestRepositoryImplTest {
+    private final UserId userId = new UserId(101L);
+    private final Money amount = Money.of(200L);
+    private final String key = UUID.randomUUID().toString();
+    private final String holder = UUID.randomUUID().toString();
+    private final String otherHolder = UUID.randomUUID().toString();
+
+    @Autowired
+    private IdempotentRequestRepositoryImpl idempotentRequestRepository;
+
+    @Autowired
+    private IdempotentRequestRecordRepository idempotentRequestRecordRepository;
+
+    @Test
+    void shouldHoldKeyForFirstRequestOnly() {
+        assertTrue(idempotentRequestRepository.reserve(key, holder, userId, amount, Instant.now().plusSeconds(60)).isEmpty());
+
+        final IdempotentRequest held = idempotentRequestRepository.reserve(key, otherHolder, userId, amount, Instant.now().plusSeconds(60)).orElseThrow();
+
+        assertFalse(held.isCompleted());
+        assertEquals(userId, held.userId());
+        assertEquals(holder, held.holder());
+    }
+
+    @Test
+    void shouldReturnCompletedResponseWithoutReadingTableAgain() {
+        idempotentRequestRepository.reserve(key, holder, userId, amount, Instant.now().plusSeconds(60));
+        idempotentRequestRepository.complete(key, holder, 201, null, "{\"transactionId\":1}", Instant.now().plusSeconds(3600));
+
+        final IdempotentRequest completed = idempotentRequestRepository.reserve(key, otherHolder, userId, amount, Instant.now().plusSeconds(60)).orElseThrow();
+        idempotentRequestRecordRepository.deleteById(key);
+
+        assertEquals(201, completed.responseStatus());
+        assertEquals("{\"transactionId\":1}", completed.responseBody());
+        assertTrue(idempotentRequestRepository.reserve(key, otherHolder, userId, amount, Instant.now().plusSeconds(60)).isPresent());
+    }
+
+    @Test
+    void shouldHoldKeyAgainOnceReleasedOrExpired() {
+        idempotentRequestRepository.reserve(key, otherHolder, userId, amount, Instant.now().minusSeconds(1));
+        assertTrue(idempotentRequestRepository.reserve(key, holder, userId, amount, Instant.now().plusSeconds(60)).isEmpty());
+
+        idempotentRequestRepository.release(key, holder);
+
+        assertTrue(idempotentRequestRepository.reserve(key, otherHolder, userId, amount, Instant.now().plusSeconds(60)).isEmpty());
+    }
+
+    @Test
+    void shouldNotCompleteOrReleaseKeyTakenOverAfterHoldExpired() {
+        idempotentRequestRepository.reserve(key, otherHolder, userId, amount, Instant.now().minusSeconds(1));
+        idempotentRequestRepository.reserve(key, holder, userId, amount, Instant.now().plusSeconds(60));
+
+        idempotentRequestRepository.complete(key, otherHolder, 500, null, "{}", Instant.now().plusSeconds(3600));
+        idempotentRequestRepository.release(key, otherHolder);
+
+        final IdempotentRequest held = idempotentRequestRecordRepository.findById(key).orElseThrow().toDomain();
+        assertEquals(holder, held.holder());
+        assertFalse(held.isCompleted());
+    }
+
+    @Test
+    void shouldNotReleaseCompletedKey() {
+        idempotentRequestRepository.reserve(key, holder, userId, amount, Instant.now().plusSeconds(60));
+        idempotentRequestRepository.complete(key, holder, 201, null, "{}", Instant.now().plusSeconds(3600));
+
+        idempotentRequestRepository.release(key, holder);
+
+        assertTrue(idempotentRequestRecordRepository.findById(key).orElseThrow().toDomain().isCompleted());
+    }
+
+    @Test
+    void shouldPurgeExpiredKeys() {
+        idempotentRequestRepository.reserve(key, holder, userId, amount, Instant.now().minusSeconds(1));
+
+        assertTrue(idempotentRequestRepository.purgeExpired(Instant.now()) >= 1);
+        assertTrue(idempotentRequestRecordRepository.findById(key).isEmpty());
+    }
+}
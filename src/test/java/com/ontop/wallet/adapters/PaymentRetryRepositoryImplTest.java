@@ -0,0 +1,83 @@
+package com.ontop.wallet.adapters;
+
+import com.ontop.wallet.domain.model.PaymentRetry;
+import com.ontop.wallet.domain.model.Transfer;
+import com.ontop.wallet.domain.valueobject.Id;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+@Import(PaymentRetryRepositoryImpl.class)
+class PaymentRetryRepositoryImplTest {
+    @Autowired
+    private PaymentRetryRepositoryImpl paymentRetryRepository;
+
+    @Test
+    void shouldOnlyClaimDueRetries() {
+        paymentRetryRepository.enqueue(new Id<Transfer>(1L), 1, Instant.now().minusSeconds(1));
+        paymentRetryRepository.enqueue(new Id<Transfer>(2L), 1, Instant.now().plusSeconds(60));
+
+        final List<PaymentRetry> claimed = paymentRetryRepository.claimDue(10, Duration.ofMinutes(1));
+
+        assertEquals(1, claimed.size());
+        assertEquals(new Id<Transfer>(1L), claimed.get(0).transferId());
+    }
+
+    @Test
+    void shouldNotClaimRetriesWithAnActiveLeaseTwice() {
+        paymentRetryRepository.enqueue(new Id<Transfer>(3L), 1, Instant.now().minusSeconds(1));
+
+        assertEquals(1, paymentRetryRepository.claimDue(10, Duration.ofMinutes(1)).size());
+        assertTrue(paymentRetryRepository.claimDue(10, Duration.ofMinutes(1)).isEmpty());
+    }
+
+    @Test
+    void shouldClaimRetriesAgainOnceLeaseExpiresOrIsReleased() {
+        paymentRetryRepository.enqueue(new Id<Transfer>(4L), 1, Instant.now().minusSeconds(1));
+        paymentRetryRepository.enqueue(new Id<Transfer>(5L), 1, Instant.now().minusSeconds(1));
+
+        final List<PaymentRetry> claimed = paymentRetryRepository.claimDue(1, Duration.ZERO.minusSeconds(1));
+        assertEquals(1, claimed.size());
+        final PaymentRetry other = paymentRetryRepository.claimDue(1, Duration.ofMinutes(1)).get(0);
+        paymentRetryRepository.release(other);
+
+        assertEquals(2, paymentRetryRepository.claimDue(10, Duration.ofMinutes(1)).size());
+    }
+
+    @Test
+    void shouldRemoveCompletedRetries() {
+        paymentRetryRepository.enqueue(new Id<Transfer>(6L), 2, Instant.now().minusSeconds(1));
+        final PaymentRetry retry = paymentRetryRepository.claimDue(10, Duration.ZERO.minusSeconds(1)).get(0);
+
+        paymentRetryRepository.complete(retry);
+
+        assertTrue(paymentRetryRepository.claimDue(10, Duration.ofMinutes(1)).isEmpty());
+    }
+
+    @Test
+    void shouldNotRenewCompleteOrReleaseRetryClaimedAgainAfterLeaseExpired() {
+        paymentRetryRepository.enqueue(new Id<Transfer>(7L), 1, Instant.now().minusSeconds(1));
+        final PaymentRetry expired = paymentRetryRepository.claimDue(10, Duration.ZERO.minusSeconds(1)).get(0);
+        final PaymentRetry current = paymentRetryRepository.claimDue(10, Duration.ofMinutes(1)).get(0);
+
+        assertFalse(paymentRetryRepository.renew(expired, Duration.ofMinutes(1)));
+        paymentRetryRepository.complete(expired);
+        paymentRetryRepository.release(expired);
+
+        assertTrue(paymentRetryRepository.renew(current, Duration.ofMinutes(1)));
+        assertTrue(paymentRetryRepository.claimDue(10, Duration.ofMinutes(1)).isEmpty());
+        paymentRetryRepository.complete(current);
+        paymentRetryRepository.release(current);
+        assertTrue(paymentRetryRepository.claimDue(10, Duration.ZERO).isEmpty());
+    }
+}
@@ -0,0 +1,77 @@
+package com.ontop.wallet.adapters;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PaymentRetrySchedulerImplTest {
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final PaymentRetrySchedulerImpl scheduler = new PaymentRetrySchedulerImpl(1, 2, meterRegistry, new MockEnvironment());
+
+    @AfterEach
+    void tearDown() {
+        scheduler.shutdown();
+    }
+
+    @Test
+    void shouldRunScheduledRetry() throws InterruptedException {
+        final CountDownLatch latch = new CountDownLatch(1);
+
+        assertTrue(scheduler.schedule(latch::countDown, Duration.ZERO));
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertEquals(1, meterRegistry.counter("payment.retry.scheduled").count());
+    }
+
+    @Test
+    void shouldRejectRetriesBeyondMaxPending() {
+        assertTrue(scheduler.schedule(() -> {}, Duration.ofMinutes(1)));
+        assertTrue(scheduler.schedule(() -> {}, Duration.ofMinutes(1)));
+        assertFalse(scheduler.schedule(() -> {}, Duration.ofMinutes(1)));
+
+        assertEquals(2, scheduler.pending());
+        assertEquals(2, meterRegistry.get("payment.retry.pending").gauge().value());
+        assertEquals(1, meterRegistry.counter("payment.retry.rejected").count());
+    }
+
+    @Test
+    void shouldReleaseCapacityOnceRetryStarts() throws InterruptedException {
+        final CountDownLatch latch = new CountDownLatch(2);
+
+        assertTrue(scheduler.schedule(latch::countDown, Duration.ZERO));
+        assertTrue(scheduler.schedule(latch::countDown, Duration.ZERO));
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+
+        assertTrue(scheduler.schedule(() -> {}, Duration.ZERO));
+    }
+
+    @Test
+    void shouldTakeThreadUntilRetryFinishes() throws InterruptedException {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch finish = new CountDownLatch(1);
+
+        assertEquals(1, scheduler.available());
+        assertTrue(scheduler.schedule(() -> {
+            started.countDown();
+            try {
+                finish.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }, Duration.ZERO));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        assertEquals(0, scheduler.available());
+        finish.countDown();
+    }
+}
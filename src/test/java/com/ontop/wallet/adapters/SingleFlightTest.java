@@ -0,0 +1,101 @@
+package com.ontop.wallet.adapters;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SingleFlightTest {
+    private static final int FOLLOWERS = 4;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SingleFlight<String, String> singleFlight = new SingleFlight<>("test", meterRegistry);
+    private final ExecutorService executor = Executors.newFixedThreadPool(FOLLOWERS + 1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final AtomicInteger calls = new AtomicInteger();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void shouldShareOneCallBetweenConcurrentCallersForTheSameKey() throws Exception {
+        final List<Future<String>> results = submitConcurrentCalls(() -> {
+            calls.incrementAndGet();
+            release.await(5, TimeUnit.SECONDS);
+            return "balance";
+        });
+
+        for (Future<String> result : results) {
+            assertEquals("balance", result.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, calls.get());
+        assertEquals(1, count("executed"));
+        assertEquals(FOLLOWERS, count("coalesced"));
+        assertEquals(0, singleFlight.inFlight());
+    }
+
+    @Test
+    void shouldShareCheckedExceptionWithConcurrentCallers() throws Exception {
+        final List<Future<String>> results = submitConcurrentCalls(() -> {
+            release.await(5, TimeUnit.SECONDS);
+            throw new IOException("not found");
+        });
+
+        for (Future<String> result : results) {
+            final ExecutionException thrown = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(IOException.class, thrown.getCause());
+        }
+    }
+
+    @Test
+    void shouldNotReuseCompletedResult() throws Exception {
+        singleFlight.execute("user", () -> String.valueOf(calls.incrementAndGet()));
+        singleFlight.execute("user", () -> String.valueOf(calls.incrementAndGet()));
+
+        assertEquals(2, calls.get());
+        assertEquals(0, count("coalesced"));
+    }
+
+    private List<Future<String>> submitConcurrentCalls(SingleFlight.Call<String, Exception> call) throws InterruptedException {
+        final List<Future<String>> results = new ArrayList<>();
+        results.add(executor.submit(() -> singleFlight.execute("user", call)));
+        awaitTrue(() -> singleFlight.inFlight() == 1);
+        for (int i = 0; i < FOLLOWERS; i++) {
+            results.add(executor.submit(() -> singleFlight.execute("user", call)));
+        }
+        awaitTrue(() -> count("coalesced") == FOLLOWERS);
+        release.countDown();
+        return results;
+    }
+
+    private double count(String result) {
+        return meterRegistry.get("single.flight.calls").tag("result", result).counter().count();
+    }
+
+    private void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertTrue(condition.getAsBoolean());
+    }
+}
@@ -0,0 +1,99 @@
+package com.ontop.wallet.adapters;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.integration.jdbc.lock.LockRepository;
+import org.springframework.integration.util.UUIDConverter;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.Lock;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class TieredLockServiceImplTest {
+    private final LockRepository lockRepository = mock(LockRepository.class);
+
+    @Nested
+    class CrossNodeEnabled {
+        private final TieredLockServiceImpl lockService = new TieredLockServiceImpl(lockRepository, true, 4);
+
+        @Test
+        void shouldRejectLocalContentionWithoutTouchingLockRepository() {
+            when(lockRepository.acquire(anyString())).thenReturn(true);
+
+            assertTrue(lockService.getLock("userId=101").tryLock());
+            assertFalse(lockService.getLock("userId=101").tryLock());
+
+            verify(lockRepository, times(1)).acquire(UUIDConverter.getUUID("userId=101").toString());
+        }
+
+        @Test
+        void shouldNotContendOnDifferentKeysSharingAStripe() {
+            final TieredLockServiceImpl singleStripeLockService = new TieredLockServiceImpl(lockRepository, true, 1);
+            when(lockRepository.acquire(anyString())).thenReturn(true);
+
+            assertTrue(singleStripeLockService.getLock("userId=101").tryLock());
+            assertTrue(singleStripeLockService.getLock("userId=102").tryLock());
+        }
+
+        @Test
+        void shouldReleaseLocalLockIfCrossNodeLockIsHeldElsewhere() {
+            when(lockRepository.acquire(anyString())).thenReturn(false, true);
+
+            assertFalse(lockService.getLock("userId=101").tryLock());
+            assertTrue(lockService.getLock("userId=101").tryLock());
+        }
+
+        @Test
+        void shouldReleaseBothTiersOnUnlock() {
+            when(lockRepository.acquire(anyString())).thenReturn(true);
+            final Lock lock = lockService.getLock("userId=101");
+
+            assertTrue(lock.tryLock());
+            lock.unlock();
+
+            verify(lockRepository).delete(UUIDConverter.getUUID("userId=101").toString());
+            assertTrue(lockService.getLock("userId=101").tryLock());
+        }
+
+        @Test
+        void shouldAllowUnlockFromAnotherThread() {
+            when(lockRepository.acquire(anyString())).thenReturn(true);
+            final Lock lock = lockService.getLock("userId=101");
+
+            assertTrue(lock.tryLock());
+            CompletableFuture.runAsync(lock::unlock).join();
+
+            assertTrue(lockService.getLock("userId=101").tryLock());
+        }
+
+        @Test
+        void shouldThrowIfUnlockedWithoutBeingHeld() {
+            assertThrows(IllegalMonitorStateException.class, () -> lockService.getLock("userId=101").unlock());
+        }
+    }
+
+    @Nested
+    class CrossNodeDisabled {
+        private final TieredLockServiceImpl lockService = new TieredLockServiceImpl(lockRepository, false, 4);
+
+        @Test
+        void shouldOnlyUseLocalTier() {
+            final Lock lock = lockService.getLock("userId=101");
+
+            assertTrue(lock.tryLock());
+            assertFalse(lockService.getLock("userId=101").tryLock());
+            lock.unlock();
+
+            verifyNoInteractions(lockRepository);
+        }
+    }
+}
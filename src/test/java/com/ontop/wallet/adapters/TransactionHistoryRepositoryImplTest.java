@@ -0,0 +1,102 @@
+package com.ontop.wallet.adapters;
+
+import com.ontop.wallet.adapters.jpa.repository.AccountRecordRepository;
+import com.ontop.wallet.domain.enums.TransferStatus;
+import com.ontop.wallet.domain.enums.WalletTransactionOperation;
+import com.ontop.wallet.domain.model.TransactionHistoryEntry;
+import com.ontop.wallet.domain.model.Transfer;
+import com.ontop.wallet.domain.model.WalletTransaction;
+import com.ontop.wallet.domain.valueobject.HistoryCursor;
+import com.ontop.wallet.domain.valueobject.HistoryFilter;
+import com.ontop.wallet.domain.valueobject.Money;
+import com.ontop.wallet.domain.valueobject.UserId;
+import com.ontop.wallet.domain.valueobject.WalletTransactionId;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static com.ontop.wallet.domain.service.ModelFactory.transferInit;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+@Import({ TransactionHistoryRepositoryImpl.class, TransferRepositoryImpl.class, UserTransferSummaryRepositoryImpl.class })
+class TransactionHistoryRepositoryImplTest {
+    @Autowired
+    private TransactionHistoryRepositoryImpl transactionHistoryRepository;
+
+    @Autowired
+    private TransferRepositoryImpl transferRepository;
+
+    @Autowired
+    private AccountRecordRepository accountRecordRepository;
+
+    @Test
+    void shouldPageThroughHistoryNewestFirstWithoutGapsOrDuplicates() {
+        final UserId userId = new UserId(201L);
+        final List<Long> saved = new ArrayList<>();
+        for (long amount = 1; amount <= 5; amount++) {
+            saved.add(saveTransfer(userId, amount).getWithdrawal().id().value());
+        }
+
+        final List<Long> read = new ArrayList<>();
+        HistoryCursor cursor = null;
+        do {
+            final List<TransactionHistoryEntry> page = transactionHistoryRepository.findHistory(userId, HistoryFilter.none(), cursor, 2);
+            page.forEach(entry -> read.add(entry.id().value()));
+            cursor = page.size() < 2 ? null : page.get(page.size() - 1).cursor();
+        } while (cursor != null);
+
+        Collections.reverse(saved);
+        assertEquals(saved, read);
+    }
+
+    @Test
+    void shouldFilterByAbsoluteAmountAndDateRange() {
+        final UserId userId = new UserId(202L);
+        saveTransfer(userId, 10L);
+        final Instant between = Instant.now();
+        saveTransfer(userId, 20L);
+        saveTransfer(userId, 20L);
+
+        final List<TransactionHistoryEntry> byAmount = transactionHistoryRepository.findHistory(
+                userId, new HistoryFilter(Money.of(10L), null, null), null, 10);
+        final List<TransactionHistoryEntry> before = transactionHistoryRepository.findHistory(
+                userId, new HistoryFilter(null, null, between), null, 10);
+        final List<TransactionHistoryEntry> after = transactionHistoryRepository.findHistory(
+                userId, new HistoryFilter(Money.of(20L), between, null), null, 10);
+
+        assertEquals(1, byAmount.size());
+        assertEquals(1, before.size());
+        assertEquals(2, after.size());
+        assertTrue(after.stream().allMatch(entry -> entry.transferStatus() == TransferStatus.INITIALIZED));
+    }
+
+    private Transfer saveTransfer(UserId userId, long amount) {
+        final Transfer init = transferInit();
+        return transferRepository.save(Transfer.transfer()
+                .created(init.created())
+                .updated(init.updated())
+                .currency(init.currency())
+                .status(init.status())
+                .transferCharge(init.transferCharge())
+                .transferAmount(init.transferAmount())
+                .targetAccount(accountRecordRepository.findById(1L).orElseThrow().toDomain())
+                .ontopAccountNumber(init.ontopAccountNumber())
+                .walletTransactions(new ArrayList<>(List.of(WalletTransaction.walletTransaction()
+                        .created(Instant.now())
+                        .operation(WalletTransactionOperation.WITHDRAWAL)
+                        .amount(Money.of(-amount))
+                        .walletTransactionId(new WalletTransactionId(amount))
+                        .userId(userId)
+                        .build())))
+                .payments(new ArrayList<>())
+                .build());
+    }
+}
@@ -0,0 +1,145 @@
+package com.ontop.wallet.adapters;
+
+import com.ontop.wallet.adapters.jpa.entities.TransferEventArchiveRecord;
+import com.ontop.wallet.adapters.jpa.entities.TransferEventRecord;
+import com.ontop.wallet.adapters.jpa.repository.AccountRecordRepository;
+import com.ontop.wallet.adapters.jpa.repository.PaymentArchiveRecordRepository;
+import com.ontop.wallet.adapters.jpa.repository.TransferArchiveRecordRepository;
+import com.ontop.wallet.adapters.jpa.repository.TransferEventArchiveRecordRepository;
+import com.ontop.wallet.adapters.jpa.repository.TransferEventRecordRepository;
+import com.ontop.wallet.adapters.jpa.repository.TransferRecordRepository;
+import com.ontop.wallet.domain.enums.PaymentStatus;
+import com.ontop.wallet.domain.enums.TransferStatus;
+import com.ontop.wallet.domain.enums.WalletTransactionOperation;
+import com.ontop.wallet.domain.model.Payment;
+import com.ontop.wallet.domain.model.TransactionHistoryEntry;
+import com.ontop.wallet.domain.model.Transfer;
+import com.ontop.wallet.domain.model.WalletTransaction;
+import com.ontop.wallet.domain.valueobject.HistoryFilter;
+import com.ontop.wallet.domain.valueobject.Money;
+import com.ontop.wallet.domain.valueobject.UserId;
+import com.ontop.wallet.domain.valueobject.WalletTransactionId;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.ontop.wallet.domain.service.ModelFactory.payment;
+import static com.ontop.wallet.domain.service.ModelFactory.transferInit;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+@Import({ TransferArchiveRepositoryImpl.class, TransferRepositoryImpl.class, TransactionHistoryRepositoryImpl.class,
+        UserTransferSummaryRepositoryImpl.class })
+class TransferArchiveRepositoryImplTest {
+    private final UserId userId = new UserId(401L);
+
+    @Autowired
+    private TransferArchiveRepositoryImpl transferArchiveRepository;
+
+    @Autowired
+    private TransferRepositoryImpl transferRepository;
+
+    @Autowired
+    private TransactionHistoryRepositoryImpl transactionHistoryRepository;
+
+    @Autowired
+    private TransferRecordRepository transferRecordRepository;
+
+    @Autowired
+    private TransferArchiveRecordRepository transferArchiveRecordRepository;
+
+    @Autowired
+    private PaymentArchiveRecordRepository paymentArchiveRecordRepository;
+
+    @Autowired
+    private TransferEventRecordRepository transferEventRecordRepository;
+
+    @Autowired
+    private TransferEventArchiveRecordRepository transferEventArchiveRecordRepository;
+
+    @Autowired
+    private AccountRecordRepository accountRecordRepository;
+
+    @Test
+    void shouldMoveOnlyTerminalTransfersWithTheirChildren() {
+        final Transfer successful = saveTransfer(TransferStatus.SUCCESSFUL, 1L, List.of(payment(PaymentStatus.PROCESSING)));
+        final Transfer failed = saveTransfer(TransferStatus.FAILED, 2L, List.of(payment(PaymentStatus.FAILED)));
+
+        final int archived = transferArchiveRepository.archiveTerminalTransfers(Instant.now().plusSeconds(1), 10);
+
+        assertEquals(1, archived);
+        assertFalse(transferRecordRepository.existsById(successful.id().value()));
+        assertTrue(transferRecordRepository.existsById(failed.id().value()));
+        assertEquals(TransferStatus.SUCCESSFUL, transferArchiveRecordRepository.findById(successful.id().value()).orElseThrow().status());
+        assertEquals(1, paymentArchiveRecordRepository.count());
+    }
+
+    @Test
+    void shouldMoveJournalEventsOfArchivedTransfers() {
+        final Transfer successful = saveTransfer(TransferStatus.SUCCESSFUL, 7L, List.of());
+        final Transfer failed = saveTransfer(TransferStatus.FAILED, 8L, List.of());
+        final List<Long> journal = transferEventRecordRepository.findByTransferIdOrderBySequence(successful.id().value()).stream()
+                .map(TransferEventRecord::id)
+                .toList();
+
+        transferArchiveRepository.archiveTerminalTransfers(Instant.now().plusSeconds(1), 10);
+
+        assertFalse(journal.isEmpty());
+        assertTrue(transferEventRecordRepository.findByTransferIdOrderBySequence(successful.id().value()).isEmpty());
+        assertEquals(journal, transferEventArchiveRecordRepository.findByTransferIdOrderBySequence(successful.id().value()).stream()
+                .map(TransferEventArchiveRecord::id)
+                .toList());
+        assertFalse(transferEventRecordRepository.findByTransferIdOrderBySequence(failed.id().value()).isEmpty());
+    }
+
+    @Test
+    void shouldKeepTransfersChangedAfterTheCutoff() {
+        saveTransfer(TransferStatus.REVERSED, 3L, List.of());
+
+        assertEquals(0, transferArchiveRepository.archiveTerminalTransfers(Instant.now().minusSeconds(60), 10));
+    }
+
+    @Test
+    void shouldKeepArchivedTransfersInHistory() {
+        saveTransfer(TransferStatus.SUCCESSFUL, 4L, List.of());
+        saveTransfer(TransferStatus.PROCESSING, 5L, List.of());
+        saveTransfer(TransferStatus.SUCCESSFUL, 6L, List.of());
+
+        transferArchiveRepository.archiveTerminalTransfers(Instant.now().plusSeconds(1), 10);
+        final List<TransactionHistoryEntry> firstPage = transactionHistoryRepository.findHistory(userId, HistoryFilter.none(), null, 2);
+        final List<TransactionHistoryEntry> secondPage = transactionHistoryRepository.findHistory(
+                userId, HistoryFilter.none(), firstPage.get(1).cursor(), 2);
+
+        assertEquals(List.of(-6L, -5L), firstPage.stream().map(entry -> entry.amount().value().longValue()).toList());
+        assertEquals(List.of(-4L), secondPage.stream().map(entry -> entry.amount().value().longValue()).toList());
+    }
+
+    private Transfer saveTransfer(TransferStatus status, long amount, List<Payment> payments) {
+        final Transfer init = transferInit();
+        return transferRepository.save(Transfer.transfer()
+                .created(Instant.now())
+                .updated(Instant.now())
+                .currency(init.currency())
+                .status(status)
+                .transferCharge(init.transferCharge())
+                .transferAmount(init.transferAmount())
+                .targetAccount(accountRecordRepository.findById(1L).orElseThrow().toDomain())
+                .ontopAccountNumber(init.ontopAccountNumber())
+                .walletTransactions(new ArrayList<>(List.of(WalletTransaction.walletTransaction()
+                        .created(Instant.now())
+                        .operation(WalletTransactionOperation.WITHDRAWAL)
+                        .amount(Money.of(-amount))
+                        .walletTransactionId(new WalletTransactionId(amount))
+                        .userId(userId)
+                        .build())))
+                .payments(new ArrayList<>(payments))
+                .build());
+    }
+}
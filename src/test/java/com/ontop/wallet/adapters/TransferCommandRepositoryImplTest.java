@@ -0,0 +1,129 @@
+package com.ontop.wallet.adapters;
+
+import com.ontop.wallet.domain.enums.TransferCommandStatus;
+import com.ontop.wallet.domain.model.Transfer;
+import com.ontop.wallet.domain.model.TransferCommand;
+import com.ontop.wallet.domain.valueobject.Id;
+import com.ontop.wallet.domain.valueobject.Money;
+import com.ontop.wallet.domain.valueobject.UserId;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+@Import(TransferCommandRepositoryImpl.class)
+class TransferCommandRepositoryImplTest {
+    private final UserId firstUser = new UserId(101L);
+    private final UserId secondUser = new UserId(102L);
+
+    @Autowired
+    private TransferCommandRepositoryImpl transferCommandRepository;
+
+    @Test
+    void shouldClaimOnlyTheOldestPendingCommandOfEachUser() {
+        final TransferCommand first = transferCommandRepository.enqueue(firstUser, Money.of(100L));
+        transferCommandRepository.enqueue(firstUser, Money.of(200L));
+        final TransferCommand other = transferCommandRepository.enqueue(secondUser, Money.of(300L));
+
+        final List<TransferCommand> claimed = transferCommandRepository.claimNext(10, Duration.ofMinutes(1));
+
+        assertEquals(List.of(first.id(), other.id()), claimed.stream().map(TransferCommand::id).toList());
+        assertTrue(transferCommandRepository.claimNext(10, Duration.ofMinutes(1)).isEmpty());
+    }
+
+    @Test
+    void shouldClaimNextCommandOfUserOnceThePreviousOneFinished() {
+        final TransferCommand first = transferCommandRepository.enqueue(firstUser, Money.of(100L));
+        final TransferCommand second = transferCommandRepository.enqueue(firstUser, Money.of(200L));
+        final TransferCommand third = transferCommandRepository.enqueue(firstUser, Money.of(300L));
+
+        transferCommandRepository.complete(transferCommandRepository.claimNext(10, Duration.ofMinutes(1)).get(0), new Id<Transfer>(7L));
+        final TransferCommand claimedSecond = transferCommandRepository.claimNext(10, Duration.ofMinutes(1)).get(0);
+        transferCommandRepository.fail(claimedSecond, "INSUFFICIENT_FUNDS", "user balance not sufficient to process transfer");
+
+        assertEquals(second.id(), claimedSecond.id());
+        assertEquals(List.of(third.id()), transferCommandRepository.claimNext(10, Duration.ofMinutes(1)).stream().map(TransferCommand::id).toList());
+        final TransferCommand completed = transferCommandRepository.findById(first.id()).orElseThrow();
+        assertEquals(TransferCommandStatus.COMPLETED, completed.status());
+        assertEquals(new Id<Transfer>(7L), completed.transferId());
+        final TransferCommand failed = transferCommandRepository.findById(second.id()).orElseThrow();
+        assertEquals(TransferCommandStatus.FAILED, failed.status());
+        assertEquals("INSUFFICIENT_FUNDS", failed.errorCode());
+    }
+
+    @Test
+    void shouldClaimCommandAgainOnceLeaseExpiresOrIsReleased() {
+        final TransferCommand first = transferCommandRepository.enqueue(firstUser, Money.of(100L));
+        transferCommandRepository.enqueue(secondUser, Money.of(200L));
+
+        assertEquals(first.id(), transferCommandRepository.claimNext(1, Duration.ZERO.minusSeconds(1)).get(0).id());
+        final TransferCommand other = transferCommandRepository.claimNext(1, Duration.ofMinutes(1)).get(0);
+        transferCommandRepository.release(other);
+
+        assertEquals(2, transferCommandRepository.claimNext(10, Duration.ofMinutes(1)).size());
+    }
+
+    @Test
+    void shouldNotStartFinishOrReleaseCommandClaimedAgainAfterLeaseExpired() {
+        final TransferCommand command = transferCommandRepository.enqueue(firstUser, Money.of(100L));
+        final TransferCommand stale = transferCommandRepository.claimNext(1, Duration.ZERO.minusSeconds(1)).get(0);
+        final TransferCommand current = transferCommandRepository.claimNext(1, Duration.ofMinutes(1)).get(0);
+
+        assertFalse(transferCommandRepository.start(stale, Duration.ofMinutes(1)));
+        transferCommandRepository.fail(stale, "SERVER_ERROR", "process was interrupted");
+        transferCommandRepository.release(stale);
+
+        assertEquals(command.id(), current.id());
+        assertEquals(TransferCommandStatus.PENDING, transferCommandRepository.findById(command.id()).orElseThrow().status());
+        assertTrue(transferCommandRepository.claimNext(10, Duration.ofMinutes(1)).isEmpty());
+        assertTrue(transferCommandRepository.start(current, Duration.ofMinutes(1)));
+        transferCommandRepository.complete(current, new Id<Transfer>(7L));
+        assertFalse(transferCommandRepository.start(current, Duration.ofMinutes(1)));
+        assertEquals(TransferCommandStatus.COMPLETED, transferCommandRepository.findById(command.id()).orElseThrow().status());
+    }
+
+    @Test
+    void shouldEndStartedCommandAsUnknownInsteadOfClaimingItAgainOnceLeaseExpires() {
+        final TransferCommand started = transferCommandRepository.enqueue(firstUser, Money.of(100L));
+        final TransferCommand next = transferCommandRepository.enqueue(firstUser, Money.of(200L));
+        assertTrue(transferCommandRepository.start(transferCommandRepository.claimNext(1, Duration.ofMinutes(1)).get(0), Duration.ZERO.minusSeconds(1)));
+
+        final List<TransferCommand> claimed = transferCommandRepository.claimNext(10, Duration.ofMinutes(1));
+
+        assertEquals(List.of(next.id()), claimed.stream().map(TransferCommand::id).toList());
+        final TransferCommand unknown = transferCommandRepository.findById(started.id()).orElseThrow();
+        assertEquals(TransferCommandStatus.UNKNOWN, unknown.status());
+        assertEquals("UNKNOWN_OUTCOME", unknown.errorCode());
+        assertEquals(0, transferCommandRepository.purgeFinished(Instant.now().plusSeconds(1)));
+    }
+
+    @Test
+    void shouldNotClaimNextCommandOfUserWhileThePreviousOneIsStarted() {
+        final TransferCommand started = transferCommandRepository.enqueue(firstUser, Money.of(100L));
+        transferCommandRepository.enqueue(firstUser, Money.of(200L));
+        assertTrue(transferCommandRepository.start(transferCommandRepository.claimNext(1, Duration.ofMinutes(1)).get(0), Duration.ofMinutes(1)));
+
+        assertTrue(transferCommandRepository.claimNext(10, Duration.ofMinutes(1)).isEmpty());
+        assertEquals(TransferCommandStatus.STARTED, transferCommandRepository.findById(started.id()).orElseThrow().status());
+    }
+
+    @Test
+    void shouldPurgeOnlyFinishedCommands() {
+        final TransferCommand finished = transferCommandRepository.enqueue(secondUser, Money.of(200L));
+        final TransferCommand pending = transferCommandRepository.enqueue(firstUser, Money.of(100L));
+        transferCommandRepository.complete(transferCommandRepository.claimNext(1, Duration.ofMinutes(1)).get(0), new Id<Transfer>(8L));
+
+        assertEquals(1, transferCommandRepository.purgeFinished(Instant.now().plusSeconds(1)));
+        assertTrue(transferCommandRepository.findById(pending.id()).isPresent());
+        assertTrue(transferCommandRepository.findById(finished.id()).isEmpty());
+    }
+}
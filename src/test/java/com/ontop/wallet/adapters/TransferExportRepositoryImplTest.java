@@ -0,0 +1,107 @@
+package com.ontop.wallet.adapters;
+
+import com.ontop.wallet.adapters.jpa.repository.AccountRecordRepository;
+import com.ontop.wallet.domain.enums.PaymentStatus;
+import com.ontop.wallet.domain.enums.TransferStatus;
+import com.ontop.wallet.domain.enums.WalletTransactionOperation;
+import com.ontop.wallet.domain.model.Payment;
+import com.ontop.wallet.domain.model.Transfer;
+import com.ontop.wallet.domain.model.WalletTransaction;
+import com.ontop.wallet.domain.valueobject.Money;
+import com.ontop.wallet.domain.valueobject.TransferExportFilter;
+import com.ontop.wallet.domain.valueobject.UserId;
+import com.ontop.wallet.domain.valueobject.WalletTransactionId;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static com.ontop.wallet.domain.service.ModelFactory.payment;
+import static com.ontop.wallet.domain.service.ModelFactory.transferInit;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest(properties = "ontop.export.chunk-size=2")
+@Import({ TransferExportRepositoryImpl.class, TransferRepositoryImpl.class, UserTransferSummaryRepositoryImpl.class })
+class TransferExportRepositoryImplTest {
+    @Autowired
+    private TransferExportRepositoryImpl transferExportRepository;
+
+    @Autowired
+    private TransferRepositoryImpl transferRepository;
+
+    @Autowired
+    private AccountRecordRepository accountRecordRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    void shouldExportEveryTransferWithItsChildrenAcrossChunks() {
+        final Instant start = Instant.now();
+        final List<Long> saved = new ArrayList<>();
+        for (long amount = 1; amount <= 5; amount++) {
+            saved.add(saveTransfer(TransferStatus.PROCESSING, amount, List.of(payment(PaymentStatus.PROCESSING))).id().value());
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        final List<Transfer> exported = new ArrayList<>();
+        final long count = transferExportRepository.exportTransfers(
+                new TransferExportFilter(start, Instant.now().plusSeconds(1), null), exported::add);
+
+        assertEquals(5, count);
+        assertEquals(saved, exported.stream().map(transfer -> transfer.id().value()).toList());
+        assertEquals(List.of(-1L, -2L, -3L, -4L, -5L),
+                exported.stream().map(transfer -> transfer.getWithdrawal().amount().value().longValue()).toList());
+        assertTrue(exported.stream().allMatch(transfer -> transfer.walletTransactions().size() == 1
+                && transfer.payments().size() == 1));
+    }
+
+    @Test
+    void shouldFilterByStatusAndDateRange() {
+        final Instant start = Instant.now();
+        saveTransfer(TransferStatus.FAILED, 1L, List.of());
+        final Transfer successful = saveTransfer(TransferStatus.SUCCESSFUL, 2L, List.of());
+        entityManager.flush();
+        final Instant end = Instant.now().plusSeconds(1);
+        entityManager.clear();
+
+        final List<Transfer> bySuccess = new ArrayList<>();
+        transferExportRepository.exportTransfers(
+                new TransferExportFilter(start, end, Set.of(TransferStatus.SUCCESSFUL)), bySuccess::add);
+        final List<Transfer> afterRange = new ArrayList<>();
+        transferExportRepository.exportTransfers(new TransferExportFilter(end, end.plusSeconds(60), null), afterRange::add);
+
+        assertEquals(List.of(successful.id()), bySuccess.stream().map(Transfer::id).toList());
+        assertTrue(afterRange.isEmpty());
+    }
+
+    private Transfer saveTransfer(TransferStatus status, long amount, List<Payment> payments) {
+        final Transfer init = transferInit();
+        return transferRepository.save(Transfer.transfer()
+                .created(Instant.now())
+                .updated(Instant.now())
+                .currency(init.currency())
+                .status(status)
+                .transferCharge(init.transferCharge())
+                .transferAmount(init.transferAmount())
+                .targetAccount(accountRecordRepository.findById(1L).orElseThrow().toDomain())
+                .ontopAccountNumber(init.ontopAccountNumber())
+                .walletTransactions(new ArrayList<>(List.of(WalletTransaction.walletTransaction()
+                        .created(Instant.now())
+                        .operation(WalletTransactionOperation.WITHDRAWAL)
+                        .amount(Money.of(-amount))
+                        .walletTransactionId(new WalletTransactionId(amount))
+                        .userId(new UserId(301L))
+                        .build())))
+                .payments(new ArrayList<>(payments))
+                .build());
+    }
+}
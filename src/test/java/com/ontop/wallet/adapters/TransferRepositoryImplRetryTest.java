@@ -0,0 +1,101 @@
+package com.ontop.wallet.adapters;
+
+import com.ontop.wallet.adapters.jpa.repository.AccountRecordRepository;
+import com.ontop.wallet.domain.enums.TransferEventType;
+import com.ontop.wallet.domain.enums.TransferStatus;
+import com.ontop.wallet.domain.enums.WalletTransactionOperation;
+import com.ontop.wallet.domain.exceptions.TransferConflictException;
+import com.ontop.wallet.domain.exceptions.TransferNotFoundException;
+import com.ontop.wallet.domain.model.PaymentRetry;
+import com.ontop.wallet.domain.model.Transfer;
+import com.ontop.wallet.domain.model.TransferEvent;
+import com.ontop.wallet.domain.model.WalletTransaction;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.ontop.wallet.domain.service.ModelFactory.transferInit;
+import static com.ontop.wallet.domain.service.ModelFactory.walletTransaction;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// not transactional, so that a failed retry insert rolls back the transition as it would outside of a test
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ TransferRepositoryImpl.class, UserTransferSummaryRepositoryImpl.class, PaymentRetryRepositoryImpl.class })
+class TransferRepositoryImplRetryTest {
+    @Autowired
+    private TransferRepositoryImpl transferRepository;
+
+    @Autowired
+    private PaymentRetryRepositoryImpl paymentRetryRepository;
+
+    @Autowired
+    private AccountRecordRepository accountRecordRepository;
+
+    @Test
+    void shouldScheduleRetryWithTransition() throws TransferNotFoundException, TransferConflictException {
+        final Transfer transfer = paymentStarted();
+
+        transferRepository.recordRetryScheduled(transfer, 1, Instant.now().minusSeconds(1));
+
+        assertEquals(TransferStatus.INITIALIZED, transferRepository.findById(transfer.id()).status());
+        assertEquals(List.of(transfer.id()),
+                paymentRetryRepository.claimDue(10, Duration.ofMinutes(1)).stream().map(PaymentRetry::transferId).toList());
+    }
+
+    @Test
+    void shouldNotRecordTransitionIfRetryCannotBeEnqueued() throws TransferNotFoundException, TransferConflictException {
+        final Transfer transfer = paymentStarted();
+        final Long version = transfer.version();
+
+        assertThrows(DataIntegrityViolationException.class, () -> transferRepository.recordRetryScheduled(transfer, 1, null));
+
+        final Transfer stored = transferRepository.findById(transfer.id());
+        assertEquals(TransferStatus.PAYMENT_IN_FLIGHT, stored.status());
+        assertEquals(version, stored.version());
+        assertEquals(List.of(TransferEventType.INITIALIZED, TransferEventType.PAYMENT_STARTED),
+                transferRepository.findEvents(transfer.id()).stream().map(TransferEvent::type).toList());
+        assertTrue(paymentRetryRepository.claimDue(10, Duration.ofMinutes(1)).isEmpty());
+    }
+
+    private Transfer paymentStarted() throws TransferConflictException {
+        final Transfer init = transferInit();
+        final Transfer transfer = transferRepository.save(Transfer.transfer()
+                .created(init.created())
+                .updated(init.updated())
+                .currency(init.currency())
+                .status(init.status())
+                .transferCharge(init.transferCharge())
+                .transferAmount(init.transferAmount())
+                .targetAccount(accountRecordRepository.findById(1L).orElseThrow().toDomain())
+                .ontopAccountNumber(init.ontopAccountNumber())
+                .walletTransactions(new ArrayList<>(List.of(newWithdrawal())))
+                .payments(new ArrayList<>())
+                .build());
+        transferRepository.recordTransition(transfer, TransferEventType.PAYMENT_STARTED);
+        transfer.toPaymentInFlightState();
+        return transfer;
+    }
+
+    private WalletTransaction newWithdrawal() {
+        final WalletTransaction transaction = walletTransaction(WalletTransactionOperation.WITHDRAWAL);
+        return WalletTransaction.walletTransaction()
+                .created(transaction.created())
+                .operation(transaction.operation())
+                .amount(transaction.amount())
+                .walletTransactionId(transaction.walletTransactionId())
+                .userId(transaction.userId())
+                .build();
+    }
+}
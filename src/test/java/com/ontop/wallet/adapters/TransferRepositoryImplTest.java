@@ -0,0 +1,244 @@
+package com.ontop.wallet.adapters;
+
+import com.ontop.wallet.adapters.jpa.repository.AccountRecordRepository;
+import com.ontop.wallet.domain.enums.PaymentStatus;
+import com.ontop.wallet.domain.enums.TransferEventType;
+import com.ontop.wallet.domain.enums.TransferStatus;
+import com.ontop.wallet.domain.enums.WalletTransactionOperation;
+import com.ontop.wallet.domain.exceptions.TransferConflictException;
+import com.ontop.wallet.domain.exceptions.TransferNotFoundException;
+import com.ontop.wallet.domain.model.Payment;
+import com.ontop.wallet.domain.model.Transfer;
+import com.ontop.wallet.domain.model.TransferEvent;
+import com.ontop.wallet.domain.model.TransferSummary;
+import com.ontop.wallet.domain.model.UserTransferSummary;
+import com.ontop.wallet.domain.model.WalletTransaction;
+import com.ontop.wallet.domain.valueobject.PaymentError;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.ontop.wallet.domain.service.ModelFactory.payment;
+import static com.ontop.wallet.domain.service.ModelFactory.transferInit;
+import static com.ontop.wallet.domain.service.ModelFactory.walletTransaction;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+@Import({ TransferRepositoryImpl.class, UserTransferSummaryRepositoryImpl.class })
+class TransferRepositoryImplTest {
+    @Autowired
+    private TransferRepositoryImpl transferRepository;
+
+    @Autowired
+    private UserTransferSummaryRepositoryImpl userTransferSummaryRepository;
+
+    @Autowired
+    private AccountRecordRepository accountRecordRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Transfer transfer;
+
+    @BeforeEach
+    void setUp() {
+        final Transfer init = transferInit();
+        transfer = transferRepository.save(Transfer.transfer()
+                .created(init.created())
+                .updated(init.updated())
+                .currency(init.currency())
+                .status(init.status())
+                .transferCharge(init.transferCharge())
+                .transferAmount(init.transferAmount())
+                .targetAccount(accountRecordRepository.findById(1L).orElseThrow().toDomain())
+                .ontopAccountNumber(init.ontopAccountNumber())
+                .walletTransactions(new ArrayList<>(List.of(newWalletTransaction(WalletTransactionOperation.WITHDRAWAL))))
+                .payments(new ArrayList<>())
+                .build());
+    }
+
+    @Test
+    void shouldRejectStatusUpdateFromStaleVersion() throws TransferNotFoundException, TransferConflictException {
+        final Transfer stale = transferRepository.findById(transfer.id());
+
+        transferRepository.recordTransition(transfer, TransferEventType.PAYMENT_ACCEPTED);
+
+        assertThrows(TransferConflictException.class, () -> transferRepository.recordTransition(stale, TransferEventType.FAILED));
+        final Transfer stored = transferRepository.findById(transfer.id());
+        assertEquals(TransferStatus.PROCESSING, stored.status());
+        assertEquals(transfer.version(), stored.version());
+    }
+
+    @Test
+    void shouldKeepOnlyLatestAppendedPaymentCurrent() throws TransferNotFoundException, TransferConflictException {
+        final Payment failed = payment(PaymentStatus.FAILED);
+        final Payment succeeded = payment(PaymentStatus.PROCESSING);
+
+        transferRepository.appendPayment(transfer, failed);
+        transferRepository.appendPayment(transfer, succeeded);
+        entityManager.flush();
+
+        final Transfer stored = transferRepository.findById(transfer.id());
+        assertEquals(2, stored.payments().size());
+        assertEquals(succeeded.transactionId(), stored.currentPayment().transactionId());
+    }
+
+    @Test
+    void shouldNotAppendPaymentFromStaleVersion() throws TransferNotFoundException, TransferConflictException {
+        final Transfer stale = transferRepository.findById(transfer.id());
+
+        transferRepository.appendPayment(transfer, payment(PaymentStatus.FAILED));
+
+        assertThrows(TransferConflictException.class, () -> transferRepository.appendPayment(stale, payment(PaymentStatus.PROCESSING)));
+        assertEquals(1, transferRepository.findById(transfer.id()).payments().size());
+    }
+
+    @Test
+    void shouldNotRecordRefundFromStaleVersion() throws TransferNotFoundException, TransferConflictException {
+        final Transfer stale = transferRepository.findById(transfer.id());
+        failAndClaimReversal(transfer);
+
+        assertThrows(TransferConflictException.class,
+                () -> transferRepository.recordReversal(stale, newWalletTransaction(WalletTransactionOperation.REFUND)));
+        assertEquals(1, transferRepository.findById(transfer.id()).walletTransactions().size());
+
+        transferRepository.recordReversal(transfer, newWalletTransaction(WalletTransactionOperation.REFUND));
+
+        final Transfer stored = transferRepository.findById(transfer.id());
+        assertEquals(TransferStatus.REVERSED, stored.status());
+        assertEquals(2, stored.walletTransactions().size());
+    }
+
+    @Test
+    void shouldLoadOnlyCurrentPaymentForProcessing() throws TransferNotFoundException, TransferConflictException {
+        final Payment succeeded = payment(PaymentStatus.PROCESSING);
+        transferRepository.appendPayment(transfer, payment(PaymentStatus.FAILED));
+        transferRepository.appendPayment(transfer, succeeded);
+
+        final Transfer loaded = transferRepository.findForProcessing(transfer.id());
+
+        assertEquals(1, loaded.payments().size());
+        assertEquals(succeeded.transactionId(), loaded.currentPayment().transactionId());
+        assertEquals(1, loaded.walletTransactions().size());
+        assertEquals(transfer.targetAccount().accountNumber(), loaded.targetAccount().accountNumber());
+    }
+
+    @Test
+    void shouldReadSummaryFromTransferRowOnly() throws TransferNotFoundException, TransferConflictException {
+        transferRepository.recordTransition(transfer, TransferEventType.PAYMENT_ACCEPTED);
+
+        final TransferSummary summary = transferRepository.findSummaryById(transfer.id());
+
+        assertEquals(transfer.id(), summary.id());
+        assertEquals(TransferStatus.PROCESSING, summary.status());
+        assertEquals(0, transfer.transferAmount().value().compareTo(summary.transferAmount().value()));
+        assertEquals(transfer.version(), summary.version());
+    }
+
+    @Test
+    void shouldJournalOneEventPerTransition() throws TransferConflictException {
+        transferRepository.appendPayment(transfer, payment(PaymentStatus.FAILED, new PaymentError(PaymentError.TIMEOUT)));
+        failAndClaimReversal(transfer);
+        transferRepository.recordReversal(transfer, newWalletTransaction(WalletTransactionOperation.REFUND));
+
+        final List<TransferEvent> events = transferRepository.findEvents(transfer.id());
+
+        assertEquals(
+                List.of(TransferEventType.INITIALIZED, TransferEventType.PAYMENT_TIMEOUT, TransferEventType.FAILED,
+                        TransferEventType.REVERSAL_STARTED, TransferEventType.REVERSED),
+                events.stream().map(TransferEvent::type).toList());
+        assertEquals(List.of(0L, 1L, 2L, 3L, 4L), events.stream().map(TransferEvent::sequence).toList());
+        assertEquals(transfer.version(), events.get(events.size() - 1).sequence());
+        assertEquals(TransferStatus.REVERSED, TransferEvent.currentStatus(events));
+    }
+
+    @Test
+    void shouldNotJournalRejectedTransition() throws TransferNotFoundException, TransferConflictException {
+        final Transfer stale = transferRepository.findById(transfer.id());
+        transferRepository.recordTransition(transfer, TransferEventType.PAYMENT_ACCEPTED);
+
+        assertThrows(TransferConflictException.class, () -> transferRepository.recordTransition(stale, TransferEventType.FAILED));
+
+        assertEquals(TransferStatus.PROCESSING, TransferEvent.currentStatus(transferRepository.findEvents(transfer.id())));
+    }
+
+    @Test
+    void shouldProjectEachTransitionOntoUserTransferSummary() throws TransferConflictException {
+        final UserTransferSummary created = userTransferSummaryRepository.findByUserId(transfer.targetAccount().userId()).orElseThrow();
+        assertEquals(1L, created.countByStatus().get(TransferStatus.INITIALIZED));
+        assertEquals(0, BigDecimal.valueOf(100).compareTo(created.pendingAmount().value()));
+        assertEquals(0, BigDecimal.valueOf(100).compareTo(created.dayWithdrawnAmount().value()));
+        assertEquals(1, created.dayTransferCount());
+
+        failAndClaimReversal(transfer);
+        transferRepository.recordReversal(transfer, newWalletTransaction(WalletTransactionOperation.REFUND));
+        entityManager.flush();
+        entityManager.clear();
+
+        final UserTransferSummary reversed = userTransferSummaryRepository.findByUserId(transfer.targetAccount().userId()).orElseThrow();
+        assertEquals(0L, reversed.countByStatus().get(TransferStatus.INITIALIZED));
+        assertEquals(0L, reversed.countByStatus().get(TransferStatus.FAILED));
+        assertEquals(1L, reversed.countByStatus().get(TransferStatus.REVERSED));
+        assertEquals(0, BigDecimal.ZERO.compareTo(reversed.pendingAmount().value()));
+        assertEquals(0, BigDecimal.ZERO.compareTo(reversed.dayWithdrawnAmount().value()));
+        assertEquals(1, reversed.dayTransferCount());
+        assertEquals(transfer.created(), reversed.lastTransferAt());
+    }
+
+    @Test
+    void shouldSaveAllTransfersWithTheirJournalAndSummary() {
+        final List<Transfer> saved = transferRepository.saveAll(List.of(newTransfer(), newTransfer()));
+        entityManager.flush();
+        entityManager.clear();
+
+        assertEquals(2, saved.size());
+        assertTrue(saved.stream().allMatch(t -> t.id() != null && t.getWithdrawal() != null));
+        saved.forEach(t -> assertEquals(List.of(TransferEventType.INITIALIZED),
+                transferRepository.findEvents(t.id()).stream().map(TransferEvent::type).toList()));
+        final UserTransferSummary summary = userTransferSummaryRepository.findByUserId(transfer.targetAccount().userId()).orElseThrow();
+        assertEquals(3L, summary.countByStatus().get(TransferStatus.INITIALIZED));
+        assertEquals(3, summary.dayTransferCount());
+    }
+
+    private void failAndClaimReversal(Transfer transfer) throws TransferConflictException {
+        transferRepository.recordTransition(transfer, TransferEventType.FAILED);
+        transfer.toFailedState();
+        transferRepository.recordTransition(transfer, TransferEventType.REVERSAL_STARTED);
+        transfer.toReversingState();
+    }
+
+    private Transfer newTransfer() {
+        return Transfer.transfer()
+                .created(transfer.created())
+                .updated(transfer.updated())
+                .currency(transfer.currency())
+                .status(TransferStatus.INITIALIZED)
+                .transferCharge(transfer.transferCharge())
+                .transferAmount(transfer.transferAmount())
+                .targetAccount(transfer.targetAccount())
+                .ontopAccountNumber(transfer.ontopAccountNumber())
+                .walletTransactions(new ArrayList<>(List.of(newWalletTransaction(WalletTransactionOperation.WITHDRAWAL))))
+                .payments(new ArrayList<>())
+                .build();
+    }
+
+    private WalletTransaction newWalletTransaction(final WalletTransactionOperation operation) {
+        final WalletTransaction transaction = walletTransaction(operation);
+        return WalletTransaction.walletTransaction()
+                .created(transaction.created())
+                .operation(transaction.operation())
+                .amount(transaction.amount())
+                .walletTransactionId(transaction.walletTransactionId())
+                .userId(transaction.userId())
+                .build();
+    }
+}
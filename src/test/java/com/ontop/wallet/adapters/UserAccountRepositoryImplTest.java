@@ -0,0 +1,145 @@
+package com.ontop.wallet.adapters;
+
+import com.ontop.wallet.adapters.jpa.entities.AccountChangeRecord;
+import com.ontop.wallet.adapters.jpa.entities.AccountRecord;
+import com.ontop.wallet.adapters.jpa.repository.AccountChangeRecordRepository;
+import com.ontop.wallet.adapters.jpa.repository.AccountRecordRepository;
+import com.ontop.wallet.domain.exceptions.AccountNotFoundException;
+import com.ontop.wallet.domain.model.UserAccount;
+import com.ontop.wallet.domain.valueobject.UserId;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static com.ontop.wallet.domain.service.ModelFactory.userAccount;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserAccountRepositoryImplTest {
+    private final UserId userId = new UserId(101L);
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AccountRecordRepository accountRecordRepository = mock(AccountRecordRepository.class);
+    private final AccountChangeRecordRepository accountChangeRecordRepository = mock(AccountChangeRecordRepository.class);
+    private final UserAccountRepositoryImpl userAccountRepository = new UserAccountRepositoryImpl(
+            accountRecordRepository, accountChangeRecordRepository, 300, 100, 60_000, 24, meterRegistry
+    );
+
+    @Nested
+    class GetUserAccount {
+        @Test
+        void shouldServeRepeatedLookupsFromCache() throws AccountNotFoundException {
+            final UserAccount userAccount = userAccount();
+            stubAccount(userAccount);
+
+            userAccountRepository.getUserAccount(userId);
+
+            assertSame(userAccount, userAccountRepository.getUserAccount(userId));
+            verify(accountRecordRepository, times(1)).findByUserId(userId.value());
+            assertEquals(1, meterRegistry.get("cache.gets").tag("cache", "userAccount").tag("result", "hit").functionCounter().count());
+        }
+
+        @Test
+        void shouldNotCacheMissingAccount() {
+            when(accountRecordRepository.findByUserId(userId.value())).thenReturn(Optional.empty());
+
+            assertThrows(AccountNotFoundException.class, () -> userAccountRepository.getUserAccount(userId));
+            assertThrows(AccountNotFoundException.class, () -> userAccountRepository.getUserAccount(userId));
+
+            verify(accountRecordRepository, times(2)).findByUserId(userId.value());
+        }
+    }
+
+    @Nested
+    class GetUserAccounts {
+        @Test
+        void shouldLoadOnlyUncachedAccountsInOneQuery() throws AccountNotFoundException {
+            final UserId otherUserId = new UserId(102L);
+            final UserId missingUserId = new UserId(103L);
+            stubAccount(userAccount());
+            final AccountRecord otherRecord = mock(AccountRecord.class);
+            when(otherRecord.toDomain()).thenReturn(userAccount(otherUserId));
+            when(accountRecordRepository.findByUserIdIn(any())).thenReturn(List.of(otherRecord));
+
+            userAccountRepository.getUserAccount(userId);
+            final Map<UserId, UserAccount> accounts = userAccountRepository.getUserAccounts(List.of(userId, otherUserId, missingUserId));
+            userAccountRepository.getUserAccount(otherUserId);
+
+            assertEquals(Set.of(userId, otherUserId), accounts.keySet());
+            verify(accountRecordRepository).findByUserIdIn(List.of(otherUserId.value(), missingUserId.value()));
+            verify(accountRecordRepository, never()).findByUserId(otherUserId.value());
+        }
+    }
+
+    @Nested
+    class Invalidation {
+        @Test
+        void shouldReloadAccountAfterLocalChange() throws AccountNotFoundException {
+            stubAccount(userAccount());
+            when(accountChangeRecordRepository.save(any(AccountChangeRecord.class))).thenReturn(change(1L));
+
+            userAccountRepository.getUserAccount(userId);
+            userAccountRepository.accountChanged(userId);
+            userAccountRepository.getUserAccount(userId);
+
+            verify(accountRecordRepository, times(2)).findByUserId(userId.value());
+            assertEquals(1, meterRegistry.get("user.account.cache.invalidations").tag("source", "local").counter().count());
+        }
+
+        @Test
+        void shouldApplyEachPolledChangeOnce() throws AccountNotFoundException {
+            stubAccount(userAccount());
+            when(accountChangeRecordRepository.findByCreatedGreaterThanEqual(any(Instant.class))).thenReturn(List.of(change(2L)));
+
+            userAccountRepository.getUserAccount(userId);
+            userAccountRepository.pollAccountChanges();
+            userAccountRepository.getUserAccount(userId);
+            userAccountRepository.pollAccountChanges();
+            userAccountRepository.getUserAccount(userId);
+
+            verify(accountRecordRepository, times(2)).findByUserId(userId.value());
+            assertEquals(1, meterRegistry.get("user.account.cache.invalidations").tag("source", "remote").counter().count());
+        }
+
+        @Test
+        void shouldNotReapplyOwnChangeWhenPolled() throws AccountNotFoundException {
+            final AccountChangeRecord change = change(3L);
+            stubAccount(userAccount());
+            when(accountChangeRecordRepository.save(any(AccountChangeRecord.class))).thenReturn(change);
+            when(accountChangeRecordRepository.findByCreatedGreaterThanEqual(any(Instant.class))).thenReturn(List.of(change));
+
+            userAccountRepository.accountChanged(userId);
+            userAccountRepository.getUserAccount(userId);
+            userAccountRepository.pollAccountChanges();
+            userAccountRepository.getUserAccount(userId);
+
+            verify(accountRecordRepository, times(1)).findByUserId(userId.value());
+        }
+    }
+
+    private void stubAccount(UserAccount userAccount) {
+        final AccountRecord accountRecord = mock(AccountRecord.class);
+        when(accountRecord.toDomain()).thenReturn(userAccount);
+        when(accountRecordRepository.findByUserId(userId.value())).thenReturn(Optional.of(accountRecord));
+    }
+
+    private AccountChangeRecord change(long id) {
+        final AccountChangeRecord change = AccountChangeRecord.of(userId.value());
+        change.id(id);
+        change.created(Instant.now());
+        return change;
+    }
+}
@@ -0,0 +1,112 @@
+package com.ontop.wallet.adapters.api;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ontop.wallet.adapters.clients.WalletClientException;
+import com.ontop.wallet.domain.exceptions.ResourceLockedException;
+import com.ontop.wallet.domain.exceptions.TransactionException;
+import com.ontop.wallet.domain.model.IdempotentRequest;
+import com.ontop.wallet.domain.service.IdempotentRequestService;
+import com.ontop.wallet.domain.service.TransactionHistoryService;
+import com.ontop.wallet.domain.service.TransferBatchService;
+import com.ontop.wallet.domain.service.TransferCommandService;
+import com.ontop.wallet.domain.service.TransferExportService;
+import com.ontop.wallet.domain.service.TransferInitialisationService;
+import com.ontop.wallet.domain.service.TransferStatusService;
+import com.ontop.wallet.domain.service.UserTransferSummaryService;
+import com.ontop.wallet.domain.valueobject.Money;
+import com.ontop.wallet.domain.valueobject.UserId;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class TransferEndpointServiceTest {
+    private final IdempotentRequestService idempotentRequestService = mock(IdempotentRequestService.class);
+    private final IdempotentRequest held = IdempotentRequest.idempotentRequest()
+            .key("key-1")
+            .holder("holder-1")
+            .userId(new UserId(101L))
+            .amount(Money.of(200L))
+            .expiresAt(Instant.now().plusSeconds(60))
+            .build();
+
+    private final TransferEndpointService transferEndpointService = new TransferEndpointService(
+            mock(TransferInitialisationService.class),
+            mock(TransactionHistoryService.class),
+            mock(TransferExportService.class),
+            mock(UserTransferSummaryService.class),
+            mock(TransferCommandService.class),
+            mock(TransferBatchService.class),
+            idempotentRequestService,
+            mock(TransferStatusService.class),
+            new ObjectMapper(),
+            false,
+            30
+    );
+
+    @Nested
+    class RecordFailure {
+        @Test
+        void shouldReleaseKeyIfUserWasLocked() {
+            transferEndpointService.recordFailure(held, new ResourceLockedException("locked"));
+
+            verify(idempotentRequestService).release(held);
+            verify(idempotentRequestService, never()).complete(any(), anyInt(), any(), any());
+        }
+
+        @Test
+        void shouldReleaseKeyIfFundsWereInsufficient() {
+            transferEndpointService.recordFailure(held, new CompletionException(
+                    new TransactionException("INSUFFICIENT_FUNDS", "user balance not sufficient to process transfer")));
+
+            verify(idempotentRequestService).release(held);
+        }
+
+        @Test
+        void shouldReleaseKeyIfWalletRejectedRequest() {
+            transferEndpointService.recordFailure(held, new CompletionException(
+                    new WalletClientException("user not found", "INVALID_USER", HttpStatus.NOT_FOUND)));
+
+            verify(idempotentRequestService).release(held);
+        }
+
+        @Test
+        void shouldStoreErrorResponseIfWalletFailed() {
+            transferEndpointService.recordFailure(held, new CompletionException(
+                    new WalletClientException("bad gateway", "BAD_GATEWAY", HttpStatus.BAD_GATEWAY)));
+
+            verify(idempotentRequestService).complete(held, 502, null, "{\"code\":\"BAD_GATEWAY\",\"message\":\"bad gateway\"}");
+            verify(idempotentRequestService, never()).release(any());
+        }
+
+        @Test
+        void shouldStoreErrorResponseOfUnexpectedFailure() {
+            transferEndpointService.recordFailure(held, new IllegalStateException("transfer not saved"));
+
+            verify(idempotentRequestService).complete(held, 500, null, "{\"code\":\"SERVER_ERROR\",\"message\":\"process was interrupted\"}");
+            verify(idempotentRequestService, never()).release(any());
+        }
+    }
+
+    @Test
+    void shouldStoreResponseOnceReady() {
+        final CompletableFuture<ResponseEntity<?>> response = new CompletableFuture<>();
+        transferEndpointService.recordResponse(held, response);
+
+        response.complete(ResponseEntity.status(HttpStatus.CREATED).body("done"));
+
+        verify(idempotentRequestService).complete(eq(held), eq(201), isNull(), eq("\"done\""));
+    }
+}
@@ -1,5 +1,15 @@
 package com.ontop.wallet.adapters.api;
 
+import com.ontop.wallet.domain.enums.TransferCommandStatus;
+import com.ontop.wallet.domain.enums.TransferStatus;
+import com.ontop.wallet.domain.exceptions.IdempotencyKeyInUseException;
+import com.ontop.wallet.domain.exceptions.ResourceLockedException;
+import com.ontop.wallet.domain.exceptions.TransactionException;
+import com.ontop.wallet.domain.exceptions.TransferCommandNotFoundException;
+import com.ontop.wallet.domain.exceptions.TransferNotFoundException;
+import com.ontop.wallet.domain.model.IdempotentRequest;
+import com.ontop.wallet.domain.valueobject.Money;
+import com.ontop.wallet.domain.valueobject.UserId;
 import org.junit.jupiter.api.DynamicTest;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -9,13 +19,22 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Currency;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 import static com.ontop.wallet.adapters.api.TransactionResponse.TransactionStatus.PROCESSING;
@@ -24,10 +43,19 @@ import static com.ontop.wallet.domain.service.ModelFactory.walletTransaction;
 import static org.junit.jupiter.api.DynamicTest.dynamicTest;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest
@@ -49,15 +77,36 @@ class TransferEndpointTest {
         @Test
         void shouldSerialiseValidRequest() throws Exception {
             final String validRequest = "{\"userId\": 101, \"amount\": 200}";
-            when(transferEndpointService.transfer(anyLong(), any(BigDecimal.class))).thenReturn(transactionResponse);
+            when(transferEndpointService.transfer(anyLong(), any(BigDecimal.class)))
+                    .thenReturn(CompletableFuture.completedFuture(transactionResponse));
 
-            mockMvc.perform(post(path)
+            final MvcResult started = mockMvc.perform(post(path)
                     .content(validRequest)
                     .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            mockMvc.perform(asyncDispatch(started))
                     .andDo(print())
                     .andExpect(status().isCreated());
         }
 
+        @Test
+        void shouldMapFailureOfAsyncTransfer() throws Exception {
+            when(transferEndpointService.transfer(anyLong(), any(BigDecimal.class))).thenReturn(CompletableFuture.failedFuture(
+                    new TransactionException("INSUFFICIENT_FUNDS", "user balance not sufficient to process transfer")));
+
+            final MvcResult started = mockMvc.perform(post(path)
+                            .content("{\"userId\": 101, \"amount\": 200}")
+                            .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            mockMvc.perform(asyncDispatch(started))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.code").value("INSUFFICIENT_FUNDS"));
+        }
+
         @TestFactory
         List<DynamicTest> shouldFailIfRequestIsInvalid() throws Exception {
             return Map.of(
@@ -80,11 +129,15 @@ class TransferEndpointTest {
         @Test
         void shouldReturnExpectedResponse() throws Exception {
             final String validRequest = "{\"userId\": 101, \"amount\": 200}";
-            when(transferEndpointService.transfer(anyLong(), any(BigDecimal.class))).thenReturn(transactionResponse);
+            when(transferEndpointService.transfer(anyLong(), any(BigDecimal.class)))
+                    .thenReturn(CompletableFuture.completedFuture(transactionResponse));
 
-            final MvcResult mvcResponse = mockMvc.perform(post(path)
+            final MvcResult started = mockMvc.perform(post(path)
                             .content(validRequest)
                             .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            final MvcResult mvcResponse = mockMvc.perform(asyncDispatch(started))
                     .andExpect(status().isCreated())
                     .andReturn();
 
@@ -104,4 +157,319 @@ class TransferEndpointTest {
             );
         }
     }
+
+    @Nested
+    class IdempotentCreateTransfer {
+        private final String validRequest = "{\"userId\": 101, \"amount\": 200}";
+
+        @Test
+        void shouldReplayStoredResponseWithoutTransferring() throws Exception {
+            when(transferEndpointService.hold("key-1", 101L, BigDecimal.valueOf(200)))
+                    .thenReturn(idempotentRequest("key-1", 201, "{\"transactionId\":7}"));
+
+            final MvcResult started = mockMvc.perform(post("/transfers")
+                            .header("Idempotency-Key", "key-1")
+                            .content(validRequest)
+                            .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            mockMvc.perform(asyncDispatch(started))
+                    .andExpect(status().isCreated())
+                    .andExpect(header().string("Idempotent-Replayed", "true"))
+                    .andExpect(jsonPath("$.transactionId").value(7));
+            verify(transferEndpointService, never()).transfer(anyLong(), any(BigDecimal.class));
+        }
+
+        @Test
+        void shouldRecordResponseOfNewRequest() throws Exception {
+            final CompletableFuture<TransactionResponse> transfer = CompletableFuture.completedFuture(transactionResponse);
+            final IdempotentRequest held = idempotentRequest("key-2", null, null);
+            when(transferEndpointService.hold("key-2", 101L, BigDecimal.valueOf(200))).thenReturn(held);
+            when(transferEndpointService.transfer(101L, BigDecimal.valueOf(200))).thenReturn(transfer);
+            when(transferEndpointService.recordResponse(eq(held), any())).then(i -> i.getArgument(1));
+
+            final MvcResult started = mockMvc.perform(post("/transfers")
+                            .header("Idempotency-Key", "key-2")
+                            .content(validRequest)
+                            .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            mockMvc.perform(asyncDispatch(started)).andExpect(status().isCreated());
+            verify(transferEndpointService).recordResponse(eq(held), any());
+        }
+
+        @Test
+        void shouldRecordFailureIfTransferIsRejected() throws Exception {
+            final IdempotentRequest held = idempotentRequest("key-3", null, null);
+            final ResourceLockedException locked = new ResourceLockedException("locked");
+            when(transferEndpointService.hold("key-3", 101L, BigDecimal.valueOf(200))).thenReturn(held);
+            when(transferEndpointService.transfer(101L, BigDecimal.valueOf(200))).thenThrow(locked);
+
+            mockMvc.perform(post("/transfers")
+                            .header("Idempotency-Key", "key-3")
+                            .content(validRequest)
+                            .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isLocked());
+            verify(transferEndpointService).recordFailure(held, locked);
+        }
+
+        @Test
+        void shouldRejectKeyOfRequestInProgress() throws Exception {
+            when(transferEndpointService.hold("key-4", 101L, BigDecimal.valueOf(200)))
+                    .thenThrow(new IdempotencyKeyInUseException("in progress"));
+
+            mockMvc.perform(post("/transfers")
+                            .header("Idempotency-Key", "key-4")
+                            .content(validRequest)
+                            .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isConflict())
+                    .andExpect(jsonPath("$.code").value("IDEMPOTENCY_KEY_IN_USE"));
+        }
+
+        private IdempotentRequest idempotentRequest(String key, Integer responseStatus, String responseBody) {
+            return IdempotentRequest.idempotentRequest()
+                    .key(key)
+                    .holder("holder")
+                    .userId(new UserId(101L))
+                    .amount(Money.of(200L))
+                    .responseStatus(responseStatus)
+                    .responseBody(responseBody)
+                    .expiresAt(Instant.now().plusSeconds(60))
+                    .build();
+        }
+    }
+
+    @Nested
+    class QueueTransfer {
+        private final TransferCommandResponse pending = new TransferCommandResponse(
+                55L, 101L, BigDecimal.valueOf(200), TransferCommandStatus.PENDING, null, null, Instant.parse("2023-01-01T10:00:00Z"), null);
+
+        @Test
+        void shouldAcceptTransferWithStatusUrlIfInboxIsEnabled() throws Exception {
+            when(transferEndpointService.queuesTransfers()).thenReturn(true);
+            when(transferEndpointService.queueTransfer(101L, BigDecimal.valueOf(200))).thenReturn(pending);
+
+            final MvcResult started = mockMvc.perform(post("/transfers")
+                            .content("{\"userId\": 101, \"amount\": 200}")
+                            .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            mockMvc.perform(asyncDispatch(started))
+                    .andExpect(status().isAccepted())
+                    .andExpect(header().string(HttpHeaders.LOCATION, "http://localhost/transfers/commands/55"))
+                    .andExpect(jsonPath("$.commandId").value(55))
+                    .andExpect(jsonPath("$.status").value("PENDING"));
+            verify(transferEndpointService, never()).transfer(anyLong(), any(BigDecimal.class));
+        }
+
+        @Test
+        void shouldReturnOutcomeOfTransferCommand() throws Exception {
+            final TransferCommandResponse failed = new TransferCommandResponse(
+                    55L, 101L, BigDecimal.valueOf(200), TransferCommandStatus.FAILED, null,
+                    new ApiError("INSUFFICIENT_FUNDS", "user balance not sufficient to process transfer"),
+                    Instant.parse("2023-01-01T10:00:00Z"), Instant.parse("2023-01-01T10:00:01Z"));
+            when(transferEndpointService.transferCommand(55L)).thenReturn(failed);
+
+            mockMvc.perform(get("/transfers/commands/55"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.status").value("FAILED"))
+                    .andExpect(jsonPath("$.error.code").value("INSUFFICIENT_FUNDS"));
+        }
+
+        @Test
+        void shouldFailIfTransferCommandDoesNotExist() throws Exception {
+            when(transferEndpointService.transferCommand(56L)).thenThrow(new TransferCommandNotFoundException("none"));
+
+            mockMvc.perform(get("/transfers/commands/56"))
+                    .andExpect(status().isNotFound())
+                    .andExpect(jsonPath("$.code").value("COMMAND_NOT_FOUND"));
+        }
+    }
+
+    @Nested
+    class CreateTransferBatch {
+        private final String path = "/transfers/batch";
+
+        @Test
+        void shouldReturnResultOfEachTransfer() throws Exception {
+            final TransferBatchResponse response = new TransferBatchResponse(1, 1, List.of(
+                    new TransferBatchResponse.Item(101L, BigDecimal.valueOf(100), TransferBatchResponse.ItemStatus.INITIALISED,
+                            transactionResponse, null),
+                    new TransferBatchResponse.Item(102L, BigDecimal.valueOf(200), TransferBatchResponse.ItemStatus.FAILED,
+                            null, new ApiError("INVALID_USER", "no account found for user"))
+            ));
+            when(transferEndpointService.transferBatch(any(TransferBatchRequest.class))).thenReturn(response);
+
+            mockMvc.perform(post(path)
+                            .content("{\"transfers\": [{\"userId\": 101, \"amount\": 100}, {\"userId\": 102, \"amount\": 200}]}")
+                            .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.initialised").value(1))
+                    .andExpect(jsonPath("$.results[0].status").value("INITIALISED"))
+                    .andExpect(jsonPath("$.results[0].transaction.transactionId").value(transactionResponse.transactionId()))
+                    .andExpect(jsonPath("$.results[1].status").value("FAILED"))
+                    .andExpect(jsonPath("$.results[1].error.code").value("INVALID_USER"));
+        }
+
+        @Test
+        void shouldFailIfAnyTransferIsInvalid() throws Exception {
+            mockMvc.perform(post(path)
+                            .content("{\"transfers\": [{\"userId\": 101, \"amount\": 100}, {\"userId\": 0, \"amount\": 200}]}")
+                            .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.code").value("INVALID_REQUEST"));
+            verify(transferEndpointService, never()).transferBatch(any());
+        }
+
+        @Test
+        void shouldFailIfBatchIsEmpty() throws Exception {
+            mockMvc.perform(post(path)
+                            .content("{\"transfers\": []}")
+                            .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.message").value("transfers should not be empty"));
+        }
+    }
+
+    @Nested
+    class GetTransfer {
+        private final TransferStatusResponse processing = new TransferStatusResponse(
+                13L, TransferStatus.PROCESSING, BigDecimal.valueOf(90), BigDecimal.valueOf(10), Currency.getInstance("USD"),
+                Instant.parse("2023-01-01T10:00:00Z"), Instant.parse("2023-01-01T10:00:01Z"));
+
+        @Test
+        void shouldReturnTransferWithEtag() throws Exception {
+            when(transferEndpointService.transferStatus(13L, null, 0)).thenReturn(CompletableFuture.completedFuture(
+                    ResponseEntity.ok().eTag("\"13-2\"").body(processing)));
+
+            final MvcResult started = mockMvc.perform(get("/transfers/13"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            mockMvc.perform(asyncDispatch(started))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(HttpHeaders.ETAG, "\"13-2\""))
+                    .andExpect(jsonPath("$.transferId").value(13))
+                    .andExpect(jsonPath("$.status").value("PROCESSING"));
+        }
+
+        @Test
+        void shouldHoldConditionalRequestForRequestedWait() throws Exception {
+            when(transferEndpointService.transferStatus(13L, "\"13-2\"", 20)).thenReturn(CompletableFuture.completedFuture(
+                    ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag("\"13-2\"").build()));
+
+            final MvcResult started = mockMvc.perform(get("/transfers/13")
+                            .header(HttpHeaders.IF_NONE_MATCH, "\"13-2\"")
+                            .param("wait", "20"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            mockMvc.perform(asyncDispatch(started)).andExpect(status().isNotModified());
+        }
+
+        @Test
+        void shouldFailIfTransferDoesNotExist() throws Exception {
+            when(transferEndpointService.transferStatus(14L, null, 0)).thenThrow(new TransferNotFoundException("none"));
+
+            mockMvc.perform(get("/transfers/14"))
+                    .andExpect(status().isNotFound())
+                    .andExpect(jsonPath("$.code").value("TRANSFER_NOT_FOUND"));
+        }
+    }
+
+    @Nested
+    class GetTransactionHistory {
+        private final String path = "/transfers";
+
+        @Test
+        void shouldReturnHistoryPageWithNextCursor() throws Exception {
+            final TransactionHistoryResponse history = new TransactionHistoryResponse(List.of(transactionResponse), "next");
+            when(transferEndpointService.history(eq(101L), eq(20), isNull(), isNull(), isNull(), isNull())).thenReturn(history);
+
+            mockMvc.perform(get(path).param("userId", "101"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.transactions[0].transactionId").value(transactionResponse.transactionId()))
+                    .andExpect(jsonPath("$.transactions[0].status").value("PROCESSING"))
+                    .andExpect(jsonPath("$.nextCursor").value("next"));
+        }
+
+        @Test
+        void shouldFailIfUserIdIsMissing() throws Exception {
+            mockMvc.perform(get(path))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.code").value("INVALID_REQUEST"));
+        }
+    }
+
+    @Nested
+    class GetTransferSummary {
+        private final String path = "/transfers/summary";
+
+        @Test
+        void shouldReturnUserTransferSummary() throws Exception {
+            final UserTransferSummaryResponse summary = new UserTransferSummaryResponse(
+                    101L, BigDecimal.TEN, Map.of(TransferStatus.PROCESSING, 1L), Instant.parse("2023-01-01T10:00:00Z"),
+                    LocalDate.parse("2023-01-01"), BigDecimal.TEN, 1);
+            when(transferEndpointService.summary(101L)).thenReturn(summary);
+
+            mockMvc.perform(get(path).param("userId", "101"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.pendingAmount").value(10))
+                    .andExpect(jsonPath("$.countByStatus.PROCESSING").value(1))
+                    .andExpect(jsonPath("$.day").value("2023-01-01"))
+                    .andExpect(jsonPath("$.transfersOnDay").value(1));
+        }
+
+        @Test
+        void shouldFailIfUserIdIsMissing() throws Exception {
+            mockMvc.perform(get(path))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.code").value("INVALID_REQUEST"));
+        }
+    }
+
+    @Nested
+    class ExportTransfers {
+        private final String path = "/transfers/export";
+
+        @Test
+        void shouldStreamExportAsAttachment() throws Exception {
+            final StreamingResponseBody body = out -> out.write("{\"transferId\":1}\n".getBytes(StandardCharsets.UTF_8));
+            when(transferEndpointService.export(eq(TransferExportFormat.CSV), any(Instant.class), any(Instant.class), isNull()))
+                    .thenReturn(body);
+
+            final MvcResult started = mockMvc.perform(get(path)
+                            .param("format", "csv")
+                            .param("startDate", "2023-01-01T00:00:00Z")
+                            .param("endDate", "2023-01-02T00:00:00Z"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            mockMvc.perform(asyncDispatch(started))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "text/csv"))
+                    .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"transfers.csv\""))
+                    .andExpect(content().string("{\"transferId\":1}\n"));
+        }
+
+        @Test
+        void shouldFailIfFormatIsUnknown() throws Exception {
+            mockMvc.perform(get(path)
+                            .param("format", "xml")
+                            .param("startDate", "2023-01-01T00:00:00Z")
+                            .param("endDate", "2023-01-02T00:00:00Z"))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.code").value("INVALID_EXPORT_FORMAT"));
+        }
+
+        @Test
+        void shouldFailIfDateRangeIsMissing() throws Exception {
+            mockMvc.perform(get(path).param("startDate", "2023-01-01T00:00:00Z"))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.code").value("INVALID_REQUEST"));
+        }
+    }
 }
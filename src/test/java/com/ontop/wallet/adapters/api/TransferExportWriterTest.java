@@ -0,0 +1,60 @@
+package com.ontop.wallet.adapters.api;
+
+import com.ontop.wallet.config.ObjectMapperConfig;
+import com.ontop.wallet.domain.enums.PaymentStatus;
+import com.ontop.wallet.domain.enums.TransferStatus;
+import com.ontop.wallet.domain.enums.WalletTransactionOperation;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TransferExportWriterTest {
+    private final Instant created = Instant.parse("2023-01-01T10:00:00Z");
+    private final UUID paymentTransactionId = UUID.randomUUID();
+    private final TransferExportLine line = new TransferExportLine(
+            1L, created, created, TransferStatus.FAILED, 101L, "0245253419",
+            new BigDecimal("90.00"), new BigDecimal("10.00"), "USD",
+            List.of(new TransferExportLine.WalletTransactionLine(2L, created, 3L, WalletTransactionOperation.WITHDRAWAL, new BigDecimal("-100.00"))),
+            List.of(new TransferExportLine.PaymentLine(4L, created, paymentTransactionId, PaymentStatus.FAILED, new BigDecimal("90.00"), true, "bank rejected, \"invalid\""))
+    );
+
+    @Test
+    void shouldWriteOneJsonDocumentPerLine() throws IOException {
+        final String output = write(TransferExportFormat.NDJSON, line, line);
+
+        final String[] lines = output.split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(output.endsWith("\n"));
+        assertTrue(lines[0].startsWith("{\"transferId\":1,\"created\":\"2023-01-01T10:00:00Z\""));
+    }
+
+    @Test
+    void shouldWriteFlattenedCsvRowsWithEscapedValues() throws IOException {
+        final String output = write(TransferExportFormat.CSV, line);
+
+        final String[] lines = output.split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].startsWith("transfer_id,created,updated,status"));
+        assertEquals("1,2023-01-01T10:00:00Z,2023-01-01T10:00:00Z,FAILED,101,0245253419,90.00,10.00,USD,2,-100.00,,,1,"
+                + paymentTransactionId + ",FAILED,\"bank rejected, \"\"invalid\"\"\"", lines[1]);
+    }
+
+    private String write(TransferExportFormat format, TransferExportLine... lines) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (TransferExportWriter writer = format.open(out, new ObjectMapperConfig().objectMapper())) {
+            for (final TransferExportLine exportLine : lines) {
+                writer.write(exportLine);
+            }
+        }
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
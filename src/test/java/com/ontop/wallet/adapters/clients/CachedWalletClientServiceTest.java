@@ -0,0 +1,96 @@
+package com.ontop.wallet.adapters.clients;
+
+import com.ontop.wallet.domain.model.WalletTransaction;
+import com.ontop.wallet.domain.valueobject.Money;
+import com.ontop.wallet.domain.valueobject.UserId;
+import com.ontop.wallet.domain.valueobject.WalletBalance;
+import com.ontop.wallet.domain.valueobject.WalletTransactionId;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import static com.ontop.wallet.domain.enums.WalletTransactionOperation.REFUND;
+import static com.ontop.wallet.domain.enums.WalletTransactionOperation.WITHDRAWAL;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CachedWalletClientServiceTest {
+    private final UserId userId = new UserId(101L);
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final WalletClientService walletClientService = mock(WalletClientService.class);
+    private final CachedWalletClientService cachedWalletClientService =
+            new CachedWalletClientService(walletClientService, 60_000, 100, meterRegistry);
+
+    @Nested
+    class GetUserWalletBalance {
+        @Test
+        void shouldServeRepeatedLookupsFromCache() {
+            when(walletClientService.getUserWalletBalance(userId)).thenReturn(new WalletBalance(userId, Money.of(2500L)));
+
+            cachedWalletClientService.getUserWalletBalance(userId);
+            final WalletBalance balance = cachedWalletClientService.getUserWalletBalance(userId);
+
+            assertEquals(Money.of(2500L), balance.balance());
+            verify(walletClientService, times(1)).getUserWalletBalance(userId);
+            assertEquals(1, meterRegistry.get("cache.gets").tag("cache", "walletBalance").tag("result", "hit").functionCounter().count());
+            assertEquals(2, meterRegistry.get("wallet.balance.cache.staleness").timer().count());
+        }
+    }
+
+    @Nested
+    class CreateTransaction {
+        @Test
+        void shouldDeductWithdrawalFromCachedBalance() {
+            when(walletClientService.getUserWalletBalance(userId)).thenReturn(new WalletBalance(userId, Money.of(2500L)));
+            when(walletClientService.createTransaction(userId, Money.of(1000L), WITHDRAWAL))
+                    .thenReturn(transaction(Money.of(-1000L)));
+
+            cachedWalletClientService.getUserWalletBalance(userId);
+            cachedWalletClientService.createTransaction(userId, Money.of(1000L), WITHDRAWAL);
+
+            assertEquals(Money.of(1500L), cachedWalletClientService.getUserWalletBalance(userId).balance());
+            verify(walletClientService, times(1)).getUserWalletBalance(userId);
+        }
+
+        @Test
+        void shouldAddRefundToCachedBalance() {
+            when(walletClientService.getUserWalletBalance(userId)).thenReturn(new WalletBalance(userId, Money.of(1500L)));
+            when(walletClientService.createTransaction(userId, Money.of(1000L), REFUND))
+                    .thenReturn(transaction(Money.of(1000L)));
+
+            cachedWalletClientService.getUserWalletBalance(userId);
+            cachedWalletClientService.createTransaction(userId, Money.of(1000L), REFUND);
+
+            assertEquals(Money.of(2500L), cachedWalletClientService.getUserWalletBalance(userId).balance());
+        }
+
+        @Test
+        void shouldInvalidateCachedBalanceIfTransactionFails() {
+            when(walletClientService.getUserWalletBalance(userId)).thenReturn(new WalletBalance(userId, Money.of(2500L)));
+            when(walletClientService.createTransaction(userId, Money.of(1000L), WITHDRAWAL))
+                    .thenThrow(new WalletClientException("bad gateway", "BAD_GATEWAY", HttpStatus.BAD_GATEWAY));
+
+            cachedWalletClientService.getUserWalletBalance(userId);
+            assertThrows(WalletClientException.class,
+                    () -> cachedWalletClientService.createTransaction(userId, Money.of(1000L), WITHDRAWAL));
+            cachedWalletClientService.getUserWalletBalance(userId);
+
+            verify(walletClientService, times(2)).getUserWalletBalance(userId);
+        }
+    }
+
+    private WalletTransaction transaction(Money amount) {
+        return WalletTransaction.walletTransaction()
+                .walletTransactionId(new WalletTransactionId(66319L))
+                .userId(userId)
+                .amount(amount)
+                .operation(amount.value().signum() < 0 ? WITHDRAWAL : REFUND)
+                .build();
+    }
+}
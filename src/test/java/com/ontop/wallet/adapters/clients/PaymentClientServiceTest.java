@@ -17,38 +17,34 @@ import com.ontop.wallet.domain.valueobject.PaymentTransactionId;
 import com.ontop.wallet.domain.valueobject.PersonName;
 import com.ontop.wallet.domain.valueobject.RoutingNumber;
 import com.ontop.wallet.domain.valueobject.UserId;
-import org.json.JSONException;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
-import org.mockito.ArgumentCaptor;
-import org.skyscreamer.jsonassert.JSONAssert;
-import org.springframework.http.HttpEntity;
+import org.springframework.boot.json.JsonParseException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
-import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
-import org.springframework.web.client.HttpClientErrorException;
-import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.test.web.client.MockRestServiceServer;
 import org.springframework.web.client.RestTemplate;
 
-import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
-import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyString;
-import static org.mockito.ArgumentMatchers.eq;
-import static org.mockito.Mockito.mock;
-import static org.mockito.Mockito.verify;
-import static org.mockito.Mockito.when;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.content;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withBadRequest;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withServerError;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
 
 
 class PaymentClientServiceTest {
-    private final RestTemplate restTemplate = mock(RestTemplate.class);
+    private final RestTemplate restTemplate = new RestTemplate();
+    private final MockRestServiceServer server = MockRestServiceServer.bindTo(restTemplate).build();
 
-    private final PaymentClientService paymentClientService = new PaymentClientService(restTemplate, new ObjectMapper());
+    private final PaymentClientService paymentClientService = new PaymentClientService(restTemplate, null, null, new ObjectMapper());
 
     private final OntopAccount ontopAccount = OntopAccount.ontopAccount()
             .accountName(new AccountName("ONTOP INC"))
@@ -123,24 +119,21 @@ class PaymentClientServiceTest {
     @Nested
     class MakePayment {
         @Test
-        void shouldSerialiseExpectedRequestCorrectly() throws JSONException {
+        void shouldSerialiseExpectedRequestCorrectly() {
             final Id<Transfer> transferId = new Id<>(10L);
             final Money transferAmount = Money.of(1000L);
             final String requestPath = "/api/v1/payments";
-            final ArgumentCaptor<HttpEntity<String>> httpEntityCaptor = ArgumentCaptor.forClass(HttpEntity.class);
 
-            when(restTemplate.exchange(anyString(), eq(HttpMethod.POST), any(HttpEntity.class), eq(String.class)))
-                    .thenReturn(new ResponseEntity<>(successFulResponse, HttpStatus.OK));
+            server.expect(requestTo(requestPath))
+                    .andExpect(method(HttpMethod.POST))
+                    .andExpect(header(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE))
+                    .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(content().json(requestBody, true))
+                    .andRespond(withSuccess(successFulResponse, MediaType.APPLICATION_JSON));
 
             paymentClientService.makePayment(transferId, transferAmount, targetAccount, ontopAccount);
 
-            verify(restTemplate).exchange(eq(requestPath), eq(HttpMethod.POST), httpEntityCaptor.capture(), eq(String.class));
-
-            final HttpEntity<String> httpEntity = httpEntityCaptor.getValue();
-
-            JSONAssert.assertEquals(requestBody, httpEntity.getBody(), true);
-            assertEquals(MediaType.APPLICATION_JSON, httpEntity.getHeaders().getAccept().get(0));
-            assertEquals(MediaType.APPLICATION_JSON, httpEntity.getHeaders().getContentType());
+            server.verify();
         }
 
         @Test
@@ -148,8 +141,8 @@ class PaymentClientServiceTest {
             final Id<Transfer> transferId = new Id<>(10L);
             final Money transferAmount = Money.of(1000L);
 
-            when(restTemplate.exchange(anyString(), eq(HttpMethod.POST), any(HttpEntity.class), eq(String.class)))
-                    .thenReturn(new ResponseEntity<>(successFulResponse, HttpStatus.OK));
+            server.expect(requestTo("/api/v1/payments"))
+                    .andRespond(withSuccess(successFulResponse, MediaType.APPLICATION_JSON));
 
             final Payment payment = paymentClientService.makePayment(transferId, transferAmount, targetAccount, ontopAccount);
 
@@ -162,13 +155,8 @@ class PaymentClientServiceTest {
             final Id<Transfer> transferId = new Id<>(10L);
             final Money transferAmount = Money.of(1000L);
 
-            when(restTemplate.exchange(anyString(), eq(HttpMethod.POST), any(HttpEntity.class), eq(String.class)))
-                    .thenThrow(new HttpServerErrorException(
-                            HttpStatus.INTERNAL_SERVER_ERROR,
-                            "internal server error",
-                            failureResponse.getBytes(StandardCharsets.UTF_8),
-                            StandardCharsets.UTF_8
-                    ));
+            server.expect(requestTo("/api/v1/payments"))
+                    .andRespond(withServerError().body(failureResponse).contentType(MediaType.APPLICATION_JSON));
 
             final Payment payment = paymentClientService.makePayment(transferId, transferAmount, targetAccount, ontopAccount);
 
@@ -183,13 +171,24 @@ class PaymentClientServiceTest {
             final Id<Transfer> transferId = new Id<>(10L);
             final Money transferAmount = Money.of(1000L);
 
-            when(restTemplate.exchange(anyString(), eq(HttpMethod.POST), any(HttpEntity.class), eq(String.class)))
-                    .thenThrow(new HttpClientErrorException(HttpStatus.BAD_REQUEST));
+            server.expect(requestTo("/api/v1/payments")).andRespond(withBadRequest());
 
             final PaymentProviderException thrown = assertThrows(PaymentProviderException.class,
                     () -> paymentClientService.makePayment(transferId, transferAmount, targetAccount, ontopAccount));
 
             assertEquals("Invalid request to provider api", thrown.message());
         }
+
+        @Test
+        void shouldThrowIfResponseBodyCannotBeParsed() {
+            final Id<Transfer> transferId = new Id<>(10L);
+            final Money transferAmount = Money.of(1000L);
+
+            server.expect(requestTo("/api/v1/payments"))
+                    .andRespond(withSuccess("{\"requestInfo\": ", MediaType.APPLICATION_JSON));
+
+            assertThrows(JsonParseException.class,
+                    () -> paymentClientService.makePayment(transferId, transferAmount, targetAccount, ontopAccount));
+        }
     }
 }
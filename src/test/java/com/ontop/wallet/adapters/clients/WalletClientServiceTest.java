@@ -6,42 +6,53 @@ import com.ontop.wallet.domain.valueobject.Money;
 import com.ontop.wallet.domain.valueobject.UserId;
 import com.ontop.wallet.domain.valueobject.WalletBalance;
 import com.ontop.wallet.domain.valueobject.WalletTransactionId;
-import org.json.JSONException;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DynamicTest;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestFactory;
-import org.mockito.ArgumentCaptor;
-import org.skyscreamer.jsonassert.JSONAssert;
-import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
-import org.springframework.web.client.HttpClientErrorException;
-import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.test.web.client.MockRestServiceServer;
 import org.springframework.web.client.RestTemplate;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletionException;
 import java.util.stream.Collectors;
 
 import static com.ontop.wallet.domain.enums.WalletTransactionOperation.WITHDRAWAL;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.DynamicTest.dynamicTest;
-import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyString;
-import static org.mockito.ArgumentMatchers.eq;
-import static org.mockito.Mockito.mock;
-import static org.mockito.Mockito.verify;
-import static org.mockito.Mockito.when;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.content;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withServerError;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
 
 
 class WalletClientServiceTest {
-    private final RestTemplate restTemplate = mock(RestTemplate.class);
-    private final WalletClientService walletClientService = new WalletClientService(restTemplate, new ObjectMapper());
+    private final RestTemplate restTemplate = new RestTemplate();
+    private final MockRestServiceServer server = MockRestServiceServer.bindTo(restTemplate).build();
+    private final WalletClientService walletClientService =
+            new WalletClientService(restTemplate, null, null, new ObjectMapper());
 
     @Nested
     class GetUserWalletBalance {
@@ -53,8 +64,8 @@ class WalletClientServiceTest {
                         "user_id": 1010
                     }
                     """.stripIndent();
-            when(restTemplate.exchange(anyString(), any(HttpMethod.class), any(HttpEntity.class), eq(String.class)))
-                    .thenReturn(new ResponseEntity<>(responseBody, HttpStatus.OK));
+            server.expect(requestTo("/wallets/balance?user_id=101"))
+                    .andRespond(withSuccess(responseBody, MediaType.APPLICATION_JSON));
 
             final WalletBalance balance = walletClientService.getUserWalletBalance(new UserId(101L));
 
@@ -71,15 +82,14 @@ class WalletClientServiceTest {
                     }
                     """.stripIndent();
             final String expectedUrl = "/wallets/balance?user_id=101";
-            final ArgumentCaptor<HttpEntity<String>> httpEntityCaptor = ArgumentCaptor.forClass(HttpEntity.class);
 
-            when(restTemplate.exchange(anyString(), any(HttpMethod.class), any(HttpEntity.class), eq(String.class)))
-                    .thenReturn(new ResponseEntity<>(responseBody, HttpStatus.OK));
+            server.expect(requestTo(expectedUrl))
+                    .andExpect(method(HttpMethod.GET))
+                    .andExpect(header(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE))
+                    .andRespond(withSuccess(responseBody, MediaType.APPLICATION_JSON));
 
             walletClientService.getUserWalletBalance(new UserId(101L));
-            verify(restTemplate).exchange(eq(expectedUrl), eq(HttpMethod.GET), httpEntityCaptor.capture(), eq(String.class));
-            final HttpEntity<String> httpEntity = httpEntityCaptor.getValue();
-            assertEquals(MediaType.APPLICATION_JSON, httpEntity.getHeaders().getAccept().get(0));
+            server.verify();
         }
 
         @TestFactory
@@ -91,8 +101,8 @@ class WalletClientServiceTest {
             ).entrySet()
                     .stream()
                     .map(entry -> dynamicTest(entry.getKey().name(), () -> {
-                when(restTemplate.exchange(anyString(), any(HttpMethod.class), any(HttpEntity.class), eq(String.class)))
-                        .thenThrow(new HttpClientErrorException(entry.getKey()));
+                server.reset();
+                server.expect(requestTo("/wallets/balance?user_id=102")).andRespond(withStatus(entry.getKey()));
 
                 final WalletClientException thrown = assertThrows(
                         WalletClientException.class,
@@ -105,8 +115,7 @@ class WalletClientServiceTest {
 
         @Test
         void shouldTransform5xxServerErrorCorrectly() {
-            when(restTemplate.exchange(anyString(), any(HttpMethod.class), any(HttpEntity.class), eq(String.class)))
-                    .thenThrow(new HttpServerErrorException(HttpStatus.INTERNAL_SERVER_ERROR));
+            server.expect(requestTo("/wallets/balance?user_id=103")).andRespond(withServerError());
 
             final WalletClientException thrown = assertThrows(
                     WalletClientException.class,
@@ -115,6 +124,19 @@ class WalletClientServiceTest {
             assertEquals(thrown.code(), "BAD_GATEWAY");
             assertEquals(thrown.message(), "bad gateway");
         }
+
+        @Test
+        void shouldThrowIfResponseBodyCannotBeParsed() {
+            server.expect(requestTo("/wallets/balance?user_id=104"))
+                    .andRespond(withSuccess("{\"balance\": ", MediaType.APPLICATION_JSON));
+
+            final WalletClientException thrown = assertThrows(
+                    WalletClientException.class,
+                    () -> walletClientService.getUserWalletBalance(new UserId(104L))
+            );
+            assertEquals("SERVER_ERROR", thrown.code());
+            assertEquals("unable to parse client response body", thrown.message());
+        }
     }
 
     @Nested
@@ -131,8 +153,8 @@ class WalletClientServiceTest {
                     }
                     """.stripIndent();
 
-            when(restTemplate.exchange(anyString(), eq(HttpMethod.POST), any(HttpEntity.class), eq(String.class)))
-                    .thenReturn(new ResponseEntity<>(responseBody, HttpStatus.OK));
+            server.expect(requestTo("/wallets/transactions"))
+                    .andRespond(withSuccess(responseBody, MediaType.APPLICATION_JSON));
 
             final WalletTransaction response = walletClientService.createTransaction(userId, amount, WITHDRAWAL);
 
@@ -143,7 +165,7 @@ class WalletClientServiceTest {
         }
 
         @Test
-        void shouldSerialiseResponseBodyCorrectly() throws JSONException {
+        void shouldSerialiseResponseBodyCorrectly() {
             final UserId userId = new UserId(121L);
             final Money amount = Money.of(1500L);
             final String requestPath = "/wallets/transactions";
@@ -160,19 +182,96 @@ class WalletClientServiceTest {
                         "user_id": 121
                     }
                     """.stripIndent();
-            final ArgumentCaptor<HttpEntity<String>> httpEntityCaptor = ArgumentCaptor.forClass(HttpEntity.class);
 
-            when(restTemplate.exchange(anyString(), eq(HttpMethod.POST), any(HttpEntity.class), eq(String.class)))
-                    .thenReturn(new ResponseEntity<>(responseBody, HttpStatus.OK));
+            server.expect(requestTo(requestPath))
+                    .andExpect(method(HttpMethod.POST))
+                    .andExpect(header(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE))
+                    .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(content().json(expectedRequestBody, true))
+                    .andRespond(withSuccess(responseBody, MediaType.APPLICATION_JSON));
 
             walletClientService.createTransaction(userId, amount, WITHDRAWAL);
-            verify(restTemplate).exchange(eq(requestPath), eq(HttpMethod.POST), httpEntityCaptor.capture(), eq(String.class));
+            server.verify();
+        }
+    }
+
+    @Nested
+    class Async {
+        private final CloseableHttpAsyncClient asyncClient = HttpAsyncClients.createDefault();
+        private HttpServer httpServer;
+        private WalletClientService asyncWalletClientService;
+
+        @BeforeEach
+        void setUp() throws IOException {
+            httpServer = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            httpServer.start();
+            asyncClient.start();
+            asyncWalletClientService = new WalletClientService(restTemplate, asyncClient,
+                    "http://localhost:" + httpServer.getAddress().getPort(), new ObjectMapper());
+        }
+
+        @AfterEach
+        void tearDown() throws IOException {
+            asyncClient.close();
+            httpServer.stop(0);
+        }
 
-            final HttpEntity<String> httpEntity = httpEntityCaptor.getValue();
+        @Test
+        void shouldFetchWalletBalance() {
+            respond("/wallets/balance", 200, "{\"balance\": 2000, \"user_id\": 101}");
+
+            final WalletBalance balance = asyncWalletClientService.getUserWalletBalanceAsync(new UserId(101L)).join();
+
+            assertEquals(BigDecimal.valueOf(2000), balance.balance().value());
+            assertEquals(101L, balance.userId().value());
+        }
+
+        @Test
+        void shouldCreateTransactionWithSerialisedRequestBody() {
+            final List<String> requestBodies = new ArrayList<>();
+            httpServer.createContext("/wallets/transactions", exchange -> {
+                requestBodies.add(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+                send(exchange, 200, "{\"wallet_transaction_id\": 66319, \"amount\": -1500, \"user_id\": 121}");
+            });
+
+            final WalletTransaction transaction = asyncWalletClientService
+                    .createTransactionAsync(new UserId(121L), Money.of(1500L), WITHDRAWAL).join();
+
+            assertEquals(new WalletTransactionId(66319L), transaction.walletTransactionId());
+            assertEquals(Money.of(-1500L), transaction.amount());
+            assertEquals(List.of("{\"user_id\":121,\"amount\":-1500}"), requestBodies);
+        }
+
+        @TestFactory
+        List<DynamicTest> shouldFailLikeBlockingCallOnErrorStatus() {
+            return Map.of(
+                    404, List.of("INVALID_USER", "user not found"),
+                    500, List.of("BAD_GATEWAY", "bad gateway")
+            ).entrySet().stream()
+                    .map(entry -> dynamicTest(String.valueOf(entry.getKey()), () -> {
+                        final long userId = entry.getKey();
+                        respond("/wallets/balance", entry.getKey(), "{}");
+
+                        final CompletionException thrown = assertThrows(CompletionException.class,
+                                () -> asyncWalletClientService.getUserWalletBalanceAsync(new UserId(userId)).join());
+                        final WalletClientException cause = assertInstanceOf(WalletClientException.class, thrown.getCause());
+                        assertEquals(entry.getValue().get(0), cause.code());
+                        assertEquals(entry.getValue().get(1), cause.message());
+                        httpServer.removeContext("/wallets/balance");
+                    })).collect(Collectors.toList());
+        }
+
+        private void respond(String path, int status, String body) {
+            httpServer.createContext(path, exchange -> send(exchange, status, body));
+        }
 
-            JSONAssert.assertEquals(expectedRequestBody, httpEntity.getBody(), true);
-            assertEquals(MediaType.APPLICATION_JSON, httpEntity.getHeaders().getAccept().get(0));
-            assertEquals(MediaType.APPLICATION_JSON, httpEntity.getHeaders().getContentType());
+        private void send(HttpExchange exchange, int status, String body) throws IOException {
+            final byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE);
+            exchange.sendResponseHeaders(status, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
         }
     }
 }
@@ -0,0 +1,65 @@
+package com.ontop.wallet.config;
+
+import com.ontop.wallet.config.PaymentExecutorProperties.RejectionPolicy;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.core.task.TaskRejectedException;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@EnabledForJreRange(min = JRE.JAVA_21)
+class BoundedVirtualThreadExecutorTest {
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @Test
+    void shouldRejectTasksBeyondMaxConcurrencyWhenParking() throws InterruptedException {
+        final BoundedVirtualThreadExecutor executor = executor(RejectionPolicy.PARK);
+        final CountDownLatch started = new CountDownLatch(1);
+
+        executor.execute(() -> {
+            started.countDown();
+            awaitRelease();
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        assertThrows(TaskRejectedException.class, () -> executor.execute(() -> {}));
+        assertEquals(1, executor.active());
+        release.countDown();
+    }
+
+    @Test
+    void shouldRunTasksBeyondMaxConcurrencyOnCaller() throws InterruptedException {
+        final BoundedVirtualThreadExecutor executor = executor(RejectionPolicy.CALLER_RUNS);
+        final CountDownLatch started = new CountDownLatch(1);
+        final AtomicReference<Thread> ranOn = new AtomicReference<>();
+
+        executor.execute(() -> {
+            started.countDown();
+            awaitRelease();
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        executor.execute(() -> ranOn.set(Thread.currentThread()));
+
+        assertEquals(Thread.currentThread(), ranOn.get());
+        release.countDown();
+    }
+
+    private BoundedVirtualThreadExecutor executor(RejectionPolicy rejectionPolicy) {
+        return new BoundedVirtualThreadExecutor("test-", 1, rejectionPolicy, task -> task);
+    }
+
+    private void awaitRelease() {
+        try {
+            release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
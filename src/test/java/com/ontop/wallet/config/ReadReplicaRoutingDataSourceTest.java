@@ -0,0 +1,91 @@
+package com.ontop.wallet.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Two in-memory H2 databases stand in for the primary and the replica; each knows its own name, and
+ * the replica's simulated lag is read from a table.
+ */
+class ReadReplicaRoutingDataSourceTest {
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final DataSource primary = database("routing-primary");
+    private final DataSource replica = database("routing-replica");
+    private final ReplicaLagMonitor replicaLagMonitor =
+            new ReplicaLagMonitor(replica, "select lag_ms from replication_status", 1000, meterRegistry);
+    private final JdbcTemplate jdbcTemplate = new JdbcTemplate(new LazyConnectionDataSourceProxy(
+            new ReadReplicaRoutingDataSource(primary, replica, replicaLagMonitor, meterRegistry)));
+    private final TransactionTemplate transactionTemplate =
+            new TransactionTemplate(new DataSourceTransactionManager(jdbcTemplate.getDataSource()));
+
+    @BeforeEach
+    void setUp() {
+        new JdbcTemplate(replica).update("update replication_status set lag_ms = 0");
+        replicaLagMonitor.check();
+    }
+
+    @Test
+    void shouldRouteReadOnlyTransactionsToReplica() {
+        assertEquals("routing-replica", nodeName(true));
+        assertEquals("routing-primary", nodeName(false));
+    }
+
+    @Test
+    void shouldRouteWorkOutsideTransactionsToPrimary() {
+        assertEquals("routing-primary", jdbcTemplate.queryForObject("select name from node", String.class));
+    }
+
+    @Test
+    void shouldFallBackToPrimaryWhileReplicaLags() {
+        new JdbcTemplate(replica).update("update replication_status set lag_ms = 5000");
+        replicaLagMonitor.check();
+
+        assertEquals("routing-primary", nodeName(true));
+        assertEquals(1, meterRegistry.get("datasource.replica.fallbacks").counter().count());
+
+        new JdbcTemplate(replica).update("update replication_status set lag_ms = 10");
+        replicaLagMonitor.check();
+
+        assertEquals("routing-replica", nodeName(true));
+    }
+
+    @Test
+    void shouldFallBackToPrimaryWhenLagCannotBeRead() {
+        final ReplicaLagMonitor failing = new ReplicaLagMonitor(replica, "select missing from nowhere", 1000, new SimpleMeterRegistry());
+        failing.check();
+        final JdbcTemplate routed = new JdbcTemplate(new LazyConnectionDataSourceProxy(
+                new ReadReplicaRoutingDataSource(primary, replica, failing, new SimpleMeterRegistry())));
+        final TransactionTemplate readOnly = new TransactionTemplate(new DataSourceTransactionManager(routed.getDataSource()));
+        readOnly.setReadOnly(true);
+
+        assertEquals("routing-primary", readOnly.execute(status -> routed.queryForObject("select name from node", String.class)));
+    }
+
+    private String nodeName(boolean readOnly) {
+        transactionTemplate.setReadOnly(readOnly);
+        return transactionTemplate.execute(status -> jdbcTemplate.queryForObject("select name from node", String.class));
+    }
+
+    private static DataSource database(String name) {
+        final DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "sa");
+        final JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("create table if not exists node (name varchar(50))");
+        jdbcTemplate.execute("create table if not exists replication_status (lag_ms bigint)");
+        jdbcTemplate.execute("delete from node");
+        jdbcTemplate.execute("delete from replication_status");
+        jdbcTemplate.update("insert into node values (?)", name);
+        jdbcTemplate.update("insert into replication_status values (0)");
+        return dataSource;
+    }
+}
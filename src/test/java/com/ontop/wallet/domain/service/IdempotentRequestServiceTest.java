@@ -0,0 +1,87 @@
+package com.ontop.wallet.domain.service;
+
+import com.ontop.wallet.domain.exceptions.IdempotencyKeyInUseException;
+import com.ontop.wallet.domain.exceptions.IdempotencyKeyReusedException;
+import com.ontop.wallet.domain.model.IdempotentRequest;
+import com.ontop.wallet.domain.valueobject.Money;
+import com.ontop.wallet.domain.valueobject.UserId;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class IdempotentRequestServiceTest {
+    private final String key = "key-1";
+    private final UserId userId = new UserId(101L);
+    private final Money amount = Money.of(200L);
+    private final IdempotentRequestRepository idempotentRequestRepository = mock(IdempotentRequestRepository.class);
+    private final IdempotentRequestService idempotentRequestService = new IdempotentRequestService(24, 120, idempotentRequestRepository);
+
+    @Test
+    void shouldHoldKeyForNewRequest() throws IdempotencyKeyInUseException, IdempotencyKeyReusedException {
+        when(idempotentRequestRepository.reserve(eq(key), anyString(), eq(userId), eq(amount), any(Instant.class))).thenReturn(Optional.empty());
+
+        final IdempotentRequest held = idempotentRequestService.begin(key, userId, amount);
+
+        assertFalse(held.isCompleted());
+        verify(idempotentRequestRepository).reserve(eq(key), eq(held.holder()), eq(userId), eq(amount), any(Instant.class));
+    }
+
+    @Test
+    void shouldCompleteAndReleaseKeyAsItsHolder() throws IdempotencyKeyInUseException, IdempotencyKeyReusedException {
+        when(idempotentRequestRepository.reserve(eq(key), anyString(), eq(userId), eq(amount), any(Instant.class))).thenReturn(Optional.empty());
+        final IdempotentRequest held = idempotentRequestService.begin(key, userId, amount);
+
+        idempotentRequestService.complete(held, 201, null, "{}");
+        idempotentRequestService.release(held);
+
+        verify(idempotentRequestRepository).complete(eq(key), eq(held.holder()), eq(201), isNull(), eq("{}"), any(Instant.class));
+        verify(idempotentRequestRepository).release(key, held.holder());
+    }
+
+    @Test
+    void shouldReplayCompletedRequestForSameTransfer() throws IdempotencyKeyInUseException, IdempotencyKeyReusedException {
+        final IdempotentRequest completed = request(userId, Money.of(200.00), 201);
+        when(idempotentRequestRepository.reserve(eq(key), anyString(), eq(userId), eq(amount), any(Instant.class))).thenReturn(Optional.of(completed));
+
+        assertEquals(completed, idempotentRequestService.begin(key, userId, amount));
+    }
+
+    @Test
+    void shouldRejectKeyOfRequestInProgress() {
+        when(idempotentRequestRepository.reserve(eq(key), anyString(), eq(userId), eq(amount), any(Instant.class)))
+                .thenReturn(Optional.of(request(userId, amount, null)));
+
+        assertThrows(IdempotencyKeyInUseException.class, () -> idempotentRequestService.begin(key, userId, amount));
+    }
+
+    @Test
+    void shouldRejectKeyUsedForDifferentTransfer() {
+        when(idempotentRequestRepository.reserve(eq(key), anyString(), eq(userId), eq(amount), any(Instant.class)))
+                .thenReturn(Optional.of(request(new UserId(102L), amount, 201)));
+
+        assertThrows(IdempotencyKeyReusedException.class, () -> idempotentRequestService.begin(key, userId, amount));
+    }
+
+    private IdempotentRequest request(UserId userId, Money amount, Integer responseStatus) {
+        return IdempotentRequest.idempotentRequest()
+                .key(key)
+                .userId(userId)
+                .amount(amount)
+                .responseStatus(responseStatus)
+                .responseBody(responseStatus == null ? null : "{}")
+                .expiresAt(Instant.now().plusSeconds(60))
+                .build();
+    }
+}
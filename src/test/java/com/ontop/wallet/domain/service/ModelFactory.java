@@ -48,6 +48,10 @@ public class ModelFactory {
     }
 
     public static UserAccount userAccount() {
+        return userAccount(new UserId(101L));
+    }
+
+    public static UserAccount userAccount(final UserId userId) {
         return UserAccount.userAccount()
                 .id(new Id<>(new Random().nextLong()))
                 .created(Instant.now())
@@ -57,7 +61,7 @@ public class ModelFactory {
                 .routingNumber(new RoutingNumber(UUID.randomUUID().toString()))
                 .nationalIdNumber(new NationalIdNumber(UUID.randomUUID().toString()))
                 .currency(Money.DEFAULT_CURRENCY)
-                .userId(new UserId(101L))
+                .userId(userId)
                 .build();
     }
 
@@ -0,0 +1,148 @@
+package com.ontop.wallet.domain.service;
+
+import com.ontop.wallet.domain.model.PaymentRetry;
+import com.ontop.wallet.domain.model.Transfer;
+import com.ontop.wallet.domain.valueobject.Id;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class PaymentRetryPollerTest {
+    private final int batchSize = 10;
+    private final int leaseSeconds = 30;
+    private final int freeThreads = 2;
+    private final PaymentRetryRepository paymentRetryRepository = mock(PaymentRetryRepository.class);
+    private final PaymentRetryScheduler paymentRetryScheduler = mock(PaymentRetryScheduler.class);
+    private final TransferPaymentProcessingService processingService = mock(TransferPaymentProcessingService.class);
+
+    private final PaymentRetryPoller paymentRetryPoller = new PaymentRetryPoller(
+            batchSize,
+            leaseSeconds,
+            paymentRetryRepository,
+            paymentRetryScheduler,
+            processingService
+    );
+
+    @BeforeEach
+    void setUp() {
+        when(paymentRetryScheduler.available()).thenReturn(freeThreads);
+        when(paymentRetryRepository.renew(any(PaymentRetry.class), eq(Duration.ofSeconds(leaseSeconds)))).thenReturn(true);
+    }
+
+    @Nested
+    class PollDueRetries {
+        @Test
+        void shouldNotClaimRetriesWithoutFreeThreads() {
+            when(paymentRetryScheduler.available()).thenReturn(0);
+
+            paymentRetryPoller.pollDueRetries();
+
+            verifyNoInteractions(paymentRetryRepository);
+        }
+
+        @Test
+        void shouldNotClaimMoreThanBatchSize() {
+            when(paymentRetryScheduler.available()).thenReturn(batchSize + 5);
+
+            paymentRetryPoller.pollDueRetries();
+
+            verify(paymentRetryRepository).claimDue(batchSize, Duration.ofSeconds(leaseSeconds));
+        }
+
+        @Test
+        void shouldDoNothingIfNoRetryIsDue() {
+            when(paymentRetryRepository.claimDue(freeThreads, Duration.ofSeconds(leaseSeconds))).thenReturn(Collections.emptyList());
+
+            paymentRetryPoller.pollDueRetries();
+
+            verify(paymentRetryScheduler, never()).schedule(any(Runnable.class), any(Duration.class));
+            verifyNoInteractions(processingService);
+        }
+
+        @Test
+        void shouldProcessClaimedRetryAndCompleteIt() {
+            final PaymentRetry retry = paymentRetry(21L, 1);
+            final ArgumentCaptor<Runnable> taskCaptor = ArgumentCaptor.forClass(Runnable.class);
+
+            when(paymentRetryRepository.claimDue(freeThreads, Duration.ofSeconds(leaseSeconds))).thenReturn(List.of(retry));
+            when(paymentRetryScheduler.schedule(any(Runnable.class), eq(Duration.ZERO))).thenReturn(true);
+
+            paymentRetryPoller.pollDueRetries();
+
+            verify(paymentRetryScheduler).schedule(taskCaptor.capture(), eq(Duration.ZERO));
+            taskCaptor.getValue().run();
+
+            final var inOrder = inOrder(processingService, paymentRetryRepository);
+            inOrder.verify(paymentRetryRepository).renew(retry, Duration.ofSeconds(leaseSeconds));
+            inOrder.verify(processingService).processPaymentRetry(retry.transferId(), 1);
+            inOrder.verify(paymentRetryRepository).complete(retry);
+            verify(paymentRetryRepository, never()).release(retry);
+        }
+
+        @Test
+        void shouldSkipRetryWhoseClaimWasTakenByAnotherPoller() {
+            final PaymentRetry retry = paymentRetry(23L, 1);
+            final ArgumentCaptor<Runnable> taskCaptor = ArgumentCaptor.forClass(Runnable.class);
+
+            when(paymentRetryRepository.claimDue(freeThreads, Duration.ofSeconds(leaseSeconds))).thenReturn(List.of(retry));
+            when(paymentRetryScheduler.schedule(any(Runnable.class), eq(Duration.ZERO))).thenReturn(true);
+            when(paymentRetryRepository.renew(retry, Duration.ofSeconds(leaseSeconds))).thenReturn(false);
+
+            paymentRetryPoller.pollDueRetries();
+            verify(paymentRetryScheduler).schedule(taskCaptor.capture(), eq(Duration.ZERO));
+            taskCaptor.getValue().run();
+
+            verifyNoInteractions(processingService);
+            verify(paymentRetryRepository, never()).complete(retry);
+        }
+
+        @Test
+        void shouldReleaseClaimedRetryIfSchedulerIsAtCapacity() {
+            final PaymentRetry retry = paymentRetry(22L, 2);
+
+            when(paymentRetryRepository.claimDue(freeThreads, Duration.ofSeconds(leaseSeconds))).thenReturn(List.of(retry));
+            when(paymentRetryScheduler.schedule(any(Runnable.class), eq(Duration.ZERO))).thenReturn(false);
+
+            paymentRetryPoller.pollDueRetries();
+
+            verify(paymentRetryRepository).release(retry);
+            verify(paymentRetryRepository, never()).complete(retry);
+            verifyNoInteractions(processingService);
+        }
+
+        @Test
+        void shouldStopPollingIfClaimFails() {
+            when(paymentRetryRepository.claimDue(freeThreads, Duration.ofSeconds(leaseSeconds)))
+                    .thenThrow(new RuntimeException("database unavailable"));
+
+            paymentRetryPoller.pollDueRetries();
+
+            verify(paymentRetryScheduler, never()).schedule(any(Runnable.class), any(Duration.class));
+        }
+    }
+
+    private PaymentRetry paymentRetry(final long transferId, final int retryCount) {
+        return PaymentRetry.paymentRetry()
+                .id(new Id<>(transferId * 10))
+                .transferId(new Id<Transfer>(transferId))
+                .retryCount(retryCount)
+                .dueAt(Instant.now())
+                .claimedBy("claim-" + transferId)
+                .build();
+    }
+}
@@ -0,0 +1,78 @@
+package com.ontop.wallet.domain.service;
+
+import com.ontop.wallet.domain.enums.TransferStatus;
+import com.ontop.wallet.domain.enums.WalletTransactionOperation;
+import com.ontop.wallet.domain.exceptions.TransactionException;
+import com.ontop.wallet.domain.model.TransactionHistoryEntry;
+import com.ontop.wallet.domain.model.TransactionHistoryPage;
+import com.ontop.wallet.domain.valueobject.HistoryFilter;
+import com.ontop.wallet.domain.valueobject.Id;
+import com.ontop.wallet.domain.valueobject.Money;
+import com.ontop.wallet.domain.valueobject.UserId;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class TransactionHistoryServiceTest {
+    private final int maxPageSize = 50;
+    private final UserId userId = new UserId(101L);
+    private final HistoryFilter filter = HistoryFilter.none();
+    private final TransactionHistoryRepository transactionHistoryRepository = mock(TransactionHistoryRepository.class);
+    private final TransactionHistoryService transactionHistoryService =
+            new TransactionHistoryService(maxPageSize, transactionHistoryRepository);
+
+    @Nested
+    class GetHistory {
+        @Test
+        void shouldReturnNextCursorOfLastEntryIfMoreEntriesFollow() {
+            final List<TransactionHistoryEntry> entries = entries(3);
+            when(transactionHistoryRepository.findHistory(userId, filter, null, 3)).thenReturn(entries);
+
+            final TransactionHistoryPage page = transactionHistoryService.getHistory(userId, filter, null, 2);
+
+            assertEquals(entries.subList(0, 2), page.entries());
+            assertEquals(entries.get(1).cursor(), page.next());
+        }
+
+        @Test
+        void shouldNotReturnNextCursorOnLastPage() {
+            final List<TransactionHistoryEntry> entries = entries(2);
+            when(transactionHistoryRepository.findHistory(userId, filter, null, 3)).thenReturn(entries);
+
+            final TransactionHistoryPage page = transactionHistoryService.getHistory(userId, filter, null, 2);
+
+            assertEquals(entries, page.entries());
+            assertNull(page.next());
+        }
+
+        @Test
+        void shouldRejectPageSizeOutOfBounds() {
+            assertThrows(TransactionException.class, () -> transactionHistoryService.getHistory(userId, filter, null, 0));
+            assertThrows(TransactionException.class, () -> transactionHistoryService.getHistory(userId, filter, null, maxPageSize + 1));
+            verifyNoInteractions(transactionHistoryRepository);
+        }
+    }
+
+    private List<TransactionHistoryEntry> entries(int count) {
+        final Instant now = Instant.now();
+        return LongStream.range(0, count).mapToObj(i -> TransactionHistoryEntry.transactionHistoryEntry()
+                .id(new Id<>(100 - i))
+                .created(now.minusSeconds(i))
+                .userId(userId)
+                .amount(Money.of(-100L))
+                .operation(WalletTransactionOperation.WITHDRAWAL)
+                .transferStatus(TransferStatus.PROCESSING)
+                .build()
+        ).toList();
+    }
+}
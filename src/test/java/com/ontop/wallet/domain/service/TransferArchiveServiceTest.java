@@ -0,0 +1,59 @@
+package com.ontop.wallet.domain.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.concurrent.locks.Lock;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class TransferArchiveServiceTest {
+    private final int batchSize = 2;
+    private final int maxBatchesPerRun = 3;
+    private final TransferArchiveRepository transferArchiveRepository = mock(TransferArchiveRepository.class);
+    private final LockService lockService = mock(LockService.class);
+    private final Lock lock = mock(Lock.class);
+
+    private final TransferArchiveService transferArchiveService =
+            new TransferArchiveService(30, batchSize, maxBatchesPerRun, transferArchiveRepository, lockService);
+
+    @Test
+    void shouldArchiveBatchesUntilOneIsShort() {
+        when(lockService.getLock(any())).thenReturn(lock);
+        when(lock.tryLock()).thenReturn(true);
+        when(transferArchiveRepository.archiveTerminalTransfers(any(Instant.class), eq(batchSize))).thenReturn(2, 1);
+
+        transferArchiveService.archiveTerminalTransfers();
+
+        verify(transferArchiveRepository, times(2)).archiveTerminalTransfers(any(Instant.class), eq(batchSize));
+        verify(lock, times(2)).unlock();
+    }
+
+    @Test
+    void shouldStopAtMaxBatchesPerRun() {
+        when(lockService.getLock(any())).thenReturn(lock);
+        when(lock.tryLock()).thenReturn(true);
+        when(transferArchiveRepository.archiveTerminalTransfers(any(Instant.class), eq(batchSize))).thenReturn(batchSize);
+
+        transferArchiveService.archiveTerminalTransfers();
+
+        verify(transferArchiveRepository, times(maxBatchesPerRun)).archiveTerminalTransfers(any(Instant.class), anyInt());
+    }
+
+    @Test
+    void shouldSkipRunWhileAnotherNodeHoldsTheLock() {
+        when(lockService.getLock(any())).thenReturn(lock);
+        when(lock.tryLock()).thenReturn(false);
+
+        transferArchiveService.archiveTerminalTransfers();
+
+        verifyNoInteractions(transferArchiveRepository);
+    }
+}
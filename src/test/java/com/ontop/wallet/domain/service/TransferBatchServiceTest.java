@@ -0,0 +1,164 @@
+package com.ontop.wallet.domain.service;
+
+import com.ontop.wallet.domain.exceptions.TransactionException;
+import com.ontop.wallet.domain.model.Transfer;
+import com.ontop.wallet.domain.model.TransferBatchResult;
+import com.ontop.wallet.domain.model.UserAccount;
+import com.ontop.wallet.domain.valueobject.Id;
+import com.ontop.wallet.domain.valueobject.Money;
+import com.ontop.wallet.domain.valueobject.TransferBatchItem;
+import com.ontop.wallet.domain.valueobject.UserId;
+import com.ontop.wallet.domain.valueobject.WalletBalance;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+
+import static com.ontop.wallet.domain.enums.WalletTransactionOperation.WITHDRAWAL;
+import static com.ontop.wallet.domain.service.ModelFactory.INITIALISATION_FACTORY;
+import static com.ontop.wallet.domain.service.ModelFactory.transferFrom;
+import static com.ontop.wallet.domain.service.ModelFactory.userAccount;
+import static com.ontop.wallet.domain.service.ModelFactory.walletTransaction;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class TransferBatchServiceTest {
+    private final UserId firstUser = new UserId(101L);
+    private final UserId secondUser = new UserId(102L);
+    private final Lock firstLock = mock(Lock.class);
+    private final Lock secondLock = mock(Lock.class);
+    private final UserWalletService userWalletService = mock(UserWalletService.class);
+    private final UserAccountRepository userAccountRepository = mock(UserAccountRepository.class);
+    private final TransferRepository transferRepository = mock(TransferRepository.class);
+    private final LockService lockService = mock(LockService.class);
+    private final TransferPaymentProcessingService paymentProcessingService = mock(TransferPaymentProcessingService.class);
+
+    private final TransferInitialisationService transferInitialisationService = new TransferInitialisationService(
+            userWalletService,
+            userAccountRepository,
+            transferRepository,
+            INITIALISATION_FACTORY,
+            lockService,
+            paymentProcessingService,
+            mock(PaymentRetryRepository.class),
+            Runnable::run
+    );
+
+    private final TransferBatchService transferBatchService = new TransferBatchService(
+            3,
+            userAccountRepository,
+            userWalletService,
+            transferRepository,
+            transferInitialisationService,
+            Runnable::run
+    );
+
+    @Test
+    void shouldWithdrawEachUsersItemsAgainstOneBalanceAndSaveThemTogether() {
+        final AtomicLong nextId = new AtomicLong(50L);
+        final UserAccount firstAccount = userAccount(firstUser);
+        final UserAccount secondAccount = userAccount(secondUser);
+        when(userAccountRepository.getUserAccounts(any())).thenReturn(Map.of(firstUser, firstAccount, secondUser, secondAccount));
+        givenLocked(firstUser, firstLock);
+        givenLocked(secondUser, secondLock);
+        when(userWalletService.getUserWalletBalance(firstUser)).thenReturn(new WalletBalance(firstUser, Money.of(150L)));
+        when(userWalletService.getUserWalletBalance(secondUser)).thenReturn(new WalletBalance(secondUser, Money.of(1000L)));
+        when(userWalletService.createTransaction(any(), any(), any())).thenReturn(walletTransaction(WITHDRAWAL));
+        when(transferRepository.saveAll(anyList())).then(i -> {
+            final List<Transfer> saved = new ArrayList<>();
+            for (final Transfer transfer : i.<List<Transfer>>getArgument(0)) {
+                saved.add(transferFrom(transfer, nextId.getAndIncrement()));
+            }
+            return saved;
+        });
+
+        final List<TransferBatchResult> results = transferBatchService.initialiseTransfers(List.of(
+                new TransferBatchItem(firstUser, Money.of(100L)),
+                new TransferBatchItem(secondUser, Money.of(100L)),
+                new TransferBatchItem(firstUser, Money.of(100L))
+        ));
+
+        assertEquals(new Id<Transfer>(50L), results.get(0).transfer().id());
+        assertEquals(new Id<Transfer>(51L), results.get(1).transfer().id());
+        assertFalse(results.get(2).isInitialised());
+        assertEquals("INSUFFICIENT_FUNDS", results.get(2).errorCode());
+        verify(userAccountRepository).getUserAccounts(Set.of(firstUser, secondUser));
+        verify(userWalletService, times(1)).getUserWalletBalance(firstUser);
+        verify(transferRepository, times(2)).saveAll(anyList());
+        verify(transferRepository, never()).save(any());
+        verify(paymentProcessingService).processPayment(new Id<>(50L));
+        verify(paymentProcessingService).processPayment(new Id<>(51L));
+        verify(firstLock).unlock();
+        verify(secondLock).unlock();
+    }
+
+    @Test
+    void shouldFailItemsOfUsersWithoutAccountOrLockWithoutSaving() {
+        when(userAccountRepository.getUserAccounts(any())).thenReturn(Map.of(firstUser, userAccount(firstUser)));
+        when(lockService.getLock("userId=" + firstUser.value())).thenReturn(firstLock);
+        when(firstLock.tryLock()).thenReturn(false);
+
+        final List<TransferBatchResult> results = transferBatchService.initialiseTransfers(List.of(
+                new TransferBatchItem(firstUser, Money.of(100L)),
+                new TransferBatchItem(secondUser, Money.of(100L))
+        ));
+
+        assertEquals(List.of("RESOURCE_LOCKED", "INVALID_USER"), results.stream().map(TransferBatchResult::errorCode).toList());
+        verifyNoInteractions(userWalletService);
+        verify(transferRepository, never()).saveAll(anyList());
+        verify(firstLock, never()).unlock();
+    }
+
+    @Test
+    void shouldFailItemsOfUserWhoseSaveFailedOnly() {
+        when(userAccountRepository.getUserAccounts(any())).thenReturn(Map.of(firstUser, userAccount(firstUser), secondUser, userAccount(secondUser)));
+        givenLocked(firstUser, firstLock);
+        givenLocked(secondUser, secondLock);
+        when(userWalletService.getUserWalletBalance(firstUser)).thenReturn(new WalletBalance(firstUser, Money.of(1000L)));
+        when(userWalletService.getUserWalletBalance(secondUser)).thenReturn(new WalletBalance(secondUser, Money.of(1000L)));
+        when(userWalletService.createTransaction(any(), any(), any())).thenReturn(walletTransaction(WITHDRAWAL));
+        when(transferRepository.saveAll(anyList()))
+                .thenThrow(new IllegalStateException("database unavailable"))
+                .then(i -> List.of(transferFrom(i.<List<Transfer>>getArgument(0).get(0), 60L)));
+
+        final List<TransferBatchResult> results = transferBatchService.initialiseTransfers(List.of(
+                new TransferBatchItem(firstUser, Money.of(100L)),
+                new TransferBatchItem(secondUser, Money.of(100L))
+        ));
+
+        assertEquals("SERVER_ERROR", results.get(0).errorCode());
+        assertEquals(new Id<Transfer>(60L), results.get(1).transfer().id());
+        verify(firstLock).unlock();
+        verify(secondLock).unlock();
+        verify(paymentProcessingService, times(1)).processPayment(any());
+        verify(paymentProcessingService).processPayment(new Id<>(60L));
+    }
+
+    @Test
+    void shouldRejectBatchLargerThanMaxItems() {
+        final List<TransferBatchItem> items = Collections.nCopies(4, new TransferBatchItem(firstUser, Money.of(100L)));
+
+        final TransactionException thrown = assertThrows(TransactionException.class, () -> transferBatchService.initialiseTransfers(items));
+        assertEquals("INVALID_REQUEST", thrown.code());
+        verifyNoInteractions(userAccountRepository);
+    }
+
+    private void givenLocked(UserId userId, Lock lock) {
+        when(lockService.getLock("userId=" + userId.value())).thenReturn(lock);
+        when(lock.tryLock()).thenReturn(true);
+    }
+}
@@ -0,0 +1,220 @@
+package com.ontop.wallet.domain.service;
+
+import com.ontop.wallet.domain.enums.TransferCommandStatus;
+import com.ontop.wallet.domain.exceptions.AccountNotFoundException;
+import com.ontop.wallet.domain.exceptions.ResourceLockedException;
+import com.ontop.wallet.domain.exceptions.TransactionException;
+import com.ontop.wallet.domain.exceptions.TransferCommandNotFoundException;
+import com.ontop.wallet.domain.model.Transfer;
+import com.ontop.wallet.domain.model.TransferCommand;
+import com.ontop.wallet.domain.valueobject.Id;
+import com.ontop.wallet.domain.valueobject.Money;
+import com.ontop.wallet.domain.valueobject.UserId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.core.task.TaskRejectedException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+
+import static com.ontop.wallet.domain.service.ModelFactory.transferFrom;
+import static com.ontop.wallet.domain.service.ModelFactory.transferInit;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class TransferCommandServiceTest {
+    private final int workers = 4;
+    private final int batchSize = 10;
+    private final int leaseSeconds = 30;
+    private final UserId userId = new UserId(101L);
+    private final Money amount = Money.of(1000L);
+    private final TransferCommandRepository transferCommandRepository = mock(TransferCommandRepository.class);
+    private final TransferInitialisationService transferInitialisationService = mock(TransferInitialisationService.class);
+    private final Executor commandExecutor = mock(Executor.class);
+
+    private final TransferCommandService transferCommandService = new TransferCommandService(
+            true,
+            workers,
+            batchSize,
+            leaseSeconds,
+            24,
+            transferCommandRepository,
+            transferInitialisationService,
+            commandExecutor
+    );
+
+    @BeforeEach
+    void setUp() {
+        when(transferCommandRepository.start(any(), any())).thenReturn(true);
+    }
+
+    @Nested
+    class DrainInbox {
+        @Test
+        void shouldReleaseCommandIfWorkersAreAtCapacity() {
+            final TransferCommand command = command();
+            when(transferCommandRepository.claimNext(workers, Duration.ofSeconds(leaseSeconds))).thenReturn(List.of(command));
+            doThrow(new TaskRejectedException("full")).when(commandExecutor).execute(any(Runnable.class));
+
+            transferCommandService.drainInbox();
+
+            verify(transferCommandRepository).release(command);
+            verifyNoInteractions(transferInitialisationService);
+        }
+
+        @Test
+        void shouldRunClaimedCommandsOnWorkers() throws AccountNotFoundException, ResourceLockedException {
+            final TransferCommand command = command();
+            final Transfer transfer = transferFrom(transferInit(), 40L);
+            when(transferCommandRepository.claimNext(workers, Duration.ofSeconds(leaseSeconds))).thenReturn(List.of(command));
+            when(transferInitialisationService.initialiseTransfer(userId, amount)).thenReturn(transfer);
+            doRunTasks();
+
+            transferCommandService.drainInbox();
+
+            verify(transferCommandRepository).complete(command, transfer.id());
+        }
+
+        @Test
+        void shouldNotClaimMoreCommandsThanFreeWorkers() {
+            doAnswer(i -> null).when(commandExecutor).execute(any(Runnable.class));
+            when(transferCommandRepository.claimNext(workers, Duration.ofSeconds(leaseSeconds)))
+                    .thenReturn(List.of(command(), command(), command()));
+            transferCommandService.drainInbox();
+
+            transferCommandService.drainInbox();
+
+            verify(transferCommandRepository).claimNext(1, Duration.ofSeconds(leaseSeconds));
+        }
+
+        @Test
+        void shouldNotClaimWhileAllWorkersAreBusy() {
+            doAnswer(i -> null).when(commandExecutor).execute(any(Runnable.class));
+            when(transferCommandRepository.claimNext(workers, Duration.ofSeconds(leaseSeconds)))
+                    .thenReturn(List.of(command(), command(), command(), command()));
+            transferCommandService.drainInbox();
+
+            transferCommandService.drainInbox();
+
+            verify(transferCommandRepository).claimNext(anyInt(), any());
+        }
+
+        @Test
+        void shouldNotClaimIfInboxIsDisabled() {
+            final TransferCommandService disabled = new TransferCommandService(
+                    false, workers, batchSize, leaseSeconds, 24, transferCommandRepository, transferInitialisationService, commandExecutor);
+
+            disabled.drainInbox();
+
+            verifyNoInteractions(transferCommandRepository, commandExecutor);
+        }
+
+        private void doRunTasks() {
+            doAnswer(i -> {
+                i.<Runnable>getArgument(0).run();
+                return null;
+            }).when(commandExecutor).execute(any(Runnable.class));
+        }
+    }
+
+    @Nested
+    class Run {
+        @Test
+        void shouldSkipCommandIfClaimWasLost() {
+            final TransferCommand command = command();
+            when(transferCommandRepository.start(command, Duration.ofSeconds(leaseSeconds))).thenReturn(false);
+
+            transferCommandService.run(command);
+
+            verifyNoInteractions(transferInitialisationService);
+            verify(transferCommandRepository, never()).fail(any(), anyString(), anyString());
+            verify(transferCommandRepository, never()).release(any());
+        }
+
+        @Test
+        void shouldMarkCommandStartedBeforeWithdrawing() throws AccountNotFoundException, ResourceLockedException {
+            final TransferCommand command = command();
+            final Transfer transfer = transferFrom(transferInit(), 40L);
+            when(transferInitialisationService.initialiseTransfer(userId, amount)).thenReturn(transfer);
+
+            transferCommandService.run(command);
+
+            final InOrder inOrder = inOrder(transferCommandRepository, transferInitialisationService);
+            inOrder.verify(transferCommandRepository).start(command, Duration.ofSeconds(leaseSeconds));
+            inOrder.verify(transferInitialisationService).initialiseTransfer(userId, amount);
+            inOrder.verify(transferCommandRepository).complete(command, transfer.id());
+        }
+
+        @Test
+        void shouldReleaseCommandIfUserIsLocked() throws AccountNotFoundException, ResourceLockedException {
+            final TransferCommand command = command();
+            when(transferInitialisationService.initialiseTransfer(userId, amount)).thenThrow(new ResourceLockedException("locked"));
+
+            transferCommandService.run(command);
+
+            verify(transferCommandRepository).release(command);
+            verify(transferCommandRepository, never()).fail(any(), anyString(), anyString());
+        }
+
+        @Test
+        void shouldRecordTransactionFailureOnCommand() throws AccountNotFoundException, ResourceLockedException {
+            final TransferCommand command = command();
+            when(transferInitialisationService.initialiseTransfer(userId, amount))
+                    .thenThrow(new TransactionException("INSUFFICIENT_FUNDS", "user balance not sufficient to process transfer"));
+
+            transferCommandService.run(command);
+
+            verify(transferCommandRepository).fail(command, "INSUFFICIENT_FUNDS", "user balance not sufficient to process transfer");
+        }
+
+        @Test
+        void shouldRecordMissingAccountOnCommand() throws AccountNotFoundException, ResourceLockedException {
+            final TransferCommand command = command();
+            when(transferInitialisationService.initialiseTransfer(userId, amount)).thenThrow(new AccountNotFoundException("none"));
+
+            transferCommandService.run(command);
+
+            verify(transferCommandRepository).fail(command, "INVALID_USER", "no account found for user");
+        }
+
+        @Test
+        void shouldRecordUnexpectedFailureOnCommand() throws AccountNotFoundException, ResourceLockedException {
+            final TransferCommand command = command();
+            when(transferInitialisationService.initialiseTransfer(userId, amount)).thenThrow(new IllegalStateException("wallet down"));
+
+            transferCommandService.run(command);
+
+            verify(transferCommandRepository).fail(command, "SERVER_ERROR", "process was interrupted");
+        }
+    }
+
+    @Test
+    void shouldThrowIfCommandDoesNotExist() {
+        when(transferCommandRepository.findById(new Id<>(9L))).thenReturn(Optional.empty());
+
+        assertThrows(TransferCommandNotFoundException.class, () -> transferCommandService.getCommand(new Id<>(9L)));
+    }
+
+    private TransferCommand command() {
+        return TransferCommand.transferCommand()
+                .id(new Id<>(5L))
+                .userId(userId)
+                .amount(amount)
+                .status(TransferCommandStatus.PENDING)
+                .build();
+    }
+}
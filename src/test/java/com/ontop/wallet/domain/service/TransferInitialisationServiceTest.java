@@ -12,9 +12,13 @@ import com.ontop.wallet.domain.valueobject.UserId;
 import com.ontop.wallet.domain.valueobject.WalletBalance;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
+import org.springframework.core.task.TaskRejectedException;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.Currency;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.locks.Lock;
 
 import static com.ontop.wallet.domain.enums.WalletTransactionOperation.WITHDRAWAL;
@@ -23,12 +27,16 @@ import static com.ontop.wallet.domain.service.ModelFactory.transferFrom;
 import static com.ontop.wallet.domain.service.ModelFactory.userAccount;
 import static com.ontop.wallet.domain.service.ModelFactory.walletTransaction;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
@@ -41,6 +49,7 @@ class TransferInitialisationServiceTest {
     private final TransferInitialisationFactory transferInitialisationFactory = INITIALISATION_FACTORY;
     private final LockService lockService = mock(LockService.class);
     private final TransferPaymentProcessingService paymentProcessingService = mock(TransferPaymentProcessingService.class);
+    private final PaymentRetryRepository paymentRetryRepository = mock(PaymentRetryRepository.class);
 
     private final TransferInitialisationService transferInitialisationService = new TransferInitialisationService(
             userWalletService,
@@ -48,7 +57,9 @@ class TransferInitialisationServiceTest {
             transferRepository,
             transferInitialisationFactory,
             lockService,
-            paymentProcessingService
+            paymentProcessingService,
+            paymentRetryRepository,
+            Runnable::run
     );
 
     @Nested
@@ -135,6 +146,28 @@ class TransferInitialisationServiceTest {
 
             verify(lock).unlock();
             verify(paymentProcessingService).processPayment(eq(new Id<>(transferId)));
+            verifyNoInteractions(paymentRetryRepository);
+        }
+
+        @Test
+        void shouldParkPaymentIfProcessingExecutorIsAtCapacity() throws AccountNotFoundException, ResourceLockedException {
+            final Money amount = Money.of(1000L);
+            final UserId userId = new UserId(101L);
+            final long transferId = 25L;
+
+            when(userAccountRepository.getUserAccount(userId)).thenReturn(userAccount());
+            when(lockService.getLock(anyString())).thenReturn(lock);
+            when(lock.tryLock()).thenReturn(true);
+            when(userWalletService.getUserWalletBalance(userId)).thenReturn(new WalletBalance(userId, Money.of(2500L)));
+            when(userWalletService.createTransaction(userId, amount, WITHDRAWAL)).thenReturn(walletTransaction(WITHDRAWAL));
+            when(transferRepository.save(any(Transfer.class))).then(i -> transferFrom(i.getArgument(0), transferId));
+            doThrow(new TaskRejectedException("queue full")).when(paymentProcessingService).processPayment(any());
+
+            final Transfer transfer = transferInitialisationService.initialiseTransfer(userId, amount);
+
+            assertEquals(TransferStatus.INITIALIZED, transfer.status());
+            verify(paymentRetryRepository).enqueue(eq(new Id<>(transferId)), eq(0), any(Instant.class));
+            verify(lock).unlock();
         }
 
         @Test
@@ -163,4 +196,76 @@ class TransferInitialisationServiceTest {
             verify(lock).unlock();
         }
     }
+
+    @Nested
+    class InitialiseTransferAsync {
+        private final Money amount = Money.of(1000L);
+        private final UserId userId = new UserId(101L);
+
+        @Test
+        void shouldSaveTransferAndReleaseLockOnceWalletCallsComplete() throws AccountNotFoundException, ResourceLockedException {
+            final CompletableFuture<WalletTransaction> withdrawal = new CompletableFuture<>();
+            final WalletTransaction walletTransaction = walletTransaction(WITHDRAWAL);
+            givenLockedUser();
+            when(userWalletService.getUserWalletBalanceAsync(userId))
+                    .thenReturn(CompletableFuture.completedFuture(new WalletBalance(userId, Money.of(2500L))));
+            when(userWalletService.createTransactionAsync(userId, amount, WITHDRAWAL)).thenReturn(withdrawal);
+            when(transferRepository.save(any(Transfer.class))).then(i -> transferFrom(i.getArgument(0), 40L));
+
+            final CompletableFuture<Transfer> transfer = transferInitialisationService.initialiseTransferAsync(userId, amount);
+
+            assertFalse(transfer.isDone());
+            verify(lock, never()).unlock();
+
+            withdrawal.complete(walletTransaction);
+
+            assertEquals(walletTransaction, transfer.join().getWithdrawal());
+            verify(paymentProcessingService).processPayment(eq(new Id<>(40L)));
+            verify(lock).unlock();
+        }
+
+        @Test
+        void shouldFailWithInsufficientFundsAndReleaseLock() throws AccountNotFoundException, ResourceLockedException {
+            givenLockedUser();
+            when(userWalletService.getUserWalletBalanceAsync(userId))
+                    .thenReturn(CompletableFuture.completedFuture(new WalletBalance(userId, Money.of(909L))));
+
+            final CompletableFuture<Transfer> transfer = transferInitialisationService.initialiseTransferAsync(userId, amount);
+
+            final CompletionException thrown = assertThrows(CompletionException.class, transfer::join);
+            assertEquals("INSUFFICIENT_FUNDS", assertInstanceOf(TransactionException.class, thrown.getCause()).code());
+            verify(userWalletService, never()).createTransactionAsync(any(), any(), any());
+            verifyNoInteractions(transferRepository);
+            verify(lock).unlock();
+        }
+
+        @Test
+        void shouldReleaseLockIfWalletCallFails() throws AccountNotFoundException, ResourceLockedException {
+            givenLockedUser();
+            when(userWalletService.getUserWalletBalanceAsync(userId))
+                    .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("wallet unavailable")));
+
+            final CompletableFuture<Transfer> transfer = transferInitialisationService.initialiseTransferAsync(userId, amount);
+
+            assertThrows(CompletionException.class, transfer::join);
+            verifyNoInteractions(transferRepository);
+            verify(lock).unlock();
+        }
+
+        @Test
+        void shouldThrowBeforeAnyWalletCallIfUserIsLocked() throws AccountNotFoundException {
+            when(userAccountRepository.getUserAccount(userId)).thenReturn(userAccount());
+            when(lockService.getLock(anyString())).thenReturn(lock);
+            when(lock.tryLock()).thenReturn(false);
+
+            assertThrows(ResourceLockedException.class, () -> transferInitialisationService.initialiseTransferAsync(userId, amount));
+            verifyNoInteractions(userWalletService);
+        }
+
+        private void givenLockedUser() throws AccountNotFoundException {
+            when(userAccountRepository.getUserAccount(userId)).thenReturn(userAccount());
+            when(lockService.getLock(anyString())).thenReturn(lock);
+            when(lock.tryLock()).thenReturn(true);
+        }
+    }
 }
@@ -2,19 +2,27 @@ package com.ontop.wallet.domain.service;
 
 import com.ontop.wallet.adapters.clients.PaymentProviderException;
 import com.ontop.wallet.domain.enums.PaymentStatus;
+import com.ontop.wallet.domain.enums.TransferEventType;
 import com.ontop.wallet.domain.enums.TransferStatus;
+import com.ontop.wallet.domain.exceptions.TransferConflictException;
 import com.ontop.wallet.domain.exceptions.TransferNotFoundException;
 import com.ontop.wallet.domain.model.OntopAccount;
 import com.ontop.wallet.domain.model.Payment;
 import com.ontop.wallet.domain.model.Transfer;
 import com.ontop.wallet.domain.valueobject.Id;
 import com.ontop.wallet.domain.valueobject.PaymentError;
+import org.apache.hc.client5.http.ConnectTimeoutException;
+import org.apache.hc.core5.http.ConnectionRequestTimeoutException;
 import org.junit.jupiter.api.DynamicTest;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestFactory;
-import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.web.client.ResourceAccessException;
 
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.time.Instant;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
@@ -34,8 +42,14 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.DynamicTest.dynamicTest;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
@@ -49,13 +63,15 @@ class TransferPaymentProcessingServiceTest {
     private final OntopAccountRepository ontopAccountRepository = mock(OntopAccountRepository.class);
     private final TransferReversalService transferReversalService = mock(TransferReversalService.class);
 
+    private final TransferStatusService transferStatusService = mock(TransferStatusService.class);
     private final TransferPaymentProcessingService paymentProcessingService = new TransferPaymentProcessingService(
             maxRetries,
             retryDelayFactorSeconds,
             transferRepository,
             paymentProvider,
             ontopAccountRepository,
-            transferReversalService
+            transferReversalService,
+            transferStatusService
     );
 
     @Nested
@@ -64,11 +80,11 @@ class TransferPaymentProcessingServiceTest {
         void shouldStopProcessingIfTransferNotFound() throws TransferNotFoundException {
             final Id<Transfer> transferId = new Id<>(11L);
 
-            when(transferRepository.findById(transferId)).thenThrow(new TransferNotFoundException("transfer not found"));
+            when(transferRepository.findForProcessing(transferId)).thenThrow(new TransferNotFoundException("transfer not found"));
 
             paymentProcessingService.processPayment(transferId);
 
-            verify(transferRepository).findById(transferId);
+            verify(transferRepository).findForProcessing(transferId);
             verifyNoInteractions(ontopAccountRepository);
             verifyNoInteractions(paymentProvider);
         }
@@ -82,7 +98,7 @@ class TransferPaymentProcessingServiceTest {
                     .entrySet()
                     .stream()
                     .map(entry -> dynamicTest(entry.getKey(), () -> {
-                        when(transferRepository.findById(transferId)).thenReturn(entry.getValue());
+                        when(transferRepository.findForProcessing(transferId)).thenReturn(entry.getValue());
 
                         paymentProcessingService.processPayment(transferId);
 
@@ -92,44 +108,44 @@ class TransferPaymentProcessingServiceTest {
         }
 
         @Test
-        void shouldRecordPaymentDetailsAndChangeTransferStatusToProcessingIfPaymentSucceeds() throws TransferNotFoundException {
+        void shouldRecordPaymentDetailsAndChangeTransferStatusToProcessingIfPaymentSucceeds() throws TransferNotFoundException, TransferConflictException {
             final Id<Transfer> transferId = new Id<>(13L);
             final Transfer transfer =  transferFrom(transferInit(), transferId.value());
             final OntopAccount ontopAccount = ontopAccount();
             final Payment payment = payment(PaymentStatus.PROCESSING);
             final TransferStatus transferStatusBeforeProcessing = transfer.status();
 
-            final ArgumentCaptor<Transfer> transferArgumentCaptor = ArgumentCaptor.forClass(Transfer.class);
-
-            when(transferRepository.findById(transferId)).thenReturn(transfer);
+            when(transferRepository.findForProcessing(transferId)).thenReturn(transfer);
             when(ontopAccountRepository.getAccount()).thenReturn(ontopAccount);
             when(paymentProvider.makePayment(transfer.id(), transfer.transferAmount(), transfer.targetAccount(), ontopAccount))
                     .thenReturn(payment);
 
             paymentProcessingService.processPayment(transferId);
 
-            verify(paymentProvider).makePayment(transfer.id(), transfer.transferAmount(), transfer.targetAccount(), ontopAccount);
-            verify(transferRepository).save(transferArgumentCaptor.capture());
+            final InOrder inOrder = inOrder(transferRepository, paymentProvider);
+            inOrder.verify(transferRepository).recordTransition(transfer, TransferEventType.PAYMENT_STARTED);
+            inOrder.verify(paymentProvider).makePayment(transfer.id(), transfer.transferAmount(), transfer.targetAccount(), ontopAccount);
+            inOrder.verify(transferRepository).appendPayment(transfer, payment);
+            inOrder.verify(transferRepository).recordTransition(transfer, TransferEventType.PAYMENT_ACCEPTED);
+            verify(transferRepository, never()).save(any(Transfer.class));
             verifyNoInteractions(transferReversalService);
-            final Transfer savedTransfer = transferArgumentCaptor.getValue();
+            verify(transferStatusService, times(3)).transferChanged(transferId);
 
             assertEquals(TransferStatus.INITIALIZED, transferStatusBeforeProcessing);
-            assertEquals(payment, savedTransfer.currentPayment());
-            assertEquals(PROCESSING, savedTransfer.status());
-            assertNotEquals(transferStatusBeforeProcessing, savedTransfer.status());
+            assertEquals(payment, transfer.currentPayment());
+            assertEquals(PROCESSING, transfer.status());
+            assertNotEquals(transferStatusBeforeProcessing, transfer.status());
         }
 
         @Test
-        void shouldRecordPaymentDetailsAndInitiateReverseIfPaymentFailsAndIsNotRetryable() throws TransferNotFoundException {
+        void shouldRecordPaymentDetailsAndInitiateReverseIfPaymentFailsAndIsNotRetryable() throws TransferNotFoundException, TransferConflictException {
             final Id<Transfer> transferId = new Id<>(14L);
             final Transfer transfer =  transferFrom(transferInit(), transferId.value());
             final OntopAccount ontopAccount = ontopAccount();
             final Payment payment = payment(PaymentStatus.FAILED);
             final TransferStatus transferStatusBeforeProcessing = transfer.status();
 
-            final ArgumentCaptor<Transfer> transferArgumentCaptor = ArgumentCaptor.forClass(Transfer.class);
-
-            when(transferRepository.findById(transferId)).thenReturn(transfer);
+            when(transferRepository.findForProcessing(transferId)).thenReturn(transfer);
             when(ontopAccountRepository.getAccount()).thenReturn(ontopAccount);
             when(paymentProvider.makePayment(transfer.id(), transfer.transferAmount(), transfer.targetAccount(), ontopAccount))
                     .thenReturn(payment);
@@ -137,53 +153,50 @@ class TransferPaymentProcessingServiceTest {
             paymentProcessingService.processPayment(transferId);
 
             verify(paymentProvider).makePayment(transfer.id(), transfer.transferAmount(), transfer.targetAccount(), ontopAccount);
-            verify(transferRepository).save(transferArgumentCaptor.capture());
+            verify(transferRepository).appendPayment(transfer, payment);
+            verify(transferRepository).recordTransition(transfer, TransferEventType.FAILED);
             verify(transferReversalService).reverseTransfer(eq(transferId));
-            final Transfer savedTransfer = transferArgumentCaptor.getValue();
 
             assertEquals(TransferStatus.INITIALIZED, transferStatusBeforeProcessing);
-            assertEquals(payment, savedTransfer.currentPayment());
-            assertEquals(TransferStatus.FAILED, savedTransfer.status());
-            assertNotEquals(transferStatusBeforeProcessing, savedTransfer.status());
+            assertEquals(payment, transfer.currentPayment());
+            assertEquals(TransferStatus.FAILED, transfer.status());
+            assertNotEquals(transferStatusBeforeProcessing, transfer.status());
         }
 
         @Test
-        void shouldRecordPaymentDetailsAndRetryPaymentIfPaymentFailsAndIsRetryable() throws TransferNotFoundException {
+        void shouldRecordPaymentDetailsAndRetryPaymentIfPaymentFailsAndIsRetryable() throws TransferNotFoundException, TransferConflictException {
             final Id<Transfer> transferId = new Id<>(15L);
             final Transfer transfer =  transferFrom(transferInit(), transferId.value());
             final OntopAccount ontopAccount = ontopAccount();
             final Payment payment = payment(PaymentStatus.FAILED, new PaymentError("timeout"));
             final TransferStatus transferStatusBeforeProcessing = transfer.status();
 
-            final ArgumentCaptor<Transfer> transferArgumentCaptor = ArgumentCaptor.forClass(Transfer.class);
-
-            when(transferRepository.findById(transferId)).thenReturn(transfer);
+            when(transferRepository.findForProcessing(transferId)).thenReturn(transfer);
             when(ontopAccountRepository.getAccount()).thenReturn(ontopAccount);
             when(paymentProvider.makePayment(transfer.id(), transfer.transferAmount(), transfer.targetAccount(), ontopAccount))
                     .thenReturn(payment);
 
             paymentProcessingService.processPayment(transferId);
 
-            verify(transferRepository).save(transferArgumentCaptor.capture());
             verify(paymentProvider).makePayment(transfer.id(), transfer.transferAmount(), transfer.targetAccount(), ontopAccount);
+            verify(transferRepository).appendPayment(transfer, payment);
+            verify(transferRepository).recordTransition(transfer, TransferEventType.PAYMENT_STARTED);
+            verify(transferRepository).recordRetryScheduled(eq(transfer), eq(1), any(Instant.class));
             verifyNoInteractions(transferReversalService);
-            final Transfer savedTransfer = transferArgumentCaptor.getValue();
 
             assertEquals(TransferStatus.INITIALIZED, transferStatusBeforeProcessing);
-            assertEquals(payment, savedTransfer.currentPayment());
-            assertEquals(transferStatusBeforeProcessing, savedTransfer.status());
+            assertEquals(payment, transfer.currentPayment());
+            assertEquals(transferStatusBeforeProcessing, transfer.status());
         }
 
         @Test
-        void shouldInitiateReverseIfPaymentProcessingFails() throws TransferNotFoundException {
+        void shouldInitiateReverseIfPaymentProcessingFails() throws TransferNotFoundException, TransferConflictException {
             final Id<Transfer> transferId = new Id<>(16L);
             final Transfer transfer =  transferFrom(transferInit(), transferId.value());
             final OntopAccount ontopAccount = ontopAccount();
             final TransferStatus transferStatusBeforeProcessing = transfer.status();
 
-            final ArgumentCaptor<Transfer> transferArgumentCaptor = ArgumentCaptor.forClass(Transfer.class);
-
-            when(transferRepository.findById(transferId)).thenReturn(transfer);
+            when(transferRepository.findForProcessing(transferId)).thenReturn(transfer);
             when(ontopAccountRepository.getAccount()).thenReturn(ontopAccount);
             when(paymentProvider.makePayment(transfer.id(), transfer.transferAmount(), transfer.targetAccount(), ontopAccount))
                     .thenThrow(new PaymentProviderException("payment processing failed"));
@@ -191,26 +204,23 @@ class TransferPaymentProcessingServiceTest {
             paymentProcessingService.processPayment(transferId);
 
             verify(paymentProvider).makePayment(transfer.id(), transfer.transferAmount(), transfer.targetAccount(), ontopAccount);
-            verify(transferRepository).save(transferArgumentCaptor.capture());
+            verify(transferRepository).recordTransition(transfer, TransferEventType.FAILED);
             verify(transferReversalService).reverseTransfer(eq(transferId));
-            final Transfer savedTransfer = transferArgumentCaptor.getValue();
 
             assertEquals(TransferStatus.INITIALIZED, transferStatusBeforeProcessing);
-            assertTrue(savedTransfer.payments().isEmpty());
-            assertEquals(TransferStatus.FAILED, savedTransfer.status());
-            assertNotEquals(transferStatusBeforeProcessing, savedTransfer.status());
+            assertTrue(transfer.payments().isEmpty());
+            assertEquals(TransferStatus.FAILED, transfer.status());
+            assertNotEquals(transferStatusBeforeProcessing, transfer.status());
         }
 
         @Test
-        void shouldChangeTransferStatusToUnknownIfPaymentProcessingErrors() throws TransferNotFoundException {
+        void shouldChangeTransferStatusToUnknownIfPaymentProcessingErrors() throws TransferNotFoundException, TransferConflictException {
             final Id<Transfer> transferId = new Id<>(17L);
             final Transfer transfer =  transferFrom(transferInit(), transferId.value());
             final OntopAccount ontopAccount = ontopAccount();
             final TransferStatus transferStatusBeforeProcessing = transfer.status();
 
-            final ArgumentCaptor<Transfer> transferArgumentCaptor = ArgumentCaptor.forClass(Transfer.class);
-
-            when(transferRepository.findById(transferId)).thenReturn(transfer);
+            when(transferRepository.findForProcessing(transferId)).thenReturn(transfer);
             when(ontopAccountRepository.getAccount()).thenReturn(ontopAccount);
             when(paymentProvider.makePayment(transfer.id(), transfer.transferAmount(), transfer.targetAccount(), ontopAccount))
                     .thenThrow(new RuntimeException());
@@ -218,14 +228,55 @@ class TransferPaymentProcessingServiceTest {
             paymentProcessingService.processPayment(transferId);
 
             verify(paymentProvider).makePayment(transfer.id(), transfer.transferAmount(), transfer.targetAccount(), ontopAccount);
-            verify(transferRepository).save(transferArgumentCaptor.capture());
+            verify(transferRepository).recordTransition(transfer, TransferEventType.PAYMENT_ERRORED);
             verifyNoInteractions(transferReversalService);
-            final Transfer savedTransfer = transferArgumentCaptor.getValue();
 
             assertEquals(TransferStatus.INITIALIZED, transferStatusBeforeProcessing);
-            assertTrue(savedTransfer.payments().isEmpty());
-            assertEquals(TransferStatus.UNKNOWN, savedTransfer.status());
-            assertNotEquals(transferStatusBeforeProcessing, savedTransfer.status());
+            assertTrue(transfer.payments().isEmpty());
+            assertEquals(TransferStatus.UNKNOWN, transfer.status());
+            assertNotEquals(transferStatusBeforeProcessing, transfer.status());
+        }
+
+        @Test
+        void shouldNotPayIfPaymentWasClaimedByAnotherWorker() throws TransferNotFoundException, TransferConflictException {
+            final Id<Transfer> transferId = new Id<>(18L);
+            final Transfer transfer =  transferFrom(transferInit(), transferId.value());
+
+            when(transferRepository.findForProcessing(transferId)).thenReturn(transfer);
+            doThrow(new TransferConflictException("transfer changed"))
+                    .when(transferRepository).recordTransition(transfer, TransferEventType.PAYMENT_STARTED);
+
+            paymentProcessingService.processPayment(transferId);
+
+            verifyNoInteractions(paymentProvider);
+            verify(transferRepository, never()).appendPayment(any(Transfer.class), any(Payment.class));
+            verifyNoInteractions(transferReversalService);
+            verify(transferRepository, never()).recordRetryScheduled(any(Transfer.class), anyInt(), any(Instant.class));
+            assertEquals(TransferStatus.INITIALIZED, transfer.status());
+        }
+
+        @TestFactory
+        Collection<DynamicTest> shouldRetryPaymentIfRequestTimesOut() {
+            final AtomicInteger transferIds = new AtomicInteger(40);
+            return Map.<String, IOException>of(
+                    "read timeout", new SocketTimeoutException("Read timed out"),
+                    "connect timeout", new ConnectTimeoutException("Connect timed out"),
+                    "connection pool lease timeout", new ConnectionRequestTimeoutException("Timeout deadline: 2000 MILLISECONDS")
+            ).entrySet().stream().map(entry -> dynamicTest(entry.getKey(), () -> {
+                final Id<Transfer> transferId = new Id<>((long) transferIds.incrementAndGet());
+                final Transfer transfer =  transferFrom(transferInit(), transferId.value());
+                final OntopAccount ontopAccount = ontopAccount();
+
+                when(transferRepository.findForProcessing(transferId)).thenReturn(transfer);
+                when(ontopAccountRepository.getAccount()).thenReturn(ontopAccount);
+                when(paymentProvider.makePayment(transfer.id(), transfer.transferAmount(), transfer.targetAccount(), ontopAccount))
+                        .thenThrow(new ResourceAccessException(entry.getValue().getMessage(), entry.getValue()));
+
+                paymentProcessingService.processPayment(transferId);
+
+                verify(transferRepository).recordRetryScheduled(eq(transfer), eq(1), any(Instant.class));
+                assertEquals(TransferStatus.INITIALIZED, transfer.status());
+            })).collect(Collectors.toList());
         }
 
         private Map<String, Transfer> transfersWithInvalidState() {
@@ -1,19 +1,26 @@
 package com.ontop.wallet.domain.service;
 
+import com.ontop.wallet.domain.enums.TransferEventType;
 import com.ontop.wallet.domain.enums.TransferStatus;
+import com.ontop.wallet.domain.exceptions.TransferConflictException;
 import com.ontop.wallet.domain.exceptions.TransferNotFoundException;
 import com.ontop.wallet.domain.model.Transfer;
 import com.ontop.wallet.domain.model.WalletTransaction;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
-import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 
 import static com.ontop.wallet.domain.enums.WalletTransactionOperation.REFUND;
 import static com.ontop.wallet.domain.service.ModelFactory.transferBuilder;
 import static com.ontop.wallet.domain.service.ModelFactory.walletTransaction;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
@@ -21,7 +28,9 @@ import static org.mockito.Mockito.when;
 class TransferReversalServiceTest {
     private final TransferRepository transferRepository = mock(TransferRepository.class);
     private final UserWalletService userWalletService = mock(UserWalletService.class);
-    private final TransferReversalService transferReversalService = new TransferReversalService(transferRepository, userWalletService);
+    private final TransferStatusService transferStatusService = mock(TransferStatusService.class);
+    private final TransferReversalService transferReversalService = new TransferReversalService(
+            transferRepository, userWalletService, transferStatusService);
 
     @Nested
     class ReverseTransfer {
@@ -29,7 +38,7 @@ class TransferReversalServiceTest {
         void shouldNotReverseTransferIfTransferStateIsInvalid() throws TransferNotFoundException {
             final Transfer transfer = transferBuilder().status(TransferStatus.INITIALIZED).build();
 
-            when(transferRepository.findById(transfer.id())).thenReturn(transfer);
+            when(transferRepository.findForProcessing(transfer.id())).thenReturn(transfer);
             transferReversalService.reverseTransfer(transfer.id());
 
             verifyNoInteractions(userWalletService);
@@ -39,24 +48,40 @@ class TransferReversalServiceTest {
         }
 
         @Test
-        void shouldReverseTransferIfRefundIsSuccessful() throws TransferNotFoundException {
+        void shouldReverseTransferIfRefundIsSuccessful() throws TransferNotFoundException, TransferConflictException {
             final Transfer transfer = transferBuilder().status(TransferStatus.FAILED).build();
             final TransferStatus transferStatusBeforeReversal = transfer.status();
             final WalletTransaction withdrawal = transfer.getWithdrawal();
             final WalletTransaction refund = walletTransaction(REFUND);
-            final ArgumentCaptor<Transfer> transferArgumentCaptor = ArgumentCaptor.forClass(Transfer.class);
 
-            when(transferRepository.findById(transfer.id())).thenReturn(transfer);
+            when(transferRepository.findForProcessing(transfer.id())).thenReturn(transfer);
             when(userWalletService.createTransaction(withdrawal.userId(), withdrawal.amount().negate(), REFUND))
                     .thenReturn(refund);
             transferReversalService.reverseTransfer(transfer.id());
 
-            verify(transferRepository).save(transferArgumentCaptor.capture());
-            final Transfer savedTransfer = transferArgumentCaptor.getValue();
+            final InOrder inOrder = inOrder(transferRepository, userWalletService);
+            inOrder.verify(transferRepository).recordTransition(transfer, TransferEventType.REVERSAL_STARTED);
+            inOrder.verify(userWalletService).createTransaction(withdrawal.userId(), withdrawal.amount().negate(), REFUND);
+            inOrder.verify(transferRepository).recordReversal(transfer, refund);
+            verify(transferStatusService, times(2)).transferChanged(transfer.id());
+            verify(transferRepository, never()).save(any(Transfer.class));
 
-            assertEquals(TransferStatus.REVERSED, savedTransfer.status());
-            assertNotEquals(transferStatusBeforeReversal, savedTransfer.status());
+            assertEquals(TransferStatus.REVERSED, transfer.status());
+            assertNotEquals(transferStatusBeforeReversal, transfer.status());
             assertEquals(2, transfer.walletTransactions().size());
         }
+
+        @Test
+        void shouldNotRefundIfReversalWasClaimedByAnotherWorker() throws TransferNotFoundException, TransferConflictException {
+            final Transfer transfer = transferBuilder().status(TransferStatus.FAILED).build();
+
+            when(transferRepository.findForProcessing(transfer.id())).thenReturn(transfer);
+            doThrow(new TransferConflictException("transfer changed"))
+                    .when(transferRepository).recordTransition(transfer, TransferEventType.REVERSAL_STARTED);
+            transferReversalService.reverseTransfer(transfer.id());
+
+            verifyNoInteractions(userWalletService);
+            verify(transferRepository, never()).recordReversal(any(Transfer.class), any(WalletTransaction.class));
+        }
     }
 }
@@ -0,0 +1,117 @@
+package com.ontop.wallet.domain.service;
+
+import com.ontop.wallet.domain.enums.TransferStatus;
+import com.ontop.wallet.domain.exceptions.TransferNotFoundException;
+import com.ontop.wallet.domain.model.Transfer;
+import com.ontop.wallet.domain.model.TransferSummary;
+import com.ontop.wallet.domain.valueobject.Id;
+import com.ontop.wallet.domain.valueobject.Money;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class TransferStatusServiceTest {
+    private final Id<Transfer> transferId = new Id<>(13L);
+    private final TransferRepository transferRepository = mock(TransferRepository.class);
+    private final TransferStatusService transferStatusService = new TransferStatusService(2, transferRepository);
+
+    @Nested
+    class AwaitChange {
+        @Test
+        void shouldWakeEveryWaiterWithOneReadOfTheChangedTransfer() throws TransferNotFoundException {
+            final TransferSummary initialised = summary(TransferStatus.INITIALIZED, 0L);
+            final TransferSummary processing = summary(TransferStatus.PROCESSING, 2L);
+            when(transferRepository.findSummaryById(transferId)).thenReturn(initialised, initialised, processing);
+
+            final CompletableFuture<Optional<TransferSummary>> first = transferStatusService.awaitChange(initialised, Duration.ofSeconds(30));
+            final CompletableFuture<Optional<TransferSummary>> second = transferStatusService.awaitChange(initialised, Duration.ofSeconds(30));
+            assertFalse(first.isDone());
+
+            transferStatusService.transferChanged(transferId);
+
+            assertEquals(Optional.of(processing), first.join());
+            assertEquals(Optional.of(processing), second.join());
+            verify(transferRepository, times(3)).findSummaryById(transferId);
+        }
+
+        @Test
+        void shouldCompleteAtOnceIfTransferChangedBeforeRegistering() throws TransferNotFoundException {
+            final TransferSummary processing = summary(TransferStatus.PROCESSING, 2L);
+            when(transferRepository.findSummaryById(transferId)).thenReturn(processing);
+
+            final CompletableFuture<Optional<TransferSummary>> change =
+                    transferStatusService.awaitChange(summary(TransferStatus.INITIALIZED, 0L), Duration.ofSeconds(30));
+
+            assertEquals(Optional.of(processing), change.getNow(null));
+        }
+
+        @Test
+        void shouldCompleteEmptyIfTransferDoesNotChangeInTime() throws TransferNotFoundException {
+            final TransferSummary initialised = summary(TransferStatus.INITIALIZED, 0L);
+            when(transferRepository.findSummaryById(transferId)).thenReturn(initialised);
+
+            assertEquals(Optional.empty(), transferStatusService.awaitChange(initialised, Duration.ofMillis(10)).join());
+
+            transferStatusService.transferChanged(transferId);
+            verify(transferRepository, times(1)).findSummaryById(transferId);
+        }
+
+        @Test
+        void shouldNotHoldMoreThanMaxWaiters() throws TransferNotFoundException {
+            final TransferSummary initialised = summary(TransferStatus.INITIALIZED, 0L);
+            when(transferRepository.findSummaryById(transferId)).thenReturn(initialised);
+            transferStatusService.awaitChange(initialised, Duration.ofSeconds(30));
+            transferStatusService.awaitChange(initialised, Duration.ofSeconds(30));
+
+            final CompletableFuture<Optional<TransferSummary>> third = transferStatusService.awaitChange(initialised, Duration.ofSeconds(30));
+
+            assertTrue(third.isDone());
+            assertEquals(Optional.empty(), third.join());
+        }
+    }
+
+    @Nested
+    class TransferChanged {
+        @Test
+        void shouldNotReadTransferWithoutWaiters() {
+            transferStatusService.transferChanged(transferId);
+
+            verifyNoInteractions(transferRepository);
+        }
+
+        @Test
+        void shouldNotThrowIfReadingTransferFails() throws TransferNotFoundException {
+            final TransferSummary initialised = summary(TransferStatus.INITIALIZED, 0L);
+            when(transferRepository.findSummaryById(any())).thenReturn(initialised).thenThrow(new IllegalStateException("unavailable"));
+            final CompletableFuture<Optional<TransferSummary>> change = transferStatusService.awaitChange(initialised, Duration.ofSeconds(30));
+
+            transferStatusService.transferChanged(transferId);
+
+            assertFalse(change.isDone());
+        }
+    }
+
+    private TransferSummary summary(TransferStatus status, long version) {
+        return TransferSummary.transferSummary()
+                .id(transferId)
+                .status(status)
+                .transferAmount(Money.of(100L))
+                .transferCharge(Money.of(10L))
+                .currency(Money.DEFAULT_CURRENCY)
+                .version(version)
+                .build();
+    }
+}
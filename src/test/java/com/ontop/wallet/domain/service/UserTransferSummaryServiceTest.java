@@ -0,0 +1,76 @@
+package com.ontop.wallet.domain.service;
+
+import com.ontop.wallet.domain.enums.TransferStatus;
+import com.ontop.wallet.domain.model.Transfer;
+import com.ontop.wallet.domain.model.UserTransferSummary;
+import com.ontop.wallet.domain.valueobject.UserId;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+import static com.ontop.wallet.domain.service.ModelFactory.transferBuilder;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class UserTransferSummaryServiceTest {
+    private final UserId userId = new UserId(101L);
+    private final UserTransferSummaryRepository userTransferSummaryRepository = mock(UserTransferSummaryRepository.class);
+    private final UserTransferSummaryService userTransferSummaryService = new UserTransferSummaryService(userTransferSummaryRepository);
+
+    @Nested
+    class GetSummary {
+        @Test
+        void shouldReturnEmptySummaryForUserWithoutTransfers() {
+            when(userTransferSummaryRepository.findByUserId(userId)).thenReturn(Optional.empty());
+
+            final UserTransferSummary summary = userTransferSummaryService.getSummary(userId);
+
+            assertEquals(0, BigDecimal.ZERO.compareTo(summary.pendingAmount().value()));
+            assertEquals(0L, summary.countByStatus().get(TransferStatus.INITIALIZED));
+            assertNull(summary.lastTransferAt());
+            assertEquals(UserTransferSummary.dayOf(Instant.now()), summary.day());
+        }
+
+        @Test
+        void shouldNotCountDailyTotalsOfAnEarlierDay() {
+            final UserTransferSummary recorded = UserTransferSummary.empty(userId);
+            recorded.recordCreated(transferCreated(Instant.now().minus(Duration.ofDays(1))));
+            when(userTransferSummaryRepository.findByUserId(userId)).thenReturn(Optional.of(recorded));
+
+            final UserTransferSummary summary = userTransferSummaryService.getSummary(userId);
+
+            assertEquals(0, BigDecimal.ZERO.compareTo(summary.dayWithdrawnAmount().value()));
+            assertEquals(0, summary.dayTransferCount());
+            assertEquals(0, BigDecimal.valueOf(100).compareTo(summary.pendingAmount().value()));
+            assertEquals(1L, summary.countByStatus().get(TransferStatus.INITIALIZED));
+        }
+
+        @Test
+        void shouldReleasePendingAmountOnceTransferIsReversed() {
+            final Transfer transfer = transferCreated(Instant.now());
+            final UserTransferSummary recorded = UserTransferSummary.empty(userId);
+            recorded.recordCreated(transfer);
+            recorded.recordTransition(transfer, TransferStatus.INITIALIZED, TransferStatus.FAILED);
+            assertEquals(0, BigDecimal.valueOf(100).compareTo(recorded.pendingAmount().value()));
+            recorded.recordTransition(transfer, TransferStatus.FAILED, TransferStatus.REVERSED);
+            when(userTransferSummaryRepository.findByUserId(userId)).thenReturn(Optional.of(recorded));
+
+            final UserTransferSummary summary = userTransferSummaryService.getSummary(userId);
+
+            assertEquals(0, BigDecimal.ZERO.compareTo(summary.pendingAmount().value()));
+            assertEquals(0, BigDecimal.ZERO.compareTo(summary.dayWithdrawnAmount().value()));
+            assertEquals(1, summary.dayTransferCount());
+            assertEquals(1L, summary.countByStatus().get(TransferStatus.REVERSED));
+        }
+    }
+
+    private Transfer transferCreated(Instant created) {
+        return transferBuilder().created(created).build();
+    }
+}
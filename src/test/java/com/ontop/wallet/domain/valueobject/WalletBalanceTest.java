@@ -5,6 +5,7 @@ import org.junit.jupiter.api.Test;
 
 import java.math.BigDecimal;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -33,4 +34,17 @@ class WalletBalanceTest {
             assertFalse(balance.mayWithdraw(null));
         }
     }
+
+    @Nested
+    class AdjustedBy {
+        @Test
+        void shouldDeductNegativeAmount() {
+            assertEquals(Money.of(BigDecimal.valueOf(7L)), balance.adjustedBy(Money.of(BigDecimal.valueOf(-3L))).balance());
+        }
+
+        @Test
+        void shouldAddPositiveAmount() {
+            assertEquals(Money.of(BigDecimal.valueOf(13L)), balance.adjustedBy(Money.of(BigDecimal.valueOf(3L))).balance());
+        }
+    }
 }